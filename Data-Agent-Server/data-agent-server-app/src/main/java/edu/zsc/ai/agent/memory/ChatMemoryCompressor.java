@@ -56,11 +56,24 @@ public class ChatMemoryCompressor {
      * @return compressed message list, or the original list if compression was not needed / failed
      */
     public List<ChatMessage> compressIfNeeded(Long conversationId, String modelName, List<ChatMessage> messages) {
+        return compressIfNeeded(conversationId, modelName, messages, null);
+    }
+
+    /**
+     * Same as {@link #compressIfNeeded(Long, String, List)}, but adds the locally counted tokens of messages appended
+     * since the provider last reported the conversation size. The report only covers the previous turn, so a large
+     * message or tool result appended since would otherwise go unnoticed until the request overflows. Before the first
+     * report the local count of all messages is used.
+     */
+    public List<ChatMessage> compressIfNeeded(Long conversationId,
+                                              String modelName,
+                                              List<ChatMessage> messages,
+                                              ContextTokenCount contextTokenCount) {
         if (modelName == null || messages.size() < MIN_MESSAGES_FOR_COMPRESSION) {
             return messages;
         }
 
-        CompressionCheck check = getCompressionCheck(conversationId, modelName);
+        CompressionCheck check = getCompressionCheck(conversationId, modelName, contextTokenCount);
         if (!check.exceeded()) {
             return messages;
         }
@@ -192,14 +205,23 @@ public class ChatMemoryCompressor {
         return CompactionContextSupport.isCompactionContextMessage(message);
     }
 
-    private CompressionCheck getCompressionCheck(Long conversationId, String modelName) {
+    private CompressionCheck getCompressionCheck(Long conversationId,
+                                                 String modelName,
+                                                 ContextTokenCount contextTokenCount) {
         AiConversation conversation = aiConversationService.getById(conversationId);
-        if (conversation == null || conversation.getTokenCount() == null) {
+        Integer reportedTokenCount = conversation == null ? null : conversation.getTokenCount();
+        Integer tokenCount;
+        if (reportedTokenCount != null) {
+            tokenCount = contextTokenCount == null ? reportedTokenCount
+                    : reportedTokenCount + contextTokenCount.unreported();
+        } else {
+            tokenCount = contextTokenCount == null ? null : contextTokenCount.total();
+        }
+        if (tokenCount == null) {
             return CompressionCheck.notExceeded(null, resolveMemoryThreshold(modelName));
         }
 
         int threshold = resolveMemoryThreshold(modelName);
-        Integer tokenCount = conversation.getTokenCount();
         return new CompressionCheck(tokenCount, threshold, tokenCount >= threshold);
     }
 
@@ -388,6 +410,13 @@ public class ChatMemoryCompressor {
         return fields;
     }
 
+    /**
+     * Locally counted context size: {@code total} over all messages, {@code unreported} over the messages appended
+     * since the provider last reported the conversation's token count.
+     */
+    public record ContextTokenCount(int total, int unreported) {
+    }
+
     private record ManualCompressionResult(
             List<ChatMessage> messages,
             Integer tokenCountBefore,
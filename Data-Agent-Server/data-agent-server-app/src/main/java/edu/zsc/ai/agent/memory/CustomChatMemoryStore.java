@@ -4,6 +4,7 @@ import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.ChatMessageDeserializer;
 import dev.langchain4j.data.message.ChatMessageType;
 import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.domain.model.entity.ai.StoredChatMessage;
 import edu.zsc.ai.domain.service.ai.AiConversationService;
 import edu.zsc.ai.domain.service.ai.AiMessageService;
@@ -24,6 +25,7 @@ public class CustomChatMemoryStore implements ChatMemoryStore {
     private final AiMessageService aiMessageService;
     private final AiConversationService aiConversationService;
     private final ChatMemoryCompressor compressor;
+    private final TokenizerService tokenizerService;
 
     @Override
     public List<ChatMessage> getMessages(Object memoryId) {
@@ -39,12 +41,49 @@ public class CustomChatMemoryStore implements ChatMemoryStore {
             return List.of();
         }
 
-        List<ChatMessage> messages = stored.stream()
-                .map(item -> ChatMessageDeserializer.messageFromJson(item.getData()))
-                .toList();
+        List<ChatMessage> messages = new ArrayList<>(stored.size());
+        int[] tokenCounts = new int[stored.size()];
+        for (int i = 0; i < stored.size(); i++) {
+            StoredChatMessage item = stored.get(i);
+            ChatMessage message = ChatMessageDeserializer.messageFromJson(item.getData());
+            messages.add(message);
+            tokenCounts[i] = storedTokenCount(item, message);
+        }
         List<ChatMessage> ordered = moveCompactionContextToFront(messages);
 
-        return compressor.compressIfNeeded(idInfo.conversationId(), idInfo.modelName(), ordered);
+        return compressor.compressIfNeeded(idInfo.conversationId(), idInfo.modelName(), ordered,
+                contextTokenCount(messages, tokenCounts));
+    }
+
+    /**
+     * Uses the count saved with the message; rows written before counts were stored hold 0 and are counted here.
+     */
+    private int storedTokenCount(StoredChatMessage item, ChatMessage message) {
+        Integer tokenCount = item.getTokenCount();
+        return tokenCount != null && tokenCount > 0 ? tokenCount : tokenizerService.countMessage(message);
+    }
+
+    /**
+     * The provider reports the conversation size when a turn completes, so everything from the latest user message
+     * on (the new question and the current turn's tool calls and results) is not covered by that report yet.
+     */
+    static ChatMemoryCompressor.ContextTokenCount contextTokenCount(List<ChatMessage> messages, int[] tokenCounts) {
+        int turnStart = 0;
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).type() == ChatMessageType.USER) {
+                turnStart = i;
+                break;
+            }
+        }
+        int total = 0;
+        int unreported = 0;
+        for (int i = 0; i < tokenCounts.length; i++) {
+            total += tokenCounts[i];
+            if (i >= turnStart) {
+                unreported += tokenCounts[i];
+            }
+        }
+        return new ChatMemoryCompressor.ContextTokenCount(total, unreported);
     }
 
     static List<ChatMessage> moveCompactionContextToFront(List<ChatMessage> messages) {
@@ -3,8 +3,10 @@ package edu.zsc.ai.agent.subagent;
 import edu.zsc.ai.common.constant.InvocationContextConstant;
 import edu.zsc.ai.common.enums.ai.AgentTypeEnum;
 import edu.zsc.ai.config.ai.AiModelCatalog;
+import edu.zsc.ai.context.AgentExecutionContext;
 import edu.zsc.ai.context.AgentRequestContext;
 import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.domain.service.db.impl.SqlStatementRegistry;
 import org.slf4j.Logger;
 
 import java.util.HashMap;
@@ -34,6 +36,10 @@ public abstract class AbstractSubAgent<I, O> implements SubAgent<I, O> {
         Map<String, Object> invocationContext = new HashMap<>(RequestContext.toMap());
         invocationContext.putAll(AgentRequestContext.toMap());
         invocationContext.put(InvocationContextConstant.AGENT_TYPE, agentType.getCode());
+        String taskId = AgentExecutionContext.getTaskId();
+        if (taskId != null) {
+            invocationContext.put(InvocationContextConstant.TASK_ID, taskId);
+        }
         return invocationContext;
     }
 
@@ -45,6 +51,13 @@ public abstract class AbstractSubAgent<I, O> implements SubAgent<I, O> {
         return SubAgentTextSupport.summarizeObjects(objects);
     }
 
+    /**
+     * Stops JDBC statements the sub-agent's tools still have running after a timeout or interrupt.
+     */
+    protected void cancelRunningStatements(String taskId) {
+        SqlStatementRegistry.cancelTask(taskId);
+    }
+
     protected Throwable rootCause(Throwable throwable) {
         return SubAgentTextSupport.rootCause(throwable);
     }
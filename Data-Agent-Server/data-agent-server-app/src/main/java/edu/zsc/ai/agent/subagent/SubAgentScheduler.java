@@ -0,0 +1,274 @@
+package edu.zsc.ai.agent.subagent;
+
+import edu.zsc.ai.config.ai.ExplorerSubAgentExecutorConfig;
+import edu.zsc.ai.config.ai.SubAgentProperties;
+import edu.zsc.ai.context.RequestContextTaskDecorator;
+import edu.zsc.ai.metrics.AgentMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Fair-share dispatcher in front of the explorer executor.
+ * <p>
+ * Each user has its own FIFO queue and the next free slot goes to the user that was served least recently, so one
+ * user fanning out many explorations cannot starve other users. A task only starts while its user and conversation
+ * are below their running quotas ({@code agent.sub-agent.explorer.dispatch.max-per-user / max-per-conversation})
+ * and the global
+ * {@code max-concurrency} has a free slot. Cancelling the returned future drops a queued task, or interrupts a
+ * running one; the slot of a running task is released when the worker returns, and that of a dispatched task the
+ * executor never started is released by the cancellation itself.
+ */
+@Slf4j
+@Component
+public class SubAgentScheduler {
+
+    private static final Long ANONYMOUS = 0L;
+
+    private final ExecutorService executor;
+    private final SubAgentProperties properties;
+    private final RequestContextTaskDecorator requestContextTaskDecorator;
+    private final AgentMetrics agentMetrics;
+
+    private final Object lock = new Object();
+    private final Map<Long, Deque<ScheduledTask<?>>> queuedByUser = new HashMap<>();
+    /** Dispatch sequence number of each active user's most recently started task. */
+    private final Map<Long, Long> lastServedByUser = new HashMap<>();
+    private final Map<Long, Integer> runningByUser = new HashMap<>();
+    private final Map<Long, Integer> runningByConversation = new HashMap<>();
+    private long dispatchSequence;
+    private int queuedCount;
+    private int runningCount;
+
+    public SubAgentScheduler(
+            @Qualifier(ExplorerSubAgentExecutorConfig.EXPLORER_SUB_AGENT_EXECUTOR_BEAN) ExecutorService executor,
+            SubAgentProperties properties,
+            RequestContextTaskDecorator requestContextTaskDecorator,
+            AgentMetrics agentMetrics) {
+        this.executor = executor;
+        this.properties = properties;
+        this.requestContextTaskDecorator = requestContextTaskDecorator;
+        this.agentMetrics = agentMetrics;
+    }
+
+    public <T> CompletableFuture<T> submit(Long userId, Long conversationId, Supplier<T> work) {
+        ScheduledTask<T> task = new ScheduledTask<>(
+                Objects.requireNonNullElse(userId, ANONYMOUS),
+                Objects.requireNonNullElse(conversationId, ANONYMOUS),
+                work);
+        // Capture the submitter's request context and span now; dispatch may happen on another task's worker.
+        task.runnable = requestContextTaskDecorator.decorate(() -> run(task));
+        task.result.whenComplete((ignored, error) -> {
+            if (task.result.isCancelled()) {
+                cancel(task);
+            }
+        });
+        synchronized (lock) {
+            queuedByUser.computeIfAbsent(task.userId, ignored -> new ArrayDeque<>()).addLast(task);
+            queuedCount++;
+        }
+        dispatch();
+        return task.result;
+    }
+
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return queuedCount;
+        }
+    }
+
+    public int getRunningCount() {
+        synchronized (lock) {
+            return runningCount;
+        }
+    }
+
+    private void dispatch() {
+        List<ScheduledTask<?>> toStart = new ArrayList<>();
+        synchronized (lock) {
+            int maxConcurrency = Math.max(1, properties.getExplorer().getDispatch().getMaxConcurrency());
+            while (runningCount < maxConcurrency) {
+                ScheduledTask<?> next = selectNext();
+                if (next == null) {
+                    break;
+                }
+                Deque<ScheduledTask<?>> queue = queuedByUser.get(next.userId);
+                queue.remove(next);
+                if (queue.isEmpty()) {
+                    queuedByUser.remove(next.userId);
+                }
+                lastServedByUser.put(next.userId, ++dispatchSequence);
+                queuedCount--;
+                runningCount++;
+                runningByUser.merge(next.userId, 1, Integer::sum);
+                runningByConversation.merge(next.conversationId, 1, Integer::sum);
+                next.running = true;
+                toStart.add(next);
+            }
+        }
+        toStart.forEach(this::start);
+    }
+
+    /**
+     * Among users below their quota, picks the oldest eligible task of the least recently served user.
+     * Users that have never been served (or went idle) come first.
+     */
+    private ScheduledTask<?> selectNext() {
+        int maxPerUser = Math.max(1, properties.getExplorer().getDispatch().getMaxPerUser());
+        int maxPerConversation = Math.max(1, properties.getExplorer().getDispatch().getMaxPerConversation());
+        ScheduledTask<?> selected = null;
+        long selectedLastServed = Long.MAX_VALUE;
+        for (Map.Entry<Long, Deque<ScheduledTask<?>>> entry : queuedByUser.entrySet()) {
+            Long userId = entry.getKey();
+            long lastServed = lastServedByUser.getOrDefault(userId, 0L);
+            if (lastServed >= selectedLastServed || runningByUser.getOrDefault(userId, 0) >= maxPerUser) {
+                continue;
+            }
+            for (ScheduledTask<?> candidate : entry.getValue()) {
+                if (runningByConversation.getOrDefault(candidate.conversationId, 0) < maxPerConversation) {
+                    selected = candidate;
+                    selectedLastServed = lastServed;
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private void start(ScheduledTask<?> task) {
+        agentMetrics.recordSubAgentQueueWait(System.currentTimeMillis() - task.enqueuedAt);
+        try {
+            Future<?> future = executor.submit(task.runnable);
+            task.future = future;
+            if (task.result.isCancelled()) {
+                cancelDispatched(task);
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("[SubAgentScheduler] executor rejected task, userId={}, conversationId={}", task.userId, task.conversationId);
+            release(task);
+            task.result.completeExceptionally(e);
+        }
+    }
+
+    private <T> void run(ScheduledTask<T> task) {
+        synchronized (lock) {
+            if (task.released) {
+                return;
+            }
+            task.started = true;
+        }
+        try {
+            if (!task.result.isCancelled()) {
+                task.result.complete(task.work.get());
+            }
+        } catch (Throwable t) {
+            task.result.completeExceptionally(t);
+        } finally {
+            release(task);
+            dispatch();
+        }
+    }
+
+    private void release(ScheduledTask<?> task) {
+        synchronized (lock) {
+            releaseLocked(task);
+        }
+    }
+
+    /**
+     * Gives the task's running slot back; a no-op after the first call, so the cancel path and the worker can both
+     * call it.
+     */
+    private void releaseLocked(ScheduledTask<?> task) {
+        if (task.released) {
+            return;
+        }
+        task.released = true;
+        runningCount--;
+        decrement(runningByUser, task.userId);
+        decrement(runningByConversation, task.conversationId);
+        if (!runningByUser.containsKey(task.userId) && !queuedByUser.containsKey(task.userId)) {
+            lastServedByUser.remove(task.userId);
+        }
+    }
+
+    /**
+     * Cancels a task already handed to the executor. A task still waiting in the executor never reaches
+     * {@link #run}, so its slot is released here.
+     */
+    private void cancelDispatched(ScheduledTask<?> task) {
+        task.future.cancel(true);
+        boolean releasedHere;
+        synchronized (lock) {
+            releasedHere = !task.started && !task.released;
+            if (releasedHere) {
+                releaseLocked(task);
+            }
+        }
+        if (releasedHere) {
+            dispatch();
+        }
+    }
+
+    private void cancel(ScheduledTask<?> task) {
+        boolean running;
+        synchronized (lock) {
+            running = task.running;
+            if (!running) {
+                Deque<ScheduledTask<?>> queue = queuedByUser.get(task.userId);
+                if (queue == null || !queue.remove(task)) {
+                    return;
+                }
+                queuedCount--;
+                if (queue.isEmpty()) {
+                    queuedByUser.remove(task.userId);
+                }
+            }
+        }
+        if (running && task.future != null) {
+            cancelDispatched(task);
+        }
+        agentMetrics.recordSubAgentCancelled(running);
+        log.info("[SubAgentScheduler] task cancelled, userId={}, conversationId={}, running={}",
+                task.userId, task.conversationId, running);
+    }
+
+    private static void decrement(Map<Long, Integer> counts, Long key) {
+        counts.computeIfPresent(key, (ignored, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static final class ScheduledTask<T> {
+        private final Long userId;
+        private final Long conversationId;
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long enqueuedAt = System.currentTimeMillis();
+        private Runnable runnable;
+        private volatile Future<?> future;
+        /** Guarded by the scheduler lock. */
+        private boolean running;
+        /** Guarded by the scheduler lock; set once the worker has entered {@link #run}. */
+        private boolean started;
+        /** Guarded by the scheduler lock; set once the running slot has been given back. */
+        private boolean released;
+
+        private ScheduledTask(Long userId, Long conversationId, Supplier<T> work) {
+            this.userId = userId;
+            this.conversationId = conversationId;
+            this.work = work;
+        }
+    }
+}
@@ -61,7 +61,18 @@ public class SubAgentStreamBridge {
     public void bridge(TokenStream tokenStream, Sinks.Many<ChatResponseBlock> sink, String parentToolCallId,
                        BiConsumer<ToolExecutionRequest, Object> onToolExecutedCallback,
                        Consumer<String> onPartialResponseCallback) {
-        if (sink == null && onToolExecutedCallback == null && onPartialResponseCallback == null) return;
+        bridge(tokenStream, sink, parentToolCallId, onToolExecutedCallback, onPartialResponseCallback, null);
+    }
+
+    /**
+     * Same as above, additionally attaching the model's streaming handle to {@code streamHandle}
+     * so the caller can cancel the stream.
+     */
+    public void bridge(TokenStream tokenStream, Sinks.Many<ChatResponseBlock> sink, String parentToolCallId,
+                       BiConsumer<ToolExecutionRequest, Object> onToolExecutedCallback,
+                       Consumer<String> onPartialResponseCallback,
+                       SubAgentStreamHandle streamHandle) {
+        if (sink == null && onToolExecutedCallback == null && onPartialResponseCallback == null && streamHandle == null) return;
         String parentId = StringUtils.isNotBlank(parentToolCallId) ? parentToolCallId : null;
         String taskId = AgentExecutionContext.getTaskId();
         Set<String> streamedToolCallIds = new HashSet<>();
@@ -70,6 +81,9 @@ public class SubAgentStreamBridge {
         AtomicBoolean firstPartial = new AtomicBoolean(false);
 
         tokenStream.onPartialToolCallWithContext((partialToolCall, context) -> {
+            if (streamHandle != null && context != null) {
+                streamHandle.attach(context.streamingHandle());
+            }
             if (partialToolCall == null) return;
             String id = partialToolCall.id();
             String args = partialToolCall.partialArguments();
@@ -171,7 +185,11 @@ public class SubAgentStreamBridge {
             if (sink != null) sink.tryEmitNext(block);
         });
 
-        tokenStream.onPartialResponse(content -> {
+        tokenStream.onPartialResponseWithContext((partialResponse, context) -> {
+            if (streamHandle != null && context != null) {
+                streamHandle.attach(context.streamingHandle());
+            }
+            String content = partialResponse != null ? partialResponse.text() : null;
             if (firstPartial.compareAndSet(false, true)) {
                 log.debug("SubAgent started emitting text response, parentToolCallId={}", parentId);
             }
@@ -0,0 +1,37 @@
+package edu.zsc.ai.agent.subagent;
+
+import dev.langchain4j.model.chat.response.StreamingHandle;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lets the invoking thread stop a SubAgent's model stream after a timeout or interrupt.
+ * The handle only becomes available with the first streamed callback, so a cancel that arrives earlier is
+ * remembered and applied as soon as the handle is attached.
+ */
+public class SubAgentStreamHandle {
+
+    private final AtomicReference<StreamingHandle> handle = new AtomicReference<>();
+    private volatile boolean cancelled;
+
+    void attach(StreamingHandle streamingHandle) {
+        if (streamingHandle == null || !handle.compareAndSet(null, streamingHandle)) {
+            return;
+        }
+        if (cancelled) {
+            streamingHandle.cancel();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        StreamingHandle streamingHandle = handle.get();
+        if (streamingHandle != null && !streamingHandle.isCancelled()) {
+            streamingHandle.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -8,6 +8,7 @@ import edu.zsc.ai.agent.subagent.SubAgentObservabilityListener;
 import edu.zsc.ai.agent.subagent.SubAgentPromptBuilder;
 import edu.zsc.ai.agent.subagent.SubAgentRequest;
 import edu.zsc.ai.agent.subagent.SubAgentStreamBridge;
+import edu.zsc.ai.agent.subagent.SubAgentStreamHandle;
 import edu.zsc.ai.agent.subagent.contract.SchemaSummary;
 import edu.zsc.ai.common.constant.AgentRuntimeLoggerNames;
 import edu.zsc.ai.common.constant.InvocationContextConstant;
@@ -105,6 +106,7 @@ public class ExplorerSubAgent extends AbstractSubAgent<SubAgentRequest, SchemaSu
 
         observer.emitStart();
 
+        SubAgentStreamHandle streamHandle = new SubAgentStreamHandle();
         try {
             String message = buildMessage(request);
             log.info("[Explorer] message built, taskId={}, messageLength={}, messagePreview={}",
@@ -138,7 +140,7 @@ public class ExplorerSubAgent extends AbstractSubAgent<SubAgentRequest, SchemaSu
             StringBuilder fullResponse = new StringBuilder();
             String parentId = parentToolCallId;
             Sinks.Many<ChatResponseBlock> sink = sseEmitterRegistry.get(conversationId).orElse(null);
-            streamBridge.bridge(tokenStream, sink, parentId, null, fullResponse::append);
+            streamBridge.bridge(tokenStream, sink, parentId, null, fullResponse::append, streamHandle);
 
             CompletableFuture<String> future = new CompletableFuture<>();
             tokenStream.onCompleteResponse(response -> future.complete(fullResponse.toString()));
@@ -210,6 +212,10 @@ public class ExplorerSubAgent extends AbstractSubAgent<SubAgentRequest, SchemaSu
             return summary;
 
         } catch (Exception e) {
+            // Timeout or interrupt from the scheduler: stop the model stream so it stops consuming tokens and tools,
+            // and cancel any SQL its tools still have running on the target database.
+            streamHandle.cancel();
+            cancelRunningStatements(taskId);
             String errorSummary = errorSummary(e, "Explorer 子 Agent 失败", timeoutSeconds);
             observer.emitError(errorSummary);
             log.error("[Explorer] invoke failed, conversationId={}, taskId={}, parentToolCallId={}, elapsedMs={}, rootCauseClass={}, rootCauseMessage={}",
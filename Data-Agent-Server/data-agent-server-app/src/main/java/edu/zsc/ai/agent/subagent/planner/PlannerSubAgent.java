@@ -210,6 +210,7 @@ public class PlannerSubAgent extends AbstractSubAgent<PlannerRequest, SqlPlan> i
             return plan;
 
         } catch (TimeoutException e) {
+            cancelRunningStatements(taskId);
             String errorSummary = errorSummary(e, "Planner 子 Agent 超时", timeoutSeconds);
             observer.emitError(errorSummary);
             runtimeLog.error("planner_invoke_failed conversationId={} taskId={} parentToolCallId={} elapsedMs={} rootCauseClass={} rootCauseMessage={} instructionPreview={}",
@@ -223,6 +224,7 @@ public class PlannerSubAgent extends AbstractSubAgent<PlannerRequest, SqlPlan> i
                     e);
             throw new RuntimeException("Planner 子 Agent 超时：" + errorSummary, e);
         } catch (Exception e) {
+            cancelRunningStatements(taskId);
             String errorSummary = errorSummary(e, "Planner 子 Agent 失败", timeoutSeconds);
             observer.emitError(errorSummary);
             log.error("[Planner] invoke failed, conversationId={}, taskId={}, parentToolCallId={}, elapsedMs={}, rootCauseClass={}, rootCauseMessage={}, instructionPreview={}, objectPreview={}",
@@ -0,0 +1,132 @@
+package edu.zsc.ai.agent.token;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Byte-level BPE token counter over a tiktoken-format vocabulary.
+ * <p>
+ * Text is split with the vocabulary's pre-tokenization pattern; each piece is one token if it is in the vocabulary,
+ * otherwise its bytes are merged pairwise, lowest rank first, until no adjacent pair is in the vocabulary. Only the
+ * count is produced, so no token ids or decoder tables are kept.
+ */
+public final class BpeTokenCounter implements TokenCounter {
+
+    private final Map<ByteSlice, Integer> ranks;
+    private final Pattern splitPattern;
+
+    BpeTokenCounter(Map<ByteSlice, Integer> ranks, Pattern splitPattern) {
+        this.ranks = ranks;
+        this.splitPattern = splitPattern;
+    }
+
+    public static BpeTokenCounter load(InputStream vocab, String splitPattern) throws IOException {
+        Map<ByteSlice, Integer> ranks = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(vocab, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                int separator = line.indexOf(' ');
+                if (separator <= 0) {
+                    throw new IOException("Malformed BPE vocabulary line: " + line);
+                }
+                byte[] token = Base64.getDecoder().decode(line.substring(0, separator));
+                ranks.put(new ByteSlice(token, 0, token.length), Integer.parseInt(line.substring(separator + 1).trim()));
+            }
+        }
+        return new BpeTokenCounter(ranks, Pattern.compile(splitPattern));
+    }
+
+    int vocabularySize() {
+        return ranks.size();
+    }
+
+    @Override
+    public int countTokens(String text) {
+        if (StringUtils.isEmpty(text)) {
+            return 0;
+        }
+        int count = 0;
+        Matcher matcher = splitPattern.matcher(text);
+        while (matcher.find()) {
+            byte[] piece = matcher.group().getBytes(StandardCharsets.UTF_8);
+            count += ranks.containsKey(new ByteSlice(piece, 0, piece.length)) ? 1 : mergedPartCount(piece);
+        }
+        return count;
+    }
+
+    /**
+     * Runs the BPE merge loop over {@code piece} and returns the number of parts left.
+     */
+    private int mergedPartCount(byte[] piece) {
+        int[] starts = new int[piece.length + 1];
+        for (int i = 0; i <= piece.length; i++) {
+            starts[i] = i;
+        }
+        int boundaries = piece.length + 1;
+        while (boundaries > 2) {
+            int bestRank = Integer.MAX_VALUE;
+            int bestIndex = -1;
+            for (int i = 0; i + 2 < boundaries; i++) {
+                Integer rank = ranks.get(new ByteSlice(piece, starts[i], starts[i + 2]));
+                if (rank != null && rank < bestRank) {
+                    bestRank = rank;
+                    bestIndex = i;
+                }
+            }
+            if (bestIndex < 0) {
+                break;
+            }
+            System.arraycopy(starts, bestIndex + 2, starts, bestIndex + 1, boundaries - bestIndex - 2);
+            boundaries--;
+        }
+        return boundaries - 1;
+    }
+
+    /**
+     * A byte range compared by content, so vocabulary lookups need no copy of the candidate pair.
+     */
+    static final class ByteSlice {
+
+        private final byte[] bytes;
+        private final int from;
+        private final int to;
+        private final int hash;
+
+        ByteSlice(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+            int h = 1;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + bytes[i];
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ByteSlice slice
+                    && hash == slice.hash
+                    && Arrays.equals(bytes, from, to, slice.bytes, slice.from, slice.to);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
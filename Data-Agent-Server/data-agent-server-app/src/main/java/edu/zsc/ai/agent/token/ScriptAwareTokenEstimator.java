@@ -0,0 +1,79 @@
+package edu.zsc.ai.agent.token;
+
+/**
+ * Vocabulary-free estimate used when no BPE vocabulary is configured.
+ * <p>
+ * A flat {@code length / 4} undercounts CJK text several times over, since BPE vocabularies spend about one token per
+ * Han, kana or Hangul character. This counts one token per such character and splits everything else into runs the
+ * way the cl100k / Qwen pre-tokenizer does: letters at four per token, digits at three per token (the split rule caps
+ * number pieces at three digits), and punctuation runs at two per token, since common pairs such as {@code ":},
+ * {@code ",} or {@code ');} are single vocabulary entries. Whitespace merges into the following piece and is not
+ * counted. This stays close to real counts for Chinese, English, SQL and JSON tool results alike.
+ */
+public final class ScriptAwareTokenEstimator implements TokenCounter {
+
+    private static final int LETTERS_PER_TOKEN = 4;
+    private static final int DIGITS_PER_TOKEN = 3;
+    private static final int SYMBOLS_PER_TOKEN = 2;
+
+    private enum Run {
+        NONE(1),
+        LETTERS(LETTERS_PER_TOKEN),
+        DIGITS(DIGITS_PER_TOKEN),
+        SYMBOLS(SYMBOLS_PER_TOKEN);
+
+        private final int charsPerToken;
+
+        Run(int charsPerToken) {
+            this.charsPerToken = charsPerToken;
+        }
+
+        int tokens(int length) {
+            return (length + charsPerToken - 1) / charsPerToken;
+        }
+    }
+
+    @Override
+    public int countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        Run run = Run.NONE;
+        int runLength = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            Run next = classify(codePoint);
+            if (next != run) {
+                tokens += run.tokens(runLength);
+                run = next;
+                runLength = 0;
+            }
+            if (isCjk(codePoint)) {
+                tokens++;
+            } else if (run != Run.NONE) {
+                runLength++;
+            }
+        }
+        return tokens + run.tokens(runLength);
+    }
+
+    private static Run classify(int codePoint) {
+        if (isCjk(codePoint) || Character.isWhitespace(codePoint)) {
+            return Run.NONE;
+        }
+        if (Character.isDigit(codePoint)) {
+            return Run.DIGITS;
+        }
+        return Character.isLetter(codePoint) ? Run.LETTERS : Run.SYMBOLS;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,9 @@
+package edu.zsc.ai.agent.token;
+
+/**
+ * Counts the tokens a model sees for a piece of text.
+ */
+public interface TokenCounter {
+
+    int countTokens(String text);
+}
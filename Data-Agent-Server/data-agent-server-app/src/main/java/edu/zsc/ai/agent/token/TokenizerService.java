@@ -0,0 +1,121 @@
+package edu.zsc.ai.agent.token;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import edu.zsc.ai.config.ai.TokenizerProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts prompt tokens locally, so context budgets do not have to wait for the provider's usage report of the
+ * previous turn.
+ * <p>
+ * Uses the BPE vocabulary at {@code ai.tokenizer.vocab-resource} when configured, otherwise
+ * {@link ScriptAwareTokenEstimator}. Message counts cover the text the model reads back (content, tool-call names and
+ * arguments) plus {@code ai.tokenizer.message-overhead-tokens} for role markers. Reasoning is not sent back with the
+ * history, and images and other non-text parts are not counted.
+ */
+@Slf4j
+@Component
+public class TokenizerService {
+
+    private final TokenCounter counter;
+    private final int messageOverheadTokens;
+
+    public TokenizerService(TokenizerProperties properties) {
+        this.counter = loadCounter(properties);
+        this.messageOverheadTokens = Math.max(0, properties.getMessageOverheadTokens());
+    }
+
+    public int countText(String text) {
+        return counter.countTokens(text);
+    }
+
+    public int countMessage(ChatMessage message) {
+        if (message == null) {
+            return 0;
+        }
+        return messageOverheadTokens + countMessageText(message);
+    }
+
+    public int countMessages(List<ChatMessage> messages) {
+        if (messages == null) {
+            return 0;
+        }
+        int total = 0;
+        for (ChatMessage message : messages) {
+            total += countMessage(message);
+        }
+        return total;
+    }
+
+    private int countMessageText(ChatMessage message) {
+        if (message instanceof SystemMessage system) {
+            return countText(system.text());
+        }
+        if (message instanceof UserMessage user) {
+            return countContents(user.contents());
+        }
+        if (message instanceof AiMessage ai) {
+            return countText(ai.text()) + countToolRequests(ai.toolExecutionRequests());
+        }
+        if (message instanceof ToolExecutionResultMessage result) {
+            return countText(result.toolName()) + countText(result.text());
+        }
+        return 0;
+    }
+
+    private int countContents(List<Content> contents) {
+        int total = 0;
+        for (Content content : contents) {
+            if (content instanceof TextContent text) {
+                total += countText(text.text());
+            }
+        }
+        return total;
+    }
+
+    private int countToolRequests(List<ToolExecutionRequest> requests) {
+        if (requests == null) {
+            return 0;
+        }
+        int total = 0;
+        for (ToolExecutionRequest request : requests) {
+            total += countText(request.name()) + countText(request.arguments());
+        }
+        return total;
+    }
+
+    private static TokenCounter loadCounter(TokenizerProperties properties) {
+        String location = properties.getVocabResource();
+        if (StringUtils.isBlank(location)) {
+            return new ScriptAwareTokenEstimator();
+        }
+        ClassPathResource resource = new ClassPathResource(location.trim());
+        if (!resource.exists()) {
+            log.warn("Tokenizer vocabulary '{}' not found on the classpath, using estimated token counts", location);
+            return new ScriptAwareTokenEstimator();
+        }
+        try (InputStream input = resource.getInputStream()) {
+            BpeTokenCounter bpe = BpeTokenCounter.load(input, properties.getSplitPattern());
+            log.info("Loaded tokenizer vocabulary '{}' with {} tokens", location, bpe.vocabularySize());
+            return bpe;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load tokenizer vocabulary '{}', using estimated token counts", location, e);
+            return new ScriptAwareTokenEstimator();
+        }
+    }
+}
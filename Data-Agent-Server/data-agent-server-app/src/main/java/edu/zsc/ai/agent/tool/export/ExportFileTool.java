@@ -12,8 +12,11 @@ import edu.zsc.ai.agent.tool.model.AgentToolResult;
 import edu.zsc.ai.common.enums.ai.ToolNameEnum;
 import edu.zsc.ai.context.RequestContext;
 import edu.zsc.ai.domain.service.ai.export.FileExportService;
+import edu.zsc.ai.domain.service.ai.export.QueryExportService;
+import edu.zsc.ai.domain.service.ai.export.model.ExportTaskPayload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFilePayload;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
+import edu.zsc.ai.domain.service.ai.export.model.QueryExportRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,6 +28,7 @@ import java.util.List;
 public class ExportFileTool {
 
     private final FileExportService exportFileService;
+    private final QueryExportService queryExportService;
 
     @Tool({
             "价值：把已准备好的表格数据导出成用户可下载的文件。",
@@ -69,4 +73,53 @@ public class ExportFileTool {
             InvocationParameters parameters) {
         return exportFile(format, headers, rows, null, parameters);
     }
+
+    @Tool({
+            "价值：直接在服务端执行只读查询并把结果导出为文件，数据行不经过模型。",
+            "使用时机：用户需要导出大量数据，或导出内容就是某条查询的完整结果。",
+            "前置条件：sql 必须是单条只读查询，且已在当前连接上验证可执行。",
+            "结果：返回后台导出任务 ID 与进度地址，完成后生成下载文件。",
+            "边界：仅支持 CSV、XLSX；需要 DOCX、PDF 时请先缩小结果集再用 exportFile，不要把大结果逐行传给 exportFile。"
+    })
+    @DisallowInPlanMode(ToolNameEnum.EXPORT_QUERY_RESULT)
+    public AgentToolResult exportQueryResult(
+            @P("导出格式，支持 CSV、XLSX。") String format,
+            @P("当前会话范围内的连接 ID") Long connectionId,
+            @P("当前会话范围内的数据库或 catalog 名称") String databaseName,
+            @P(value = "当前会话范围内的 schema 名称；数据库类型不使用 schema 时省略", required = false) String schemaName,
+            @P("要导出结果的单条只读 SQL 语句。") String sql,
+            @P(ToolDescriptionParam.UI_STEP_DESCRIPTION) String description,
+            InvocationParameters parameters) {
+        Long userId = RequestContext.getUserId();
+        if (userId == null) {
+            return AgentToolResult.noContext();
+        }
+
+        ExportTaskPayload payload = queryExportService.submit(QueryExportRequest.builder()
+                .format(format)
+                .connectionId(connectionId)
+                .catalog(databaseName)
+                .schema(schemaName)
+                .sql(sql)
+                .userId(userId)
+                .conversationId(RequestContext.getConversationId())
+                .build());
+
+        log.info("[Tool done] exportQueryResult, taskId={}, connectionId={}, format={}",
+                payload.getTaskId(), connectionId, payload.getFormat());
+        return AgentToolResult.success(payload, ToolMessageSupport.sentence(
+                "导出任务已在后台开始，数据直接从数据库写入文件。",
+                "告诉用户导出正在进行，文件完成后可通过任务进度下载；不要再逐行输出查询结果。"
+        ));
+    }
+
+    public AgentToolResult exportQueryResult(
+            String format,
+            Long connectionId,
+            String databaseName,
+            String schemaName,
+            String sql,
+            InvocationParameters parameters) {
+        return exportQueryResult(format, connectionId, databaseName, schemaName, sql, null, parameters);
+    }
 }
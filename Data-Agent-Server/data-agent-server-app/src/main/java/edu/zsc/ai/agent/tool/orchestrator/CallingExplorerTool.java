@@ -5,25 +5,28 @@ import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.invocation.InvocationParameters;
 import edu.zsc.ai.agent.annotation.AgentTool;
 import edu.zsc.ai.agent.subagent.SubAgentRequest;
+import edu.zsc.ai.agent.subagent.SubAgentScheduler;
 import edu.zsc.ai.agent.subagent.contract.*;
 import edu.zsc.ai.agent.tool.error.AgentToolExecuteException;
 import edu.zsc.ai.agent.tool.message.ToolMessageSupport;
 import edu.zsc.ai.agent.tool.model.AgentToolResult;
+import edu.zsc.ai.async.DownstreamConcurrencyLimiter;
+import edu.zsc.ai.common.constant.AgentSpanNames;
 import edu.zsc.ai.common.enums.ai.ToolNameEnum;
-import edu.zsc.ai.config.ai.ExplorerSubAgentExecutorConfig;
 import edu.zsc.ai.config.ai.SubAgentManager;
 import edu.zsc.ai.context.*;
 import edu.zsc.ai.domain.service.db.ConnectionAccessService;
+import edu.zsc.ai.tracing.AgentTracing;
 import edu.zsc.ai.util.JsonUtil;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.factory.annotation.Qualifier;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -32,16 +35,22 @@ import java.util.concurrent.TimeoutException;
 public class CallingExplorerTool extends SubAgentToolSupport {
 
     private final SubAgentManager subAgentManager;
-    private final Executor explorerExecutor;
+    private final SubAgentScheduler subAgentScheduler;
     private final ConnectionAccessService connectionAccessService;
+    private final AgentTracing agentTracing;
+    private final DownstreamConcurrencyLimiter downstreamConcurrencyLimiter;
 
     public CallingExplorerTool(
             SubAgentManager subAgentManager,
-            @Qualifier(ExplorerSubAgentExecutorConfig.EXPLORER_SUB_AGENT_EXECUTOR_BEAN) Executor explorerExecutor,
-            ConnectionAccessService connectionAccessService) {
+            SubAgentScheduler subAgentScheduler,
+            ConnectionAccessService connectionAccessService,
+            AgentTracing agentTracing,
+            DownstreamConcurrencyLimiter downstreamConcurrencyLimiter) {
         this.subAgentManager = subAgentManager;
-        this.explorerExecutor = explorerExecutor;
+        this.subAgentScheduler = subAgentScheduler;
         this.connectionAccessService = connectionAccessService;
+        this.agentTracing = agentTracing;
+        this.downstreamConcurrencyLimiter = downstreamConcurrencyLimiter;
     }
 
     @Tool({
@@ -120,10 +129,12 @@ public class CallingExplorerTool extends SubAgentToolSupport {
                 timeout,
                 tasks.size());
 
+        Long userId = requestContextSnapshot != null ? requestContextSnapshot.getUserId() : null;
+        Long conversationId = requestContextSnapshot != null ? requestContextSnapshot.getConversationId() : null;
         List<CompletableFuture<ExplorerTaskResult>> futures = tasks.stream().map(explorerTask -> {
                     String taskId = buildTaskId("explore", requestContextSnapshot);
-                    return CompletableFuture.supplyAsync(() -> executeTask(
-                            explorerTask, resolveTaskTimeoutSeconds(explorerTask, timeoutSeconds), requestContextSnapshot, agentRequestContextSnapshot, parentToolCallId, taskId), explorerExecutor);
+                    return subAgentScheduler.submit(userId, conversationId, () -> executeTask(
+                            explorerTask, resolveTaskTimeoutSeconds(explorerTask, timeoutSeconds), requestContextSnapshot, agentRequestContextSnapshot, parentToolCallId, taskId));
                 })
                 .toList();
 
@@ -148,6 +159,7 @@ public class CallingExplorerTool extends SubAgentToolSupport {
             return buildExplorerAgentResult(tasks, envelope);
 
         } catch (TimeoutException e) {
+            cancelAll(futures);
             log.error("[Tool] callingExplorerSubAgent concurrent timeout, timeoutSeconds={}, elapsedMs={}, rootCauseClass={}, rootCauseMessage={}",
                     timeout,
                     System.currentTimeMillis() - startTime,
@@ -161,6 +173,7 @@ public class CallingExplorerTool extends SubAgentToolSupport {
                     e
             );
         } catch (Exception e) {
+            cancelAll(futures);
             log.error("[Tool] callingExplorerSubAgent concurrent failed, elapsedMs={}, rootCauseClass={}, rootCauseMessage={}",
                     System.currentTimeMillis() - startTime,
                     rootCause(e).getClass().getSimpleName(),
@@ -176,6 +189,13 @@ public class CallingExplorerTool extends SubAgentToolSupport {
         }
     }
 
+    /**
+     * Drops still-queued tasks and interrupts running ones so they stop holding explorer slots and model streams.
+     */
+    private void cancelAll(List<CompletableFuture<ExplorerTaskResult>> futures) {
+        futures.forEach(future -> future.cancel(true));
+    }
+
     private long resolveTaskTimeoutSeconds(ExplorerTask task, Long defaultTimeoutSeconds) {
         Long taskTimeoutSeconds = task != null ? task.getTimeoutSeconds() : null;
         return resolveTimeoutSeconds(taskTimeoutSeconds,
@@ -252,13 +272,19 @@ public class CallingExplorerTool extends SubAgentToolSupport {
         String previousTaskId = AgentExecutionContext.getTaskId();
         AgentExecutionContext.setParentToolCallId(parentToolCallId);
         AgentExecutionContext.setTaskId(taskId);
+        Span span = agentTracing.startSpan(AgentSpanNames.SUB_AGENT_EXPLORER)
+                .tag(AgentSpanNames.TAG_TASK_ID, taskId)
+                .tag(AgentSpanNames.TAG_CONNECTION_ID, String.valueOf(task.getConnectionId()));
+        Tracer.SpanInScope spanScope = agentTracing.activate(span);
+        Throwable failure = null;
         try {
             SubAgentRequest request = new SubAgentRequest(
                     task.getInstruction(),
                     List.of(task.getConnectionId()),
                     task.getContext(),
                     timeoutSeconds);
-            SchemaSummary summary = subAgentManager.getExplorerSubAgent().invoke(request);
+            SchemaSummary summary = downstreamConcurrencyLimiter.withModelPermit(AgentRequestContext.getModelName(),
+                    () -> subAgentManager.getExplorerSubAgent().invoke(request));
             log.info("[Explorer] task success, taskId={}, connectionId={}, objectCount={}, summaryLength={}, rawResponseLength={}, summaryPreview={}, elapsedMs={}",
                     taskId,
                     task.getConnectionId(),
@@ -275,6 +301,7 @@ public class CallingExplorerTool extends SubAgentToolSupport {
                     .rawResponse(summary != null ? summary.getRawResponse() : "")
                     .build();
         } catch (Exception e) {
+            failure = e;
             String errorMessage = StringUtils.defaultIfBlank(rootCauseMessage(e), StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getSimpleName()));
             log.warn("[Explorer] task failed, taskId={}, connectionId={}, elapsedMs={}, rootCauseClass={}, rootCauseMessage={}",
                     taskId,
@@ -291,6 +318,8 @@ public class CallingExplorerTool extends SubAgentToolSupport {
                     .errorMessage(errorMessage)
                     .build();
         } finally {
+            spanScope.close();
+            agentTracing.end(span, failure);
             AgentExecutionContext.setParentToolCallId(previousParentToolCallId);
             AgentExecutionContext.setTaskId(previousTaskId);
             if (previousRequestContext != null) {
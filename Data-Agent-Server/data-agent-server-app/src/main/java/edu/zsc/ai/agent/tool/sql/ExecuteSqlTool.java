@@ -5,6 +5,7 @@ import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.invocation.InvocationParameters;
 import edu.zsc.ai.agent.annotation.DisallowInPlanMode;
 import edu.zsc.ai.agent.annotation.AgentTool;
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.agent.tool.ToolDescriptionParam;
 import edu.zsc.ai.agent.tool.sql.approval.WriteExecutionApprovalStore;
 import edu.zsc.ai.agent.tool.error.AgentToolExecuteException;
@@ -16,6 +17,7 @@ import edu.zsc.ai.agent.tool.sql.model.WriteExecutionGrantOption;
 import edu.zsc.ai.common.enums.ai.ToolNameEnum;
 import edu.zsc.ai.common.enums.permission.PermissionGrantPreset;
 import edu.zsc.ai.common.enums.permission.PermissionScopeType;
+import edu.zsc.ai.config.ai.TokenizerProperties;
 import edu.zsc.ai.context.RequestContext;
 import edu.zsc.ai.domain.model.context.DbContext;
 import edu.zsc.ai.domain.model.dto.response.db.ExecuteSqlResponse;
@@ -25,8 +27,10 @@ import edu.zsc.ai.domain.service.db.SqlExecutionService;
 import edu.zsc.ai.domain.service.db.impl.ActiveConnectionRegistry;
 import edu.zsc.ai.plugin.capability.SqlValidator;
 import edu.zsc.ai.plugin.manager.DefaultPluginManager;
+import edu.zsc.ai.util.JsonUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
@@ -43,6 +47,8 @@ public class ExecuteSqlTool {
     private final PermissionRuleService permissionRuleService;
     private final WriteExecutionApprovalStore writeExecutionApprovalStore;
     private final ConnectionAccessService connectionAccessService;
+    private final TokenizerService tokenizerService;
+    private final TokenizerProperties tokenizerProperties;
 
     @Tool({
         "价值：执行只读 SQL 并返回真实数据库结果。",
@@ -80,7 +86,7 @@ public class ExecuteSqlTool {
         List<ExecuteSqlResponse> responses = sqlExecutionService.executeBatchSql(db, sqls);
         annotateSqlFailures(responses, connectionId, databaseName, schemaName, sqls, false);
         log.info("{} executeSelectSql", "[Tool done]");
-        return AgentSqlResult.fromBatch(responses);
+        return fitToTokenBudget(AgentSqlResult.fromBatch(responses));
     }
 
     public AgentSqlResult executeSelectSql(
@@ -148,7 +154,7 @@ public class ExecuteSqlTool {
         log.info("{} executeNonSelectSql", "[Tool done]");
         return ExecuteNonSelectToolResult.executed(
                 ruleMatched,
-                AgentSqlResult.fromBatch(responses),
+                fitToTokenBudget(AgentSqlResult.fromBatch(responses)),
                 ruleMatched
                         ? "写入 SQL 已基于默认允许权限执行。"
                         : "写入 SQL 已在用户明确确认后执行。"
@@ -204,6 +210,47 @@ public class ExecuteSqlTool {
         return sqls.stream().allMatch(stmt -> validator.classifySql(stmt).isReadOnly());
     }
 
+    /**
+     * Keeps the leading rows of each result set that fit in {@code ai.tokenizer.tool-result-max-tokens}, shared across
+     * the statements of one call, and marks cut result sets as truncated. Row limits alone cannot bound the result:
+     * a few rows of wide text or JSON columns can outweigh thousands of narrow ones.
+     */
+    private AgentSqlResult fitToTokenBudget(AgentSqlResult result) {
+        int budget = tokenizerProperties.getToolResultMaxTokens();
+        if (budget <= 0) {
+            return result;
+        }
+        List<AgentSqlResult> resultSets = CollectionUtils.isNotEmpty(result.getResults())
+                ? result.getResults()
+                : List.of(result);
+        int remaining = budget;
+        for (AgentSqlResult resultSet : resultSets) {
+            remaining = trimRows(resultSet, remaining);
+        }
+        return result;
+    }
+
+    private int trimRows(AgentSqlResult resultSet, int remaining) {
+        List<List<Object>> rows = resultSet.getRows();
+        if (CollectionUtils.isEmpty(rows)) {
+            return remaining;
+        }
+        int kept = 0;
+        for (List<Object> row : rows) {
+            int rowTokens = tokenizerService.countText(JsonUtil.object2json(row));
+            if (rowTokens > remaining) {
+                log.info("[Tool] SQL result cut to the tool-result token budget: keptRows={}, totalRows={}",
+                        kept, rows.size());
+                resultSet.setRows(new ArrayList<>(rows.subList(0, kept)));
+                resultSet.setTruncated(true);
+                return 0;
+            }
+            remaining -= rowTokens;
+            kept++;
+        }
+        return remaining;
+    }
+
     private void annotateSqlFailures(List<ExecuteSqlResponse> responses,
                                      Long connectionId,
                                      String databaseName,
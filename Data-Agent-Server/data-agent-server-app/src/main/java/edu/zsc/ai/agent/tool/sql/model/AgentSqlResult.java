@@ -35,7 +35,7 @@ public class AgentSqlResult {
     /** Rows affected (for DML) or null for SELECT */
     private Integer affectedRows;
 
-    /** Whether result data was truncated by server or client limit */
+    /** Whether result data was truncated by server or client limit, or by the tool-result token budget */
     private Boolean truncated;
 
     /** Whether an automatic row LIMIT was applied */
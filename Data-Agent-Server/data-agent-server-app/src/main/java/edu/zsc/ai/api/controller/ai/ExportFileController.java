@@ -2,23 +2,26 @@ package edu.zsc.ai.api.controller.ai;
 
 import cn.dev33.satoken.stp.StpUtil;
 import edu.zsc.ai.domain.service.ai.export.FileExportService;
+import edu.zsc.ai.domain.service.ai.export.QueryExportService;
+import edu.zsc.ai.domain.service.ai.export.model.ExportTaskPayload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFileDownload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFileStatus;
+import edu.zsc.ai.util.FileRangeTransferUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
 @Slf4j
@@ -29,6 +32,19 @@ import java.nio.charset.StandardCharsets;
 public class ExportFileController {
 
     private final FileExportService exportFileService;
+    private final QueryExportService queryExportService;
+
+    @GetMapping("/tasks/{taskId}")
+    public ExportTaskPayload task(@PathVariable @NotBlank(message = "taskId is required") String taskId) {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return queryExportService.getTask(taskId, userId);
+    }
+
+    @DeleteMapping("/tasks/{taskId}")
+    public ExportTaskPayload cancelTask(@PathVariable @NotBlank(message = "taskId is required") String taskId) {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return queryExportService.cancel(taskId, userId);
+    }
 
     @GetMapping("/{fileId}/status")
     public ExportedFileStatus status(@PathVariable @NotBlank(message = "fileId is required") String fileId) {
@@ -36,21 +52,24 @@ public class ExportFileController {
         return exportFileService.getStatus(fileId, userId);
     }
 
+    /**
+     * Streams the file, honouring a single {@code Range} so interrupted downloads can resume.
+     */
     @GetMapping("/{fileId}")
-    public ResponseEntity<Resource> download(@PathVariable @NotBlank(message = "fileId is required") String fileId) {
+    public void download(@PathVariable @NotBlank(message = "fileId is required") String fileId,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
         Long userId = StpUtil.getLoginIdAsLong();
         ExportedFileDownload download = exportFileService.getDownload(fileId, userId);
 
-        Resource resource = new FileSystemResource(download.getPath());
         ContentDisposition disposition = ContentDisposition.attachment()
                 .filename(download.getFilename(), StandardCharsets.UTF_8)
                 .build();
+        response.setContentType(download.getMimeType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
 
-        log.info("Downloading export file: fileId={}, userId={}, filename={}", fileId, userId, download.getFilename());
-        return ResponseEntity.ok()
-                .contentLength(download.getSizeBytes())
-                .contentType(MediaType.parseMediaType(download.getMimeType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
-                .body(resource);
+        log.info("Downloading export file: fileId={}, userId={}, filename={}, range={}",
+                fileId, userId, download.getFilename(), request.getHeader(HttpHeaders.RANGE));
+        FileRangeTransferUtil.transfer(download.getPath(), request, response);
     }
 }
@@ -2,7 +2,12 @@ package edu.zsc.ai.aspect;
 
 import edu.zsc.ai.agent.tool.model.AgentToolResult;
 import edu.zsc.ai.common.constant.AgentRuntimeLoggerNames;
+import edu.zsc.ai.common.constant.AgentSpanNames;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
 import edu.zsc.ai.util.JsonUtil;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -21,28 +26,40 @@ public class AgentToolLoggingAspect {
 
     private static final Logger runtimeLog = LoggerFactory.getLogger(AgentRuntimeLoggerNames.TOOL);
 
+    private final AgentMetrics agentMetrics;
+    private final AgentTracing agentTracing;
+
     @Around("@within(edu.zsc.ai.agent.annotation.AgentTool) || @annotation(edu.zsc.ai.agent.annotation.AgentTool)")
     public Object logToolInvocation(ProceedingJoinPoint joinPoint) throws Throwable {
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         long startTime = System.currentTimeMillis();
+        Span span = agentTracing.startSpan(AgentSpanNames.TOOL)
+                .tag(AgentSpanNames.TAG_TOOL, signature.getMethod().getName());
         runtimeLog.info("tool_start class={} method={} arguments={}",
                 signature.getDeclaringType().getSimpleName(),
                 signature.getMethod().getName(),
                 serialize(joinPoint.getArgs()));
-        try {
+        try (Tracer.SpanInScope ignored = agentTracing.activate(span)) {
             Object result = joinPoint.proceed();
+            long elapsedMs = System.currentTimeMillis() - startTime;
+            boolean success = !(result instanceof AgentToolResult toolResult) || toolResult.isSuccess();
+            agentMetrics.recordToolInvocation(signature.getMethod().getName(), success, elapsedMs);
+            agentTracing.end(span.tag(AgentSpanNames.TAG_SUCCESS, success), null);
             runtimeLog.info("tool_complete class={} method={} elapsedMs={} success={} result={}",
                     signature.getDeclaringType().getSimpleName(),
                     signature.getMethod().getName(),
-                    System.currentTimeMillis() - startTime,
-                    !(result instanceof AgentToolResult toolResult) || toolResult.isSuccess(),
+                    elapsedMs,
+                    success,
                     serialize(result));
             return result;
         } catch (Throwable throwable) {
+            long elapsedMs = System.currentTimeMillis() - startTime;
+            agentMetrics.recordToolInvocation(signature.getMethod().getName(), false, elapsedMs);
+            agentTracing.end(span, throwable);
             runtimeLog.error("tool_error class={} method={} elapsedMs={} arguments={}",
                     signature.getDeclaringType().getSimpleName(),
                     signature.getMethod().getName(),
-                    System.currentTimeMillis() - startTime,
+                    elapsedMs,
                     serialize(joinPoint.getArgs()),
                     throwable);
             throw throwable;
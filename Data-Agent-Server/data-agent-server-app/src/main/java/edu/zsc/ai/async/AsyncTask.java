@@ -11,14 +11,22 @@ public class AsyncTask<T> {
 
     private final String id;
     final long createdAt;
+    final Long ownerUserId;
 
     volatile TaskStatus status = TaskStatus.PENDING;
     volatile T result;
     volatile String errorMessage;
     volatile Future<?> future;
+    /** Units of work done so far, as reported by the task itself (rows for exports). */
+    volatile long progress;
 
     AsyncTask(String id) {
+        this(id, null);
+    }
+
+    AsyncTask(String id, Long ownerUserId) {
         this.id = id;
+        this.ownerUserId = ownerUserId;
         this.createdAt = Instant.now().getEpochSecond();
     }
 }
@@ -1,8 +1,10 @@
 package edu.zsc.ai.async;
 
+import edu.zsc.ai.context.AgentExecutionContext;
+import edu.zsc.ai.domain.service.db.impl.SqlStatementRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -10,6 +12,7 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @Component
@@ -21,26 +24,53 @@ public class AsyncTaskManager {
 
 
     public <T> AsyncTask<T> submit(String taskId, Callable<T> callable,
-                                   ThreadPoolTaskExecutor executor) {
-        AsyncTask<T> record = new AsyncTask<>(taskId);
+                                   AsyncTaskExecutor executor) {
+        return submit(taskId, null, callable, executor);
+    }
+
+    /**
+     * Same as {@link #submit(String, Callable, AsyncTaskExecutor)}, recording the user the task belongs to so status
+     * lookups can be scoped to them. If the executor rejects the task it is marked FAILED and the rejection rethrown.
+     */
+    public <T> AsyncTask<T> submit(String taskId, Long ownerUserId, Callable<T> callable,
+                                   AsyncTaskExecutor executor) {
+        AsyncTask<T> record = new AsyncTask<>(taskId, ownerUserId);
         tasks.put(taskId, record);
 
-        Future<?> future = executor.submit(() -> {
-            record.status = TaskStatus.RUNNING;
-            try {
-                record.result = callable.call();
-                record.status = TaskStatus.COMPLETED;
-                log.debug("Async task completed: taskId={}", taskId);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                record.status = TaskStatus.CANCELLED;
-                log.debug("Async task interrupted: taskId={}", taskId);
-            } catch (Exception e) {
-                record.errorMessage = e.getMessage();
-                record.status = TaskStatus.FAILED;
-                log.warn("Async task failed: taskId={}, error={}", taskId, e.getMessage());
-            }
-        });
+        Future<?> future;
+        try {
+            future = executor.submit(() -> {
+                record.status = TaskStatus.RUNNING;
+                String previousTaskId = AgentExecutionContext.getTaskId();
+                // Tags SQL started by the task so cancel() can stop it on the database side too.
+                AgentExecutionContext.setTaskId(taskId);
+                try {
+                    record.result = callable.call();
+                    record.status = TaskStatus.COMPLETED;
+                    log.debug("Async task completed: taskId={}", taskId);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    record.status = TaskStatus.CANCELLED;
+                    log.debug("Async task interrupted: taskId={}", taskId);
+                } catch (Exception e) {
+                    if (record.status == TaskStatus.CANCELLED) {
+                        // cancel() stopped the running SQL; the resulting error is expected.
+                        log.debug("Async task cancelled: taskId={}", taskId);
+                        return;
+                    }
+                    record.errorMessage = e.getMessage();
+                    record.status = TaskStatus.FAILED;
+                    log.warn("Async task failed: taskId={}, error={}", taskId, e.getMessage());
+                } finally {
+                    AgentExecutionContext.setTaskId(previousTaskId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            record.errorMessage = e.getMessage();
+            record.status = TaskStatus.FAILED;
+            log.warn("Async task rejected: taskId={}, error={}", taskId, e.getMessage());
+            throw e;
+        }
         record.future = future;
         return record;
     }
@@ -52,6 +82,17 @@ public class AsyncTaskManager {
     }
 
 
+    /**
+     * Records how much work a running task has done. Unknown task ids are ignored.
+     */
+    public void reportProgress(String taskId, long progress) {
+        AsyncTask<?> record = tasks.get(taskId);
+        if (record != null) {
+            record.progress = progress;
+        }
+    }
+
+
     public boolean cancel(String taskId) {
         AsyncTask<?> record = tasks.get(taskId);
         if (record == null || isTerminal(record.status)) {
@@ -61,6 +102,7 @@ public class AsyncTaskManager {
         if (record.future != null) {
             record.future.cancel(true);
         }
+        SqlStatementRegistry.cancelTask(taskId);
         return true;
     }
 
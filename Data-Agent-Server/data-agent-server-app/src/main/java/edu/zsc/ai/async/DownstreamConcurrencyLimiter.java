@@ -0,0 +1,67 @@
+package edu.zsc.ai.async;
+
+import edu.zsc.ai.config.ExecutorProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fair per-downstream permits (one target connection, one chat model) that bound concurrency independently of
+ * how many threads the executors can start.
+ * <p>
+ * Background agent runs against a model draw from their own budget, so a burst of memory writes never holds the
+ * permits a user-facing explorer sub-agent is waiting for.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DownstreamConcurrencyLimiter {
+
+    private static final String CONNECTION_KEY_PREFIX = "connection:";
+    private static final String MODEL_KEY_PREFIX = "model:";
+    private static final String BACKGROUND_MODEL_KEY_PREFIX = "background-model:";
+
+    private final ExecutorProperties executorProperties;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public <T> T withConnectionPermit(Long connectionId, Supplier<T> work) {
+        return withPermit(CONNECTION_KEY_PREFIX + connectionId,
+                executorProperties.getLimits().getPerConnection(), work);
+    }
+
+    public <T> T withModelPermit(String modelName, Supplier<T> work) {
+        return withPermit(MODEL_KEY_PREFIX + modelName,
+                executorProperties.getLimits().getPerModel(), work);
+    }
+
+    public <T> T withBackgroundModelPermit(String modelName, Supplier<T> work) {
+        return withPermit(BACKGROUND_MODEL_KEY_PREFIX + modelName,
+                executorProperties.getLimits().getPerModelBackground(), work);
+    }
+
+    private <T> T withPermit(String key, int limit, Supplier<T> work) {
+        Semaphore semaphore = permits.computeIfAbsent(key, ignored -> new Semaphore(Math.max(1, limit), true));
+        long timeoutMs = executorProperties.getLimits().getAcquireTimeoutMs();
+        try {
+            if (!semaphore.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Downstream permit wait timed out: key={}, limit={}, timeoutMs={}", key, limit, timeoutMs);
+                throw new RejectedExecutionException("Too many concurrent calls to " + key + ", waited " + timeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a permit on " + key, e);
+        }
+        try {
+            return work.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+}
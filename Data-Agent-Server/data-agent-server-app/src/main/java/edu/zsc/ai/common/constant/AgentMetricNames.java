@@ -0,0 +1,68 @@
+package edu.zsc.ai.common.constant;
+
+/**
+ * Micrometer meter and tag names exported through Actuator / Prometheus.
+ * All agent meters share the {@code agent.} prefix so histogram publishing can be toggled in one place.
+ */
+public final class AgentMetricNames {
+
+    public static final String CHAT_FIRST_TOKEN = "agent.chat.first.token";
+    public static final String CHAT_TURN = "agent.chat.turn";
+    public static final String CHAT_TOOL_CALLS = "agent.chat.tool.calls";
+    public static final String CHAT_OUTPUT_TOKENS = "agent.chat.output.tokens";
+    public static final String CHAT_PREPARE_PHASE = "agent.chat.prepare.phase";
+
+    public static final String TOOL_INVOCATION = "agent.tool.invocation";
+
+    public static final String SQL_EXECUTE = "agent.sql.execute";
+    public static final String SQL_FETCH = "agent.sql.fetch";
+    public static final String SQL_FAILURES = "agent.sql.failures";
+    public static final String SQL_CACHE = "agent.sql.cache";
+
+    public static final String MEMORY_EMBEDDING = "agent.memory.embedding";
+    public static final String MEMORY_VECTOR_SEARCH = "agent.memory.vector.search";
+    public static final String MEMORY_COMPRESSION = "agent.memory.compression";
+    public static final String MEMORY_AUTOWRITE_QUEUED = "agent.memory.autowrite.queued";
+    public static final String MEMORY_AUTOWRITE_ACTIVE = "agent.memory.autowrite.active";
+    public static final String MEMORY_AUTOWRITE_PENDING = "agent.memory.autowrite.pending";
+
+    public static final String SUB_AGENT_QUEUE_WAIT = "agent.subagent.queue.wait";
+    public static final String SUB_AGENT_QUEUED = "agent.subagent.queued";
+    public static final String SUB_AGENT_RUNNING = "agent.subagent.running";
+    public static final String SUB_AGENT_CANCELLED = "agent.subagent.cancelled";
+
+    public static final String TAG_MODEL = "model";
+    public static final String TAG_TOOL = "tool";
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String TAG_DB_TYPE = "db.type";
+    public static final String TAG_OPERATION = "operation";
+    public static final String TAG_STAGE = "stage";
+    public static final String TAG_PHASE = "phase";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+    public static final String OUTCOME_HIT = "hit";
+    public static final String OUTCOME_MISS = "miss";
+    public static final String OUTCOME_TIMEOUT = "timeout";
+    public static final String OUTCOME_REJECTED = "rejected";
+
+    public static final String OPERATION_RECALL = "recall";
+    public static final String OPERATION_WRITE = "write";
+    public static final String OPERATION_DEDUP = "dedup";
+    public static final String OPERATION_REINDEX = "reindex";
+
+    public static final String PHASE_AGENT = "agent";
+    public static final String PHASE_CONVERSATION = "conversation";
+    public static final String PHASE_CONNECTIONS = "connections";
+    public static final String PHASE_SESSION = "session";
+    public static final String PHASE_WORKING_MEMORY = "working_memory";
+    public static final String PHASE_RECALL = "recall";
+
+    public static final String STAGE_QUEUED = "queued";
+    public static final String STAGE_RUNNING = "running";
+
+    public static final String UNKNOWN = "unknown";
+
+    private AgentMetricNames() {
+    }
+}
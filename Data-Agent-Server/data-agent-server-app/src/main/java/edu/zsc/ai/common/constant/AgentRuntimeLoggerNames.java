@@ -10,6 +10,7 @@ public final class AgentRuntimeLoggerNames {
     public static final String MEMORY = "agent.runtime.memory";
     public static final String MEMORY_RECALL = "agent.runtime.memory.recall";
     public static final String MEMORY_COMPRESSION = "agent.runtime.memory.compression";
+    public static final String TRACE = "agent.runtime.trace";
 
     private AgentRuntimeLoggerNames() {
     }
@@ -0,0 +1,30 @@
+package edu.zsc.ai.common.constant;
+
+/**
+ * Span and span-tag names used by {@code AgentTracing}.
+ * One chat turn is the root; tools, sub-agent tasks, SQL statements and memory calls are its descendants.
+ */
+public final class AgentSpanNames {
+
+    public static final String CHAT_TURN = "agent.chat.turn";
+    public static final String TOOL = "agent.tool";
+    public static final String SUB_AGENT_EXPLORER = "agent.subagent.explorer";
+    public static final String SQL_EXECUTE = "agent.sql.execute";
+    public static final String MEMORY_EMBEDDING = "agent.memory.embedding";
+    public static final String MEMORY_VECTOR_SEARCH = "agent.memory.vector.search";
+
+    public static final String TAG_CONVERSATION_ID = "conversation.id";
+    public static final String TAG_MODEL = "agent.model";
+    public static final String TAG_AGENT_MODE = "agent.mode";
+    public static final String TAG_TOOL = "agent.tool.name";
+    public static final String TAG_TOOL_COUNT = "agent.tool.count";
+    public static final String TAG_TASK_ID = "agent.task.id";
+    public static final String TAG_CONNECTION_ID = "db.connection.id";
+    public static final String TAG_DB_TYPE = "db.system";
+    public static final String TAG_STATEMENT_COUNT = "db.statement.count";
+    public static final String TAG_OPERATION = "agent.memory.operation";
+    public static final String TAG_SUCCESS = "success";
+
+    private AgentSpanNames() {
+    }
+}
@@ -20,6 +20,8 @@ public final class InvocationContextConstant {
     public static final String READABLE_CONNECTION_IDS = "readableConnectionIds";
     public static final String MODEL_NAME = "modelName";
     public static final String LANGUAGE = "language";
+    /** Sub-agent task id; lets tool threads tag the SQL they start so a task timeout can cancel it. */
+    public static final String TASK_ID = "taskId";
 
     public static final String WORKSPACE_TYPE = "workspaceType";
     public static final String ORG_ID = "orgId";
@@ -41,6 +41,7 @@ public final class MemoryRecallLogConstant {
     public static final String EXECUTION_PATH_HYBRID_SEMANTIC = "hybrid_semantic";
     public static final String EXECUTION_PATH_HYBRID_BROWSE_FALLBACK = "hybrid_browse_fallback";
     public static final String EXECUTION_PATH_HYBRID_CONVERSATION_BROWSE_FALLBACK = "hybrid_conversation_browse_fallback";
+    public static final String EXECUTION_PATH_LEXICAL = "lexical";
     public static final String EXECUTION_PATH_SEMANTIC_EXCEPTION_FALLBACK = "semantic_exception_fallback";
 
     private MemoryRecallLogConstant() {
@@ -40,6 +40,7 @@ public enum ToolNameEnum {
 
     // ── File export ──
     EXPORT_FILE("exportFile"),
+    EXPORT_QUERY_RESULT("exportQueryResult"),
 
     // ── Task management ──
     TODO_WRITE("todoWrite"),
@@ -1,15 +1,18 @@
 package edu.zsc.ai.config;
 
 import edu.zsc.ai.config.ai.MemoryProperties;
-import org.springframework.beans.factory.annotation.Value;
+import edu.zsc.ai.context.RequestContextTaskDecorator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 /**
  * Global shared thread pool for discovery, async tasks, and all parallel IO scenarios.
+ * When {@code app.executor.virtual-threads} is enabled every pool here starts one virtual thread per task.
  */
 @Configuration
 public class ExecutorConfig {
@@ -20,18 +23,25 @@ public class ExecutorConfig {
     /** Dedicated pool for chat-completion and memory-autowrite async listeners. */
     public static final String MEMORY_AUTOWRITE_EXECUTOR_BEAN_NAME = "memoryAutoWriteExecutor";
 
+    private static final long TERMINATION_TIMEOUT_MS = 10_000L;
+
     /**
      * Global bounded thread pool. Used by discovery (getDatabases / getSchemas / searchObjects),
      * AsyncTaskManager, etc. Lifecycle managed by Spring (graceful shutdown).
+     * Tasks inherit the submitting thread's request context and trace span.
      */
     @Bean(name = SHARED_EXECUTOR_BEAN_NAME)
-    public Executor sharedExecutor(
-            @Value("${app.executor.pool-size:20}") int poolSize) {
+    public Executor sharedExecutor(ExecutorProperties executorProperties,
+                                   RequestContextTaskDecorator requestContextTaskDecorator) {
+        if (executorProperties.isVirtualThreads()) {
+            return virtualThreadExecutor("app-vt-", requestContextTaskDecorator);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(poolSize);
-        executor.setMaxPoolSize(poolSize);
+        executor.setCorePoolSize(executorProperties.getPoolSize());
+        executor.setMaxPoolSize(executorProperties.getPoolSize());
         executor.setQueueCapacity(0);
         executor.setThreadNamePrefix("app-");
+        executor.setTaskDecorator(requestContextTaskDecorator);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(10);
         executor.initialize();
@@ -39,16 +49,34 @@ public class ExecutorConfig {
     }
 
     @Bean(name = MEMORY_AUTOWRITE_EXECUTOR_BEAN_NAME)
-    public Executor memoryAutoWriteExecutor(MemoryProperties memoryProperties) {
+    public Executor memoryAutoWriteExecutor(MemoryProperties memoryProperties,
+                                            ExecutorProperties executorProperties,
+                                            RequestContextTaskDecorator requestContextTaskDecorator) {
+        if (executorProperties.isVirtualThreads()) {
+            return virtualThreadExecutor("mem-autowrite-vt-", requestContextTaskDecorator);
+        }
         MemoryProperties.Autowrite.Executor cfg = memoryProperties.getAutowrite().getExecutor();
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(cfg.getCorePoolSize());
         executor.setMaxPoolSize(cfg.getMaxPoolSize());
         executor.setQueueCapacity(cfg.getQueueCapacity());
         executor.setThreadNamePrefix("mem-autowrite-");
+        executor.setTaskDecorator(requestContextTaskDecorator);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(10);
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Unpooled executor: concurrency is bounded per downstream by {@code DownstreamConcurrencyLimiter}.
+     * Fails fast at startup on runtimes without virtual thread support.
+     */
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, TaskDecorator taskDecorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(taskDecorator);
+        executor.setTaskTerminationTimeout(TERMINATION_TIMEOUT_MS);
+        return executor;
+    }
 }
@@ -0,0 +1,52 @@
+package edu.zsc.ai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application executor settings.
+ * <p>
+ * With {@code virtual-threads: true} (requires a Java 21 runtime) the shared, explorer and memory-autowrite pools
+ * start one virtual thread per task instead of using fixed platform pools; concurrency is then bounded by the
+ * per-downstream {@link Limits} rather than by thread count.
+ *
+ * <pre>
+ * app:
+ *   executor:
+ *     pool-size: 20
+ *     virtual-threads: false
+ *     limits:
+ *       per-connection: 8
+ *       per-model: 4
+ *       per-model-background: 2
+ *       acquire-timeout-ms: 60000
+ * </pre>
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.executor")
+public class ExecutorProperties {
+
+    private int poolSize = 20;
+
+    private boolean virtualThreads = false;
+
+    private Limits limits = new Limits();
+
+    @Data
+    public static class Limits {
+
+        /** Concurrent metadata / discovery calls against one target connection. */
+        private int perConnection = 8;
+
+        /** Concurrent explorer sub-agent runs against one chat model. */
+        private int perModel = 4;
+
+        /** Concurrent background-agent runs (memory auto-write) against one chat model. */
+        private int perModelBackground = 2;
+
+        /** How long a task waits for a permit before it is rejected. */
+        private long acquireTimeoutMs = 60_000L;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.zsc.ai.config;
+
+import edu.zsc.ai.agent.subagent.SubAgentScheduler;
+import edu.zsc.ai.common.constant.AgentMetricNames;
+import edu.zsc.ai.domain.service.ai.autowrite.ConversationMemoryAutoWriteCoordinator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Gauges that are read from long-lived components rather than recorded per call.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Auto-write backlog: tasks queued on the executor plus per-conversation in-flight / pending runs.
+     */
+    @Bean
+    public MeterBinder memoryAutoWriteMetrics(
+            @Qualifier(ExecutorConfig.MEMORY_AUTOWRITE_EXECUTOR_BEAN_NAME) Executor memoryAutoWriteExecutor,
+            ConversationMemoryAutoWriteCoordinator autoWriteCoordinator) {
+        return registry -> {
+            if (memoryAutoWriteExecutor instanceof ThreadPoolTaskExecutor pool) {
+                Gauge.builder(AgentMetricNames.MEMORY_AUTOWRITE_QUEUED,
+                                pool, p -> p.getThreadPoolExecutor().getQueue().size())
+                        .description("Memory auto-write tasks waiting for an executor thread")
+                        .register(registry);
+                Gauge.builder(AgentMetricNames.MEMORY_AUTOWRITE_ACTIVE, pool, ThreadPoolTaskExecutor::getActiveCount)
+                        .description("Memory auto-write executor threads currently busy")
+                        .register(registry);
+            }
+            Gauge.builder(AgentMetricNames.MEMORY_AUTOWRITE_PENDING,
+                            autoWriteCoordinator, ConversationMemoryAutoWriteCoordinator::getPendingCount)
+                    .description("Conversations with a queued follow-up memory extraction")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Explorer fair-share scheduler depth: tasks waiting for a slot and tasks currently running.
+     */
+    @Bean
+    public MeterBinder subAgentSchedulerMetrics(SubAgentScheduler subAgentScheduler) {
+        return registry -> {
+            Gauge.builder(AgentMetricNames.SUB_AGENT_QUEUED, subAgentScheduler, SubAgentScheduler::getQueuedCount)
+                    .description("Explorer sub-agent tasks waiting in the fair-share queue")
+                    .register(registry);
+            Gauge.builder(AgentMetricNames.SUB_AGENT_RUNNING, subAgentScheduler, SubAgentScheduler::getRunningCount)
+                    .description("Explorer sub-agent tasks currently running")
+                    .register(registry);
+        };
+    }
+}
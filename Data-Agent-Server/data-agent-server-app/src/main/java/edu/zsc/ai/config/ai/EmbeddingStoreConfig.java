@@ -18,19 +18,34 @@ import dev.langchain4j.store.embedding.pgvector.PgVectorEmbeddingStore;
 @EnableConfigurationProperties({MemoryProperties.class, AiEmbeddingProperties.class})
 public class EmbeddingStoreConfig {
 
-    private static final String EMBEDDING_TABLE = "ai_memory_embedding";
-    private static final int INDEX_LIST_SIZE = 100;
+    public static final String EMBEDDING_TABLE = "ai_memory_embedding";
 
+    /**
+     * Indexes are left to {@link MemoryEmbeddingIndexManager}; LangChain4j would only add an IVFFlat index.
+     */
     @Bean
     public EmbeddingStore<TextSegment> memoryEmbeddingStore(DataSource dataSource,
-                                                            AiEmbeddingProperties embeddingProperties) {
+                                                            AiEmbeddingProperties embeddingProperties,
+                                                            MemoryProperties memoryProperties) {
+        MemoryProperties.VectorStore vectorStore = memoryProperties.getVectorStore();
+        DataSource storeDataSource = vectorStore.getIndexType() == MemoryProperties.VectorIndexType.HNSW
+                && vectorStore.getHnswEfSearch() > 0
+                ? new HnswSearchDataSource(dataSource, vectorStore.getHnswEfSearch())
+                : dataSource;
+        return pgVectorStore(storeDataSource, EMBEDDING_TABLE, embeddingProperties.getDimension());
+    }
+
+    /**
+     * A store over {@code table} with the memory store's layout, creating the table if it does not exist. An existing
+     * table keeps its column type, so a dimension change needs a new table.
+     */
+    public static EmbeddingStore<TextSegment> pgVectorStore(DataSource dataSource, String table, int dimension) {
         return PgVectorEmbeddingStore.datasourceBuilder()
                 .datasource(dataSource)
-                .table(EMBEDDING_TABLE)
-                .dimension(embeddingProperties.getDimension())
+                .table(table)
+                .dimension(dimension)
                 .createTable(true)
-                .useIndex(true)
-                .indexListSize(INDEX_LIST_SIZE)
+                .useIndex(false)
                 .metadataStorageConfig(DefaultMetadataStorageConfig.builder()
                         .storageMode(MetadataStorageMode.COMBINED_JSONB)
                         .columnDefinitions(Collections.singletonList("metadata JSONB NULL"))
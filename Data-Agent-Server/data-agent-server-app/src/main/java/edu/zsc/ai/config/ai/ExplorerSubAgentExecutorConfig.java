@@ -1,13 +1,18 @@
 package edu.zsc.ai.config.ai;
 
+import edu.zsc.ai.config.ExecutorProperties;
+import edu.zsc.ai.context.RequestContextTaskDecorator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -15,14 +20,40 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * Dedicated executor for concurrent explorer sub-agent tasks.
  * Fixed concurrency at 3 workers and uses a bounded blocking queue to apply backpressure.
+ * Submitted tasks keep the caller's request context and trace span so sub-agent work nests under the dispatching
+ * tool call.
+ * <p>
+ * In virtual-thread mode every task gets its own virtual thread and concurrency is bounded per model by
+ * {@code DownstreamConcurrencyLimiter}.
  */
 @Configuration
 public class ExplorerSubAgentExecutorConfig {
 
     public static final String EXPLORER_SUB_AGENT_EXECUTOR_BEAN = "explorerSubAgentExecutor";
 
+    private static final String THREAD_NAME_PREFIX = "explorer-sub-agent-";
+
     @Bean(name = EXPLORER_SUB_AGENT_EXECUTOR_BEAN, destroyMethod = "shutdown")
-    public ExecutorService explorerSubAgentExecutor(SubAgentProperties properties) {
+    public ExecutorService explorerSubAgentExecutor(SubAgentProperties properties,
+                                                    ExecutorProperties executorProperties,
+                                                    RequestContextTaskDecorator requestContextTaskDecorator) {
+        if (executorProperties.isVirtualThreads()) {
+            ThreadFactory virtualThreadFactory = new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX).getVirtualThreadFactory();
+            return new ThreadPoolExecutor(
+                    0,
+                    Integer.MAX_VALUE,
+                    1L,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    virtualThreadFactory
+            ) {
+                @Override
+                public void execute(Runnable command) {
+                    super.execute(requestContextTaskDecorator.decorate(command));
+                }
+            };
+        }
+
         int maxConcurrency = Math.max(1, properties.getExplorer().getDispatch().getMaxConcurrency());
         int queueCapacity = Math.max(1, properties.getExplorer().getDispatch().getQueueCapacity());
         BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
@@ -48,12 +79,17 @@ public class ExplorerSubAgentExecutorConfig {
                 queue,
                 runnable -> {
                     Thread thread = new Thread(runnable);
-                    thread.setName("explorer-sub-agent-" + threadCounter.getAndIncrement());
+                    thread.setName(THREAD_NAME_PREFIX + threadCounter.getAndIncrement());
                     thread.setDaemon(true);
                     return thread;
                 },
                 blockingPolicy
-        );
+        ) {
+            @Override
+            public void execute(Runnable command) {
+                super.execute(requestContextTaskDecorator.decorate(command));
+            }
+        };
         return delegate;
     }
 }
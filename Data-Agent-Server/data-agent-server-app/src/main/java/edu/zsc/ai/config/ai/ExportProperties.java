@@ -0,0 +1,35 @@
+package edu.zsc.ai.config.ai;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Storage and retention of generated export files.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "ai.export")
+public class ExportProperties {
+
+    /**
+     * Directory holding export files; point every node at the same shared directory in multi-node setups.
+     * Blank uses {@code ${java.io.tmpdir}/data-agent/exports}.
+     */
+    private String directory = "";
+
+    /**
+     * How long an export stays downloadable; {@code <= 0} keeps files until the quota evicts them.
+     */
+    private long ttlMs = 86_400_000L;
+
+    /**
+     * Upper bound on the combined size of all export files, oldest evicted first; {@code <= 0} disables the quota.
+     */
+    private long maxTotalBytes = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * How often expired and over-quota files are removed.
+     */
+    private long cleanupIntervalMs = 600_000L;
+}
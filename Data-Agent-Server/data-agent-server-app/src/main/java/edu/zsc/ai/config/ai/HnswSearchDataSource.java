@@ -0,0 +1,62 @@
+package edu.zsc.ai.config.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Data source for the memory embedding store that sets {@code hnsw.ef_search} on each physical connection.
+ * <p>
+ * The setting is session scoped and pooled connections keep their session, so it is issued once per physical
+ * connection (found by unwrapping the pool proxy) instead of once per recall. It only affects HNSW scans.
+ */
+@Slf4j
+class HnswSearchDataSource extends DelegatingDataSource {
+
+    private final int efSearch;
+    private final Set<Connection> configured = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    HnswSearchDataSource(DataSource targetDataSource, int efSearch) {
+        super(targetDataSource);
+        this.efSearch = efSearch;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return configure(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return configure(super.getConnection(username, password));
+    }
+
+    private Connection configure(Connection connection) throws SQLException {
+        Connection physical = physicalConnection(connection);
+        if (configured.contains(physical)) {
+            return connection;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET hnsw.ef_search = " + efSearch);
+            configured.add(physical);
+        } catch (SQLException e) {
+            log.warn("Failed to set hnsw.ef_search, recall uses the server default: {}", e.getMessage());
+        }
+        return connection;
+    }
+
+    private static Connection physicalConnection(Connection connection) {
+        try {
+            return connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+        } catch (SQLException e) {
+            return connection;
+        }
+    }
+}
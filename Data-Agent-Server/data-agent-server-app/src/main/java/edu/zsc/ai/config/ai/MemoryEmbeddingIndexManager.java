@@ -0,0 +1,235 @@
+package edu.zsc.ai.config.ai;
+
+import edu.zsc.ai.common.constant.MemoryMetadataConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static edu.zsc.ai.config.ExecutorConfig.SHARED_EXECUTOR_BEAN_NAME;
+
+/**
+ * Keeps the indexes of {@code ai_memory_embedding} in line with {@code memory.vector-store}.
+ * <p>
+ * LangChain4j only knows how to build an IVFFlat index and no metadata indexes, so the store is created without
+ * indexes and this class owns them:
+ * <ul>
+ *     <li>an expression index on the JSONB keys recall filters on, cast exactly as the pgvector filter mapper casts
+ *     them, so {@code userId}/{@code enable}/{@code scope}/{@code memoryType} predicates become index scans;</li>
+ *     <li>one ANN index whose name encodes its parameters, e.g. {@code ai_memory_embedding_hnsw_m16_efc64}.</li>
+ * </ul>
+ * After startup the plan is applied in the background with {@code CREATE INDEX CONCURRENTLY}, so writes keep flowing
+ * while an index builds. A new ANN index is built before superseded ones (including LangChain4j's
+ * {@code ai_memory_embedding_ivfflat_index}) are dropped, and invalid leftovers of an interrupted build are rebuilt.
+ * A session advisory lock keeps several nodes from building the same index.
+ * <p>
+ * The same plan can be applied to another table with the store's layout, such as the re-index shadow table; index
+ * names then start with that table's name instead.
+ */
+@Slf4j
+@Component
+public class MemoryEmbeddingIndexManager {
+
+    static final String METADATA_INDEX_SUFFIX = "_recall_filter_idx";
+    static final String HNSW_INDEX_SUFFIX = "_hnsw_";
+    static final String IVFFLAT_INDEX_SUFFIX = "_ivfflat_";
+    static final String METADATA_INDEX_NAME = EmbeddingStoreConfig.EMBEDDING_TABLE + METADATA_INDEX_SUFFIX;
+
+    private static final long ADVISORY_LOCK_KEY = 0x6169_6d65_6d69_6478L;
+
+    private static final String EXISTING_INDEXES_SQL = """
+            SELECT c.relname, i.indisvalid
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            JOIN pg_class t ON t.oid = i.indrelid
+            WHERE t.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemoryProperties memoryProperties;
+    private final Executor executor;
+
+    public MemoryEmbeddingIndexManager(JdbcTemplate jdbcTemplate,
+                                       MemoryProperties memoryProperties,
+                                       @Qualifier(SHARED_EXECUTOR_BEAN_NAME) Executor sharedExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memoryProperties = memoryProperties;
+        this.executor = sharedExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexesOnStartup() {
+        if (!memoryProperties.isEnabled() || !memoryProperties.getVectorStore().isManageIndexes()) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                ensureIndexes();
+            } catch (RuntimeException e) {
+                log.warn("Failed to build memory embedding indexes, recall falls back to existing indexes", e);
+            }
+        });
+    }
+
+    /**
+     * Applies the index plan to {@code ai_memory_embedding}.
+     *
+     * @return the statements executed, empty if the indexes were already in place or another node holds the lock
+     */
+    public List<String> ensureIndexes() {
+        return ensureIndexes(EmbeddingStoreConfig.EMBEDDING_TABLE);
+    }
+
+    /**
+     * Applies the index plan to {@code table} on one connection while holding the advisory lock.
+     *
+     * @return the statements executed, empty if the indexes were already in place or another node holds the lock
+     */
+    public List<String> ensureIndexes(String table) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            if (!tryLock(connection)) {
+                log.info("Memory embedding indexes are being built by another node, skipping");
+                return List.of();
+            }
+            try {
+                List<String> statements = plan(table, memoryProperties.getVectorStore(), existingIndexes(connection, table));
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : statements) {
+                        long start = System.currentTimeMillis();
+                        statement.execute(sql);
+                        log.info("Memory embedding index statement done in {}ms: {}", System.currentTimeMillis() - start, sql);
+                    }
+                }
+                return statements;
+            } finally {
+                unlock(connection);
+            }
+        });
+    }
+
+    static List<String> plan(MemoryProperties.VectorStore config, Map<String, Boolean> existing) {
+        return plan(EmbeddingStoreConfig.EMBEDDING_TABLE, config, existing);
+    }
+
+    /**
+     * Computes the DDL that brings {@code table} from {@code existing} (index name to validity) to the configured
+     * layout.
+     */
+    static List<String> plan(String table, MemoryProperties.VectorStore config, Map<String, Boolean> existing) {
+        List<String> statements = new ArrayList<>();
+        String metadataIndexName = table + METADATA_INDEX_SUFFIX;
+        if (config.isMetadataIndexEnabled()) {
+            ensure(statements, existing, metadataIndexName, metadataIndexDdl(table));
+        } else if (existing.containsKey(metadataIndexName)) {
+            statements.add(dropDdl(metadataIndexName));
+        }
+
+        String vectorIndexName = vectorIndexName(table, config);
+        ensure(statements, existing, vectorIndexName, vectorIndexDdl(table, config));
+        for (String name : existing.keySet()) {
+            boolean annIndex = name.startsWith(table + HNSW_INDEX_SUFFIX) || name.startsWith(table + IVFFLAT_INDEX_SUFFIX);
+            if (annIndex && !name.equals(vectorIndexName)) {
+                statements.add(dropDdl(name));
+            }
+        }
+        return statements;
+    }
+
+    static String vectorIndexName(MemoryProperties.VectorStore config) {
+        return vectorIndexName(EmbeddingStoreConfig.EMBEDDING_TABLE, config);
+    }
+
+    static String vectorIndexName(String table, MemoryProperties.VectorStore config) {
+        return switch (config.getIndexType()) {
+            case HNSW -> table + HNSW_INDEX_SUFFIX + "m" + config.getHnswM() + "_efc" + config.getHnswEfConstruction();
+            case IVFFLAT -> table + IVFFLAT_INDEX_SUFFIX + "lists" + config.getIvfflatLists();
+        };
+    }
+
+    static String vectorIndexDdl(MemoryProperties.VectorStore config) {
+        return vectorIndexDdl(EmbeddingStoreConfig.EMBEDDING_TABLE, config);
+    }
+
+    static String vectorIndexDdl(String table, MemoryProperties.VectorStore config) {
+        String method = switch (config.getIndexType()) {
+            case HNSW -> "hnsw (embedding vector_cosine_ops) WITH (m = %d, ef_construction = %d)"
+                    .formatted(config.getHnswM(), config.getHnswEfConstruction());
+            case IVFFLAT -> "ivfflat (embedding vector_cosine_ops) WITH (lists = %d)"
+                    .formatted(config.getIvfflatLists());
+        };
+        return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + vectorIndexName(table, config)
+                + " ON " + table + " USING " + method;
+    }
+
+    static String metadataIndexDdl() {
+        return metadataIndexDdl(EmbeddingStoreConfig.EMBEDDING_TABLE);
+    }
+
+    static String metadataIndexDdl(String table) {
+        return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + table + METADATA_INDEX_SUFFIX
+                + " ON " + table + " ("
+                + "((metadata->>'" + MemoryMetadataConstant.USER_ID + "')::bigint), "
+                + "((metadata->>'" + MemoryMetadataConstant.ENABLE + "')::int), "
+                + "(metadata->>'" + MemoryMetadataConstant.SCOPE + "'), "
+                + "(metadata->>'" + MemoryMetadataConstant.MEMORY_TYPE + "'))";
+    }
+
+    private static void ensure(List<String> statements, Map<String, Boolean> existing, String name, String ddl) {
+        Boolean valid = existing.get(name);
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (valid != null) {
+            // Left INVALID by an interrupted concurrent build; IF NOT EXISTS would keep it forever.
+            statements.add(dropDdl(name));
+        }
+        statements.add(ddl);
+    }
+
+    private static String dropDdl(String name) {
+        return "DROP INDEX CONCURRENTLY IF EXISTS " + name;
+    }
+
+    private static Map<String, Boolean> existingIndexes(Connection connection, String table) throws SQLException {
+        Map<String, Boolean> existing = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(EXISTING_INDEXES_SQL)) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    existing.put(rs.getString(1), rs.getBoolean(2));
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
@@ -14,10 +14,134 @@ public class MemoryProperties {
 
     private Autowrite autowrite = new Autowrite();
 
+    private Access access = new Access();
+
+    private VectorStore vectorStore = new VectorStore();
+
+    private Reindex reindex = new Reindex();
+
+    private LocalIndex localIndex = new LocalIndex();
+
+    private Lexical lexical = new Lexical();
+
     @Data
     public static class Retrieval {
 
         private double minScore = 0.72;
+
+        /** Maximum memories returned by one browse recall; the best ones by scope, access count and recency. */
+        private int browseLimit = 50;
+
+        /** Rows per keyset query when {@code getEnabledMemorySummaries(userId)} reads all summaries. */
+        private int summaryPageSize = 200;
+
+        /** Deadline for prompt-time recall; when it passes the prompt is built without recalled memories. 0 waits. */
+        private long promptRecallTimeoutMs = 1_500L;
+    }
+
+    /**
+     * Recall access statistics ({@code access_count}, {@code last_accessed_at}).
+     */
+    @Data
+    public static class Access {
+
+        /** When true, accesses are buffered in memory and flushed in batches instead of written per recall. */
+        private boolean writeBehindEnabled = true;
+
+        /** How often buffered accesses are flushed. */
+        private long flushIntervalMs = 5_000L;
+
+        /** Maximum memories updated by one batched statement. */
+        private int maxBatchSize = 500;
+    }
+
+    /**
+     * Indexes of the {@code ai_memory_embedding} pgvector table.
+     */
+    @Data
+    public static class VectorStore {
+
+        /** ANN index used for recall. HNSW keeps recall quality stable as the table grows; IVFFlat builds faster. */
+        private VectorIndexType indexType = VectorIndexType.HNSW;
+
+        /** When true, missing indexes are built concurrently after startup and superseded ones are dropped. */
+        private boolean manageIndexes = true;
+
+        /** Expression index on the metadata keys every recall filters on (user, enable, scope, memory type). */
+        private boolean metadataIndexEnabled = true;
+
+        /** HNSW {@code m}: links per node. Changing it builds a new index next to the old one. */
+        private int hnswM = 16;
+
+        /** HNSW {@code ef_construction}. Changing it builds a new index next to the old one. */
+        private int hnswEfConstruction = 64;
+
+        /** {@code hnsw.ef_search} applied to recall connections; 0 keeps the server default. */
+        private int hnswEfSearch = 100;
+
+        /** IVFFlat {@code lists}, only used when {@code index-type} is IVFFLAT. */
+        private int ivfflatLists = 100;
+    }
+
+    /**
+     * Bulk re-embedding of every memory, e.g. after changing the embedding model.
+     */
+    @Data
+    public static class Reindex {
+
+        /** When true, a re-index for the current model starts (or resumes) after startup unless it already completed. */
+        private boolean autoStart = false;
+
+        /** Memories read from {@code ai_memory} and upserted into the store per round trip. */
+        private int pageSize = 500;
+
+        /** Texts per embedding request; keep at or below the provider's batch limit. */
+        private int batchSize = 10;
+
+        /** Upper bound on embedding requests per second; 0 disables throttling. */
+        private double maxRequestsPerSecond = 5.0;
+    }
+
+    /**
+     * In-process copy of each recently active user's memory vectors, searched before pgvector.
+     */
+    @Data
+    public static class LocalIndex {
+
+        private boolean enabled = false;
+
+        /** Users with more enabled memories than this always recall through pgvector. */
+        private int maxMemoriesPerUser = 5_000;
+
+        /** Upper bound on vector bytes held across all users; the least recently used users are evicted first. */
+        private long maxBytes = 256L * 1024 * 1024;
+
+        /** A user's index is reloaded after this long, bounding staleness from writes made on other nodes. */
+        private long ttlMs = 600_000L;
+    }
+
+    /**
+     * Full-text / trigram prefilter in front of semantic recall.
+     */
+    @Data
+    public static class Lexical {
+
+        private boolean enabled = false;
+
+        /**
+         * Lexical score (0..1) at which a candidate is trusted without the embedding model: the share of the query's
+         * non-stop-word terms the memory contains, or its title's trigram similarity to the query if higher. Only
+         * candidates at or above it are returned; below it the query goes through semantic recall as usual.
+         */
+        private double confidentScore = 0.6;
+
+        /** Maximum candidates read from the lexical indexes per query. */
+        private int candidateLimit = 20;
+    }
+
+    public enum VectorIndexType {
+        HNSW,
+        IVFFLAT
     }
 
     /**
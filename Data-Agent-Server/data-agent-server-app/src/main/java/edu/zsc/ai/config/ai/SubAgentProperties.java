@@ -18,6 +18,8 @@ import org.springframework.context.annotation.Configuration;
  *       dispatch:
  *         max-concurrency: 3
  *         queue-capacity: 9
+ *         max-per-user: 2
+ *         max-per-conversation: 2
  *     planner:
  *       timeout-seconds: 180
  *     max-explorer-loop: 3
@@ -58,5 +60,9 @@ public class SubAgentProperties {
     public static class DispatchConfig {
         private int maxConcurrency = 3;
         private int queueCapacity = 9;
+        /** Running explorer tasks one user may hold; further tasks wait in that user's fair-share queue. */
+        private int maxPerUser = 2;
+        /** Running explorer tasks one conversation may hold. */
+        private int maxPerConversation = 2;
     }
 }
@@ -0,0 +1,37 @@
+package edu.zsc.ai.config.ai;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local tokenizer used for context budgeting (compression decisions, prompt size, stored message token counts).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "ai.tokenizer")
+public class TokenizerProperties {
+
+    /**
+     * Classpath location of a BPE vocabulary in tiktoken format ({@code <base64 token> <rank>} per line), e.g. the
+     * chat model's {@code qwen.tiktoken}. Blank, or a missing resource, falls back to a script-aware estimate.
+     */
+    private String vocabResource = "";
+
+    /**
+     * Pre-tokenization pattern matching the vocabulary; the default is the cl100k / Qwen split rule.
+     */
+    private String splitPattern = "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}"
+            + "| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+";
+
+    /**
+     * Tokens added per chat message for role markers and separators.
+     */
+    private int messageOverheadTokens = 4;
+
+    /**
+     * Token budget for the rows a SQL tool call returns to the model; rows past it are dropped and the result is
+     * marked truncated. 0 disables the budget.
+     */
+    private int toolResultMaxTokens = 8000;
+}
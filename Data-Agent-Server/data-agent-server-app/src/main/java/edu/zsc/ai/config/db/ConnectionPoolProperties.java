@@ -20,4 +20,41 @@ public class ConnectionPoolProperties {
     private long idleTimeoutMs = 600_000L;
 
     private long maxLifetimeMs = 1_800_000L;
+
+    /**
+     * Hikari keepalive for idle connections; {@code 0} disables it.
+     */
+    private long keepaliveTimeMs = 120_000L;
+
+    /**
+     * Interval of the background pool health check that replaces per-request validation.
+     */
+    private long healthCheckIntervalMs = 30_000L;
+
+    /**
+     * Pools not looked up for this long are closed; {@code 0} keeps them until the connection is closed.
+     */
+    private long idlePoolTtlMs = 1_800_000L;
+
+    /**
+     * Pools not looked up for this long keep no idle connections ({@code minimumIdle=0}); {@code 0} disables.
+     */
+    private long coldPoolAfterMs = 300_000L;
+
+    /**
+     * Global budget of open pools per node, least recently used evicted first; {@code 0} means unlimited.
+     */
+    private int maxPools = 64;
+
+    private long sweepIntervalMs = 60_000L;
+
+    /**
+     * How long openConnection reuses a resolved connection config and plugin list; {@code 0} disables the cache.
+     */
+    private long resolvedConnectionTtlMs = 300_000L;
+
+    /**
+     * Upper bound on physical connections to one host:port across all pools; {@code 0} disables the cap.
+     */
+    private int maxConnectionsPerHost = 30;
 }
@@ -0,0 +1,31 @@
+package edu.zsc.ai.config.db;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "db.driver")
+public class DriverProperties {
+
+    /**
+     * Maven repository drivers and their metadata are fetched from; blank means Maven Central.
+     */
+    private String repositoryUrl = "";
+
+    /**
+     * Local directory checked for driver jars before the repository, in Maven layout or flat; blank disables it.
+     */
+    private String mirrorDirectory = "";
+
+    /**
+     * Only install drivers from the mirror directory and never contact the repository.
+     */
+    private boolean offline = false;
+
+    /**
+     * How long maven-metadata.xml responses are reused when listing available driver versions.
+     */
+    private long metadataCacheTtlMs = 3_600_000L;
+}
@@ -0,0 +1,21 @@
+package edu.zsc.ai.config.db;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "db.plugin")
+public class PluginProperties {
+
+    /**
+     * Directory scanned for plugin jars in addition to the classpath; blank disables hot reload.
+     */
+    private String directory = "";
+
+    /**
+     * How often the plugin directory is checked for added, removed or replaced jars.
+     */
+    private long watchIntervalMs = 30_000L;
+}
@@ -0,0 +1,29 @@
+package edu.zsc.ai.config.db;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Batch execution settings for agent SQL.
+ * <p>
+ * When every statement of a batch is read-only, up to {@code max-parallelism} pooled connections are borrowed and
+ * the statements run concurrently; batches containing writes always run sequentially on one connection.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "db.batch")
+public class SqlBatchProperties {
+
+    private boolean parallelEnabled = true;
+
+    /**
+     * Connections borrowed at most for one read-only batch; also bounded by {@code app.executor.limits.per-connection}.
+     */
+    private int maxParallelism = 4;
+
+    /**
+     * Driver-side timeout for each agent statement ({@code Statement.setQueryTimeout}); 0 disables it.
+     */
+    private int queryTimeoutSeconds = 120;
+}
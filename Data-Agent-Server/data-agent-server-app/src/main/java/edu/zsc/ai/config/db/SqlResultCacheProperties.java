@@ -0,0 +1,33 @@
+package edu.zsc.ai.config.db;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Conversation-scoped cache for read-only agent SQL results. Disabled by default.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "db.result-cache")
+public class SqlResultCacheProperties {
+
+    private boolean enabled = false;
+
+    private long ttlSeconds = 60L;
+
+    /**
+     * Cached statements per conversation; least recently used entries are evicted first.
+     */
+    private int maxEntriesPerConversation = 32;
+
+    /**
+     * Conversations holding cached results at the same time.
+     */
+    private int maxConversations = 256;
+
+    /**
+     * Results with more rows than this are never cached.
+     */
+    private int maxRowsPerEntry = 500;
+}
@@ -16,16 +16,20 @@ public class AgentInvocationContext implements AutoCloseable {
     private final long startTime = System.currentTimeMillis();
     private final RequestContextInfo previousRequestContext;
     private final AgentRequestContextInfo previousAgentRequestContext;
+    private final String previousTaskId;
 
     private AgentInvocationContext(RequestContextInfo previousRequestContext,
-                                   AgentRequestContextInfo previousAgentRequestContext) {
+                                   AgentRequestContextInfo previousAgentRequestContext,
+                                   String previousTaskId) {
         this.previousRequestContext = previousRequestContext;
         this.previousAgentRequestContext = previousAgentRequestContext;
+        this.previousTaskId = previousTaskId;
     }
 
     public static AgentInvocationContext from(InvocationParameters params) {
         RequestContextInfo previousRequestContext = RequestContext.snapshot();
         AgentRequestContextInfo previousAgentRequestContext = AgentRequestContext.snapshot();
+        String previousTaskId = AgentExecutionContext.getTaskId();
 
         if (params != null) {
             Long orgIdFromParams = ConnectionIdUtil.toLong(params.get(InvocationContextConstant.ORG_ID));
@@ -72,9 +76,13 @@ public class AgentInvocationContext implements AutoCloseable {
             } else {
                 AgentRequestContext.clear();
             }
+            String taskId = params.get(InvocationContextConstant.TASK_ID);
+            if (StringUtils.isNotBlank(taskId)) {
+                AgentExecutionContext.setTaskId(taskId);
+            }
         }
 
-        return new AgentInvocationContext(previousRequestContext, previousAgentRequestContext);
+        return new AgentInvocationContext(previousRequestContext, previousAgentRequestContext, previousTaskId);
     }
 
     public AgentToolResult timed(AgentToolResult result) {
@@ -95,6 +103,7 @@ public class AgentInvocationContext implements AutoCloseable {
         } else {
             AgentRequestContext.clear();
         }
+        AgentExecutionContext.setTaskId(previousTaskId);
     }
 
     private static boolean hasRequestContextData(RequestContextInfo contextInfo) {
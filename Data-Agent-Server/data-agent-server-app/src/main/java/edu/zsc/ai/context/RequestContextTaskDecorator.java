@@ -0,0 +1,47 @@
+package edu.zsc.ai.context;
+
+import edu.zsc.ai.tracing.AgentTracing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries {@link RequestContext}, {@link AgentRequestContext} and the current trace span from the submitting
+ * thread into executor tasks, and restores the worker's previous state afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    private final AgentTracing agentTracing;
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestContextInfo requestContextSnapshot = RequestContext.snapshot();
+        AgentRequestContextInfo agentRequestContextSnapshot = AgentRequestContext.snapshot();
+        Runnable traced = agentTracing.wrap(runnable);
+        return () -> {
+            RequestContextInfo previousRequestContext = RequestContext.snapshot();
+            AgentRequestContextInfo previousAgentRequestContext = AgentRequestContext.snapshot();
+            apply(requestContextSnapshot, agentRequestContextSnapshot);
+            try {
+                traced.run();
+            } finally {
+                apply(previousRequestContext, previousAgentRequestContext);
+            }
+        };
+    }
+
+    private void apply(RequestContextInfo requestContextInfo, AgentRequestContextInfo agentRequestContextInfo) {
+        if (requestContextInfo != null) {
+            RequestContext.set(requestContextInfo);
+        } else {
+            RequestContext.clear();
+        }
+        if (agentRequestContextInfo != null) {
+            AgentRequestContext.set(agentRequestContextInfo);
+        } else {
+            AgentRequestContext.clear();
+        }
+    }
+}
@@ -46,10 +46,8 @@ public class ChatEventListener {
         log.info("Async processing chat completion for conversation {}: {} total tokens (output: {})",
                 conversationId, totalTokens, outputTokens);
 
-        if (outputTokens != null && outputTokens > 0) {
-            aiMessageService.updateLastAiMessageTokenCount(conversationId, outputTokens);
-        }
-
+        // Message rows keep the local tokenizer count they were saved with; the provider's usage covers the whole
+        // turn, so it is recorded on the conversation only.
         aiConversationService.updateTokenCount(conversationId, totalTokens);
         eventPublisher.publishEvent(new ConversationMemoryAutoWriteRequestedEvent(this, conversationId));
     }
@@ -0,0 +1,26 @@
+package edu.zsc.ai.domain.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after a saved database connection is updated or deleted, so cached configs and open pools are dropped.
+ */
+public class ConnectionChangedEvent extends ApplicationEvent {
+
+    private final Long connectionId;
+    private final boolean deleted;
+
+    public ConnectionChangedEvent(Object source, Long connectionId, boolean deleted) {
+        super(source);
+        this.connectionId = connectionId;
+        this.deleted = deleted;
+    }
+
+    public Long getConnectionId() {
+        return connectionId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,22 @@
+package edu.zsc.ai.domain.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Published after plugins were reloaded; every previously resolved plugin instance is stale.
+ */
+public class PluginsReloadedEvent extends ApplicationEvent {
+
+    private final Set<String> pluginIds;
+
+    public PluginsReloadedEvent(Object source, Set<String> pluginIds) {
+        super(source);
+        this.pluginIds = pluginIds;
+    }
+
+    public Set<String> getPluginIds() {
+        return pluginIds;
+    }
+}
@@ -1,11 +1,40 @@
 package edu.zsc.ai.domain.mapper.ai;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
 import edu.zsc.ai.domain.model.entity.ai.AiMemory;
+import edu.zsc.ai.domain.service.ai.model.MemoryAccessDelta;
+import edu.zsc.ai.domain.service.ai.model.MemoryLexicalMatch;
 
 @Mapper
 public interface AiMemoryMapper extends BaseMapper<AiMemory> {
+
+    /**
+     * Adds each delta's increment to {@code access_count} and advances {@code last_accessed_at} in one statement.
+     * Rows whose owner does not match the delta's user are left untouched.
+     *
+     * @return number of memories updated
+     */
+    int incrementAccessStats(@Param("deltas") List<MemoryAccessDelta> deltas);
+
+    /**
+     * Enabled memories visible in the conversation whose full-text vector matches {@code tsQuery} or whose title is
+     * trigram-similar to {@code queryText}, best lexical score first. The score is the share of {@code terms} the
+     * memory contains, or the title similarity if higher. Blank type filters are ignored.
+     */
+    List<MemoryLexicalMatch> searchLexicalCandidates(@Param("userId") Long userId,
+                                                     @Param("conversationId") Long conversationId,
+                                                     @Param("scope") String scope,
+                                                     @Param("memoryType") String memoryType,
+                                                     @Param("subType") String subType,
+                                                     @Param("enable") int enable,
+                                                     @Param("tsQuery") String tsQuery,
+                                                     @Param("terms") List<String> terms,
+                                                     @Param("queryText") String queryText,
+                                                     @Param("limit") int limit);
 }
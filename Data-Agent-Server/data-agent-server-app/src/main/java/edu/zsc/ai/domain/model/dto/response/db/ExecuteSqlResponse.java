@@ -11,7 +11,7 @@ import java.util.List;
  * Result of executing a single SQL statement.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExecuteSqlResponse {
@@ -0,0 +1,50 @@
+package edu.zsc.ai.domain.model.entity.ai;
+
+import java.time.LocalDateTime;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registry row for a generated export file. {@code filename} is relative to the export directory so nodes sharing
+ * the directory under different mount points resolve the same file.
+ */
+@TableName("ai_export_file")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiExportFile {
+
+    @TableId(type = IdType.INPUT)
+    private String fileId;
+
+    private Long ownerUserId;
+
+    private Long conversationId;
+
+    private String format;
+
+    private String mimeType;
+
+    private String filename;
+
+    private Long sizeBytes;
+
+    private Integer rowCount;
+
+    private Integer columnCount;
+
+    /**
+     * JSON of the preview returned with the export, or {@code null} if it had none.
+     */
+    private String preview;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,52 @@
+package edu.zsc.ai.domain.model.entity.ai;
+
+import java.time.LocalDateTime;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Checkpoint of a bulk re-embedding run. {@code jobKey} identifies the embedding model and dimension, so a model
+ * switch starts a new job while a restart resumes after {@code lastMemoryId}.
+ */
+@TableName("ai_memory_reindex_job")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiMemoryReindexJob {
+
+    @TableId(type = IdType.INPUT)
+    private String jobKey;
+
+    private String modelName;
+
+    private Integer dimension;
+
+    /**
+     * {@link edu.zsc.ai.async.TaskStatus} name
+     */
+    private String status;
+
+    private Long lastMemoryId;
+
+    private Long processedCount;
+
+    private Long embeddedCount;
+
+    private Long totalCount;
+
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+}
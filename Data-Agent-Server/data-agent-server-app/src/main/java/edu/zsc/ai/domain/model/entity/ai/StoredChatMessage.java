@@ -24,6 +24,9 @@ public class StoredChatMessage {
 
     private String role;
 
+    /**
+     * Local tokenizer count of the message, fixed when it is saved; 0 on rows written before counts were stored.
+     */
     private Integer tokenCount;
 
     private String data;
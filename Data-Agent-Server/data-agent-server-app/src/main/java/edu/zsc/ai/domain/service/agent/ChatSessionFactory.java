@@ -1,10 +1,18 @@
 package edu.zsc.ai.domain.service.agent;
 
+import static edu.zsc.ai.config.ExecutorConfig.SHARED_EXECUTOR_BEAN_NAME;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
@@ -15,6 +23,7 @@ import edu.zsc.ai.agent.ReActAgent;
 import edu.zsc.ai.agent.ReActAgentProvider;
 import edu.zsc.ai.agent.memory.MemoryIdUtil;
 import edu.zsc.ai.api.model.request.ChatRequest;
+import edu.zsc.ai.common.constant.AgentMetricNames;
 import edu.zsc.ai.common.constant.ChatErrorConstants;
 import edu.zsc.ai.common.constant.InvocationContextConstant;
 import edu.zsc.ai.common.enums.ai.AgentModeEnum;
@@ -28,24 +37,42 @@ import edu.zsc.ai.domain.model.entity.ai.AiConversation;
 import edu.zsc.ai.domain.service.agent.runtimecontext.strategy.ConnectionSummary;
 import edu.zsc.ai.domain.service.ai.AiConversationService;
 import edu.zsc.ai.domain.service.db.DbConnectionService;
+import edu.zsc.ai.metrics.AgentMetrics;
 import edu.zsc.ai.util.ConnectionIdUtil;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Prepares all state needed before an agent invocation:
  * model resolution, agent-mode setup, conversation creation,
  * memory-id construction, and context snapshot.
+ * <p>
+ * The connection listing is independent of the agent and the conversation, so it runs on the shared executor while
+ * those are prepared on the request thread. Each phase is timed as part of the time-to-first-token breakdown.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ChatSessionFactory {
 
     private final ReActAgentProvider reActAgentProvider;
     private final AiConversationService aiConversationService;
     private final DbConnectionService dbConnectionService;
     private final AiModelCatalog aiModelCatalog;
+    private final AgentMetrics agentMetrics;
+    private final Executor sharedExecutor;
+
+    public ChatSessionFactory(ReActAgentProvider reActAgentProvider,
+                              AiConversationService aiConversationService,
+                              DbConnectionService dbConnectionService,
+                              AiModelCatalog aiModelCatalog,
+                              AgentMetrics agentMetrics,
+                              @Qualifier(SHARED_EXECUTOR_BEAN_NAME) Executor sharedExecutor) {
+        this.reActAgentProvider = reActAgentProvider;
+        this.aiConversationService = aiConversationService;
+        this.dbConnectionService = dbConnectionService;
+        this.aiModelCatalog = aiModelCatalog;
+        this.agentMetrics = agentMetrics;
+        this.sharedExecutor = sharedExecutor;
+    }
 
     /**
      * Build a ChatSession from an incoming ChatRequest.
@@ -53,6 +80,7 @@ public class ChatSessionFactory {
     public ChatSession create(ChatRequest request) {
         RequestContextInfo previousRequestContext = RequestContext.snapshot();
         AgentRequestContextInfo previousAgentRequestContext = AgentRequestContext.snapshot();
+        long startTime = System.currentTimeMillis();
         try {
             String modelName = resolveModel(request.getModel());
             AgentModeEnum agentMode = AgentModeEnum.fromRequest(request.getAgentType());
@@ -63,16 +91,17 @@ public class ChatSessionFactory {
                     .language(request.getLanguage())
                     .build());
 
-            PreparedReActAgent prepared = reActAgentProvider.getAgent(modelName, request.getLanguage(), agentMode.getCode());
+            CompletableFuture<List<ConnectionSummary>> connectionsFuture = listConnectionsAsync();
+
+            PreparedReActAgent prepared = timed(AgentMetricNames.PHASE_AGENT,
+                    () -> reActAgentProvider.getAgent(modelName, request.getLanguage(), agentMode.getCode()));
             ReActAgent agent = prepared.agent();
 
-            Long conversationId = ensureConversation(request);
+            Long conversationId = timed(AgentMetricNames.PHASE_CONVERSATION, () -> ensureConversation(request));
 
             String memoryId = MemoryIdUtil.build(RequestContext.getUserId(), conversationId, modelName);
 
-            List<ConnectionSummary> connections = dbConnectionService.getAllConnections().stream()
-                    .map(conn -> new ConnectionSummary(conn.getId(), conn.getName(), conn.getDbType()))
-                    .toList();
+            List<ConnectionSummary> connections = join(connectionsFuture);
 
             Map<String, Object> invocationContext = buildInvocationContext();
             String readableConnCsv = ConnectionIdUtil.toCsv(
@@ -83,6 +112,8 @@ public class ChatSessionFactory {
             InvocationParameters parameters = InvocationParameters.from(invocationContext);
             RequestContextInfo requestContextSnapshot = RequestContext.snapshot();
             AgentRequestContextInfo agentRequestContextSnapshot = AgentRequestContext.snapshot();
+            agentMetrics.recordPreparePhase(AgentMetricNames.PHASE_SESSION,
+                    AgentMetricNames.OUTCOME_SUCCESS, System.currentTimeMillis() - startTime);
 
             return new ChatSession(modelName, agentMode, agent, memoryId,
                     request.getMessage(), parameters, conversationId, requestContextSnapshot, agentRequestContextSnapshot);
@@ -117,12 +148,11 @@ public class ChatSessionFactory {
                     .build();
             AgentRequestContext.set(planAgentContext);
 
-            PreparedReActAgent planPrepared = reActAgentProvider.getAgent(
-                    original.modelName(), request.getLanguage(), AgentModeEnum.PLAN.getCode());
+            CompletableFuture<List<ConnectionSummary>> planConnectionsFuture = listConnectionsAsync();
+            PreparedReActAgent planPrepared = timed(AgentMetricNames.PHASE_AGENT, () -> reActAgentProvider.getAgent(
+                    original.modelName(), request.getLanguage(), AgentModeEnum.PLAN.getCode()));
             ReActAgent planAgent = planPrepared.agent();
-            List<ConnectionSummary> planConnections = dbConnectionService.getAllConnections().stream()
-                    .map(conn -> new ConnectionSummary(conn.getId(), conn.getName(), conn.getDbType()))
-                    .toList();
+            List<ConnectionSummary> planConnections = join(planConnectionsFuture);
             Map<String, Object> planInvocation = buildInvocationContext();
             String planReadableCsv = ConnectionIdUtil.toCsv(
                     planConnections.stream().map(ConnectionSummary::id).filter(Objects::nonNull).toList());
@@ -140,6 +170,48 @@ public class ChatSessionFactory {
         }
     }
 
+    /**
+     * Starts the connection listing on the shared executor; the executor's task decorator carries the request and
+     * agent contexts over. Runs inline when the executor is saturated.
+     */
+    private CompletableFuture<List<ConnectionSummary>> listConnectionsAsync() {
+        Supplier<List<ConnectionSummary>> listing = () -> timed(AgentMetricNames.PHASE_CONNECTIONS,
+                () -> dbConnectionService.getAllConnections().stream()
+                        .map(conn -> new ConnectionSummary(conn.getId(), conn.getName(), conn.getDbType()))
+                        .toList());
+        try {
+            return CompletableFuture.supplyAsync(listing, sharedExecutor);
+        } catch (RejectedExecutionException e) {
+            log.debug("Shared executor saturated, listing connections inline");
+            return CompletableFuture.completedFuture(listing.get());
+        }
+    }
+
+    private <T> T timed(String phase, Supplier<T> step) {
+        long startTime = System.currentTimeMillis();
+        boolean success = false;
+        try {
+            T result = step.get();
+            success = true;
+            return result;
+        } finally {
+            agentMetrics.recordPreparePhase(phase,
+                    success ? AgentMetricNames.OUTCOME_SUCCESS : AgentMetricNames.OUTCOME_FAILURE,
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     private String resolveModel(String model) {
         try {
             return aiModelCatalog.resolve(model).getModelName();
@@ -9,6 +9,11 @@ import edu.zsc.ai.common.enums.ai.ToolNameEnum;
 import edu.zsc.ai.context.AgentExecutionContext;
 import edu.zsc.ai.domain.event.ChatCompletedEvent;
 import edu.zsc.ai.domain.model.dto.response.agent.ChatResponseBlock;
+import edu.zsc.ai.domain.service.db.impl.SqlStatementRegistry;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -25,6 +30,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Bridges a LangChain4j {@link TokenStream} into a reactive
@@ -40,6 +46,8 @@ public class ChatStreamBridge {
     private final SseEmitterRegistry sseEmitterRegistry;
     private final ApplicationEventPublisher eventPublisher;
     private final ChatMemoryCompressor chatMemoryCompressor;
+    private final AgentMetrics agentMetrics;
+    private final AgentTracing agentTracing;
 
     /**
      * Start the agent chat from the given session and bridge the resulting
@@ -53,6 +61,26 @@ public class ChatStreamBridge {
             AgentToolTracker toolTracker) {
 
         Long conversationId = session.conversationId();
+        long turnStartedAt = System.currentTimeMillis();
+        AtomicBoolean firstTokenSeen = new AtomicBoolean(false);
+        Span turnSpan = agentTracing.startTurn(conversationId, session.modelName(),
+                session.agentMode() != null ? session.agentMode().getCode() : null);
+        try {
+            return startStream(session, toolTracker, turnSpan, turnStartedAt, firstTokenSeen);
+        } catch (RuntimeException e) {
+            // Nothing will call onError for a stream that never started, so close the turn here.
+            sseEmitterRegistry.unregister(conversationId);
+            agentTracing.endTurn(conversationId, toolTracker.getTotalCount(), e);
+            throw e;
+        }
+    }
+
+    private Flux<ChatResponseBlock> startStream(ChatSession session,
+                                                AgentToolTracker toolTracker,
+                                                Span turnSpan,
+                                                long turnStartedAt,
+                                                AtomicBoolean firstTokenSeen) {
+        Long conversationId = session.conversationId();
         TokenStream tokenStream = session.startChat();
 
         Sinks.Many<ChatResponseBlock> sink = Sinks.many().unicast().onBackpressureBuffer();
@@ -66,6 +94,7 @@ public class ChatStreamBridge {
 
         tokenStream.onPartialResponse(content -> {
             if (StringUtils.isNotBlank(content)) {
+                markFirstToken(session, turnStartedAt, firstTokenSeen);
                 responseText.append(content);
                 sink.tryEmitNext(ChatResponseBlock.text(content));
             }
@@ -73,6 +102,7 @@ public class ChatStreamBridge {
 
         tokenStream.onPartialThinking(partial -> {
             if (StringUtils.isNotBlank(partial.text())) {
+                markFirstToken(session, turnStartedAt, firstTokenSeen);
                 thinkingText.append(partial.text());
                 sink.tryEmitNext(ChatResponseBlock.thought(partial.text()));
             }
@@ -82,6 +112,7 @@ public class ChatStreamBridge {
             log.debug("Partial tool call: index={}, id={}, name={}, partialArgs='{}'",
                     partialToolCall.index(), partialToolCall.id(), partialToolCall.name(),
                     partialToolCall.partialArguments());
+            markFirstToken(session, turnStartedAt, firstTokenSeen);
 
             if (Objects.nonNull(partialToolCall.id())) {
                 streamedToolCallIds.add(partialToolCall.id());
@@ -191,6 +222,11 @@ public class ChatStreamBridge {
             sseEmitterRegistry.unregister(conversationId);
             log.debug("[ChatStream] sink unregistered for conversation {}", conversationId);
             collectTokenUsage(response, toolTracker);
+            agentTracing.endTurn(conversationId, toolTracker.getTotalCount(), null);
+            agentMetrics.recordChatTurn(session.modelName(), true,
+                    System.currentTimeMillis() - turnStartedAt,
+                    toolTracker.getTotalCount(),
+                    response.tokenUsage() != null ? response.tokenUsage().outputTokenCount() : null);
             log.info("Conversation {} completed: toolCount={}, outputTokens={}, totalTokens={}",
                     conversationId, toolTracker.getTotalCount(),
                     response.tokenUsage() != null ? response.tokenUsage().outputTokenCount() : null,
@@ -213,6 +249,9 @@ public class ChatStreamBridge {
         tokenStream.onError(error -> {
             AgentExecutionContext.clear();
             log.error("Error in chat stream", error);
+            agentMetrics.recordChatTurn(session.modelName(), false,
+                    System.currentTimeMillis() - turnStartedAt, toolTracker.getTotalCount(), null);
+            agentTracing.endTurn(conversationId, toolTracker.getTotalCount(), error);
             runtimeLog.error("conversation_error conversationId={} responseLength={} thinkingLength={}",
                     conversationId,
                     responseText.length(),
@@ -223,9 +262,25 @@ public class ChatStreamBridge {
             sink.tryEmitError(error);
         });
 
-        tokenStream.start();
-        return sink.asFlux();
+        try (Tracer.SpanInScope ignored = agentTracing.activate(turnSpan)) {
+            tokenStream.start();
+        }
+        // Client went away (closed tab / stop button): do not leave its queries running on the target database, and
+        // close the turn span, since a stream that is cut off may never report completion. A turn that already
+        // completed has no span left to end.
+        return sink.asFlux()
+                .doOnCancel(() -> {
+                    SqlStatementRegistry.cancelConversation(conversationId);
+                    agentTracing.endTurn(conversationId, toolTracker.getTotalCount(), null);
+                });
     }
+
+    private void markFirstToken(ChatSession session, long turnStartedAt, AtomicBoolean firstTokenSeen) {
+        if (firstTokenSeen.compareAndSet(false, true)) {
+            agentMetrics.recordTimeToFirstToken(session.modelName(), System.currentTimeMillis() - turnStartedAt);
+        }
+    }
+
     private void collectTokenUsage(
             dev.langchain4j.model.chat.response.ChatResponse response, AgentToolTracker toolTracker) {
         if (Objects.nonNull(response.tokenUsage())) {
@@ -6,6 +6,7 @@ import java.util.StringJoiner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.config.ai.PromptConfig;
 import edu.zsc.ai.domain.service.agent.prompt.PromptRenderResult;
 import edu.zsc.ai.domain.service.agent.prompt.PromptSectionResult;
@@ -16,15 +17,17 @@ public class RuntimeContextManager {
     static final String TEMPLATE_PATH = "prompt/runtime-context-template.md";
 
     private final RuntimeContextHandlerChain handlerChain;
+    private final TokenizerService tokenizerService;
     private final String template;
 
     @Autowired
-    public RuntimeContextManager(RuntimeContextHandlerChain handlerChain) {
-        this(handlerChain, PromptConfig.loadClassPathResource(TEMPLATE_PATH));
+    public RuntimeContextManager(RuntimeContextHandlerChain handlerChain, TokenizerService tokenizerService) {
+        this(handlerChain, tokenizerService, PromptConfig.loadClassPathResource(TEMPLATE_PATH));
     }
 
-    RuntimeContextManager(RuntimeContextHandlerChain handlerChain, String template) {
+    RuntimeContextManager(RuntimeContextHandlerChain handlerChain, TokenizerService tokenizerService, String template) {
         this.handlerChain = handlerChain;
+        this.tokenizerService = tokenizerService;
         this.template = template;
     }
 
@@ -36,7 +39,7 @@ public class RuntimeContextManager {
             rendered = rendered.replace(section.placeholder(), result == null ? "" : result.content());
         }
 
-        int estimatedTokens = Math.max(1, rendered.length() / 4);
+        int estimatedTokens = Math.max(1, tokenizerService.countText(rendered));
         StringJoiner joiner = new StringJoiner(", ");
         sections.forEach((section, result) -> {
             if (result != null && result.rendered()) {
@@ -31,7 +31,8 @@ final class MemoryPromptProjectionSupport {
 
     private static final List<String> SEMANTIC_EXECUTION_PATHS = List.of(
             MemoryRecallLogConstant.EXECUTION_PATH_SEMANTIC,
-            MemoryRecallLogConstant.EXECUTION_PATH_HYBRID_SEMANTIC
+            MemoryRecallLogConstant.EXECUTION_PATH_HYBRID_SEMANTIC,
+            MemoryRecallLogConstant.EXECUTION_PATH_LEXICAL
     );
 
     private MemoryPromptProjectionSupport() {
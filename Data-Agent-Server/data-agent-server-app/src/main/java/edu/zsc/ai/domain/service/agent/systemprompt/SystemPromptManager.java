@@ -5,6 +5,7 @@ import java.util.StringJoiner;
 
 import org.springframework.stereotype.Component;
 
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.config.ai.PromptConfig;
 import edu.zsc.ai.domain.service.agent.prompt.PromptRenderResult;
 import edu.zsc.ai.domain.service.agent.prompt.PromptSectionResult;
@@ -13,9 +14,11 @@ import edu.zsc.ai.domain.service.agent.prompt.PromptSectionResult;
 public class SystemPromptManager {
 
     private final SystemPromptHandlerChain handlerChain;
+    private final TokenizerService tokenizerService;
 
-    public SystemPromptManager(SystemPromptHandlerChain handlerChain) {
+    public SystemPromptManager(SystemPromptHandlerChain handlerChain, TokenizerService tokenizerService) {
         this.handlerChain = handlerChain;
+        this.tokenizerService = tokenizerService;
     }
 
     public PromptRenderResult<SystemPromptSection> render(SystemPromptAssemblyContext context) {
@@ -27,7 +30,7 @@ public class SystemPromptManager {
             rendered = rendered.replace(section.placeholder(), result == null ? "" : result.content());
         }
 
-        int estimatedTokens = Math.max(1, rendered.length() / 4);
+        int estimatedTokens = Math.max(1, tokenizerService.countText(rendered));
         StringJoiner joiner = new StringJoiner(", ");
         sections.forEach((section, result) -> {
             if (result != null && result.rendered()) {
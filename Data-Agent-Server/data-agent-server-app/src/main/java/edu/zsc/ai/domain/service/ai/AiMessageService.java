@@ -28,13 +28,4 @@ public interface AiMessageService extends IService<StoredChatMessage> {
      * @param messages       the ChatMessages to persist
      */
     void replaceConversationMessages(Long conversationId, List<ChatMessage> messages);
-
-    /**
-     * Updates the token count of the last AI message in a conversation.
-     * Used to persist token usage after streaming chat completes.
-     *
-     * @param conversationId conversation ID
-     * @param tokenCount     output token count for the AI response (from response.tokenUsage().outputTokenCount())
-     */
-    void updateLastAiMessageTokenCount(Long conversationId, Integer tokenCount);
 }
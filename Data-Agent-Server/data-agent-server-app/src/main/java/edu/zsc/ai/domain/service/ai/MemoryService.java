@@ -48,8 +48,19 @@ public interface MemoryService extends IService<AiMemory> {
 
     void recordMemoryAccess(List<Long> memoryIds);
 
+    /**
+     * All enabled memories of the user, most recently updated first, read in keyset pages of
+     * {@code memory.retrieval.summary-page-size} so no single query loads the whole set.
+     */
     List<MemorySummary> getEnabledMemorySummaries(Long userId);
 
+    /**
+     * Enabled memories of the user, most recently updated first.
+     *
+     * @param after last summary of the previous page, or {@code null} for the first page
+     */
+    List<MemorySummary> getEnabledMemorySummaries(Long userId, MemorySummary after, int limit);
+
     AiMemory getConversationWorkingMemory(Long userId, Long conversationId);
 
     boolean hasManualWritesSince(Long userId, Long conversationId, LocalDateTime since);
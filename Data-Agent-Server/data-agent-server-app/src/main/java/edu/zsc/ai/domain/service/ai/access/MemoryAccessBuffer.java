@@ -0,0 +1,127 @@
+package edu.zsc.ai.domain.service.ai.access;
+
+import edu.zsc.ai.config.ai.MemoryProperties;
+import edu.zsc.ai.domain.mapper.ai.AiMemoryMapper;
+import edu.zsc.ai.domain.service.ai.model.MemoryAccessDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for memory access statistics.
+ * <p>
+ * {@link #record} only merges an increment into a map keyed by memory and owner, so recall never waits on Postgres.
+ * {@link #flush} drains the map and applies it with one {@code UPDATE ... FROM (VALUES ...)} per
+ * {@code memory.access.max-batch-size} memories. Each entry is taken with an atomic remove, so accesses recorded
+ * during a flush land in a fresh entry for the next one. Deltas from a failed flush are merged back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemoryAccessBuffer {
+
+    private final AiMemoryMapper memoryMapper;
+    private final MemoryProperties memoryProperties;
+    private final Map<AccessKey, PendingAccess> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Buffers one access per distinct id, or writes it straight through when write-behind is disabled.
+     *
+     * @return number of distinct memories recorded
+     */
+    public int record(Long userId, Collection<Long> memoryIds) {
+        if (userId == null || memoryIds == null || memoryIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(memoryIds.stream()
+                .filter(Objects::nonNull)
+                .toList()));
+        for (Long memoryId : uniqueIds) {
+            pending.merge(new AccessKey(memoryId, userId), new PendingAccess(1, now), PendingAccess::plus);
+        }
+        if (!memoryProperties.getAccess().isWriteBehindEnabled()) {
+            flush();
+        }
+        return uniqueIds.size();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Applies every buffered access.
+     *
+     * @return number of memories updated
+     */
+    @Scheduled(fixedDelayString = "${memory.access.flush-interval-ms:5000}",
+            initialDelayString = "${memory.access.flush-interval-ms:5000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int batchSize = Math.max(1, memoryProperties.getAccess().getMaxBatchSize());
+        int updated = 0;
+        // Snapshot the keys so deltas merged back by a failed batch wait for the next flush.
+        List<AccessKey> keys = new ArrayList<>(pending.keySet());
+        List<MemoryAccessDelta> batch = new ArrayList<>(Math.min(batchSize, keys.size()));
+        for (AccessKey key : keys) {
+            PendingAccess access = pending.remove(key);
+            if (access == null) {
+                continue;
+            }
+            batch.add(new MemoryAccessDelta(key.memoryId(), key.userId(), access.increment(), access.lastAccessedAt()));
+            if (batch.size() >= batchSize) {
+                updated += write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            updated += write(batch);
+        }
+        log.debug("Flushed memory access statistics: updated={}", updated);
+        return updated;
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private int write(List<MemoryAccessDelta> batch) {
+        try {
+            return memoryMapper.incrementAccessStats(batch);
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} memory access statistics, keeping them for the next flush: {}",
+                    batch.size(), e.getMessage());
+            for (MemoryAccessDelta delta : batch) {
+                pending.merge(new AccessKey(delta.getMemoryId(), delta.getUserId()),
+                        new PendingAccess(delta.getIncrement(), delta.getLastAccessedAt()), PendingAccess::plus);
+            }
+            return 0;
+        }
+    }
+
+    private record AccessKey(Long memoryId, Long userId) {
+    }
+
+    private record PendingAccess(int increment, LocalDateTime lastAccessedAt) {
+
+        PendingAccess plus(PendingAccess other) {
+            return new PendingAccess(increment + other.increment,
+                    lastAccessedAt.isAfter(other.lastAccessedAt) ? lastAccessedAt : other.lastAccessedAt);
+        }
+    }
+}
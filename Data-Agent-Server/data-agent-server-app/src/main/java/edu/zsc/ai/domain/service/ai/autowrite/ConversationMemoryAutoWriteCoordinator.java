@@ -66,6 +66,13 @@ public class ConversationMemoryAutoWriteCoordinator {
         executeWithPendingCheck(conversationId);
     }
 
+    /**
+     * Conversations waiting for a follow-up extraction once the in-flight run finishes.
+     */
+    public int getPendingCount() {
+        return (int) pending.values().stream().filter(AtomicBoolean::get).count();
+    }
+
     private void executeWithPendingCheck(Long conversationId) {
         AtomicBoolean running = inFlight.computeIfAbsent(conversationId, k -> new AtomicBoolean(false));
 
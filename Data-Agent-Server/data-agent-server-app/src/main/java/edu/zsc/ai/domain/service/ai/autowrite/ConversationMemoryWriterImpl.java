@@ -13,6 +13,7 @@ import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.ChatMessageDeserializer;
 import dev.langchain4j.invocation.InvocationParameters;
 import edu.zsc.ai.agent.subagent.memorywriter.MemoryWriterAgentService;
+import edu.zsc.ai.async.DownstreamConcurrencyLimiter;
 import edu.zsc.ai.common.constant.InvocationContextConstant;
 import edu.zsc.ai.common.enums.ai.AgentModeEnum;
 import edu.zsc.ai.common.enums.ai.AgentTypeEnum;
@@ -36,6 +37,7 @@ public class ConversationMemoryWriterImpl implements ConversationMemoryWriter {
     private final SubAgentFactory subAgentFactory;
     private final AiModelCatalog aiModelCatalog;
     private final MemoryService memoryService;
+    private final DownstreamConcurrencyLimiter downstreamConcurrencyLimiter;
 
     @Override
     public void writeMemory(MemoryWriteContext context, Long conversationId, Long userId) {
@@ -53,7 +55,8 @@ public class ConversationMemoryWriterImpl implements ConversationMemoryWriter {
 
         log.info("[MemAutoWrite] Starting memory writer agent: conversationId={}, userId={}, messageCount={}, instructionLength={}",
                 conversationId, userId, context.newMessages().size(), instruction.length());
-        String response = agentService.write(instruction, InvocationParameters.from(invocationContext));
+        String response = downstreamConcurrencyLimiter.withBackgroundModelPermit(modelName,
+                () -> agentService.write(instruction, InvocationParameters.from(invocationContext)));
         log.info("[MemAutoWrite] Memory writer agent completed: conversationId={}, responsePreview={}",
                 conversationId, preview(response));
 
@@ -0,0 +1,54 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import edu.zsc.ai.common.constant.MemoryMetadataConstant;
+import edu.zsc.ai.common.enums.ai.MemoryEnableEnum;
+import edu.zsc.ai.domain.model.entity.ai.AiMemory;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * How a memory row maps onto the pgvector store: its stable embedding id and the text segment with recall metadata.
+ * Shared by single-memory writes and the bulk re-index so both produce identical rows.
+ */
+public final class MemoryEmbeddingSegments {
+
+    private MemoryEmbeddingSegments() {
+    }
+
+    public static String storeId(Long memoryId) {
+        if (memoryId == null) {
+            throw new IllegalArgumentException("memoryId is required");
+        }
+        return UUID.nameUUIDFromBytes(("ai-memory:" + memoryId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * @return true if the memory belongs in the store (enabled and non-blank)
+     */
+    public static boolean isIndexable(AiMemory memory) {
+        return Objects.equals(memory.getEnable(), MemoryEnableEnum.ENABLE.getCode())
+                && StringUtils.isNotBlank(memory.getContent());
+    }
+
+    public static TextSegment toSegment(AiMemory memory) {
+        Metadata metadata = new Metadata()
+                .put(MemoryMetadataConstant.USER_ID, memory.getUserId())
+                .put(MemoryMetadataConstant.ENABLE, memory.getEnable())
+                .put(MemoryMetadataConstant.SCOPE, StringUtils.defaultString(memory.getScope()))
+                .put(MemoryMetadataConstant.MEMORY_TYPE, memory.getMemoryType())
+                .put(MemoryMetadataConstant.SUB_TYPE, StringUtils.defaultString(memory.getSubType()))
+                .put(MemoryMetadataConstant.TITLE, StringUtils.defaultString(memory.getTitle()))
+                .put(MemoryMetadataConstant.REASON, StringUtils.defaultString(memory.getReason()))
+                .put(MemoryMetadataConstant.SOURCE_TYPE, StringUtils.defaultString(memory.getSourceType()))
+                .put(MemoryMetadataConstant.ACCESS_COUNT, memory.getAccessCount() == null ? 0 : memory.getAccessCount())
+                .put(MemoryMetadataConstant.UPDATED_AT, memory.getUpdatedAt() == null ? "" : memory.getUpdatedAt().toString())
+                .put(MemoryMetadataConstant.CONVERSATION_ID, memory.getConversationId())
+                .put(MemoryMetadataConstant.MEMORY_ID, memory.getId());
+        return TextSegment.from(memory.getContent(), metadata);
+    }
+}
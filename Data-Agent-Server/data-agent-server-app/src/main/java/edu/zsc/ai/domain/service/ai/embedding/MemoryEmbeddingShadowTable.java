@@ -0,0 +1,147 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import edu.zsc.ai.common.constant.MemoryMetadataConstant;
+import edu.zsc.ai.config.ai.EmbeddingStoreConfig;
+import edu.zsc.ai.config.ai.MemoryEmbeddingIndexManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The table a memory re-index writes into before it replaces {@code ai_memory_embedding}.
+ * <p>
+ * A {@code vector(N)} column cannot change its dimension in place and LangChain4j's {@code createTable} never alters
+ * an existing table, so the re-index builds a complete copy sized to the new model next to the live table and
+ * {@link #swap()} replaces it in a single transaction. Until then the live table holds vectors of the old model only,
+ * which is why {@link MemoryEmbeddingTarget} keeps vector recall off for the duration. The table comment records
+ * which job owns the copy, so a job only resumes into rows it wrote itself.
+ */
+@Slf4j
+@Component
+public class MemoryEmbeddingShadowTable {
+
+    public static final String TABLE = EmbeddingStoreConfig.EMBEDDING_TABLE + "_reindex";
+
+    private static final String OWNER_SQL = "SELECT obj_description(to_regclass(?), 'pg_class')";
+
+    private static final String SHADOW_INDEXES_SQL = """
+            SELECT c.relname
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            JOIN pg_class t ON t.oid = i.indrelid
+            WHERE t.relname = ? AND c.relname LIKE ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final MemoryEmbeddingIndexManager indexManager;
+
+    public MemoryEmbeddingShadowTable(JdbcTemplate jdbcTemplate,
+                                      DataSource dataSource,
+                                      MemoryEmbeddingIndexManager indexManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.indexManager = indexManager;
+    }
+
+    /**
+     * @return true if the shadow table exists and was created for {@code jobKey}
+     */
+    public boolean isOwnedBy(String jobKey) {
+        String owner = jdbcTemplate.queryForObject(OWNER_SQL, String.class, TABLE);
+        return Objects.equals(owner, jobKey);
+    }
+
+    /**
+     * Drops any previous shadow table and creates an empty one with {@code dimension} columns for {@code jobKey}.
+     */
+    public EmbeddingStore<TextSegment> create(String jobKey, int dimension) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        EmbeddingStore<TextSegment> store = EmbeddingStoreConfig.pgVectorStore(dataSource, TABLE, dimension);
+        jdbcTemplate.execute("COMMENT ON TABLE " + TABLE + " IS '" + jobKey.replace("'", "''") + "'");
+        log.info("Memory re-index shadow table created: table={}, jobKey={}, dimension={}", TABLE, jobKey, dimension);
+        return store;
+    }
+
+    /**
+     * Store over the existing shadow table, for resuming the job that created it.
+     */
+    public EmbeddingStore<TextSegment> open(int dimension) {
+        return EmbeddingStoreConfig.pgVectorStore(dataSource, TABLE, dimension);
+    }
+
+    /**
+     * Deletes rows of {@code table} whose memory no longer exists, e.g. memories deleted while the job ran.
+     *
+     * @return the number of rows deleted
+     */
+    public int removeOrphans(String table) {
+        return jdbcTemplate.update("DELETE FROM " + table + " e WHERE NOT EXISTS ("
+                + "SELECT 1 FROM ai_memory m WHERE m.id = (e.metadata->>'" + MemoryMetadataConstant.MEMORY_ID + "')::bigint)");
+    }
+
+    /**
+     * Builds the recall indexes on the shadow table so it serves recall at full speed the moment it goes live.
+     */
+    public void buildIndexes() {
+        indexManager.ensureIndexes(TABLE);
+    }
+
+    /**
+     * Replaces {@code ai_memory_embedding} with the shadow table in one transaction and gives the shadow's indexes
+     * the live names. Readers block on the table lock for the duration of the rename, never see a half-swapped state,
+     * and continue on the new table since it takes the live name.
+     */
+    public void swap() {
+        String live = EmbeddingStoreConfig.EMBEDDING_TABLE;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + live);
+                statement.execute("ALTER TABLE " + TABLE + " RENAME TO " + live);
+                for (String index : shadowIndexes(connection, live)) {
+                    statement.execute("ALTER INDEX " + index + " RENAME TO " + live + index.substring(TABLE.length()));
+                }
+                statement.execute("COMMENT ON TABLE " + live + " IS NULL");
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+        log.info("Memory re-index shadow table swapped in: {} -> {}", TABLE, live);
+        // Fills in any index the shadow build skipped, e.g. because another node held the index lock.
+        indexManager.ensureIndexes();
+    }
+
+    private static List<String> shadowIndexes(Connection connection, String table) throws SQLException {
+        List<String> indexes = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(SHADOW_INDEXES_SQL)) {
+            statement.setString(1, table);
+            statement.setString(2, TABLE.replace("_", "\\_") + "\\_%");
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    indexes.add(rs.getString(1));
+                }
+            }
+        }
+        return indexes;
+    }
+}
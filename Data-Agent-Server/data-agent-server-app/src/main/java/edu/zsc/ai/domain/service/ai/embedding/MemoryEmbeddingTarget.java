@@ -0,0 +1,47 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Tells the memory write and recall paths which vectors they may use while a re-index is unfinished.
+ * <p>
+ * The embedding model is switched by configuration, so from then on it embeds queries and writes with the new model
+ * while {@code ai_memory_embedding} still holds vectors of the old one until {@link MemoryReindexService} swaps the
+ * shadow table in. In that window vector search is off and recall answers from the lexical indexes only, and new
+ * vectors go to the shadow table the job is filling instead of the live one.
+ */
+@Component
+public class MemoryEmbeddingTarget {
+
+    private volatile boolean reindexing;
+    private volatile EmbeddingStore<TextSegment> shadowStore;
+
+    /**
+     * @return true if the live table was embedded with the configured model and can answer vector searches
+     */
+    public boolean isSearchable() {
+        return !reindexing;
+    }
+
+    /**
+     * @return the shadow table to write new vectors into while a re-index is unfinished; empty when writes go to the
+     * live table, or when no shadow is open and the job's catch-up embeds the change instead
+     */
+    public Optional<EmbeddingStore<TextSegment>> shadowStore() {
+        return reindexing ? Optional.ofNullable(shadowStore) : Optional.empty();
+    }
+
+    void beginReindex(EmbeddingStore<TextSegment> shadowStore) {
+        this.shadowStore = shadowStore;
+        this.reindexing = true;
+    }
+
+    void endReindex() {
+        this.reindexing = false;
+        this.shadowStore = null;
+    }
+}
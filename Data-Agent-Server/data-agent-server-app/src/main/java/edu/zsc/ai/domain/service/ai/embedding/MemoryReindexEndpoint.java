@@ -0,0 +1,38 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import edu.zsc.ai.domain.model.entity.ai.AiMemoryReindexJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator control of the memory re-index: {@code GET /actuator/memoryreindex} for the checkpoint,
+ * {@code POST} to start or resume (body {@code {"restart": true}} to start over), {@code DELETE} to stop.
+ * Not exposed over HTTP unless added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "memoryreindex")
+@RequiredArgsConstructor
+public class MemoryReindexEndpoint {
+
+    private final MemoryReindexService reindexService;
+
+    @ReadOperation
+    public AiMemoryReindexJob job() {
+        return reindexService.getJob();
+    }
+
+    @WriteOperation
+    public AiMemoryReindexJob start(@Nullable Boolean restart) {
+        return reindexService.start(Boolean.TRUE.equals(restart));
+    }
+
+    @DeleteOperation
+    public boolean cancel() {
+        return reindexService.cancel();
+    }
+}
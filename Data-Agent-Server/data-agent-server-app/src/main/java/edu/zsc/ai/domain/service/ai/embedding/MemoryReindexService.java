@@ -0,0 +1,428 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import edu.zsc.ai.async.AsyncTask;
+import edu.zsc.ai.async.AsyncTaskManager;
+import edu.zsc.ai.async.TaskStatus;
+import edu.zsc.ai.common.constant.AgentMetricNames;
+import edu.zsc.ai.config.ai.AiEmbeddingProperties;
+import edu.zsc.ai.config.ai.EmbeddingStoreConfig;
+import edu.zsc.ai.config.ai.MemoryProperties;
+import edu.zsc.ai.domain.mapper.ai.AiMemoryMapper;
+import edu.zsc.ai.domain.mapper.ai.AiMemoryReindexJobMapper;
+import edu.zsc.ai.domain.model.entity.ai.AiMemory;
+import edu.zsc.ai.domain.model.entity.ai.AiMemoryReindexJob;
+import edu.zsc.ai.metrics.AgentMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static edu.zsc.ai.config.ExecutorConfig.SHARED_EXECUTOR_BEAN_NAME;
+
+/**
+ * Re-embeds every memory with the configured embedding model.
+ * <p>
+ * The job writes into {@link MemoryEmbeddingShadowTable}, a copy of the store sized to the configured dimension, and
+ * leaves the live table alone. That table still holds vectors of the previous model while queries and writes are
+ * already embedded with the new one, so from the moment the job starts until its shadow is swapped in, also across a
+ * cancel, failure or restart, {@link MemoryEmbeddingTarget} keeps recall lexical-only and routes new memory vectors
+ * into the shadow. The job pages through {@code ai_memory} by id, embeds each page with {@code embedAll} in
+ * {@code memory.reindex.batch-size} chunks (throttled to {@code max-requests-per-second}) and upserts the page with
+ * one batched {@code addAll}. After every page the last memory id is checkpointed in {@code ai_memory_reindex_job},
+ * keyed by model and dimension, so a restart or a cancel resumes where it stopped and a model switch starts from the
+ * beginning.
+ * <p>
+ * Once every page is written, memories changed or deleted since the job started are brought up to date, the shadow
+ * gets its recall indexes and replaces the live table in one transaction, and vector recall comes back on. Writes
+ * that failed against the shadow while it was being renamed, or that other nodes made to the old table, are then
+ * replayed into the new one. The routing is per node: other nodes pick it up when they restart.
+ */
+@Slf4j
+@Service
+public class MemoryReindexService {
+
+    static final String TASK_ID_PREFIX = "memory-reindex-";
+
+    private final AiMemoryMapper memoryMapper;
+    private final AiMemoryReindexJobMapper jobMapper;
+    private final EmbeddingStore<TextSegment> memoryEmbeddingStore;
+    private final MemoryEmbeddingShadowTable shadowTable;
+    private final EmbeddingModel embeddingModel;
+    private final AiEmbeddingProperties embeddingProperties;
+    private final MemoryProperties memoryProperties;
+    private final AgentMetrics agentMetrics;
+    private final MemoryVectorCache memoryVectorCache;
+    private final MemoryEmbeddingTarget embeddingTarget;
+    private final AsyncTaskManager asyncTaskManager;
+    private final AsyncTaskExecutor executor;
+
+    private volatile String currentTaskId;
+
+    public MemoryReindexService(AiMemoryMapper memoryMapper,
+                                AiMemoryReindexJobMapper jobMapper,
+                                EmbeddingStore<TextSegment> memoryEmbeddingStore,
+                                MemoryEmbeddingShadowTable shadowTable,
+                                EmbeddingModel embeddingModel,
+                                AiEmbeddingProperties embeddingProperties,
+                                MemoryProperties memoryProperties,
+                                AgentMetrics agentMetrics,
+                                MemoryVectorCache memoryVectorCache,
+                                MemoryEmbeddingTarget embeddingTarget,
+                                AsyncTaskManager asyncTaskManager,
+                                @Qualifier(SHARED_EXECUTOR_BEAN_NAME) Executor sharedExecutor) {
+        this.memoryMapper = memoryMapper;
+        this.jobMapper = jobMapper;
+        this.memoryEmbeddingStore = memoryEmbeddingStore;
+        this.shadowTable = shadowTable;
+        this.embeddingModel = embeddingModel;
+        this.embeddingProperties = embeddingProperties;
+        this.memoryProperties = memoryProperties;
+        this.agentMetrics = agentMetrics;
+        this.memoryVectorCache = memoryVectorCache;
+        this.embeddingTarget = embeddingTarget;
+        this.asyncTaskManager = asyncTaskManager;
+        this.executor = sharedExecutor instanceof AsyncTaskExecutor asyncExecutor
+                ? asyncExecutor
+                : new TaskExecutorAdapter(sharedExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (!memoryProperties.isEnabled()) {
+            return;
+        }
+        try {
+            restoreEmbeddingTarget();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read memory re-index state on startup", e);
+        }
+        if (!memoryProperties.getReindex().isAutoStart()) {
+            return;
+        }
+        try {
+            start(false);
+        } catch (RuntimeException e) {
+            log.warn("Failed to start memory re-index on startup", e);
+        }
+    }
+
+    /**
+     * Starts or resumes the re-index for the current embedding model. Does nothing while a run is in progress or
+     * when the job already completed, unless {@code restart} is set, which starts over from the first memory.
+     *
+     * @return the job checkpoint
+     */
+    public synchronized AiMemoryReindexJob start(boolean restart) {
+        String jobKey = jobKey();
+        AiMemoryReindexJob job = jobMapper.selectById(jobKey);
+        if (isRunning()) {
+            return job;
+        }
+        if (job != null && !restart && TaskStatus.COMPLETED.name().equals(job.getStatus())) {
+            return job;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (job == null || restart) {
+            boolean exists = job != null;
+            job = AiMemoryReindexJob.builder()
+                    .jobKey(jobKey)
+                    .modelName(embeddingProperties.getModelName())
+                    .dimension(embeddingProperties.getDimension())
+                    .lastMemoryId(0L)
+                    .processedCount(0L)
+                    .embeddedCount(0L)
+                    .totalCount(0L)
+                    .startedAt(now)
+                    .build();
+            job.setStatus(TaskStatus.RUNNING.name());
+            job.setUpdatedAt(now);
+            if (exists) {
+                jobMapper.updateById(job);
+                updateStatus(job);
+            } else {
+                jobMapper.insert(job);
+            }
+        } else {
+            job.setStatus(TaskStatus.RUNNING.name());
+            job.setErrorMessage(null);
+            job.setUpdatedAt(now);
+            updateStatus(job);
+        }
+
+        String taskId = TASK_ID_PREFIX + UUID.randomUUID();
+        AiMemoryReindexJob checkpoint = job;
+        currentTaskId = taskId;
+        asyncTaskManager.submit(taskId, () -> run(taskId, checkpoint), executor);
+        log.info("Memory re-index started: jobKey={}, taskId={}, resumeAfterMemoryId={}",
+                jobKey, taskId, job.getLastMemoryId());
+        return job;
+    }
+
+    /**
+     * Keeps vector recall off after a restart when the job for the current model was started but never swapped in.
+     */
+    void restoreEmbeddingTarget() {
+        AiMemoryReindexJob job = getJob();
+        if (job == null || TaskStatus.COMPLETED.name().equals(job.getStatus())) {
+            return;
+        }
+        embeddingTarget.beginReindex(shadowTable.isOwnedBy(job.getJobKey())
+                ? shadowTable.open(embeddingProperties.getDimension())
+                : null);
+    }
+
+    /**
+     * @return the checkpoint for the current embedding model, or {@code null} if it was never re-indexed
+     */
+    public AiMemoryReindexJob getJob() {
+        return jobMapper.selectById(jobKey());
+    }
+
+    /**
+     * Stops the running re-index; the next {@link #start(boolean)} resumes after the last checkpointed page.
+     */
+    public boolean cancel() {
+        String taskId = currentTaskId;
+        return taskId != null && asyncTaskManager.cancel(taskId);
+    }
+
+    AiMemoryReindexJob run(String taskId, AiMemoryReindexJob job) throws InterruptedException {
+        MemoryProperties.Reindex config = memoryProperties.getReindex();
+        int pageSize = Math.max(1, config.getPageSize());
+        int batchSize = Math.max(1, config.getBatchSize());
+        RequestThrottle throttle = new RequestThrottle(config.getMaxRequestsPerSecond());
+        job.setTotalCount(memoryMapper.selectCount(null));
+        LocalDateTime replayFrom;
+        try {
+            EmbeddingStore<TextSegment> shadowStore = openShadow(job);
+            embeddingTarget.beginReindex(shadowStore);
+            while (true) {
+                checkCancelled(taskId);
+                List<AiMemory> page = memoryMapper.selectList(new LambdaQueryWrapper<AiMemory>()
+                        .gt(AiMemory::getId, job.getLastMemoryId())
+                        .orderByAsc(AiMemory::getId)
+                        .last("LIMIT " + pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                int embedded = reindexPage(page, shadowStore, batchSize, throttle);
+                job.setLastMemoryId(page.get(page.size() - 1).getId());
+                job.setProcessedCount(job.getProcessedCount() + page.size());
+                job.setEmbeddedCount(job.getEmbeddedCount() + embedded);
+                job.setUpdatedAt(LocalDateTime.now());
+                jobMapper.updateById(job);
+                asyncTaskManager.reportProgress(taskId, job.getProcessedCount());
+            }
+
+            // Pages before the checkpoint were copied before later edits; deleted memories were copied at all.
+            replayFrom = LocalDateTime.now();
+            reindexChangedSince(taskId, job.getStartedAt(), shadowStore, pageSize, batchSize, throttle);
+            shadowTable.removeOrphans(MemoryEmbeddingShadowTable.TABLE);
+            checkCancelled(taskId);
+            shadowTable.buildIndexes();
+            checkCancelled(taskId);
+            shadowTable.swap();
+            embeddingTarget.endReindex();
+        } catch (InterruptedException e) {
+            finish(job, TaskStatus.CANCELLED, null);
+            throw e;
+        } catch (RuntimeException e) {
+            finish(job, TaskStatus.FAILED, e.getMessage());
+            throw e;
+        }
+        finish(job, TaskStatus.COMPLETED, null);
+        // Loaded local indexes still hold vectors from the previous model.
+        memoryVectorCache.invalidateAll();
+        replayIntoLiveTable(taskId, replayFrom, pageSize, batchSize, throttle);
+        log.info("Memory re-index completed: jobKey={}, processed={}, embedded={}",
+                job.getJobKey(), job.getProcessedCount(), job.getEmbeddedCount());
+        return job;
+    }
+
+    /**
+     * Resumes into the shadow table this job created, or starts over in a new one when there is none: a fresh job,
+     * a shadow that was already swapped in, or one that another model's job replaced.
+     */
+    private EmbeddingStore<TextSegment> openShadow(AiMemoryReindexJob job) {
+        int dimension = embeddingProperties.getDimension();
+        if (job.getLastMemoryId() > 0 && shadowTable.isOwnedBy(job.getJobKey())) {
+            return shadowTable.open(dimension);
+        }
+        if (job.getLastMemoryId() > 0) {
+            log.info("Memory re-index shadow table no longer belongs to job {}, starting over", job.getJobKey());
+            job.setLastMemoryId(0L);
+            job.setProcessedCount(0L);
+            job.setEmbeddedCount(0L);
+            job.setStartedAt(LocalDateTime.now());
+            jobMapper.updateById(job);
+        }
+        return shadowTable.create(job.getJobKey(), dimension);
+    }
+
+    /**
+     * Catches up writes that went to the old table while the shadow was finishing. The new table is already live, so
+     * a failure here is logged and left to the regular write path rather than failing the swapped job.
+     */
+    private void replayIntoLiveTable(String taskId, LocalDateTime since, int pageSize, int batchSize,
+                                     RequestThrottle throttle) {
+        try {
+            reindexChangedSince(taskId, since, memoryEmbeddingStore, pageSize, batchSize, throttle);
+            shadowTable.removeOrphans(EmbeddingStoreConfig.EMBEDDING_TABLE);
+            memoryVectorCache.invalidateAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Memory re-index replay after swap was cancelled: taskId={}", taskId);
+        } catch (RuntimeException e) {
+            log.warn("Memory re-index replay after swap failed: taskId={}", taskId, e);
+        }
+    }
+
+    private void reindexChangedSince(String taskId,
+                                     LocalDateTime since,
+                                     EmbeddingStore<TextSegment> store,
+                                     int pageSize,
+                                     int batchSize,
+                                     RequestThrottle throttle) throws InterruptedException {
+        long lastMemoryId = 0L;
+        while (true) {
+            checkCancelled(taskId);
+            List<AiMemory> page = memoryMapper.selectList(new LambdaQueryWrapper<AiMemory>()
+                    .ge(AiMemory::getUpdatedAt, since)
+                    .gt(AiMemory::getId, lastMemoryId)
+                    .orderByAsc(AiMemory::getId)
+                    .last("LIMIT " + pageSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            reindexPage(page, store, batchSize, throttle);
+            lastMemoryId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private static void checkCancelled(String taskId) throws InterruptedException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Memory re-index " + taskId + " was cancelled");
+        }
+    }
+
+    private int reindexPage(List<AiMemory> page,
+                            EmbeddingStore<TextSegment> store,
+                            int batchSize,
+                            RequestThrottle throttle) throws InterruptedException {
+        List<String> ids = new ArrayList<>(page.size());
+        List<TextSegment> segments = new ArrayList<>(page.size());
+        List<String> staleIds = new ArrayList<>();
+        for (AiMemory memory : page) {
+            if (MemoryEmbeddingSegments.isIndexable(memory)) {
+                ids.add(MemoryEmbeddingSegments.storeId(memory.getId()));
+                segments.add(MemoryEmbeddingSegments.toSegment(memory));
+            } else {
+                staleIds.add(MemoryEmbeddingSegments.storeId(memory.getId()));
+            }
+        }
+        if (!staleIds.isEmpty()) {
+            store.removeAll(staleIds);
+        }
+        if (segments.isEmpty()) {
+            return 0;
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(segments.size());
+        for (int from = 0; from < segments.size(); from += batchSize) {
+            throttle.acquire();
+            List<TextSegment> batch = segments.subList(from, Math.min(from + batchSize, segments.size()));
+            long startTime = System.currentTimeMillis();
+            embeddings.addAll(embeddingModel.embedAll(batch).content());
+            agentMetrics.recordEmbedding(AgentMetricNames.OPERATION_REINDEX, System.currentTimeMillis() - startTime);
+        }
+        if (embeddings.get(0).dimension() != embeddingProperties.getDimension()) {
+            throw new IllegalStateException("Embedding model returned " + embeddings.get(0).dimension()
+                    + " dimensions but ai.embedding.dimension is " + embeddingProperties.getDimension());
+        }
+        store.addAll(ids, embeddings, segments);
+        return segments.size();
+    }
+
+    private void finish(AiMemoryReindexJob job, TaskStatus status, String errorMessage) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(status.name());
+        job.setErrorMessage(StringUtils.abbreviate(errorMessage, 1000));
+        job.setUpdatedAt(now);
+        job.setCompletedAt(status == TaskStatus.COMPLETED ? now : null);
+        try {
+            updateStatus(job);
+        } catch (RuntimeException e) {
+            log.warn("Failed to record memory re-index status {}: {}", status, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the status columns explicitly; {@code updateById} would skip the ones being cleared.
+     */
+    private void updateStatus(AiMemoryReindexJob job) {
+        jobMapper.update(null, new LambdaUpdateWrapper<AiMemoryReindexJob>()
+                .eq(AiMemoryReindexJob::getJobKey, job.getJobKey())
+                .set(AiMemoryReindexJob::getStatus, job.getStatus())
+                .set(AiMemoryReindexJob::getErrorMessage, job.getErrorMessage())
+                .set(AiMemoryReindexJob::getUpdatedAt, job.getUpdatedAt())
+                .set(AiMemoryReindexJob::getCompletedAt, job.getCompletedAt()));
+    }
+
+    private boolean isRunning() {
+        String taskId = currentTaskId;
+        if (taskId == null) {
+            return false;
+        }
+        return asyncTaskManager.get(taskId)
+                .map(AsyncTask::getStatus)
+                .map(status -> !AsyncTaskManager.isTerminal(status))
+                .orElse(false);
+    }
+
+    private String jobKey() {
+        return embeddingProperties.getModelName() + ":" + embeddingProperties.getDimension();
+    }
+
+    /**
+     * Spaces embedding requests at least {@code 1 / maxRequestsPerSecond} apart. Used by the single job thread only.
+     */
+    static final class RequestThrottle {
+
+        private final long intervalNanos;
+        private long nextAllowedNanos;
+
+        RequestThrottle(double maxRequestsPerSecond) {
+            this.intervalNanos = maxRequestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxRequestsPerSecond) : 0L;
+            this.nextAllowedNanos = System.nanoTime();
+        }
+
+        void acquire() throws InterruptedException {
+            if (intervalNanos == 0) {
+                return;
+            }
+            long waitNanos = nextAllowedNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            nextAllowedNanos = Math.max(nextAllowedNanos, System.nanoTime()) + intervalNanos;
+        }
+    }
+}
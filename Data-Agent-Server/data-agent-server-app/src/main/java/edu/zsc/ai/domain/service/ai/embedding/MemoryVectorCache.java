@@ -0,0 +1,183 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import edu.zsc.ai.common.constant.MemoryMetadataConstant;
+import edu.zsc.ai.common.enums.ai.MemoryEnableEnum;
+import edu.zsc.ai.config.ai.EmbeddingStoreConfig;
+import edu.zsc.ai.config.ai.MemoryProperties;
+import edu.zsc.ai.util.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Optional in-process vector index per user, consulted before pgvector on prompt-time recall.
+ * <p>
+ * A user's enabled memory vectors are loaded from {@code ai_memory_embedding} on their first recall and searched
+ * with an exact flat scan afterwards. Writes made through this node update the loaded index; writes from other nodes
+ * show up when the entry expires after {@code memory.local-index.ttl-ms}. The cache is bounded by vector bytes and
+ * evicts the least recently used users first. pgvector stays the durable store and the fallback whenever the index is
+ * disabled, the user has more than {@code max-memories-per-user} memories, or loading fails.
+ */
+@Slf4j
+@Component
+public class MemoryVectorCache {
+
+    private static final UserMemoryVectorIndex OVERSIZED = new UserMemoryVectorIndex(List.of());
+    private static final long ENTRY_OVERHEAD_BYTES = 256L;
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private static final String LOAD_SQL = "SELECT embedding_id::text, embedding::text, text, metadata::text FROM "
+            + EmbeddingStoreConfig.EMBEDDING_TABLE
+            + " WHERE (metadata->>'" + MemoryMetadataConstant.USER_ID + "')::bigint = ?"
+            + " AND (metadata->>'" + MemoryMetadataConstant.ENABLE + "')::int = ?"
+            + " LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemoryProperties memoryProperties;
+    private final Cache<Long, UserMemoryVectorIndex> indexes;
+
+    public MemoryVectorCache(JdbcTemplate jdbcTemplate, MemoryProperties memoryProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memoryProperties = memoryProperties;
+        MemoryProperties.LocalIndex config = memoryProperties.getLocalIndex();
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1L, config.getMaxBytes()))
+                .weigher((Long userId, UserMemoryVectorIndex index) -> weigh(index))
+                .expireAfterWrite(Duration.ofMillis(Math.max(1L, config.getTtlMs())))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return memoryProperties.getLocalIndex().isEnabled();
+    }
+
+    /**
+     * Searches the user's loaded index, loading it first if needed.
+     *
+     * @return every enabled memory of the user accepted by {@code filter} with at least {@code minScore}, best first;
+     * empty if the caller has to ask pgvector instead
+     */
+    public Optional<List<EmbeddingMatch<TextSegment>>> search(Long userId,
+                                                              Embedding query,
+                                                              double minScore,
+                                                              Predicate<Metadata> filter) {
+        if (!isEnabled() || userId == null || query == null) {
+            return Optional.empty();
+        }
+        UserMemoryVectorIndex index;
+        try {
+            index = indexes.get(userId, this::load);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load local memory index for user {}, using pgvector: {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+        if (index == OVERSIZED || (index.size() > 0 && index.dimension() != query.dimension())) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(query, minScore, filter));
+    }
+
+    /**
+     * Applies a store write to the user's index if it is loaded. Waits for an in-flight load of the same user, so the
+     * write is never lost between the load's read and its publication.
+     */
+    public void upsert(Long userId, String embeddingId, Embedding embedding, TextSegment segment) {
+        if (!isEnabled() || userId == null) {
+            return;
+        }
+        int maxMemories = memoryProperties.getLocalIndex().getMaxMemoriesPerUser();
+        indexes.asMap().computeIfPresent(userId, (id, index) -> {
+            if (index == OVERSIZED) {
+                return index;
+            }
+            index.upsert(UserMemoryVectorIndex.entry(embeddingId, embedding, segment));
+            return index.size() > maxMemories ? OVERSIZED : index;
+        });
+    }
+
+    /**
+     * Drops a memory from whichever loaded index holds it.
+     */
+    public void remove(String embeddingId) {
+        if (!isEnabled() || embeddingId == null) {
+            return;
+        }
+        indexes.asMap().replaceAll((userId, index) -> {
+            index.remove(embeddingId);
+            return index;
+        });
+    }
+
+    public void invalidateAll() {
+        indexes.invalidateAll();
+    }
+
+    private UserMemoryVectorIndex load(Long userId) {
+        int maxMemories = Math.max(1, memoryProperties.getLocalIndex().getMaxMemoriesPerUser());
+        long startTime = System.currentTimeMillis();
+        List<UserMemoryVectorIndex.Entry> entries = jdbcTemplate.query(LOAD_SQL,
+                (rs, rowNum) -> UserMemoryVectorIndex.entry(
+                        rs.getString(1),
+                        Embedding.from(parseVector(rs.getString(2))),
+                        TextSegment.from(rs.getString(3), parseMetadata(rs.getString(4)))),
+                userId, MemoryEnableEnum.ENABLE.getCode(), maxMemories + 1);
+        if (entries.size() > maxMemories) {
+            log.debug("User {} has more than {} memories, keeping recall on pgvector", userId, maxMemories);
+            return OVERSIZED;
+        }
+        log.debug("Loaded local memory index: userId={}, memories={}, elapsedMs={}",
+                userId, entries.size(), System.currentTimeMillis() - startTime);
+        return new UserMemoryVectorIndex(entries);
+    }
+
+    private static int weigh(UserMemoryVectorIndex index) {
+        long bytes = index.size() * ((long) index.dimension() * Float.BYTES + ENTRY_OVERHEAD_BYTES);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1L, bytes));
+    }
+
+    /**
+     * Parses pgvector's text form, e.g. {@code [0.1,-0.2,0.3]}.
+     */
+    static float[] parseVector(String text) {
+        String body = StringUtils.strip(StringUtils.trimToEmpty(text), "[]");
+        if (body.isEmpty()) {
+            return new float[0];
+        }
+        String[] parts = body.split(",");
+        float[] vector = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            vector[i] = Float.parseFloat(parts[i].trim());
+        }
+        return vector;
+    }
+
+    private static Metadata parseMetadata(String json) {
+        if (StringUtils.isBlank(json)) {
+            return new Metadata();
+        }
+        Map<String, Object> values = JsonUtil.json2Object(json, METADATA_TYPE);
+        Map<String, Object> nonNull = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (value != null) {
+                nonNull.put(key, value);
+            }
+        });
+        return Metadata.from(nonNull);
+    }
+}
@@ -0,0 +1,125 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Exact (flat) cosine index over one user's enabled memory vectors.
+ * <p>
+ * Entries live in an array that is replaced on every write, so searches read a consistent snapshot without locking.
+ * Scores use the same {@code (1 + cosine) / 2} scale as the pgvector store, so {@code minScore} means the same thing
+ * on both paths.
+ */
+final class UserMemoryVectorIndex {
+
+    private volatile Entry[] entries;
+
+    UserMemoryVectorIndex(List<Entry> entries) {
+        this.entries = entries.toArray(Entry[]::new);
+    }
+
+    static Entry entry(String embeddingId, Embedding embedding, TextSegment segment) {
+        float[] vector = embedding.vector();
+        double norm = Math.sqrt(dot(vector, vector));
+        return new Entry(embeddingId, embedding, segment, norm == 0 ? 0f : (float) (1.0 / norm));
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    int dimension() {
+        Entry[] snapshot = entries;
+        return snapshot.length == 0 ? 0 : snapshot[0].embedding().dimension();
+    }
+
+    synchronized void upsert(Entry entry) {
+        Entry[] current = entries;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].embeddingId().equals(entry.embeddingId())) {
+                Entry[] next = current.clone();
+                next[i] = entry;
+                entries = next;
+                return;
+            }
+        }
+        Entry[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = entry;
+        entries = next;
+    }
+
+    synchronized boolean remove(String embeddingId) {
+        Entry[] current = entries;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].embeddingId().equals(embeddingId)) {
+                Entry[] next = new Entry[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                entries = next;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return every entry accepted by {@code filter} scoring at least {@code minScore}, best first
+     */
+    List<EmbeddingMatch<TextSegment>> search(Embedding query, double minScore, Predicate<Metadata> filter) {
+        float[] queryVector = query.vector();
+        double queryNorm = Math.sqrt(dot(queryVector, queryVector));
+        if (queryNorm == 0) {
+            return List.of();
+        }
+        float queryInverseNorm = (float) (1.0 / queryNorm);
+        List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>();
+        for (Entry entry : entries) {
+            float[] vector = entry.embedding().vector();
+            if (vector.length != queryVector.length || !filter.test(entry.segment().metadata())) {
+                continue;
+            }
+            double cosine = dot(queryVector, vector) * queryInverseNorm * entry.inverseNorm();
+            double score = RelevanceScore.fromCosineSimilarity(cosine);
+            if (score >= minScore) {
+                matches.add(new EmbeddingMatch<>(score, entry.embeddingId(), entry.embedding(), entry.segment()));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(EmbeddingMatch<TextSegment>::score).reversed());
+        return matches;
+    }
+
+    /**
+     * Four independent accumulators break the loop-carried dependency so the JIT can keep several multiply-adds in
+     * flight; a single running sum would serialize on it.
+     */
+    static float dot(float[] a, float[] b) {
+        int length = Math.min(a.length, b.length);
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (int bound = length - 3; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    record Entry(String embeddingId, Embedding embedding, TextSegment segment, float inverseNorm) {
+    }
+}
@@ -1,18 +1,23 @@
 package edu.zsc.ai.domain.service.ai.export;
 
+import cn.idev.excel.ExcelWriter;
 import cn.idev.excel.FastExcel;
 import cn.idev.excel.support.ExcelTypeEnum;
 import cn.idev.excel.write.builder.ExcelWriterBuilder;
-import edu.zsc.ai.common.enums.ai.FileExportFormatEnum;
-import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
-import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
+import cn.idev.excel.write.metadata.WriteSheet;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 abstract class AbstractFastExcelFileExportStrategy extends AbstractTabularFileExportStrategy {
 
-    protected abstract FileExportFormatEnum exportFormat();
+    /**
+     * Rows converted and handed to the writer at a time. XLSX output goes through a streaming (SXSSF) workbook, so
+     * only this many rows are held in memory regardless of export size.
+     */
+    protected static final int WRITE_BATCH_SIZE = 1000;
 
     protected abstract ExcelTypeEnum excelType();
 
@@ -21,33 +26,28 @@ abstract class AbstractFastExcelFileExportStrategy extends AbstractTabularFileEx
     }
 
     @Override
-    public String format() {
-        return exportFormat().name();
-    }
-
-    @Override
-    public FileExportArtifact export(FileExportRequest request) {
-        List<String> headers = requireHeaders(request);
-        List<List<Object>> rows = requireRows(request, headers.size());
-
-        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
-            ExcelWriterBuilder writerBuilder = FastExcel.write(output)
-                    .excelType(excelType())
-                    .head(buildHead(headers));
-            configureWriter(writerBuilder);
-            writerBuilder.sheet("Export").doWrite(toStringRows(rows));
-
-            return FileExportArtifact.builder()
-                    .normalizedFormat(format())
-                    .extension(exportFormat().getExtension())
-                    .mimeType(exportFormat().getMimeType())
-                    .content(output.toByteArray())
-                    .rowCount(rows.size())
-                    .columnCount(headers.size())
-                    .preview(buildPreview(headers, rows))
-                    .build();
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to generate " + format() + " export", e);
+    protected void writeTable(List<String> headers, Iterator<List<Object>> rows, OutputStream output) {
+        ExcelWriterBuilder writerBuilder = FastExcel.write(output)
+                .excelType(excelType())
+                .autoCloseStream(Boolean.FALSE)
+                .head(buildHead(headers));
+        configureWriter(writerBuilder);
+
+        try (ExcelWriter excelWriter = writerBuilder.build()) {
+            WriteSheet sheet = FastExcel.writerSheet("Export").build();
+            List<List<String>> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+            boolean written = false;
+            while (rows.hasNext()) {
+                batch.add(normalizeRow(rows.next()));
+                if (batch.size() == WRITE_BATCH_SIZE) {
+                    excelWriter.write(batch, sheet);
+                    batch = new ArrayList<>(WRITE_BATCH_SIZE);
+                    written = true;
+                }
+            }
+            if (!batch.isEmpty() || !written) {
+                excelWriter.write(batch, sheet);
+            }
         }
     }
 
@@ -56,12 +56,4 @@ abstract class AbstractFastExcelFileExportStrategy extends AbstractTabularFileEx
                 .map(List::of)
                 .toList();
     }
-
-    protected List<List<String>> toStringRows(List<List<Object>> rows) {
-        return rows.stream()
-                .map(row -> row.stream()
-                        .map(this::normalizeCell)
-                        .toList())
-                .toList();
-    }
 }
@@ -1,30 +1,79 @@
 package edu.zsc.ai.domain.service.ai.export;
 
+import edu.zsc.ai.common.enums.ai.FileExportFormatEnum;
 import edu.zsc.ai.domain.service.ai.export.model.CsvPreviewData;
+import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 abstract class AbstractTabularFileExportStrategy implements FileExportStrategy {
 
     protected static final int PREVIEW_ROW_LIMIT = 10;
 
-    protected List<String> requireHeaders(FileExportRequest request) {
+    protected abstract FileExportFormatEnum exportFormat();
+
+    /**
+     * Writes the header and then each row as it is pulled from {@code rows}; rows must not be retained.
+     */
+    protected abstract void writeTable(List<String> headers, Iterator<List<Object>> rows, OutputStream output)
+            throws Exception;
+
+    @Override
+    public String format() {
+        return exportFormat().name();
+    }
+
+    @Override
+    public FileExportArtifact export(FileExportRequest request, OutputStream output) {
         if (request == null) {
             throw new IllegalArgumentException("export request is required");
         }
-        if (CollectionUtils.isEmpty(request.getHeaders())) {
+        List<String> headers = requireHeaders(request.getHeaders());
+        List<List<Object>> rows = requireRows(request, headers.size());
+        return writeArtifact(headers, rows.iterator(), output);
+    }
+
+    @Override
+    public FileExportArtifact export(List<String> headers, Iterator<List<Object>> rows, OutputStream output) {
+        return writeArtifact(requireHeaders(headers), rows, output);
+    }
+
+    /**
+     * Streams the rows into {@code output}, collecting the preview and row count on the way.
+     */
+    protected FileExportArtifact writeArtifact(List<String> headers, Iterator<List<Object>> rows, OutputStream output) {
+        PreviewCollector collector = new PreviewCollector(headers, rows);
+        try {
+            writeTable(headers, collector, output);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to generate " + format() + " export", e);
+        }
+        return FileExportArtifact.builder()
+                .normalizedFormat(format())
+                .extension(exportFormat().getExtension())
+                .mimeType(exportFormat().getMimeType())
+                .rowCount(collector.rowCount)
+                .columnCount(headers.size())
+                .preview(collector.toPreview())
+                .build();
+    }
+
+    protected List<String> requireHeaders(List<String> headers) {
+        if (CollectionUtils.isEmpty(headers)) {
             throw new IllegalArgumentException("headers must contain at least one column");
         }
-        for (int i = 0; i < request.getHeaders().size(); i++) {
-            if (StringUtils.isBlank(request.getHeaders().get(i))) {
+        for (int i = 0; i < headers.size(); i++) {
+            if (StringUtils.isBlank(headers.get(i))) {
                 throw new IllegalArgumentException("headers[" + i + "] must not be blank");
             }
         }
-        return request.getHeaders();
+        return headers;
     }
 
     protected List<List<Object>> requireRows(FileExportRequest request, int expectedSize) {
@@ -45,23 +94,52 @@ abstract class AbstractTabularFileExportStrategy implements FileExportStrategy {
         return value == null ? "" : String.valueOf(value);
     }
 
-    protected CsvPreviewData buildPreview(List<String> headers, List<List<Object>> rows) {
-        List<List<String>> previewRows = new ArrayList<>();
-        int previewSize = Math.min(rows.size(), PREVIEW_ROW_LIMIT);
-        for (int i = 0; i < previewSize; i++) {
-            List<Object> row = rows.get(i);
-            List<String> previewRow = new ArrayList<>(headers.size());
-            for (Object value : row) {
-                previewRow.add(normalizeCell(value));
+    protected List<String> normalizeRow(List<Object> row) {
+        List<String> normalized = new ArrayList<>(row.size());
+        for (Object value : row) {
+            normalized.add(normalizeCell(value));
+        }
+        return normalized;
+    }
+
+    /**
+     * Passes rows through while keeping the first {@link #PREVIEW_ROW_LIMIT} as strings and counting the rest.
+     */
+    private final class PreviewCollector implements Iterator<List<Object>> {
+
+        private final List<String> headers;
+        private final Iterator<List<Object>> rows;
+        private final List<List<String>> previewRows = new ArrayList<>();
+        private int rowCount;
+
+        private PreviewCollector(List<String> headers, Iterator<List<Object>> rows) {
+            this.headers = headers;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public List<Object> next() {
+            List<Object> row = rows.next();
+            if (rowCount < PREVIEW_ROW_LIMIT) {
+                previewRows.add(normalizeRow(row));
             }
-            previewRows.add(previewRow);
+            rowCount++;
+            return row;
+        }
+
+        private CsvPreviewData toPreview() {
+            return CsvPreviewData.builder()
+                    .columns(List.copyOf(headers))
+                    .rows(previewRows)
+                    .truncated(rowCount > PREVIEW_ROW_LIMIT)
+                    .totalRowCount(rowCount)
+                    .totalColumnCount(headers.size())
+                    .build();
         }
-        return CsvPreviewData.builder()
-                .columns(List.copyOf(headers))
-                .rows(previewRows)
-                .truncated(rows.size() > PREVIEW_ROW_LIMIT)
-                .totalRowCount(rows.size())
-                .totalColumnCount(headers.size())
-                .build();
     }
 }
@@ -0,0 +1,106 @@
+package edu.zsc.ai.domain.service.ai.export;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import edu.zsc.ai.domain.mapper.ai.AiExportFileMapper;
+import edu.zsc.ai.domain.model.entity.ai.AiExportFile;
+import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
+import edu.zsc.ai.util.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Postgres-backed registry in {@code ai_export_file}, so download links survive restarts and resolve on every node
+ * that shares the export directory. The preview is stored as JSON and comes back as plain maps and lists, which
+ * serialise to the same payload.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseExportFileRegistry implements ExportFileRegistry {
+
+    private final AiExportFileMapper exportFileMapper;
+
+    @Override
+    public void register(StoredExportFile file) {
+        exportFileMapper.insert(AiExportFile.builder()
+                .fileId(file.getFileId())
+                .ownerUserId(file.getOwnerUserId())
+                .conversationId(file.getConversationId())
+                .format(file.getFormat())
+                .mimeType(file.getMimeType())
+                .filename(file.getFilename())
+                .sizeBytes(file.getSizeBytes())
+                .rowCount(file.getRowCount())
+                .columnCount(file.getColumnCount())
+                .preview(file.getPreview() == null ? null : JsonUtil.object2json(file.getPreview()))
+                .createdAt(toDateTime(file.getCreatedAt()))
+                .build());
+    }
+
+    @Override
+    public Optional<StoredExportFile> find(String fileId) {
+        return Optional.ofNullable(exportFileMapper.selectById(fileId)).map(DatabaseExportFileRegistry::toStored);
+    }
+
+    @Override
+    public boolean remove(String fileId) {
+        return exportFileMapper.deleteById(fileId) > 0;
+    }
+
+    @Override
+    public List<StoredExportFile> findCreatedBefore(long createdBeforeMillis, int limit) {
+        return exportFileMapper.selectList(new LambdaQueryWrapper<AiExportFile>()
+                        .lt(AiExportFile::getCreatedAt, toDateTime(createdBeforeMillis))
+                        .orderByAsc(AiExportFile::getCreatedAt)
+                        .last("LIMIT " + limit))
+                .stream()
+                .map(DatabaseExportFileRegistry::toStored)
+                .toList();
+    }
+
+    @Override
+    public List<StoredExportFile> findOldest(int limit) {
+        return exportFileMapper.selectList(new LambdaQueryWrapper<AiExportFile>()
+                        .orderByAsc(AiExportFile::getCreatedAt)
+                        .last("LIMIT " + limit))
+                .stream()
+                .map(DatabaseExportFileRegistry::toStored)
+                .toList();
+    }
+
+    @Override
+    public long totalSizeBytes() {
+        List<Object> totals = exportFileMapper.selectObjs(
+                new QueryWrapper<AiExportFile>().select("COALESCE(SUM(size_bytes), 0)"));
+        return totals.isEmpty() || totals.get(0) == null ? 0L : ((Number) totals.get(0)).longValue();
+    }
+
+    private static StoredExportFile toStored(AiExportFile row) {
+        return StoredExportFile.builder()
+                .fileId(row.getFileId())
+                .ownerUserId(row.getOwnerUserId())
+                .conversationId(row.getConversationId())
+                .uuid(row.getFileId())
+                .format(row.getFormat())
+                .mimeType(row.getMimeType())
+                .filename(row.getFilename())
+                .sizeBytes(row.getSizeBytes() == null ? 0L : row.getSizeBytes())
+                .createdAt(row.getCreatedAt() == null ? 0L
+                        : row.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .rowCount(row.getRowCount())
+                .columnCount(row.getColumnCount())
+                .preview(StringUtils.isBlank(row.getPreview()) ? null : JsonUtil.json2Object(row.getPreview(), Object.class))
+                .build();
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -1,8 +1,6 @@
 package edu.zsc.ai.domain.service.ai.export;
 
 import edu.zsc.ai.common.enums.ai.FileExportFormatEnum;
-import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
-import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
 import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
@@ -12,32 +10,29 @@ import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 @Component
 public class DocxFileExportStrategy extends AbstractTabularFileExportStrategy {
 
     @Override
-    public String format() {
-        return FileExportFormatEnum.DOCX.name();
+    protected FileExportFormatEnum exportFormat() {
+        return FileExportFormatEnum.DOCX;
     }
 
     @Override
-    public FileExportArtifact export(FileExportRequest request) {
-        List<String> headers = requireHeaders(request);
-        List<List<Object>> rows = requireRows(request, headers.size());
-
-        try (XWPFDocument document = new XWPFDocument();
-             ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+    protected void writeTable(List<String> headers, Iterator<List<Object>> rows, OutputStream output) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
             XWPFParagraph title = document.createParagraph();
             title.setAlignment(ParagraphAlignment.LEFT);
             XWPFRun titleRun = title.createRun();
             titleRun.setBold(true);
             titleRun.setText("Export Table");
 
-            XWPFTable table = document.createTable(rows.size() + 1, headers.size());
+            XWPFTable table = document.createTable(1, headers.size());
             XWPFTableRow headerRow = table.getRow(0);
             for (int i = 0; i < headers.size(); i++) {
                 XWPFTableCell cell = headerRow.getCell(i);
@@ -48,9 +43,9 @@ public class DocxFileExportStrategy extends AbstractTabularFileExportStrategy {
                 run.setText(headers.get(i));
             }
 
-            for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
-                XWPFTableRow tableRow = table.getRow(rowIndex + 1);
-                List<Object> row = rows.get(rowIndex);
+            while (rows.hasNext()) {
+                XWPFTableRow tableRow = table.createRow();
+                List<Object> row = rows.next();
                 for (int colIndex = 0; colIndex < row.size(); colIndex++) {
                     XWPFTableCell cell = tableRow.getCell(colIndex);
                     cell.removeParagraph(0);
@@ -61,17 +56,6 @@ public class DocxFileExportStrategy extends AbstractTabularFileExportStrategy {
             }
 
             document.write(output);
-            return FileExportArtifact.builder()
-                    .normalizedFormat(format())
-                    .extension(FileExportFormatEnum.DOCX.getExtension())
-                    .mimeType(FileExportFormatEnum.DOCX.getMimeType())
-                    .content(output.toByteArray())
-                    .rowCount(rows.size())
-                    .columnCount(headers.size())
-                    .preview(buildPreview(headers, rows))
-                    .build();
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to generate DOCX export", e);
         }
     }
 }
@@ -0,0 +1,34 @@
+package edu.zsc.ai.domain.service.ai.export;
+
+import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Index of stored export files, keyed by file id. Entries carry the filename relative to the export directory;
+ * {@link StoredExportFile#getPath()} is resolved by {@link ExportFileStorageService}.
+ */
+public interface ExportFileRegistry {
+
+    void register(StoredExportFile file);
+
+    Optional<StoredExportFile> find(String fileId);
+
+    /**
+     * @return whether an entry was removed
+     */
+    boolean remove(String fileId);
+
+    /**
+     * @return up to {@code limit} entries created before {@code createdBeforeMillis}, oldest first
+     */
+    List<StoredExportFile> findCreatedBefore(long createdBeforeMillis, int limit);
+
+    /**
+     * @return up to {@code limit} entries, oldest first
+     */
+    List<StoredExportFile> findOldest(int limit);
+
+    long totalSizeBytes();
+}
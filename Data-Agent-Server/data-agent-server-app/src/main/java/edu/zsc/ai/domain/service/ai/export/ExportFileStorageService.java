@@ -7,49 +7,97 @@ import edu.zsc.ai.domain.service.ai.export.model.ExportedFileDownload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFileStatus;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
 import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
+import edu.zsc.ai.config.ai.ExportProperties;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+/**
+ * Stores export files in the export directory and indexes them in an {@link ExportFileRegistry}.
+ * <p>
+ * Files outlive restarts: nothing is wiped on startup or shutdown. Instead a periodic sweep removes files older than
+ * {@code ai.export.ttl-ms}, then evicts the oldest files while the total exceeds {@code ai.export.max-total-bytes},
+ * and finally deletes unregistered files left behind by crashed writers once they are past the TTL.
+ */
 @Component
 @Slf4j
 public class ExportFileStorageService {
 
     static final DateTimeFormatter FILE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+    static final int EVICTION_BATCH_SIZE = 200;
+    private static final int FILE_ID_LENGTH = 36;
 
     private final Path rootDirectory;
-    private final Map<String, StoredExportFile> files = new ConcurrentHashMap<>();
+    private final ExportFileRegistry registry;
+    private final long ttlMs;
+    private final long maxTotalBytes;
 
-    public ExportFileStorageService() {
-        this(Path.of(System.getProperty("java.io.tmpdir"), "data-agent", "exports"));
+    @Autowired
+    public ExportFileStorageService(ExportProperties properties, ExportFileRegistry registry) {
+        this(StringUtils.isBlank(properties.getDirectory())
+                        ? defaultRootDirectory()
+                        : Path.of(properties.getDirectory()),
+                registry,
+                properties.getTtlMs(),
+                properties.getMaxTotalBytes());
     }
 
+    /**
+     * Standalone storage with a process-local registry and the default retention.
+     */
     public ExportFileStorageService(Path rootDirectory) {
+        this(rootDirectory, new InMemoryExportFileRegistry(),
+                new ExportProperties().getTtlMs(), new ExportProperties().getMaxTotalBytes());
+    }
+
+    ExportFileStorageService(Path rootDirectory, ExportFileRegistry registry, long ttlMs, long maxTotalBytes) {
         this.rootDirectory = rootDirectory;
+        this.registry = registry;
+        this.ttlMs = ttlMs;
+        this.maxTotalBytes = maxTotalBytes;
     }
 
     @PostConstruct
     public void initialize() {
-        recreateRootDirectory();
+        try {
+            Files.createDirectories(rootDirectory);
+        } catch (IOException e) {
+            throw new BusinessException(ResponseCode.SYSTEM_ERROR, ErrorCodeEnum.FILE_WRITE_ERROR.getMessage());
+        }
     }
 
-    @PreDestroy
-    public void shutdown() {
-        files.clear();
-        deleteRootDirectoryQuietly();
+    /**
+     * Removes expired, over-quota and orphaned export files. Safe to run concurrently on several nodes.
+     */
+    @Scheduled(fixedDelayString = "${ai.export.cleanup-interval-ms:600000}",
+            initialDelayString = "${ai.export.cleanup-interval-ms:600000}")
+    public void evict() {
+        try {
+            int expired = evictExpired();
+            int overQuota = enforceQuota(null);
+            int orphaned = deleteOrphans();
+            if (expired > 0 || overQuota > 0 || orphaned > 0) {
+                log.info("Export cleanup removed {} expired, {} over-quota and {} orphaned file(s)",
+                        expired, overQuota, orphaned);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Export cleanup failed", e);
+        }
     }
 
     public Path resolvePath(String filename) {
@@ -72,20 +120,59 @@ public class ExportFileStorageService {
             log.error("Failed to persist export file {}", file.getFilename(), e);
             throw new BusinessException(ResponseCode.SYSTEM_ERROR, ErrorCodeEnum.FILE_WRITE_ERROR.getMessage());
         }
-        files.put(file.getFileId(), file);
+        registry.register(file);
         return file;
     }
 
     public StoredExportFile store(Long ownerUserId, Long conversationId, FileExportArtifact artifact) {
+        if (artifact == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR, ErrorCodeEnum.PARAMS_ERROR.getMessage());
+        }
+        return store(ownerUserId, conversationId, artifact.getExtension(), path -> {
+            try {
+                Files.write(path, artifact.getContent() == null ? new byte[0] : artifact.getContent());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return artifact;
+        });
+    }
+
+    /**
+     * Allocates the export file and lets {@code writer} stream into it, so the content is never held in memory.
+     * The file is registered only after the writer returns; a failed write leaves nothing behind.
+     *
+     * @param writer writes the file at the given path and returns the artifact metadata
+     */
+    public StoredExportFile store(Long ownerUserId,
+                                  Long conversationId,
+                                  String extension,
+                                  Function<Path, FileExportArtifact> writer) {
         if (ownerUserId == null) {
             throw new BusinessException(ResponseCode.UNAUTHORIZED, ErrorCodeEnum.NOT_LOGIN_ERROR.getMessage());
         }
-        if (artifact == null) {
+        if (writer == null) {
             throw new BusinessException(ResponseCode.PARAM_ERROR, ErrorCodeEnum.PARAMS_ERROR.getMessage());
         }
 
         String fileId = UUID.randomUUID().toString();
-        String filename = buildFilename(ownerUserId, conversationId, fileId, artifact.getExtension());
+        String filename = buildFilename(ownerUserId, conversationId, fileId, extension);
+        Path path = resolvePath(filename);
+
+        FileExportArtifact artifact;
+        long sizeBytes;
+        try {
+            artifact = writer.apply(path);
+            sizeBytes = Files.size(path);
+        } catch (IOException | UncheckedIOException e) {
+            deleteQuietly(path);
+            log.error("Failed to persist export file {}", filename, e);
+            throw new BusinessException(ResponseCode.SYSTEM_ERROR, ErrorCodeEnum.FILE_WRITE_ERROR.getMessage());
+        } catch (RuntimeException e) {
+            deleteQuietly(path);
+            throw e;
+        }
+
         StoredExportFile stored = StoredExportFile.builder()
                 .fileId(fileId)
                 .ownerUserId(ownerUserId)
@@ -94,18 +181,32 @@ public class ExportFileStorageService {
                 .format(artifact.getNormalizedFormat())
                 .mimeType(artifact.getMimeType())
                 .filename(filename)
-                .path(resolvePath(filename))
-                .sizeBytes(artifact.getContent() == null ? 0 : artifact.getContent().length)
+                .path(path)
+                .sizeBytes(sizeBytes)
                 .createdAt(System.currentTimeMillis())
                 .rowCount(artifact.getRowCount())
                 .columnCount(artifact.getColumnCount())
                 .preview(artifact.getPreview())
                 .build();
-        return store(stored, artifact.getContent());
+        try {
+            registry.register(stored);
+        } catch (RuntimeException e) {
+            deleteQuietly(path);
+            throw e;
+        }
+        try {
+            enforceQuota(fileId);
+        } catch (RuntimeException e) {
+            log.warn("Export quota check failed after storing {}", filename, e);
+        }
+        return stored;
     }
 
     public Optional<StoredExportFile> get(String fileId) {
-        return Optional.ofNullable(files.get(fileId));
+        if (StringUtils.isBlank(fileId)) {
+            return Optional.empty();
+        }
+        return registry.find(fileId).map(this::locate);
     }
 
     public ExportedFileDownload resolveDownload(String fileId, Long currentUserId) {
@@ -118,8 +219,8 @@ public class ExportFileStorageService {
         if (!currentUserId.equals(stored.getOwnerUserId())) {
             throw new BusinessException(ResponseCode.FORBIDDEN, ErrorCodeEnum.NO_AUTH_ERROR.getMessage());
         }
+        // A missing file is not unregistered: with node-local directories it may live on another node.
         if (stored.getPath() == null || !Files.exists(stored.getPath())) {
-            remove(fileId);
             throw new BusinessException(ResponseCode.NOT_FOUND, ErrorCodeEnum.FILE_NOT_FOUND.getMessage());
         }
 
@@ -140,14 +241,13 @@ public class ExportFileStorageService {
             return unavailableStatus(fileId, false, 0L);
         }
 
-        StoredExportFile stored = files.get(fileId);
+        StoredExportFile stored = get(fileId).orElse(null);
         if (stored == null || !currentUserId.equals(stored.getOwnerUserId())) {
             return unavailableStatus(fileId, false, 0L);
         }
 
         Path path = stored.getPath();
         if (path == null || !Files.exists(path)) {
-            files.remove(fileId);
             return unavailableStatus(fileId, false, 0L);
         }
 
@@ -171,44 +271,123 @@ public class ExportFileStorageService {
         if (fileId == null || fileId.isBlank()) {
             return;
         }
-        StoredExportFile removed = files.remove(fileId);
-        if (removed == null || removed.getPath() == null) {
-            return;
+        get(fileId).ifPresent(this::delete);
+    }
+
+    private int evictExpired() {
+        if (ttlMs <= 0) {
+            return 0;
         }
-        try {
-            Files.deleteIfExists(removed.getPath());
-        } catch (IOException e) {
-            log.warn("Failed to delete export file {}", removed.getPath(), e);
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        int removed = 0;
+        List<StoredExportFile> batch;
+        do {
+            batch = registry.findCreatedBefore(cutoff, EVICTION_BATCH_SIZE);
+            for (StoredExportFile file : batch) {
+                delete(locate(file));
+                removed++;
+            }
+        } while (batch.size() == EVICTION_BATCH_SIZE);
+        return removed;
+    }
+
+    /**
+     * Evicts the oldest files until the total size fits the quota, never evicting {@code keepFileId}.
+     */
+    private int enforceQuota(String keepFileId) {
+        if (maxTotalBytes <= 0) {
+            return 0;
         }
+        long totalBytes = registry.totalSizeBytes();
+        int removed = 0;
+        while (totalBytes > maxTotalBytes) {
+            List<StoredExportFile> batch = registry.findOldest(EVICTION_BATCH_SIZE);
+            boolean progressed = false;
+            for (StoredExportFile file : batch) {
+                if (totalBytes <= maxTotalBytes) {
+                    break;
+                }
+                if (file.getFileId().equals(keepFileId)) {
+                    continue;
+                }
+                delete(locate(file));
+                totalBytes -= file.getSizeBytes();
+                removed++;
+                progressed = true;
+            }
+            if (!progressed) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.info("Export quota of {} bytes exceeded, evicted {} oldest file(s)", maxTotalBytes, removed);
+        }
+        return removed;
     }
 
-    private void recreateRootDirectory() {
-        deleteRootDirectoryQuietly();
-        try {
-            Files.createDirectories(rootDirectory);
+    /**
+     * Deletes files past the TTL that have no registry entry, e.g. left by a node that died mid-write. A file is
+     * registered only once written, so its modification time can fall past the TTL while its registry entry has not
+     * yet expired; those files are kept until {@link #evictExpired()} removes them with their entry.
+     */
+    private int deleteOrphans() {
+        if (ttlMs <= 0 || !Files.isDirectory(rootDirectory)) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        int removed = 0;
+        try (Stream<Path> paths = Files.list(rootDirectory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path)
+                        && Files.getLastModifiedTime(path).toMillis() < cutoff
+                        && !isRegistered(path)) {
+                    deleteQuietly(path);
+                    removed++;
+                }
+            }
         } catch (IOException e) {
-            throw new BusinessException(ResponseCode.SYSTEM_ERROR, ErrorCodeEnum.FILE_WRITE_ERROR.getMessage());
+            log.warn("Failed to scan export directory {}", rootDirectory, e);
         }
+        return removed;
     }
 
-    private void deleteRootDirectoryQuietly() {
-        if (!Files.exists(rootDirectory)) {
-            return;
+    /**
+     * Looks up the file id that {@link #buildFilename} places right before the extension.
+     */
+    private boolean isRegistered(Path path) {
+        String filename = path.getFileName().toString();
+        int extensionStart = filename.lastIndexOf('.');
+        String stem = extensionStart < 0 ? filename : filename.substring(0, extensionStart);
+        if (stem.length() < FILE_ID_LENGTH) {
+            return false;
+        }
+        return registry.find(stem.substring(stem.length() - FILE_ID_LENGTH)).isPresent();
+    }
+
+    private void delete(StoredExportFile file) {
+        registry.remove(file.getFileId());
+        if (file.getPath() != null) {
+            deleteQuietly(file.getPath());
         }
-        try (var paths = Files.walk(rootDirectory)) {
-            paths.sorted(Comparator.reverseOrder())
-                    .forEach(path -> {
-                        try {
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            log.warn("Failed to delete export path {}", path, e);
-                        }
-                    });
+    }
+
+    private StoredExportFile locate(StoredExportFile file) {
+        file.setPath(StringUtils.isBlank(file.getFilename()) ? null : rootDirectory.resolve(file.getFilename()));
+        return file;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
         } catch (IOException e) {
-            log.warn("Failed to clean export root directory {}", rootDirectory, e);
+            log.warn("Failed to delete export file {}", path, e);
         }
     }
 
+    private static Path defaultRootDirectory() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "data-agent", "exports");
+    }
+
     private String buildFilename(Long userId, Long conversationId, String fileId, String extension) {
         String timestamp = FILE_TIMESTAMP_FORMAT.format(LocalDateTime.now());
         long safeConversationId = conversationId == null ? 0L : conversationId;
@@ -5,7 +5,6 @@ import edu.zsc.ai.domain.exception.BusinessException;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFileDownload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFilePayload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFileStatus;
-import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
 import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
 import lombok.RequiredArgsConstructor;
@@ -25,8 +24,12 @@ public class FileExportService {
         validateRequest(request);
 
         FileExportStrategy strategy = strategyResolver.resolve(request.getFormat());
-        FileExportArtifact artifact = strategy.export(request);
-        StoredExportFile stored = storageService.store(request.getUserId(), request.getConversationId(), artifact);
+        StoredExportFile stored = storageService.store(
+                request.getUserId(),
+                request.getConversationId(),
+                strategy.extension(),
+                target -> strategy.export(request, target)
+        );
         return toPayload(stored);
     }
 
@@ -38,7 +41,7 @@ public class FileExportService {
         return storageService.resolveStatus(fileId, currentUserId);
     }
 
-    private ExportedFilePayload toPayload(StoredExportFile stored) {
+    static ExportedFilePayload toPayload(StoredExportFile stored) {
         return ExportedFilePayload.builder()
                 .fileId(stored.getFileId())
                 .filename(stored.getFilename())
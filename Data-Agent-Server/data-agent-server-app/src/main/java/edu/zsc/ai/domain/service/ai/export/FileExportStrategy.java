@@ -5,11 +5,66 @@ import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
 public interface FileExportStrategy {
 
     String format();
 
-    FileExportArtifact export(FileExportRequest request);
+    /**
+     * Writes the export to {@code output} row by row. The returned artifact carries metadata only; its content is null.
+     */
+    FileExportArtifact export(FileExportRequest request, OutputStream output);
+
+    /**
+     * Writes rows pulled from {@code rows} to {@code output} without holding them, for sources too large to buffer
+     * such as an open {@code ResultSet}. The returned artifact carries metadata only; its content is null.
+     */
+    FileExportArtifact export(List<String> headers, Iterator<List<Object>> rows, OutputStream output);
+
+    /**
+     * Streams the export straight into {@code target}, replacing any existing file.
+     */
+    default FileExportArtifact export(FileExportRequest request, Path target) {
+        return writeTo(target, output -> export(request, output));
+    }
+
+    /**
+     * Streams rows pulled from {@code rows} straight into {@code target}, replacing any existing file.
+     */
+    default FileExportArtifact export(List<String> headers, Iterator<List<Object>> rows, Path target) {
+        return writeTo(target, output -> export(headers, rows, output));
+    }
+
+    /**
+     * Builds the export in memory with its content set. Only suitable for small exports.
+     */
+    default FileExportArtifact export(FileExportRequest request) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        FileExportArtifact artifact = export(request, output);
+        artifact.setContent(output.toByteArray());
+        return artifact;
+    }
+
+    private FileExportArtifact writeTo(Path target, Function<OutputStream, FileExportArtifact> writer) {
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(target))) {
+            return writer.apply(output);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write " + format() + " export to " + target, e);
+        }
+    }
+
+    default String extension() {
+        return FileExportFormatEnum.fromValue(format()).getExtension();
+    }
 
     default boolean supports(String candidateFormat) {
         return !StringUtils.isBlank(candidateFormat)
@@ -0,0 +1,53 @@
+package edu.zsc.ai.domain.service.ai.export;
+
+import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local registry for a standalone {@link ExportFileStorageService}; entries do not survive a restart.
+ */
+final class InMemoryExportFileRegistry implements ExportFileRegistry {
+
+    private static final Comparator<StoredExportFile> OLDEST_FIRST = Comparator.comparingLong(StoredExportFile::getCreatedAt);
+
+    private final Map<String, StoredExportFile> files = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(StoredExportFile file) {
+        files.put(file.getFileId(), file);
+    }
+
+    @Override
+    public Optional<StoredExportFile> find(String fileId) {
+        return Optional.ofNullable(files.get(fileId));
+    }
+
+    @Override
+    public boolean remove(String fileId) {
+        return files.remove(fileId) != null;
+    }
+
+    @Override
+    public List<StoredExportFile> findCreatedBefore(long createdBeforeMillis, int limit) {
+        return files.values().stream()
+                .filter(file -> file.getCreatedAt() < createdBeforeMillis)
+                .sorted(OLDEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<StoredExportFile> findOldest(int limit) {
+        return files.values().stream().sorted(OLDEST_FIRST).limit(limit).toList();
+    }
+
+    @Override
+    public long totalSizeBytes() {
+        return files.values().stream().mapToLong(StoredExportFile::getSizeBytes).sum();
+    }
+}
@@ -1,8 +1,6 @@
 package edu.zsc.ai.domain.service.ai.export;
 
 import edu.zsc.ai.common.enums.ai.FileExportFormatEnum;
-import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
-import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -12,10 +10,11 @@ import org.apache.pdfbox.pdmodel.font.PDType0Font;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 @Component
@@ -35,17 +34,13 @@ public class PdfFileExportStrategy extends AbstractTabularFileExportStrategy {
     );
 
     @Override
-    public String format() {
-        return FileExportFormatEnum.PDF.name();
+    protected FileExportFormatEnum exportFormat() {
+        return FileExportFormatEnum.PDF;
     }
 
     @Override
-    public FileExportArtifact export(FileExportRequest request) {
-        List<String> headers = requireHeaders(request);
-        List<List<Object>> rows = requireRows(request, headers.size());
-
-        try (PDDocument document = new PDDocument();
-             ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+    protected void writeTable(List<String> headers, Iterator<List<Object>> rows, OutputStream output) throws IOException {
+        try (PDDocument document = new PDDocument()) {
             PDFont regularFont = loadFont(document);
             PDFont headerFont = regularFont;
 
@@ -58,22 +53,11 @@ public class PdfFileExportStrategy extends AbstractTabularFileExportStrategy {
             float y = page.getMediaBox().getHeight() - MARGIN;
             float bottom = MARGIN;
 
-            List<List<String>> allRows = new ArrayList<>();
-            allRows.add(headers);
-            for (List<Object> row : rows) {
-                List<String> normalized = new ArrayList<>(row.size());
-                for (Object cell : row) {
-                    normalized.add(normalizeCell(cell));
-                }
-                allRows.add(normalized);
-            }
-
-            List<String> headerValues = allRows.get(0);
-            float headerHeight = drawRow(content, page, headerValues, y, columnWidth, headerFont, HEADER_FONT_SIZE, true);
+            float headerHeight = drawRow(content, page, headers, y, columnWidth, headerFont, HEADER_FONT_SIZE, true);
             y -= headerHeight;
 
-            for (int i = 1; i < allRows.size(); i++) {
-                List<String> row = allRows.get(i);
+            while (rows.hasNext()) {
+                List<String> row = normalizeRow(rows.next());
                 float rowHeight = estimateRowHeight(row, columnWidth, regularFont, FONT_SIZE);
                 if (y - rowHeight < bottom) {
                     content.close();
@@ -81,7 +65,7 @@ public class PdfFileExportStrategy extends AbstractTabularFileExportStrategy {
                     document.addPage(page);
                     content = new PDPageContentStream(document, page);
                     y = page.getMediaBox().getHeight() - MARGIN;
-                    headerHeight = drawRow(content, page, headerValues, y, columnWidth, headerFont, HEADER_FONT_SIZE, true);
+                    headerHeight = drawRow(content, page, headers, y, columnWidth, headerFont, HEADER_FONT_SIZE, true);
                     y -= headerHeight;
                 }
                 rowHeight = drawRow(content, page, row, y, columnWidth, regularFont, FONT_SIZE, false);
@@ -90,17 +74,6 @@ public class PdfFileExportStrategy extends AbstractTabularFileExportStrategy {
 
             content.close();
             document.save(output);
-            return FileExportArtifact.builder()
-                    .normalizedFormat(format())
-                    .extension(FileExportFormatEnum.PDF.getExtension())
-                    .mimeType(FileExportFormatEnum.PDF.getMimeType())
-                    .content(output.toByteArray())
-                    .rowCount(rows.size())
-                    .columnCount(headers.size())
-                    .preview(buildPreview(headers, rows))
-                    .build();
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to generate PDF export", e);
         }
     }
 
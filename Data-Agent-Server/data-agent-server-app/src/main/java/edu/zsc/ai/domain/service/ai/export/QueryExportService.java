@@ -0,0 +1,247 @@
+package edu.zsc.ai.domain.service.ai.export;
+
+import edu.zsc.ai.async.AsyncTask;
+import edu.zsc.ai.async.AsyncTaskManager;
+import edu.zsc.ai.async.TaskStatus;
+import edu.zsc.ai.common.constant.ResponseCode;
+import edu.zsc.ai.common.enums.ai.FileExportFormatEnum;
+import edu.zsc.ai.common.enums.error.ErrorCodeEnum;
+import edu.zsc.ai.domain.exception.BusinessException;
+import edu.zsc.ai.domain.model.context.DbContext;
+import edu.zsc.ai.domain.service.ai.export.model.ExportTaskPayload;
+import edu.zsc.ai.domain.service.ai.export.model.QueryExportRequest;
+import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
+import edu.zsc.ai.domain.service.db.ConnectionService;
+import edu.zsc.ai.domain.service.db.impl.ActiveConnectionRegistry;
+import edu.zsc.ai.domain.service.db.impl.SqlStatementRegistry;
+import edu.zsc.ai.plugin.capability.SqlSplitter;
+import edu.zsc.ai.plugin.capability.SqlValidator;
+import edu.zsc.ai.plugin.capability.StreamingQueryExecutor;
+import edu.zsc.ai.plugin.manager.DefaultPluginManager;
+import edu.zsc.ai.plugin.model.command.sql.SqlCommandRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static edu.zsc.ai.config.ExecutorConfig.SHARED_EXECUTOR_BEAN_NAME;
+
+/**
+ * Exports the result of a read-only query without routing rows through the model.
+ * <p>
+ * The query runs on a background task that streams the {@code ResultSet} through the chosen
+ * {@link FileExportStrategy} into the export directory; only the task id, progress and the final file card travel
+ * back to the caller.
+ * <p>
+ * Only formats whose writers flush rows as they go are accepted: the DOCX and PDF writers build the whole document in
+ * memory, which would defeat streaming an unbounded result.
+ */
+@Slf4j
+@Service
+public class QueryExportService {
+
+    static final String TASK_ID_PREFIX = "export-";
+    static final int PROGRESS_REPORT_INTERVAL = 1000;
+    static final Set<FileExportFormatEnum> STREAMING_FORMATS = EnumSet.of(FileExportFormatEnum.CSV, FileExportFormatEnum.XLSX);
+
+    private final FileExportStrategyResolver strategyResolver;
+    private final ExportFileStorageService storageService;
+    private final ConnectionService connectionService;
+    private final AsyncTaskManager asyncTaskManager;
+    private final AsyncTaskExecutor executor;
+
+    public QueryExportService(FileExportStrategyResolver strategyResolver,
+                              ExportFileStorageService storageService,
+                              ConnectionService connectionService,
+                              AsyncTaskManager asyncTaskManager,
+                              @Qualifier(SHARED_EXECUTOR_BEAN_NAME) Executor sharedExecutor) {
+        this.strategyResolver = strategyResolver;
+        this.storageService = storageService;
+        this.connectionService = connectionService;
+        this.asyncTaskManager = asyncTaskManager;
+        this.executor = sharedExecutor instanceof AsyncTaskExecutor asyncExecutor
+                ? asyncExecutor
+                : new TaskExecutorAdapter(sharedExecutor);
+    }
+
+    /**
+     * Validates the request on the calling thread, then starts the export in the background.
+     *
+     * @return the task as submitted; poll {@link #getTask(String, Long)} for progress and the file
+     */
+    public ExportTaskPayload submit(QueryExportRequest request) {
+        validateRequest(request);
+        FileExportStrategy strategy = strategyResolver.resolve(request.getFormat());
+
+        DbContext db = new DbContext(request.getConnectionId(), request.getCatalog(), request.getSchema());
+        connectionService.openConnection(db);
+        ActiveConnectionRegistry.ActiveConnection active = ActiveConnectionRegistry.getOwnedConnection(db);
+        String sql = requireSingleReadOnlyStatement(active.pluginId(), request.getSql());
+        StreamingQueryExecutor queryExecutor = DefaultPluginManager.getInstance()
+                .getStreamingQueryExecutorByPluginId(active.pluginId());
+        if (queryExecutor == null) {
+            throw new IllegalArgumentException("Query export is not supported for database type " + active.dbType());
+        }
+
+        String taskId = TASK_ID_PREFIX + UUID.randomUUID();
+        AsyncTask<StoredExportFile> task = asyncTaskManager.submit(taskId, request.getUserId(),
+                () -> runExport(taskId, request, strategy, active, queryExecutor, sql), executor);
+        log.info("Query export submitted: taskId={}, connectionId={}, format={}",
+                taskId, request.getConnectionId(), strategy.format());
+        return toPayload(task, strategy.format());
+    }
+
+    public ExportTaskPayload getTask(String taskId, Long currentUserId) {
+        return toPayload(requireOwnedTask(taskId, currentUserId), null);
+    }
+
+    public ExportTaskPayload cancel(String taskId, Long currentUserId) {
+        AsyncTask<StoredExportFile> task = requireOwnedTask(taskId, currentUserId);
+        if (asyncTaskManager.cancel(taskId)) {
+            log.info("Query export cancelled: taskId={}", taskId);
+        }
+        return toPayload(task, null);
+    }
+
+    private StoredExportFile runExport(String taskId,
+                                       QueryExportRequest request,
+                                       FileExportStrategy strategy,
+                                       ActiveConnectionRegistry.ActiveConnection active,
+                                       StreamingQueryExecutor queryExecutor,
+                                       String sql) throws Exception {
+        try (ActiveConnectionRegistry.BorrowedConnection borrowed = active.borrowConnection()) {
+            SqlCommandRequest command = new SqlCommandRequest();
+            command.setConnection(borrowed.connection());
+            command.setOriginalSql(sql);
+            command.setExecuteSql(sql);
+            command.setDatabase(request.getCatalog());
+            command.setSchema(request.getSchema());
+            command.setNeedTransaction(false);
+            command.setStatementListener(SqlStatementRegistry.track(request.getConversationId(), taskId));
+
+            StoredExportFile stored = queryExecutor.streamQuery(command, (headers, rows) -> storageService.store(
+                    request.getUserId(),
+                    request.getConversationId(),
+                    strategy.extension(),
+                    target -> strategy.export(headers, new ProgressReportingIterator(taskId, rows), target)));
+            asyncTaskManager.reportProgress(taskId, stored.getRowCount() == null ? 0 : stored.getRowCount());
+            log.info("Query export completed: taskId={}, fileId={}, rows={}, sizeBytes={}",
+                    taskId, stored.getFileId(), stored.getRowCount(), stored.getSizeBytes());
+            return stored;
+        }
+    }
+
+    private String requireSingleReadOnlyStatement(String pluginId, String sql) {
+        SqlSplitter splitter = DefaultPluginManager.getInstance().getSqlSplitterByPluginId(pluginId);
+        List<String> statements = splitter.split(sql);
+        if (statements.size() != 1) {
+            throw new IllegalArgumentException("sql must contain exactly one statement, got " + statements.size());
+        }
+        String statement = statements.get(0);
+        SqlValidator validator = DefaultPluginManager.getInstance().getSqlValidatorByPluginId(pluginId);
+        boolean readOnly;
+        try {
+            readOnly = validator.classifySql(statement).isReadOnly();
+        } catch (RuntimeException e) {
+            log.debug("Could not classify export SQL, rejecting it: {}", e.getMessage());
+            readOnly = false;
+        }
+        if (!readOnly) {
+            throw new IllegalArgumentException("sql must be a read-only query");
+        }
+        return statement;
+    }
+
+    private AsyncTask<StoredExportFile> requireOwnedTask(String taskId, Long currentUserId) {
+        if (currentUserId == null) {
+            throw new BusinessException(ResponseCode.UNAUTHORIZED, ErrorCodeEnum.NOT_LOGIN_ERROR.getMessage());
+        }
+        AsyncTask<StoredExportFile> task = StringUtils.startsWith(taskId, TASK_ID_PREFIX)
+                ? asyncTaskManager.<StoredExportFile>get(taskId).orElse(null)
+                : null;
+        if (task == null) {
+            throw new BusinessException(ResponseCode.NOT_FOUND, ErrorCodeEnum.NOT_FOUND_ERROR.getMessage());
+        }
+        if (!currentUserId.equals(task.getOwnerUserId())) {
+            throw new BusinessException(ResponseCode.FORBIDDEN, ErrorCodeEnum.NO_AUTH_ERROR.getMessage());
+        }
+        return task;
+    }
+
+    private ExportTaskPayload toPayload(AsyncTask<StoredExportFile> task, String format) {
+        StoredExportFile stored = task.getStatus() == TaskStatus.COMPLETED ? task.getResult() : null;
+        return ExportTaskPayload.builder()
+                .taskId(task.getId())
+                .status(task.getStatus())
+                .format(stored != null ? stored.getFormat() : format)
+                .processedRows(task.getProgress())
+                .errorMessage(task.getErrorMessage())
+                .statusPath("/api/ai/files/tasks/" + task.getId())
+                .file(stored != null ? FileExportService.toPayload(stored) : null)
+                .build();
+    }
+
+    private void validateRequest(QueryExportRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("export request is required");
+        }
+        if (StringUtils.isBlank(request.getFormat())) {
+            throw new IllegalArgumentException("format is required");
+        }
+        if (!STREAMING_FORMATS.contains(FileExportFormatEnum.fromValue(request.getFormat()))) {
+            throw new IllegalArgumentException("Query export supports CSV and XLSX only; use exportFile for "
+                    + request.getFormat().trim().toUpperCase());
+        }
+        if (request.getUserId() == null) {
+            throw BusinessException.unauthorized();
+        }
+        if (request.getConnectionId() == null) {
+            throw new IllegalArgumentException("connectionId is required");
+        }
+        if (StringUtils.isBlank(request.getSql())) {
+            throw new IllegalArgumentException("sql is required");
+        }
+    }
+
+    /**
+     * Publishes the number of rows written every {@link #PROGRESS_REPORT_INTERVAL} rows and stops the export once
+     * the task is interrupted by a cancel.
+     */
+    private final class ProgressReportingIterator implements Iterator<List<Object>> {
+
+        private final String taskId;
+        private final Iterator<List<Object>> rows;
+        private long count;
+
+        private ProgressReportingIterator(String taskId, Iterator<List<Object>> rows) {
+            this.taskId = taskId;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Export task " + taskId + " was cancelled");
+            }
+            return rows.hasNext();
+        }
+
+        @Override
+        public List<Object> next() {
+            List<Object> row = rows.next();
+            if (++count % PROGRESS_REPORT_INTERVAL == 0) {
+                asyncTaskManager.reportProgress(taskId, count);
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package edu.zsc.ai.domain.service.ai.export.model;
+
+import edu.zsc.ai.async.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportTaskPayload {
+
+    private String taskId;
+    private TaskStatus status;
+    private String format;
+    private long processedRows;
+    private String errorMessage;
+    private String statusPath;
+    /** Set once the task has completed. */
+    private ExportedFilePayload file;
+}
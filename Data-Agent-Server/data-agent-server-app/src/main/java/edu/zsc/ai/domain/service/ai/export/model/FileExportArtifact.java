@@ -13,6 +13,9 @@ public class FileExportArtifact {
     private String normalizedFormat;
     private String extension;
     private String mimeType;
+    /**
+     * Only set for in-memory exports; streamed exports are written straight to their file.
+     */
     private byte[] content;
     private Integer rowCount;
     private Integer columnCount;
@@ -0,0 +1,24 @@
+package edu.zsc.ai.domain.service.ai.export.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Export whose rows come from a read-only SQL query run on the server instead of from the caller.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryExportRequest {
+
+    private String format;
+    private Long connectionId;
+    private String catalog;
+    private String schema;
+    private String sql;
+    private Long userId;
+    private Long conversationId;
+}
@@ -6,9 +6,9 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.ChatMessageDeserializer;
 import dev.langchain4j.data.message.ChatMessageSerializer;
-import dev.langchain4j.data.message.ChatMessageType;
 import edu.zsc.ai.agent.memory.ChatMemoryCompressor;
 import edu.zsc.ai.agent.memory.MemoryUtil;
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.common.enums.ai.MessageStatusEnum;
 import edu.zsc.ai.domain.mapper.ai.AiMessageMapper;
 import edu.zsc.ai.domain.model.entity.ai.StoredChatMessage;
@@ -30,6 +30,8 @@ import java.util.Objects;
 public class AiMessageServiceImpl extends ServiceImpl<AiMessageMapper, StoredChatMessage>
         implements AiMessageService {
 
+    private final TokenizerService tokenizerService;
+
     @Override
     public List<StoredChatMessage> getByConversationIdOrderByCreatedAtAsc(Long conversationId) {
         LambdaQueryWrapper<StoredChatMessage> wrapper = new LambdaQueryWrapper<>();
@@ -124,39 +126,6 @@ public class AiMessageServiceImpl extends ServiceImpl<AiMessageMapper, StoredCha
         rebuildActiveMessages(conversationId, storedAll, activeStored, normalizedIncoming);
     }
 
-    @Override
-    public void updateLastAiMessageTokenCount(Long conversationId, Integer tokenCount) {
-        if (conversationId == null || tokenCount == null) {
-            return;
-        }
-
-        // Find the last AI message
-        LambdaQueryWrapper<StoredChatMessage> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(StoredChatMessage::getConversationId, conversationId)
-                .eq(StoredChatMessage::getRole, ChatMessageType.AI.name())
-                .orderByDesc(StoredChatMessage::getCreatedAt)
-                .orderByDesc(StoredChatMessage::getId)
-                .last("LIMIT 1");
-
-        StoredChatMessage lastAiMessage = getOne(queryWrapper);
-        if (lastAiMessage == null) {
-            log.warn("No AI message found for conversation {}", conversationId);
-            return;
-        }
-
-        // Update token count
-        LambdaUpdateWrapper<StoredChatMessage> updateWrapper = new LambdaUpdateWrapper<>();
-        updateWrapper.eq(StoredChatMessage::getId, lastAiMessage.getId())
-                .set(StoredChatMessage::getTokenCount, tokenCount)
-                .set(StoredChatMessage::getUpdatedAt, java.time.LocalDateTime.now());
-
-        boolean updated = update(updateWrapper);
-        if (updated) {
-            log.info("Updated token count for message {} in conversation {}: {} tokens",
-                    lastAiMessage.getId(), conversationId, tokenCount);
-        }
-    }
-
     private boolean syncCompressionResult(Long conversationId,
                                           List<StoredChatMessage> storedAll,
                                           List<StoredChatMessage> activeStored,
@@ -198,7 +167,7 @@ public class AiMessageServiceImpl extends ServiceImpl<AiMessageMapper, StoredCha
             toSave.add(StoredChatMessage.builder()
                     .conversationId(conversationId)
                     .role(normalized.type().name())
-                    .tokenCount(0)
+                    .tokenCount(tokenizerService.countMessage(normalized))
                     .status(resolveStatus(normalized))
                     .data(ChatMessageSerializer.messageToJson(normalized))
                     .createdAt(baseTime.plusNanos(i * 1000L))
@@ -11,6 +11,7 @@ import edu.zsc.ai.common.enums.ai.PromptEnum;
 import edu.zsc.ai.config.ai.PromptConfig;
 import edu.zsc.ai.domain.service.ai.CompressionService;
 import edu.zsc.ai.domain.service.ai.model.CompressionResult;
+import edu.zsc.ai.metrics.AgentMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class CompressionServiceImpl implements CompressionService {
 
     private final AiModelCatalog aiModelCatalog;
     private final Map<String, ChatModel> chatModelsByName;
+    private final AgentMetrics agentMetrics;
 
     @Override
     public CompressionResult compress(List<ChatMessage> messages) {
@@ -32,12 +34,21 @@ public class CompressionServiceImpl implements CompressionService {
         String template = PromptConfig.getPrompt(PromptEnum.COMPRESSION);
         String prompt = String.format(template, serializedHistory);
 
-        ChatModel model = chatModelsByName.get(aiModelCatalog.compressionModelName());
+        String compressionModelName = aiModelCatalog.compressionModelName();
+        ChatModel model = chatModelsByName.get(compressionModelName);
         ChatRequest request = ChatRequest.builder()
                 .messages(UserMessage.from(prompt))
                 .build();
 
-        ChatResponse response = model.chat(request);
+        long startTime = System.currentTimeMillis();
+        ChatResponse response;
+        try {
+            response = model.chat(request);
+        } catch (RuntimeException e) {
+            agentMetrics.recordCompression(compressionModelName, false, System.currentTimeMillis() - startTime);
+            throw e;
+        }
+        agentMetrics.recordCompression(compressionModelName, true, System.currentTimeMillis() - startTime);
         String summary = response.aiMessage().text();
         Integer totalTokens = response.tokenUsage() != null ? response.tokenUsage().totalTokenCount() : null;
         Integer outputTokens = response.tokenUsage() != null ? response.tokenUsage().outputTokenCount() : null;
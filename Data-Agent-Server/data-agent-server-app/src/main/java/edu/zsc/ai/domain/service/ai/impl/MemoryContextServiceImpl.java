@@ -1,11 +1,21 @@
 package edu.zsc.ai.domain.service.ai.impl;
 
+import static edu.zsc.ai.config.ExecutorConfig.SHARED_EXECUTOR_BEAN_NAME;
+
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 
+import edu.zsc.ai.common.constant.AgentMetricNames;
 import edu.zsc.ai.config.ai.MemoryProperties;
 import edu.zsc.ai.domain.service.ai.MemoryContextService;
 import edu.zsc.ai.domain.service.ai.MemoryService;
@@ -14,18 +24,37 @@ import edu.zsc.ai.domain.service.ai.recall.MemoryRecallContext;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallItem;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallManager;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallMode;
-import lombok.RequiredArgsConstructor;
+import edu.zsc.ai.domain.service.ai.recall.MemoryRecallResult;
+import edu.zsc.ai.metrics.AgentMetrics;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Loads the memory part of the prompt. Recall (embeddings plus vector searches) runs on the shared executor while the
+ * working memory is fetched on the calling thread; if recall misses {@code memory.retrieval.prompt-recall-timeout-ms}
+ * the prompt is built with the working memory alone.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @EnableConfigurationProperties(MemoryProperties.class)
 public class MemoryContextServiceImpl implements MemoryContextService {
 
     private final MemoryRecallManager memoryRecallManager;
     private final MemoryService memoryService;
     private final MemoryProperties memoryProperties;
+    private final AgentMetrics agentMetrics;
+    private final Executor sharedExecutor;
+
+    public MemoryContextServiceImpl(MemoryRecallManager memoryRecallManager,
+                                    MemoryService memoryService,
+                                    MemoryProperties memoryProperties,
+                                    AgentMetrics agentMetrics,
+                                    @Qualifier(SHARED_EXECUTOR_BEAN_NAME) Executor sharedExecutor) {
+        this.memoryRecallManager = memoryRecallManager;
+        this.memoryService = memoryService;
+        this.memoryProperties = memoryProperties;
+        this.agentMetrics = agentMetrics;
+        this.sharedExecutor = sharedExecutor;
+    }
 
     @Override
     public MemoryPromptContext loadPromptContext(Long userId, Long conversationId, String userMessage) {
@@ -33,29 +62,39 @@ public class MemoryContextServiceImpl implements MemoryContextService {
             return MemoryPromptContext.builder().build();
         }
 
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<MemoryRecallResult> recall = memoryProperties.isEnabled()
+                ? startRecall(conversationId, userMessage)
+                : null;
+
         String currentConversationMemory = null;
         try {
             var workingMemory = memoryService.getConversationWorkingMemory(userId, conversationId);
             currentConversationMemory = workingMemory == null ? null : workingMemory.getContent();
+            agentMetrics.recordPreparePhase(AgentMetricNames.PHASE_WORKING_MEMORY,
+                    AgentMetricNames.OUTCOME_SUCCESS, System.currentTimeMillis() - startTime);
         } catch (Exception e) {
             log.warn("Failed to fetch current conversation working memory for user {}", userId, e);
+            agentMetrics.recordPreparePhase(AgentMetricNames.PHASE_WORKING_MEMORY,
+                    AgentMetricNames.OUTCOME_FAILURE, System.currentTimeMillis() - startTime);
         }
 
-        if (!memoryProperties.isEnabled()) {
+        if (recall == null) {
             return MemoryPromptContext.builder()
                     .currentConversationMemory(currentConversationMemory)
                     .build();
         }
 
+        MemoryRecallResult recallResult = awaitRecall(recall, userId, conversationId, startTime);
+        if (recallResult == null) {
+            return MemoryPromptContext.builder()
+                    .currentConversationMemory(currentConversationMemory)
+                    .build();
+        }
         try {
             MemoryPromptContext promptContext = MemoryPromptContext.builder()
                     .currentConversationMemory(currentConversationMemory)
-                    .recallResult(memoryRecallManager.recall(MemoryRecallContext.builder()
-                            .conversationId(conversationId)
-                            .queryText(userMessage)
-                            .recallMode(MemoryRecallMode.PROMPT)
-                            .minScore(memoryProperties.getRetrieval().getMinScore())
-                            .build()))
+                    .recallResult(recallResult)
                     .build();
             List<Long> memoryIds = promptContext.getMemories().stream()
                     .map(MemoryRecallItem::getId)
@@ -74,4 +113,62 @@ public class MemoryContextServiceImpl implements MemoryContextService {
                     .build();
         }
     }
+
+    /**
+     * @return the running recall, or null if the shared executor is saturated: recall is then skipped rather than run
+     * inline, since a full recall on the request thread would hold up prompt assembly past the recall budget
+     */
+    private CompletableFuture<MemoryRecallResult> startRecall(Long conversationId, String userMessage) {
+        MemoryRecallContext recallContext = MemoryRecallContext.builder()
+                .conversationId(conversationId)
+                .queryText(userMessage)
+                .recallMode(MemoryRecallMode.PROMPT)
+                .minScore(memoryProperties.getRetrieval().getMinScore())
+                .build();
+        try {
+            return CompletableFuture.supplyAsync(() -> memoryRecallManager.recall(recallContext), sharedExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Shared executor saturated, skipping prompt recall: conversationId={}", conversationId);
+            agentMetrics.recordPreparePhase(AgentMetricNames.PHASE_RECALL, AgentMetricNames.OUTCOME_REJECTED, 0L);
+            return null;
+        }
+    }
+
+    /**
+     * A recall that misses its deadline is cancelled so nothing waits on it any more; the shared executor does not
+     * queue, so the recall is already running, finishes on its worker and its result is dropped.
+     *
+     * @return the recall result, or null if recall failed or missed its deadline
+     */
+    private MemoryRecallResult awaitRecall(CompletableFuture<MemoryRecallResult> recall,
+                                           Long userId,
+                                           Long conversationId,
+                                           long startTime) {
+        long timeoutMs = memoryProperties.getRetrieval().getPromptRecallTimeoutMs();
+        long remainingMs = timeoutMs - (System.currentTimeMillis() - startTime);
+        try {
+            MemoryRecallResult result = timeoutMs > 0
+                    ? recall.get(Math.max(0L, remainingMs), TimeUnit.MILLISECONDS)
+                    : recall.get();
+            agentMetrics.recordPreparePhase(AgentMetricNames.PHASE_RECALL,
+                    AgentMetricNames.OUTCOME_SUCCESS, System.currentTimeMillis() - startTime);
+            return result;
+        } catch (TimeoutException e) {
+            recall.cancel(true);
+            log.warn("Memory prompt recall missed its {} ms deadline, continuing without it: conversationId={}",
+                    timeoutMs, conversationId);
+            agentMetrics.recordPreparePhase(AgentMetricNames.PHASE_RECALL,
+                    AgentMetricNames.OUTCOME_TIMEOUT, System.currentTimeMillis() - startTime);
+            return null;
+        } catch (InterruptedException e) {
+            recall.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Failed to fetch memory context for user {}", userId, e.getCause());
+            agentMetrics.recordPreparePhase(AgentMetricNames.PHASE_RECALL,
+                    AgentMetricNames.OUTCOME_FAILURE, System.currentTimeMillis() - startTime);
+            return null;
+        }
+    }
 }
@@ -8,6 +8,7 @@ import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
 import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
 import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
@@ -26,18 +27,27 @@ import edu.zsc.ai.domain.model.dto.request.base.PageRequest;
 import edu.zsc.ai.domain.model.dto.response.base.PageResponse;
 import edu.zsc.ai.domain.model.entity.ai.AiConversationMemoryCursor;
 import edu.zsc.ai.domain.model.entity.ai.AiMemory;
+import edu.zsc.ai.domain.service.ai.access.MemoryAccessBuffer;
+import edu.zsc.ai.domain.service.ai.embedding.MemoryEmbeddingSegments;
+import edu.zsc.ai.domain.service.ai.embedding.MemoryEmbeddingTarget;
+import edu.zsc.ai.domain.service.ai.embedding.MemoryVectorCache;
 import edu.zsc.ai.domain.service.ai.AiConversationMemoryCursorService;
 import edu.zsc.ai.domain.service.ai.MemoryService;
+import edu.zsc.ai.domain.service.ai.model.MemoryLexicalMatch;
 import edu.zsc.ai.domain.service.ai.model.MemorySearchResult;
 import edu.zsc.ai.domain.service.ai.model.MemoryWriteContext.MemorySummary;
 import edu.zsc.ai.domain.service.ai.model.MemoryWriteResult;
+import edu.zsc.ai.domain.service.ai.recall.MemoryLexicalQuery;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallMode;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallQuery;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallQueryStrategy;
 import edu.zsc.ai.domain.service.ai.workingmemory.ConversationWorkingMemoryDraft;
 import edu.zsc.ai.domain.service.ai.workingmemory.ConversationWorkingMemoryRenderer;
 import edu.zsc.ai.domain.service.ai.workingmemory.ConversationWorkingMemoryValidator;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
 import edu.zsc.ai.util.JsonUtil;
+import io.micrometer.tracing.Span;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -46,9 +56,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
@@ -68,6 +78,11 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
     private final EmbeddingModel embeddingModel;
     private final MemoryProperties memoryProperties;
     private final AiConversationMemoryCursorService cursorService;
+    private final AgentMetrics agentMetrics;
+    private final AgentTracing agentTracing;
+    private final MemoryAccessBuffer memoryAccessBuffer;
+    private final MemoryVectorCache memoryVectorCache;
+    private final MemoryEmbeddingTarget memoryEmbeddingTarget;
     private final ConversationWorkingMemoryValidator conversationWorkingMemoryValidator = new ConversationWorkingMemoryValidator();
     private final ConversationWorkingMemoryRenderer conversationWorkingMemoryRenderer = new ConversationWorkingMemoryRenderer();
 
@@ -133,7 +148,7 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
         double minScore = query.minScore() == null ? 0.0D : query.minScore();
         String normalizedMemoryType = StringUtils.isBlank(query.memoryType()) ? null : query.memoryType().trim().toUpperCase();
         String normalizedSubType = StringUtils.isBlank(query.subType()) ? null : query.subType().trim().toUpperCase();
-        MemoryRecallQueryStrategy strategy = query.queryStrategy() == null ? MemoryRecallQueryStrategy.HYBRID : query.queryStrategy();
+        MemoryRecallQueryStrategy strategy = resolveRecallStrategy(query.queryStrategy());
 
         RecallExecutionResult executionResult = recallByStrategy(
                 strategy, userId, conversationId, normalizedScope, normalizedMemoryType, normalizedSubType, queryText, minScore, query.recallMode());
@@ -144,6 +159,14 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
         return annotatedResults;
     }
 
+    private MemoryRecallQueryStrategy resolveRecallStrategy(MemoryRecallQueryStrategy requested) {
+        MemoryRecallQueryStrategy strategy = requested == null ? MemoryRecallQueryStrategy.HYBRID : requested;
+        if (strategy == MemoryRecallQueryStrategy.HYBRID && memoryProperties.getLexical().isEnabled()) {
+            return MemoryRecallQueryStrategy.LEXICAL_HYBRID;
+        }
+        return strategy;
+    }
+
     private RecallExecutionResult recallByStrategy(MemoryRecallQueryStrategy strategy,
                                                    Long userId,
                                                    Long conversationId,
@@ -157,9 +180,57 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
             case BROWSE -> browseRecall(userId, conversationId, normalizedScope, normalizedMemoryType, normalizedSubType);
             case SEMANTIC -> semanticRecall(userId, conversationId, normalizedScope, normalizedMemoryType, normalizedSubType, queryText, minScore, recallMode);
             case HYBRID -> hybridRecall(userId, conversationId, normalizedScope, normalizedMemoryType, normalizedSubType, queryText, minScore, recallMode);
+            case LEXICAL_HYBRID -> lexicalHybridRecall(userId, conversationId, normalizedScope, normalizedMemoryType, normalizedSubType, queryText, minScore, recallMode);
         };
     }
 
+    /**
+     * Answers from the lexical indexes when they are confident, so the embedding model is not called; otherwise
+     * runs {@link #hybridRecall}, whose vector search ranks the full candidate set.
+     */
+    private RecallExecutionResult lexicalHybridRecall(Long userId,
+                                                      Long conversationId,
+                                                      String normalizedScope,
+                                                      String normalizedMemoryType,
+                                                      String normalizedSubType,
+                                                      String queryText,
+                                                      double minScore,
+                                                      MemoryRecallMode recallMode) {
+        List<String> terms = MemoryLexicalQuery.terms(queryText);
+        if (!terms.isEmpty()) {
+            MemoryProperties.Lexical config = memoryProperties.getLexical();
+            try {
+                List<MemorySearchResult> confident = queryLexicalCandidates(userId, conversationId, normalizedScope,
+                        normalizedMemoryType, normalizedSubType, terms, queryText, Math.max(1, config.getCandidateLimit()))
+                        .stream()
+                        .filter(match -> match.getLexicalScore() >= config.getConfidentScore())
+                        .map(match -> toMemorySearchResult(match.getMemory(), match.getLexicalScore()))
+                        .filter(result -> isVisibleToCurrentContext(result, conversationId))
+                        .sorted(promptMemoryComparator())
+                        .toList();
+                if (!confident.isEmpty()) {
+                    return new RecallExecutionResult(confident, MemoryRecallLogConstant.EXECUTION_PATH_LEXICAL, false);
+                }
+            } catch (Exception e) {
+                log.warn("Lexical memory prefilter failed, continuing with semantic recall", e);
+            }
+        }
+        return hybridRecall(userId, conversationId, normalizedScope, normalizedMemoryType, normalizedSubType,
+                queryText, minScore, recallMode);
+    }
+
+    protected List<MemoryLexicalMatch> queryLexicalCandidates(Long userId,
+                                                              Long conversationId,
+                                                              String scope,
+                                                              String memoryType,
+                                                              String subType,
+                                                              List<String> terms,
+                                                              String queryText,
+                                                              int limit) {
+        return getBaseMapper().searchLexicalCandidates(userId, conversationId, scope, memoryType, subType,
+                ENABLED_MEMORY_VALUE, MemoryLexicalQuery.toTsQuery(terms), terms, queryText, limit);
+    }
+
     private RecallExecutionResult browseRecall(Long userId,
                                                Long conversationId,
                                                String normalizedScope,
@@ -235,8 +306,12 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
                     MemoryRecallLogConstant.EXECUTION_PATH_SEMANTIC,
                     false);
         }
+        if (!memoryEmbeddingTarget.isSearchable()) {
+            return lexicalOnlyRecall(userId, conversationId, normalizedScope, normalizedMemoryType, normalizedSubType,
+                    queryText);
+        }
         try {
-            Embedding queryEmbedding = embeddingModel.embed(queryText).content();
+            Embedding queryEmbedding = embed(queryText, AgentMetricNames.OPERATION_RECALL);
             var baseFilter = MetadataFilterBuilder.metadataKey(MemoryMetadataConstant.USER_ID).isEqualTo(userId)
                     .and(MetadataFilterBuilder.metadataKey(MemoryMetadataConstant.ENABLE).isEqualTo(ENABLED_MEMORY_VALUE));
             var filter = baseFilter;
@@ -250,15 +325,16 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
                 filter = filter.and(MetadataFilterBuilder.metadataKey(MemoryMetadataConstant.SUB_TYPE).isEqualTo(normalizedSubType));
             }
 
-            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
-                    .queryEmbedding(queryEmbedding)
-                    .maxResults(resolveRecallCandidateLimit(userId))
-                    .minScore(minScore)
-                    .filter(filter)
-                    .build();
-
-            EmbeddingSearchResult<TextSegment> searchResult = memoryEmbeddingStore.search(request);
-            List<MemorySearchResult> results = searchResult.matches().stream()
+            var storeFilter = filter;
+            List<EmbeddingMatch<TextSegment>> matches = memoryVectorCache.search(userId, queryEmbedding, minScore,
+                            localRecallFilter(normalizedScope, normalizedMemoryType, normalizedSubType))
+                    .orElseGet(() -> search(EmbeddingSearchRequest.builder()
+                            .queryEmbedding(queryEmbedding)
+                            .maxResults(resolveRecallCandidateLimit(userId))
+                            .minScore(minScore)
+                            .filter(storeFilter)
+                            .build(), AgentMetricNames.OPERATION_RECALL).matches());
+            List<MemorySearchResult> results = matches.stream()
                     .map(this::toMemorySearchResult)
                     .filter(result -> matchesScope(result, normalizedScope))
                     .filter(result -> matchesMemoryType(result, normalizedMemoryType))
@@ -279,6 +355,36 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
         }
     }
 
+    /**
+     * Stands in for vector search while a re-index is unfinished: the live vectors still come from the previous
+     * embedding model, so a query embedded with the new one would be compared against the wrong space.
+     */
+    private RecallExecutionResult lexicalOnlyRecall(Long userId,
+                                                    Long conversationId,
+                                                    String normalizedScope,
+                                                    String normalizedMemoryType,
+                                                    String normalizedSubType,
+                                                    String queryText) {
+        List<String> terms = MemoryLexicalQuery.terms(queryText);
+        if (terms.isEmpty()) {
+            return new RecallExecutionResult(List.of(), MemoryRecallLogConstant.EXECUTION_PATH_LEXICAL, false);
+        }
+        try {
+            List<MemorySearchResult> results = queryLexicalCandidates(userId, conversationId, normalizedScope,
+                    normalizedMemoryType, normalizedSubType, terms, queryText,
+                    Math.max(1, memoryProperties.getLexical().getCandidateLimit()))
+                    .stream()
+                    .map(match -> toMemorySearchResult(match.getMemory(), match.getLexicalScore()))
+                    .filter(result -> isVisibleToCurrentContext(result, conversationId))
+                    .sorted(promptMemoryComparator())
+                    .toList();
+            return new RecallExecutionResult(results, MemoryRecallLogConstant.EXECUTION_PATH_LEXICAL, false);
+        } catch (Exception e) {
+            log.warn("Lexical memory recall failed while vector recall is off for a re-index", e);
+            return new RecallExecutionResult(List.of(), MemoryRecallLogConstant.EXECUTION_PATH_LEXICAL, false);
+        }
+    }
+
     private List<MemorySearchResult> annotateRecallResults(List<MemorySearchResult> results,
                                                            MemoryRecallQueryStrategy strategy,
                                                            String executionPath,
@@ -544,28 +650,26 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
 
     private void rebuildEmbedding(AiMemory memory) {
         removeEmbeddingQuietly(memory.getId());
-        if (!Objects.equals(memory.getEnable(), ENABLED_MEMORY_VALUE) || StringUtils.isBlank(memory.getContent())) {
+        if (!MemoryEmbeddingSegments.isIndexable(memory)) {
             return;
         }
         try {
-            Embedding embedding = embeddingModel.embed(memory.getContent()).content();
-            Metadata metadata = new Metadata()
-                    .put(MemoryMetadataConstant.USER_ID, memory.getUserId())
-                    .put(MemoryMetadataConstant.ENABLE, memory.getEnable())
-                    .put(MemoryMetadataConstant.SCOPE, StringUtils.defaultString(memory.getScope()))
-                    .put(MemoryMetadataConstant.MEMORY_TYPE, memory.getMemoryType())
-                    .put(MemoryMetadataConstant.SUB_TYPE, StringUtils.defaultString(memory.getSubType()))
-                    .put(MemoryMetadataConstant.TITLE, StringUtils.defaultString(memory.getTitle()))
-                    .put(MemoryMetadataConstant.REASON, StringUtils.defaultString(memory.getReason()))
-                    .put(MemoryMetadataConstant.SOURCE_TYPE, StringUtils.defaultString(memory.getSourceType()))
-                    .put(MemoryMetadataConstant.ACCESS_COUNT, defaultInt(memory.getAccessCount(), 0))
-                    .put(MemoryMetadataConstant.UPDATED_AT, memory.getUpdatedAt() == null ? "" : memory.getUpdatedAt().toString())
-                    .put(MemoryMetadataConstant.CONVERSATION_ID, memory.getConversationId())
-                    .put(MemoryMetadataConstant.MEMORY_ID, memory.getId());
-            memoryEmbeddingStore.addAll(
-                    List.of(embeddingStoreId(memory.getId())),
-                    List.of(embedding),
-                    List.of(TextSegment.from(memory.getContent(), metadata)));
+            EmbeddingStore<TextSegment> store = memoryEmbeddingStore;
+            if (!memoryEmbeddingTarget.isSearchable()) {
+                // The live table keeps the previous model's vectors until the re-index swaps its shadow in; without
+                // an open shadow the job's catch-up embeds this memory.
+                store = memoryEmbeddingTarget.shadowStore().orElse(null);
+                if (store == null) {
+                    return;
+                }
+            }
+            Embedding embedding = embed(memory.getContent(), AgentMetricNames.OPERATION_WRITE);
+            String embeddingId = embeddingStoreId(memory.getId());
+            TextSegment segment = MemoryEmbeddingSegments.toSegment(memory);
+            store.addAll(List.of(embeddingId), List.of(embedding), List.of(segment));
+            if (store == memoryEmbeddingStore) {
+                memoryVectorCache.upsert(memory.getUserId(), embeddingId, embedding, segment);
+            }
         } catch (Exception e) {
             log.warn("Failed to rebuild memory embedding for memory {}", memory.getId(), e);
             logRuntimeError(MemoryLogConstant.EVENT_MEMORY_EMBEDDING_REBUILD_FAILED, e,
@@ -579,12 +683,47 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
         }
     }
 
+    private Embedding embed(String text, String operation) {
+        long startTime = System.currentTimeMillis();
+        Span span = agentTracing.startSpan(AgentSpanNames.MEMORY_EMBEDDING)
+                .tag(AgentSpanNames.TAG_OPERATION, operation);
+        Throwable failure = null;
+        try {
+            return embeddingModel.embed(text).content();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            agentTracing.end(span, failure);
+            agentMetrics.recordEmbedding(operation, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request, String operation) {
+        long startTime = System.currentTimeMillis();
+        Span span = agentTracing.startSpan(AgentSpanNames.MEMORY_VECTOR_SEARCH)
+                .tag(AgentSpanNames.TAG_OPERATION, operation);
+        Throwable failure = null;
+        try {
+            return memoryEmbeddingStore.search(request);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            agentTracing.end(span, failure);
+            agentMetrics.recordVectorSearch(operation, System.currentTimeMillis() - startTime);
+        }
+    }
+
     private void removeEmbeddingQuietly(Long memoryId) {
         if (memoryId == null) {
             return;
         }
         try {
-            memoryEmbeddingStore.remove(embeddingStoreId(memoryId));
+            String embeddingId = embeddingStoreId(memoryId);
+            memoryVectorCache.remove(embeddingId);
+            memoryEmbeddingStore.remove(embeddingId);
+            memoryEmbeddingTarget.shadowStore().ifPresent(store -> store.remove(embeddingId));
         } catch (Exception e) {
             log.warn("Failed to remove memory embedding for memory {}", memoryId, e);
             logRuntimeError(MemoryLogConstant.EVENT_MEMORY_EMBEDDING_REMOVE_FAILED, e,
@@ -973,10 +1112,7 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
     }
 
     private String embeddingStoreId(Long memoryId) {
-        if (memoryId == null) {
-            throw new IllegalArgumentException("memoryId is required");
-        }
-        return UUID.nameUUIDFromBytes(("ai-memory:" + memoryId).getBytes(StandardCharsets.UTF_8)).toString();
+        return MemoryEmbeddingSegments.storeId(memoryId);
     }
 
     private LocalDateTime parseDateTime(String value) {
@@ -1001,33 +1137,60 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
         return candidateCount >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) candidateCount;
     }
 
+    /**
+     * Top {@code memory.retrieval.browse-limit} visible memories in prompt order. Conversation memories rank before
+     * user memories, so the two scopes are read as separate index-ordered scans and concatenated; nothing beyond the
+     * limit leaves the database.
+     */
     private List<MemorySearchResult> listVisibleEnabledMemories(Long userId,
                                                                 Long conversationId,
                                                                 String scope,
                                                                 String memoryType,
                                                                 String subType) {
+        int limit = Math.max(1, memoryProperties.getRetrieval().getBrowseLimit());
+        List<AiMemory> memories = new ArrayList<>();
+        if (conversationId != null && (StringUtils.isBlank(scope) || MemoryScopeEnum.CONVERSATION.matches(scope))) {
+            memories.addAll(queryVisibleEnabledMemories(
+                    userId, MemoryScopeEnum.CONVERSATION.getCode(), conversationId, memoryType, subType, limit));
+        }
+        if (memories.size() < limit && (StringUtils.isBlank(scope) || MemoryScopeEnum.USER.matches(scope))) {
+            memories.addAll(queryVisibleEnabledMemories(
+                    userId, MemoryScopeEnum.USER.getCode(), null, memoryType, subType, limit - memories.size()));
+        }
+        return memories.stream()
+                .map(memory -> toMemorySearchResult(memory, 0.0D))
+                .toList();
+    }
+
+    /**
+     * One scope's enabled memories ordered like {@link #promptMemoryComparator()} within a scope (all browse scores
+     * are 0): access count, then recency, then id. {@code conversationId} is required for CONVERSATION scope.
+     */
+    protected List<AiMemory> queryVisibleEnabledMemories(Long userId,
+                                                         String scope,
+                                                         Long conversationId,
+                                                         String memoryType,
+                                                         String subType,
+                                                         int limit) {
+        if (userId == null || limit <= 0) {
+            return List.of();
+        }
         LambdaQueryWrapper<AiMemory> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(AiMemory::getUserId, userId)
                 .eq(AiMemory::getEnable, ENABLED_MEMORY_VALUE)
+                .eq(conversationId != null, AiMemory::getConversationId, conversationId)
+                .eq(AiMemory::getScope, scope)
+                .orderByDesc(AiMemory::getAccessCount)
                 .orderByDesc(AiMemory::getUpdatedAt)
                 .orderByDesc(AiMemory::getId);
-        if (StringUtils.isNotBlank(scope)) {
-            wrapper.eq(AiMemory::getScope, scope);
-        }
         if (StringUtils.isNotBlank(memoryType)) {
             wrapper.eq(AiMemory::getMemoryType, memoryType);
         }
         if (StringUtils.isNotBlank(subType)) {
             wrapper.eq(AiMemory::getSubType, subType);
         }
-        return list(wrapper).stream()
-                .map(memory -> toMemorySearchResult(memory, 0.0D))
-                .filter(result -> matchesScope(result, scope))
-                .filter(result -> matchesMemoryType(result, memoryType))
-                .filter(result -> matchesSubType(result, subType))
-                .filter(result -> isVisibleToCurrentContext(result, conversationId))
-                .sorted(promptMemoryComparator())
-                .toList();
+        Page<AiMemory> page = new Page<>(1, limit, false);
+        return page(page, wrapper).getRecords();
     }
 
     private List<MemorySearchResult> browseConversationFallbackMemories(Long userId,
@@ -1068,6 +1231,15 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
         return page(page, wrapper).getRecords();
     }
 
+    /**
+     * Same exact-match semantics as the pgvector metadata filter built in {@link #semanticRecall}.
+     */
+    private Predicate<Metadata> localRecallFilter(String scope, String memoryType, String subType) {
+        return metadata -> (StringUtils.isBlank(scope) || scope.equals(metadata.getString(MemoryMetadataConstant.SCOPE)))
+                && (StringUtils.isBlank(memoryType) || memoryType.equals(metadata.getString(MemoryMetadataConstant.MEMORY_TYPE)))
+                && (StringUtils.isBlank(subType) || subType.equals(metadata.getString(MemoryMetadataConstant.SUB_TYPE)));
+    }
+
     private boolean matchesScope(MemorySearchResult result, String scope) {
         return StringUtils.isBlank(scope) || StringUtils.equalsIgnoreCase(scope, result.getScope());
     }
@@ -1176,27 +1348,11 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
         return Objects.equals(memory.getEnable(), MemoryEnableEnum.DISABLE.getCode());
     }
 
+    /**
+     * Hands the accesses to {@link MemoryAccessBuffer}; ownership is enforced when the buffer flushes.
+     */
     private int touchMemories(List<Long> memoryIds) {
-        Long userId = RequestContext.getUserId();
-        if (userId == null || memoryIds == null || memoryIds.isEmpty()) {
-            return 0;
-        }
-        LocalDateTime now = LocalDateTime.now();
-        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(memoryIds.stream()
-                .filter(Objects::nonNull)
-                .toList()));
-        int processedCount = 0;
-        for (Long memoryId : uniqueIds) {
-            AiMemory memory = getById(memoryId);
-            if (memory == null || !userId.equals(memory.getUserId())) {
-                continue;
-            }
-            memory.setAccessCount(defaultInt(memory.getAccessCount(), 0) + 1);
-            memory.setLastAccessedAt(now);
-            updateById(memory);
-            processedCount++;
-        }
-        return processedCount;
+        return memoryAccessBuffer.record(RequestContext.getUserId(), memoryIds);
     }
 
     private int defaultInt(Integer value, int defaultValue) {
@@ -1205,12 +1361,36 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
 
     @Override
     public List<MemorySummary> getEnabledMemorySummaries(Long userId) {
+        int pageSize = Math.max(1, memoryProperties.getRetrieval().getSummaryPageSize());
+        List<MemorySummary> summaries = new ArrayList<>();
+        MemorySummary after = null;
+        while (true) {
+            List<MemorySummary> page = getEnabledMemorySummaries(userId, after, pageSize);
+            summaries.addAll(page);
+            if (page.size() < pageSize) {
+                return summaries;
+            }
+            after = page.get(page.size() - 1);
+        }
+    }
+
+    @Override
+    public List<MemorySummary> getEnabledMemorySummaries(Long userId, MemorySummary after, int limit) {
+        if (userId == null || limit <= 0) {
+            return List.of();
+        }
         LambdaQueryWrapper<AiMemory> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(AiMemory::getUserId, userId)
                 .eq(AiMemory::getEnable, ENABLED_MEMORY_VALUE)
-                .orderByDesc(AiMemory::getUpdatedAt);
-        List<AiMemory> memories = list(wrapper);
-        return memories.stream()
+                .orderByDesc(AiMemory::getUpdatedAt)
+                .orderByDesc(AiMemory::getId);
+        if (after != null && after.updatedAt() != null && after.memoryId() != null) {
+            // Keyset: rows strictly after the cursor in (updated_at DESC, id DESC) order.
+            wrapper.and(w -> w.lt(AiMemory::getUpdatedAt, after.updatedAt())
+                    .or(o -> o.eq(AiMemory::getUpdatedAt, after.updatedAt()).lt(AiMemory::getId, after.memoryId())));
+        }
+        Page<AiMemory> page = new Page<>(1, limit, false);
+        return page(page, wrapper).getRecords().stream()
                 .map(m -> new MemorySummary(
                         m.getId(),
                         m.getScope(),
@@ -1267,11 +1447,12 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
                                                             String memoryType,
                                                             String subType,
                                                             String content) {
-        if (!memoryProperties.getAutowrite().isVectorMergeEnabled() || StringUtils.isBlank(content)) {
+        if (!memoryProperties.getAutowrite().isVectorMergeEnabled() || StringUtils.isBlank(content)
+                || !memoryEmbeddingTarget.isSearchable()) {
             return null;
         }
         try {
-            Embedding queryEmbedding = embeddingModel.embed(content).content();
+            Embedding queryEmbedding = embed(content, AgentMetricNames.OPERATION_DEDUP);
             var filter = MetadataFilterBuilder.metadataKey(MemoryMetadataConstant.USER_ID).isEqualTo(userId)
                     .and(MetadataFilterBuilder.metadataKey(MemoryMetadataConstant.ENABLE).isEqualTo(ENABLED_MEMORY_VALUE))
                     .and(MetadataFilterBuilder.metadataKey(MemoryMetadataConstant.SCOPE).isEqualTo(scope))
@@ -1284,7 +1465,7 @@ public class MemoryServiceImpl extends ServiceImpl<AiMemoryMapper, AiMemory> imp
                     .minScore(memoryProperties.getAutowrite().getVectorMergeMinScore())
                     .filter(filter)
                     .build();
-            EmbeddingSearchResult<TextSegment> searchResult = memoryEmbeddingStore.search(request);
+            EmbeddingSearchResult<TextSegment> searchResult = search(request, AgentMetricNames.OPERATION_DEDUP);
             for (var match : searchResult.matches()) {
                 MemorySearchResult r = toMemorySearchResult(match);
                 if (r.getId() == null) {
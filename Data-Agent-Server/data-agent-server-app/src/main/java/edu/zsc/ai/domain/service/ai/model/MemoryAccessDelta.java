@@ -0,0 +1,21 @@
+package edu.zsc.ai.domain.service.ai.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Access statistics accumulated for one memory since the last flush.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemoryAccessDelta {
+
+    private Long memoryId;
+    private Long userId;
+    private int increment;
+    private LocalDateTime lastAccessedAt;
+}
@@ -0,0 +1,22 @@
+package edu.zsc.ai.domain.service.ai.model;
+
+import edu.zsc.ai.domain.model.entity.ai.AiMemory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A memory found by the lexical recall prefilter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemoryLexicalMatch {
+
+    private AiMemory memory;
+
+    /**
+     * The better of the normalised full-text rank and the title trigram similarity, both in 0..1.
+     */
+    private double lexicalScore;
+}
@@ -0,0 +1,72 @@
+package edu.zsc.ai.domain.service.ai.recall;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Turns a free-text recall query into the terms and {@code to_tsquery('simple', ...)} expression used by lexical
+ * recall.
+ * <p>
+ * The {@code simple} configuration keeps stop words, and a memory that merely repeats "the" or "to" would otherwise
+ * match almost any English prompt, so English stop words are dropped here. Terms are OR-ed in the tsquery: a prompt
+ * is a sentence, not a keyword list, so requiring every word would match almost nothing. Confidence is then the share
+ * of terms a memory covers, computed per term in SQL. Only letters and digits survive, so the result never contains
+ * tsquery operators from user input.
+ */
+public final class MemoryLexicalQuery {
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}_]+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERMS = 32;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "about", "after", "all", "also", "am", "an", "and", "any", "are", "as", "at", "be", "been", "before",
+            "being", "but", "by", "can", "could", "did", "do", "does", "doing", "for", "from", "had", "has", "have",
+            "having", "he", "her", "here", "him", "his", "how", "if", "in", "into", "is", "it", "its", "just", "me",
+            "more", "most", "my", "no", "not", "now", "of", "off", "on", "only", "or", "other", "our", "out", "over",
+            "please", "should", "so", "some", "such", "than", "that", "the", "their", "them", "then", "there", "these",
+            "they", "this", "those", "through", "to", "too", "up", "us", "very", "was", "we", "were", "what", "when",
+            "where", "which", "while", "who", "whom", "why", "will", "with", "would", "you", "your");
+
+    private MemoryLexicalQuery() {
+    }
+
+    /**
+     * @return distinct lowercase terms of the query without stop words, in query order; empty when none are usable
+     */
+    public static List<String> terms(String queryText) {
+        if (StringUtils.isBlank(queryText)) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        Matcher matcher = TERM.matcher(queryText.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terms.size() < MAX_TERMS) {
+            String term = matcher.group();
+            if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * @return the tsquery text, or null when the query has no usable terms
+     */
+    public static String toTsQuery(String queryText) {
+        return toTsQuery(terms(queryText));
+    }
+
+    /**
+     * @return the tsquery text OR-ing {@code terms}, or null when there are none
+     */
+    public static String toTsQuery(List<String> terms) {
+        return terms == null || terms.isEmpty() ? null : String.join(" | ", terms);
+    }
+}
@@ -3,6 +3,11 @@ package edu.zsc.ai.domain.service.ai.recall;
 public enum MemoryRecallQueryStrategy {
 
     HYBRID,
+    /**
+     * HYBRID preceded by a full-text / trigram prefilter on {@code ai_memory}; a confident lexical hit answers the
+     * query without calling the embedding model. Used in place of HYBRID when {@code memory.lexical.enabled} is set.
+     */
+    LEXICAL_HYBRID,
     SEMANTIC,
     BROWSE
 }
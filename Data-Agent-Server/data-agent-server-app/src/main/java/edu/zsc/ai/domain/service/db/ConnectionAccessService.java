@@ -1,5 +1,7 @@
 package edu.zsc.ai.domain.service.db;
 
+import edu.zsc.ai.domain.model.entity.db.DbConnection;
+
 /**
  * Connection visibility and write eligibility for the current request workspace.
  */
@@ -14,6 +16,11 @@ public interface ConnectionAccessService {
 
     void assertReadable(long connectionId);
 
+    /**
+     * Same check as {@link #assertReadable(long)} for an already loaded connection row, skipping the lookup by id.
+     */
+    void assertReadable(DbConnection connection);
+
     /**
      * Blocks organization COMMON members from any database write (AI or otherwise).
      */
@@ -22,6 +22,7 @@ public interface SqlExecutionService {
     /**
      * Execute multiple SQL statements in batch, opening the connection once.
      * Each statement is executed independently — a failure in one does not affect the others.
+     * Batches made only of read-only statements may run concurrently on several pooled connections.
      *
      * @param db   target database context
      * @param sqls list of SQL statements to execute
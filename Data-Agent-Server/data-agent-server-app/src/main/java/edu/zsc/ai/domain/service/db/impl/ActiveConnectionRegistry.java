@@ -1,5 +1,6 @@
 package edu.zsc.ai.domain.service.db.impl;
 
+import com.zaxxer.hikari.HikariDataSource;
 import edu.zsc.ai.common.constant.ResponseCode;
 import edu.zsc.ai.common.constant.ResponseMessageKey;
 import edu.zsc.ai.common.enums.org.WorkspaceTypeEnum;
@@ -9,19 +10,30 @@ import edu.zsc.ai.domain.exception.BusinessException;
 import edu.zsc.ai.domain.service.db.ConnectionAccessService;
 import edu.zsc.ai.domain.service.db.support.ConnectionAccessSupport;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+/**
+ * Registry of pooled JDBC data sources, one shared pool per logical connection.
+ * <p>
+ * The pool is registered unscoped; callers asking for a database / schema get a scoped view of the same pool, and the
+ * catalog / schema is applied on every borrow and restored before the physical connection goes back to the pool.
+ */
 @Slf4j
 public class ActiveConnectionRegistry {
 
@@ -62,14 +74,49 @@ public class ActiveConnectionRegistry {
             );
         }
 
+        /**
+         * View of the same pool whose borrows switch to the given catalog / schema.
+         */
+        public ActiveConnection scopedTo(String catalog, String schema) {
+            if (Objects.equals(databaseName, catalog) && Objects.equals(schemaName, schema)) {
+                return this;
+            }
+            return new ActiveConnection(
+                    dataSource,
+                    ownerUserId,
+                    openedByUserId,
+                    dbConnectionId,
+                    dbType,
+                    pluginId,
+                    catalog,
+                    schema,
+                    createdAt,
+                    lastAccessedAt,
+                    workspaceType,
+                    orgId
+            );
+        }
+
         public BorrowedConnection borrowConnection() {
             return ActiveConnectionRegistry.borrowConnection(this);
         }
     }
 
+    /**
+     * Borrowed physical connection. {@code restoreCatalog} / {@code restoreSchema} hold the pool's default the borrow
+     * switched away from; {@code null} means nothing to restore. A pool without a default catalog / schema (e.g. MySQL
+     * configured without a database) cannot be switched back to "none", so its connections keep the last scoped
+     * catalog: the next scoped borrow switches anyway, and unscoped callers do not rely on a current catalog.
+     */
     public record BorrowedConnection(
             Connection connection,
-            ActiveConnection activeConnection) implements AutoCloseable {
+            ActiveConnection activeConnection,
+            String restoreCatalog,
+            String restoreSchema) implements AutoCloseable {
+
+        public BorrowedConnection(Connection connection, ActiveConnection activeConnection) {
+            this(connection, activeConnection, null, null);
+        }
 
         public String pluginId() {
             return activeConnection.pluginId();
@@ -78,67 +125,86 @@ public class ActiveConnectionRegistry {
         @Override
         public void close() {
             try {
+                restoreContext();
                 connection.close();
             } catch (SQLException e) {
                 throw new RuntimeException("Failed to close database connection: " + e.getMessage(), e);
             }
         }
+
+        private void restoreContext() {
+            try {
+                if (restoreCatalog != null) {
+                    connection.setCatalog(restoreCatalog);
+                }
+                if (restoreSchema != null) {
+                    connection.setSchema(restoreSchema);
+                }
+            } catch (SQLException | AbstractMethodError e) {
+                // Hand the connection back anyway: the next scoped borrow sets its own catalog / schema.
+                log.warn("Failed to restore catalog/schema before returning connection: dbConnectionId={}",
+                        activeConnection.dbConnectionId(), e);
+            }
+        }
     }
 
     /**
-     * Active connections registry: dbConnectionId -> { database_schema -> ActiveConnection }
+     * Active connections registry: dbConnectionId -> unscoped ActiveConnection
      */
-    private static final Map<Long, Map<String, ActiveConnection>> activeConnections = new ConcurrentHashMap<>();
+    private static final Map<Long, ActiveConnection> activeConnections = new ConcurrentHashMap<>();
 
     /**
-     * Generate inner key for the second level map.
+     * Catalog / schema a pool's connections start on, read from the first connection a scoped borrow switches.
      */
-    public static String generateInnerKey(String databaseName, String schemaName) {
-        return (databaseName != null ? databaseName : "null") + "::" + (schemaName != null ? schemaName : "null");
-    }
+    private static final Map<DataSource, PoolDefaults> poolDefaults = new ConcurrentHashMap<>();
 
     /**
-     * Package-scoped registration hook used by tests and internal bootstrapping only.
+     * Package-scoped registration hook used by tests and internal bootstrapping only. The pool is registered unscoped,
+     * replacing any previous pool of the connection.
      */
     static void registerConnection(Long dbConnectionId, ActiveConnection activeConnection) {
-        String innerKey = generateInnerKey(activeConnection.databaseName(), activeConnection.schemaName());
-        ActiveConnection previous = activeConnections.computeIfAbsent(dbConnectionId, k -> new ConcurrentHashMap<>())
-                .put(innerKey, activeConnection);
+        ActiveConnection previous = activeConnections.put(dbConnectionId, activeConnection.scopedTo(null, null));
 
         if (previous != null && previous.dataSource() != activeConnection.dataSource()) {
             doClose(previous);
         }
 
-        log.info("Connection registered: dbConnectionId={}, key={}, dbType={}",
-                dbConnectionId, innerKey, activeConnection.dbType());
+        log.info("Connection registered: dbConnectionId={}, dbType={}", dbConnectionId, activeConnection.dbType());
     }
 
+    /**
+     * Returns the shared pool of the logical connection scoped to the {@link DbContext}, creating the pool if needed.
+     * The supplier must build an unscoped pool (no catalog / schema override).
+     * <p>
+     * The lookup does no I/O: pool health is checked out of band by {@link #checkHealth()}, which discards dead pools
+     * so the next call rebuilds them.
+     */
     public static ActiveConnection getOrCreateConnection(DbContext db, Supplier<ActiveConnection> activeConnectionSupplier) {
-        Map<String, ActiveConnection> innerMap = activeConnections.computeIfAbsent(db.connectionId(), k -> new ConcurrentHashMap<>());
-        String innerKey = generateInnerKey(db.catalog(), db.schema());
-
-        return innerMap.compute(innerKey, (key, existing) -> {
-            if (isConnectionUsable(existing)) {
-                return existing.touch();
-            }
-
-            ActiveConnection created = activeConnectionSupplier.get();
-            if (existing != null && existing.dataSource() != created.dataSource()) {
-                doClose(existing);
-            }
-
-            log.info("Connection registered: dbConnectionId={}, key={}, dbType={}",
-                    db.connectionId(), innerKey, created.dbType());
-            return created;
-        });
+        ActiveConnection existing = activeConnections.get(db.connectionId());
+        ActiveConnection pool = isOpen(existing)
+                ? touch(db.connectionId(), existing)
+                : activeConnections.compute(db.connectionId(), (key, current) -> {
+                    if (isOpen(current)) {
+                        return current.touch();
+                    }
+
+                    ActiveConnection created = activeConnectionSupplier.get();
+                    if (current != null && current.dataSource() != created.dataSource()) {
+                        doClose(current);
+                    }
+
+                    log.info("Connection registered: dbConnectionId={}, dbType={}", db.connectionId(), created.dbType());
+                    return created;
+                });
+        return pool.scopedTo(db.catalog(), db.schema());
     }
 
     /**
-     * Get active connection for a DbContext.
+     * Get active connection for a DbContext: the shared pool scoped to its catalog / schema.
      */
     public static Optional<ActiveConnection> getConnection(DbContext db) {
-        String key = generateInnerKey(db.catalog(), db.schema());
-        return getUsableConnection(db.connectionId(), key);
+        return getUsableConnection(db.connectionId())
+                .map(active -> active.scopedTo(db.catalog(), db.schema()));
     }
 
     /**
@@ -173,30 +239,7 @@ public class ActiveConnectionRegistry {
      * Get any active connection for a dbConnectionId (e.g. for listing databases).
      */
     public static Optional<ActiveConnection> getAnyActiveConnection(Long dbConnectionId) {
-        Map<String, ActiveConnection> innerMap = activeConnections.get(dbConnectionId);
-        if (innerMap == null) {
-            return Optional.empty();
-        }
-
-        String rootKey = generateInnerKey(null, null);
-        Optional<ActiveConnection> rootConnection = getUsableConnection(dbConnectionId, rootKey);
-        if (rootConnection.isPresent()) {
-            return rootConnection;
-        }
-
-        for (String key : innerMap.keySet()) {
-            if (rootKey.equals(key)) {
-                continue;
-            }
-
-            Optional<ActiveConnection> active = getUsableConnection(dbConnectionId, key);
-            if (active.isPresent()) {
-                return active;
-            }
-        }
-
-        cleanupEmptyGroup(dbConnectionId, innerMap);
-        return Optional.empty();
+        return getUsableConnection(dbConnectionId);
     }
 
     /**
@@ -212,10 +255,87 @@ public class ActiveConnectionRegistry {
      * Close all connections for a dbConnectionId.
      */
     public static void closeAllConnections(Long dbConnectionId) {
-        Map<String, ActiveConnection> innerMap = activeConnections.remove(dbConnectionId);
-        if (innerMap != null) {
-            innerMap.values().forEach(ActiveConnectionRegistry::doClose);
+        ActiveConnection removed = activeConnections.remove(dbConnectionId);
+        if (removed != null) {
+            doClose(removed);
+        }
+    }
+
+    /**
+     * Closes every registered pool, e.g. to drain connections before plugins or drivers are unloaded.
+     *
+     * @return number of pools closed
+     */
+    public static int closeAll() {
+        int closed = 0;
+        for (Long dbConnectionId : List.copyOf(activeConnections.keySet())) {
+            ActiveConnection removed = activeConnections.remove(dbConnectionId);
+            if (removed != null) {
+                doClose(removed);
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Closes pools that have not been looked up since {@code cutoff}. Pools with borrowed connections are kept.
+     *
+     * @return number of pools closed
+     */
+    public static int closeIdleSince(LocalDateTime cutoff) {
+        int closed = 0;
+        for (PoolRef ref : poolRefs()) {
+            if (ref.active().lastAccessedAt().isBefore(cutoff)
+                    && !isBusy(ref.active())
+                    && removeIfUnchanged(ref, current -> current.lastAccessedAt().isBefore(cutoff))) {
+                log.info("Closing idle connection pool: dbConnectionId={}, lastAccessedAt={}",
+                        ref.dbConnectionId(), ref.active().lastAccessedAt());
+                closed++;
+            }
         }
+        return closed;
+    }
+
+    /**
+     * Keeps at most {@code maxPools} pools open across all connections by closing the least recently used idle ones.
+     *
+     * @return number of pools closed
+     */
+    public static int evictLeastRecentlyUsed(int maxPools) {
+        if (maxPools <= 0) {
+            return 0;
+        }
+        List<PoolRef> refs = poolRefs();
+        int excess = refs.size() - maxPools;
+        if (excess <= 0) {
+            return 0;
+        }
+        refs.sort(Comparator.comparing(ref -> ref.active().lastAccessedAt()));
+        int closed = 0;
+        for (PoolRef ref : refs) {
+            if (closed >= excess) {
+                break;
+            }
+            if (!isBusy(ref.active())
+                    && removeIfUnchanged(ref, current -> current.lastAccessedAt().equals(ref.active().lastAccessedAt()))) {
+                log.info("Evicting least recently used connection pool: dbConnectionId={}, budget={}",
+                        ref.dbConnectionId(), maxPools);
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    public static int poolCount() {
+        return activeConnections.size();
+    }
+
+    /**
+     * Snapshot of every registered pool, for lifecycle tuning such as shrinking cold pools.
+     */
+    public static List<ActiveConnection> listPools() {
+        return poolRefs().stream().map(PoolRef::active).toList();
     }
 
     public static BorrowedConnection borrowOwnedConnection(DbContext db) {
@@ -227,15 +347,92 @@ public class ActiveConnectionRegistry {
     }
 
     private static BorrowedConnection borrowConnection(ActiveConnection active) {
+        Connection connection;
         try {
-            Connection connection = active.dataSource().getConnection();
-            return new BorrowedConnection(connection, active);
+            connection = active.dataSource().getConnection();
         } catch (SQLException e) {
             throw new RuntimeException("Failed to borrow database connection: " + e.getMessage(), e);
         }
+        if (active.databaseName() == null && active.schemaName() == null) {
+            return new BorrowedConnection(connection, active);
+        }
+        try {
+            PoolDefaults defaults = poolDefaults(active.dataSource(), connection);
+            boolean catalogSwitched = switchCatalog(connection, active.databaseName());
+            boolean schemaSwitched = switchSchema(connection, active.schemaName());
+            return new BorrowedConnection(connection, active,
+                    catalogSwitched ? defaults.catalog() : null,
+                    schemaSwitched ? defaults.schema() : null);
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new RuntimeException("Failed to switch database connection to catalog=" + active.databaseName()
+                    + ", schema=" + active.schemaName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Records the pool's defaults once, from a connection no scoped borrow has switched yet: connections of a pool
+     * without a default keep their last catalog, so only the first switch sees what the pool starts on.
+     */
+    private static PoolDefaults poolDefaults(DataSource dataSource, Connection connection) throws SQLException {
+        PoolDefaults recorded = poolDefaults.get(dataSource);
+        if (recorded != null) {
+            return recorded;
+        }
+        String schema;
+        try {
+            schema = connection.getSchema();
+        } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+            schema = null;
+        }
+        PoolDefaults read = new PoolDefaults(
+                StringUtils.defaultIfBlank(connection.getCatalog(), null),
+                StringUtils.defaultIfBlank(schema, null));
+        PoolDefaults previous = poolDefaults.putIfAbsent(dataSource, read);
+        return previous != null ? previous : read;
+    }
+
+    /**
+     * @return true if the connection was switched, false when it already was on {@code catalog} or none was requested
+     */
+    private static boolean switchCatalog(Connection connection, String catalog) throws SQLException {
+        if (catalog == null || catalog.equals(connection.getCatalog())) {
+            return false;
+        }
+        connection.setCatalog(catalog);
+        return true;
+    }
+
+    /**
+     * @return true if the connection was switched, false when it already was on {@code schema}, none was requested or
+     * the driver cannot switch schemas
+     */
+    private static boolean switchSchema(Connection connection, String schema) throws SQLException {
+        if (schema == null) {
+            return false;
+        }
+        try {
+            if (schema.equals(connection.getSchema())) {
+                return false;
+            }
+            connection.setSchema(schema);
+            return true;
+        } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+            log.debug("Driver cannot switch schema per connection, relying on qualified names: schema={}", schema);
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close connection after borrow failure: {}", e.getMessage());
+        }
     }
 
     private static void doClose(ActiveConnection active) {
+        poolDefaults.remove(active.dataSource());
         try {
             if (active.dataSource() instanceof AutoCloseable autoCloseable) {
                 autoCloseable.close();
@@ -247,8 +444,65 @@ public class ActiveConnectionRegistry {
         }
     }
 
+    /**
+     * Same as {@link #checkHealth(LocalDateTime)} without skipping cold pools.
+     */
+    public static int checkHealth() {
+        return checkHealth(null);
+    }
+
+    /**
+     * Probes the registered pools with a borrow + {@link Connection#isValid(int)} and discards the pools that cannot
+     * hand out a valid connection. Runs off the request path (see {@code ConnectionPoolHealthChecker}); the probe
+     * happens outside any map lock and the entry is only removed if it still holds the probed pool.
+     * <p>
+     * A probe borrows a connection, which resets its idle timer, so probing every pool would keep every pool warm.
+     * Pools not looked up since {@code coldCutoff} and Hikari pools holding no connections are therefore skipped:
+     * Hikari validates a connection on borrow and keepalive covers the idle ones, so neither needs the probe.
+     *
+     * @param coldCutoff pools last looked up before this are skipped; {@code null} probes every warm pool
+     * @return number of pools discarded
+     */
+    public static int checkHealth(LocalDateTime coldCutoff) {
+        int discarded = 0;
+        for (Map.Entry<Long, ActiveConnection> entry : activeConnections.entrySet()) {
+            ActiveConnection probed = entry.getValue();
+            if (!needsProbe(probed, coldCutoff) || isConnectionUsable(probed)) {
+                continue;
+            }
+            AtomicReference<ActiveConnection> removed = new AtomicReference<>();
+            activeConnections.computeIfPresent(entry.getKey(), (key, current) -> {
+                if (current.dataSource() != probed.dataSource()) {
+                    return current;
+                }
+                removed.set(current);
+                return null;
+            });
+            if (removed.get() != null) {
+                log.warn("Discarding unhealthy connection pool: dbConnectionId={}, dbType={}",
+                        entry.getKey(), probed.dbType());
+                doClose(removed.get());
+                discarded++;
+            }
+        }
+        return discarded;
+    }
+
+    private static boolean needsProbe(ActiveConnection active, LocalDateTime coldCutoff) {
+        if (!isOpen(active)) {
+            return true;
+        }
+        if (coldCutoff != null && active.lastAccessedAt().isBefore(coldCutoff)) {
+            return false;
+        }
+        if (active.dataSource() instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            return hikari.getHikariPoolMXBean().getTotalConnections() > 0;
+        }
+        return true;
+    }
+
     private static boolean isConnectionUsable(ActiveConnection active) {
-        if (active == null || active.dataSource() == null) {
+        if (!isOpen(active)) {
             return false;
         }
 
@@ -271,34 +525,77 @@ public class ActiveConnectionRegistry {
         }
     }
 
-    private static Optional<ActiveConnection> getUsableConnection(Long dbConnectionId, String innerKey) {
-        Map<String, ActiveConnection> innerMap = activeConnections.get(dbConnectionId);
-        if (innerMap == null) {
+    /**
+     * Cheap, I/O-free liveness check used on the request path.
+     */
+    private static boolean isOpen(ActiveConnection active) {
+        if (active == null || active.dataSource() == null) {
+            return false;
+        }
+        return !(active.dataSource() instanceof HikariDataSource hikari && hikari.isClosed());
+    }
+
+    private static ActiveConnection touch(Long dbConnectionId, ActiveConnection existing) {
+        ActiveConnection touched = existing.touch();
+        // Losing the race to a concurrent touch or rebuild is fine; only lastAccessedAt is at stake.
+        activeConnections.replace(dbConnectionId, existing, touched);
+        return touched;
+    }
+
+    private static Optional<ActiveConnection> getUsableConnection(Long dbConnectionId) {
+        ActiveConnection existing = activeConnections.get(dbConnectionId);
+        if (existing == null) {
             return Optional.empty();
         }
+        if (isOpen(existing)) {
+            return Optional.of(touch(dbConnectionId, existing));
+        }
+
+        if (activeConnections.remove(dbConnectionId, existing)) {
+            log.warn("Discarding closed connection pool: dbConnectionId={}, dbType={}", dbConnectionId, existing.dbType());
+            doClose(existing);
+        }
+        return Optional.empty();
+    }
 
-        AtomicReference<ActiveConnection> removedConnection = new AtomicReference<>();
-        ActiveConnection active = innerMap.computeIfPresent(innerKey, (key, existing) -> {
-            if (isConnectionUsable(existing)) {
-                return existing.touch();
+    private static List<PoolRef> poolRefs() {
+        List<PoolRef> refs = new ArrayList<>();
+        activeConnections.forEach((dbConnectionId, active) -> refs.add(new PoolRef(dbConnectionId, active)));
+        return refs;
+    }
+
+    /**
+     * Removes and closes the pool if the entry still holds the same pool and {@code stillEligible} holds for it.
+     */
+    private static boolean removeIfUnchanged(PoolRef ref, Predicate<ActiveConnection> stillEligible) {
+        AtomicReference<ActiveConnection> removed = new AtomicReference<>();
+        activeConnections.computeIfPresent(ref.dbConnectionId(), (key, current) -> {
+            if (current.dataSource() != ref.active().dataSource() || !stillEligible.test(current)) {
+                return current;
             }
-            removedConnection.set(existing);
+            removed.set(current);
             return null;
         });
-
-        cleanupEmptyGroup(dbConnectionId, innerMap);
-        ActiveConnection removed = removedConnection.get();
-        if (removed != null) {
-            log.warn("Discarding stale connection: dbConnectionId={}, key={}, dbType={}",
-                    dbConnectionId, innerKey, removed.dbType());
-            doClose(removed);
+        if (removed.get() == null) {
+            return false;
         }
-        return Optional.ofNullable(active);
+        doClose(removed.get());
+        return true;
     }
 
-    private static void cleanupEmptyGroup(Long dbConnectionId, Map<String, ActiveConnection> innerMap) {
-        if (innerMap.isEmpty()) {
-            activeConnections.remove(dbConnectionId, innerMap);
+    private static boolean isBusy(ActiveConnection active) {
+        if (active.dataSource() instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            return hikari.getHikariPoolMXBean().getActiveConnections() > 0;
         }
+        return false;
+    }
+
+    private record PoolRef(Long dbConnectionId, ActiveConnection active) {
+    }
+
+    /**
+     * Catalog / schema of a pool's unswitched connections; {@code null} (also for a blank value) if it has none.
+     */
+    private record PoolDefaults(String catalog, String schema) {
     }
 }
@@ -35,14 +35,18 @@ public class ConnectionAccessServiceImpl implements ConnectionAccessService {
 
     @Override
     public boolean canRead(long connectionId) {
-        Long userId = RequestContext.getUserId();
-        if (userId == null) {
+        if (RequestContext.getUserId() == null) {
             return false;
         }
-        DbConnection conn = dbConnectionMapper.selectById(connectionId);
-        if (conn == null) {
+        return canRead(dbConnectionMapper.selectById(connectionId));
+    }
+
+    private boolean canRead(DbConnection conn) {
+        Long userId = RequestContext.getUserId();
+        if (userId == null || conn == null) {
             return false;
         }
+        long connectionId = conn.getId();
         // Chat session embeds the same id list as getAllConnections; tool threads may lose RequestContext.org.
         List<Long> agentReadable = AgentRequestContext.getReadableConnectionIds();
         if (CollectionUtils.isNotEmpty(agentReadable)) {
@@ -75,6 +79,13 @@ public class ConnectionAccessServiceImpl implements ConnectionAccessService {
         }
     }
 
+    @Override
+    public void assertReadable(DbConnection connection) {
+        if (!canRead(connection)) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR, ResponseMessageKey.CONNECTION_ACCESS_DENIED_MESSAGE);
+        }
+    }
+
     @Override
     public void assertWritableForCurrentWorkspace(long connectionId) {
         assertReadable(connectionId);
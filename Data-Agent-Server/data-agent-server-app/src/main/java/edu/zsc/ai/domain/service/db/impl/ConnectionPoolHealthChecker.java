@@ -0,0 +1,40 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.config.db.ConnectionPoolProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Background health check for the pools in {@link ActiveConnectionRegistry}, so request threads never pay for a
+ * validation round-trip. Dead pools are closed and dropped; the next {@code openConnection} rebuilds them.
+ * Pools cold for {@code db.pool.cold-pool-after-ms} are left alone so the check does not keep them warm.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolHealthChecker {
+
+    private final ConnectionPoolProperties connectionPoolProperties;
+
+    @Scheduled(fixedDelayString = "${db.pool.health-check-interval-ms:30000}",
+            initialDelayString = "${db.pool.health-check-interval-ms:30000}")
+    void checkPools() {
+        try {
+            long coldPoolAfterMs = connectionPoolProperties.getColdPoolAfterMs();
+            LocalDateTime coldCutoff = coldPoolAfterMs > 0
+                    ? LocalDateTime.now().minus(Duration.ofMillis(coldPoolAfterMs))
+                    : null;
+            int discarded = ActiveConnectionRegistry.checkHealth(coldCutoff);
+            if (discarded > 0) {
+                log.info("Connection pool health check discarded {} pool(s)", discarded);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Connection pool health check failed", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import edu.zsc.ai.config.db.ConnectionPoolProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Lifecycle sweeper for the pools in {@link ActiveConnectionRegistry}:
+ * <ul>
+ *     <li>closes pools not used for {@code db.pool.idle-pool-ttl-ms};</li>
+ *     <li>drops {@code minimumIdle} to 0 on pools cold for {@code db.pool.cold-pool-after-ms} and restores it once
+ *     they are used again;</li>
+ *     <li>enforces the global {@code db.pool.max-pools} budget, least recently used first.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolSweeper {
+
+    private final ConnectionPoolProperties connectionPoolProperties;
+
+    @Scheduled(fixedDelayString = "${db.pool.sweep-interval-ms:60000}",
+            initialDelayString = "${db.pool.sweep-interval-ms:60000}")
+    void sweep() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int idleClosed = connectionPoolProperties.getIdlePoolTtlMs() > 0
+                    ? ActiveConnectionRegistry.closeIdleSince(now.minus(Duration.ofMillis(connectionPoolProperties.getIdlePoolTtlMs())))
+                    : 0;
+            int evicted = ActiveConnectionRegistry.evictLeastRecentlyUsed(connectionPoolProperties.getMaxPools());
+            resizeIdle(now);
+            if (idleClosed > 0 || evicted > 0) {
+                log.info("Connection pool sweep closed {} idle and {} over-budget pool(s), {} open",
+                        idleClosed, evicted, ActiveConnectionRegistry.poolCount());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Connection pool sweep failed", e);
+        }
+    }
+
+    private void resizeIdle(LocalDateTime now) {
+        if (connectionPoolProperties.getColdPoolAfterMs() <= 0) {
+            return;
+        }
+        LocalDateTime coldCutoff = now.minus(Duration.ofMillis(connectionPoolProperties.getColdPoolAfterMs()));
+        for (ActiveConnectionRegistry.ActiveConnection active : ActiveConnectionRegistry.listPools()) {
+            if (!(active.dataSource() instanceof HikariDataSource hikari) || hikari.isClosed()) {
+                continue;
+            }
+            HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+            int target = active.lastAccessedAt().isBefore(coldCutoff) ? 0 : connectionPoolProperties.getMinimumIdle();
+            if (config.getMinimumIdle() != target) {
+                config.setMinimumIdle(target);
+                log.debug("Set minimumIdle={} for pool {}", target, hikari.getPoolName());
+            }
+        }
+    }
+}
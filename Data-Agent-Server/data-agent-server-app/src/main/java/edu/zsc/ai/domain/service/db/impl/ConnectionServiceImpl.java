@@ -4,6 +4,9 @@ import edu.zsc.ai.common.constant.ResponseCode;
 import edu.zsc.ai.common.constant.ResponseMessageKey;
 import edu.zsc.ai.common.converter.db.ConnectionConverter;
 import edu.zsc.ai.common.enums.db.ConnectionTestStatuEnum;
+import edu.zsc.ai.config.db.ConnectionPoolProperties;
+import edu.zsc.ai.domain.event.ConnectionChangedEvent;
+import edu.zsc.ai.domain.event.PluginsReloadedEvent;
 import edu.zsc.ai.domain.model.context.DbContext;
 import edu.zsc.ai.domain.model.dto.request.db.ConnectRequest;
 import edu.zsc.ai.domain.model.dto.response.db.ConnectionTestResponse;
@@ -21,11 +24,16 @@ import edu.zsc.ai.plugin.manager.DefaultPluginManager;
 import edu.zsc.ai.domain.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.sql.Connection;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -35,6 +43,9 @@ public class ConnectionServiceImpl implements ConnectionService {
     private final DbConnectionService dbConnectionService;
     private final ConnectionAccessService connectionAccessService;
     private final ManagedDataSourceFactory managedDataSourceFactory;
+    private final ConnectionPoolProperties connectionPoolProperties;
+
+    private final Map<Long, ResolvedConnection> resolvedConnections = new ConcurrentHashMap<>();
 
     @Override
     public ConnectionTestResponse testConnection(ConnectRequest request) {
@@ -84,26 +95,62 @@ public class ConnectionServiceImpl implements ConnectionService {
 
     @Override
     public Boolean openConnection(DbContext db) {
-        connectionAccessService.assertReadable(db.connectionId());
-        DbConnection dbConnection = dbConnectionService.getById(db.connectionId());
-        BusinessException.assertNotNull(dbConnection, ResponseCode.PARAM_ERROR, ResponseMessageKey.CONNECTION_NOT_FOUND_MESSAGE);
-        ConnectionConfig config = ConnectionConverter.convertToConfig(dbConnection);
-        if (db.catalog() != null) {
-            config.setDatabase(db.catalog());
+        ResolvedConnection resolved = resolveConnection(db.connectionId());
+
+        // One pool per logical connection; the requested catalog / schema is applied per borrow.
+        ActiveConnectionRegistry.getOrCreateConnection(
+                db,
+                () -> buildPooledConnection(db, resolved.dbConnection(), resolved.config(), resolved.managers())
+        );
+        if (connectionPoolProperties.getMaxPools() > 0
+                && ActiveConnectionRegistry.poolCount() > connectionPoolProperties.getMaxPools()) {
+            ActiveConnectionRegistry.evictLeastRecentlyUsed(connectionPoolProperties.getMaxPools());
         }
-        if (db.schema() != null) {
-            config.setSchema(db.schema());
+
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Loads, converts (credential decryption included) and resolves plugins for the saved connection once, then serves
+     * it from memory until it expires or the connection is updated / deleted. The access check always runs, against
+     * the cached row on a hit.
+     */
+    private ResolvedConnection resolveConnection(Long connectionId) {
+        ResolvedConnection cached = resolvedConnections.get(connectionId);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            connectionAccessService.assertReadable(cached.dbConnection());
+            return cached;
         }
 
+        connectionAccessService.assertReadable(connectionId);
+        DbConnection dbConnection = dbConnectionService.getById(connectionId);
+        BusinessException.assertNotNull(dbConnection, ResponseCode.PARAM_ERROR, ResponseMessageKey.CONNECTION_NOT_FOUND_MESSAGE);
+        ConnectionConfig config = ConnectionConverter.convertToConfig(dbConnection);
+
         List<ConnectionManager> managers = DefaultPluginManager.getInstance()
                 .getConnectionManagerByDbType(dbConnection.getDbType());
 
-        ActiveConnectionRegistry.getOrCreateConnection(
-                db,
-                () -> buildPooledConnection(db, dbConnection, config, managers)
-        );
+        ResolvedConnection resolved = new ResolvedConnection(dbConnection, config, List.copyOf(managers),
+                System.currentTimeMillis() + connectionPoolProperties.getResolvedConnectionTtlMs());
+        if (connectionPoolProperties.getResolvedConnectionTtlMs() > 0) {
+            resolvedConnections.put(connectionId, resolved);
+        }
+        return resolved;
+    }
 
-        return Boolean.TRUE;
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onConnectionChanged(ConnectionChangedEvent event) {
+        resolvedConnections.remove(event.getConnectionId());
+        // Pools still hold the old host / credentials, or point at a connection that no longer exists.
+        ActiveConnectionRegistry.closeAllConnections(event.getConnectionId());
+        log.info("Dropped cached config and pools for {} connection: connectionId={}",
+                event.isDeleted() ? "deleted" : "updated", event.getConnectionId());
+    }
+
+    @EventListener
+    public void onPluginsReloaded(PluginsReloadedEvent event) {
+        // Cached manager lists point at the previous plugin instances.
+        resolvedConnections.clear();
     }
 
     private ActiveConnectionRegistry.ActiveConnection buildPooledConnection(DbContext db,
@@ -119,8 +166,8 @@ public class ConnectionServiceImpl implements ConnectionService {
                                 new ManagedDataSourceFactory.ManagedDataSourceRequest(
                                         db.connectionId(),
                                         dbConnection.getDbType(),
-                                        db.catalog(),
-                                        db.schema()
+                                        null,
+                                        null
                                 )
                         )
                 ).handle(config);
@@ -138,8 +185,8 @@ public class ConnectionServiceImpl implements ConnectionService {
                 db.connectionId(),
                 dbConnection.getDbType(),
                 ((Plugin) res.manager()).getPluginId(),
-                db.catalog(),
-                db.schema(),
+                null,
+                null,
                 LocalDateTime.now(),
                 LocalDateTime.now(),
                 RequestContext.getWorkspaceTypeOrPersonal(),
@@ -147,6 +194,13 @@ public class ConnectionServiceImpl implements ConnectionService {
         );
     }
 
+    private record ResolvedConnection(
+            DbConnection dbConnection,
+            ConnectionConfig config,
+            List<ConnectionManager> managers,
+            long expiresAt) {
+    }
+
     @Override
     public void closeConnection(Long connectionId) {
         // Check ownership before closing
@@ -7,6 +7,7 @@ import edu.zsc.ai.common.converter.db.ConnectionConverter;
 import edu.zsc.ai.common.constant.ResponseCode;
 import edu.zsc.ai.common.constant.ResponseMessageKey;
 import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.domain.event.ConnectionChangedEvent;
 import edu.zsc.ai.domain.mapper.db.DbConnectionMapper;
 import edu.zsc.ai.domain.mapper.sys.SysOrganizationConnectionPermissionMapper;
 import edu.zsc.ai.domain.model.dto.request.db.ConnectionCreateRequest;
@@ -21,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -36,6 +38,7 @@ public class DbConnectionServiceImpl extends ServiceImpl<DbConnectionMapper, DbC
 
     private final ConnectionAccessService connectionAccessService;
     private final SysOrganizationConnectionPermissionMapper sysOrganizationConnectionPermissionMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public DbConnection getByName(String name) {
@@ -138,6 +141,7 @@ public class DbConnectionServiceImpl extends ServiceImpl<DbConnectionMapper, DbC
         existingConnection.setProperties(JsonUtil.map2Json(request.getProperties()));
 
         this.updateById(existingConnection);
+        eventPublisher.publishEvent(new ConnectionChangedEvent(this, connectionId, false));
         return ConnectionConverter.convertToResponse(existingConnection);
     }
 
@@ -189,5 +193,6 @@ public class DbConnectionServiceImpl extends ServiceImpl<DbConnectionMapper, DbC
     public void deleteConnection(Long connectionId) {
         this.getOwnedById(connectionId);
         this.removeById(connectionId);
+        eventPublisher.publishEvent(new ConnectionChangedEvent(this, connectionId, true));
     }
 }
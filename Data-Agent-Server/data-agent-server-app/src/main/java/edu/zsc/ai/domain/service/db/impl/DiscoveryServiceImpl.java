@@ -6,10 +6,9 @@ import edu.zsc.ai.agent.tool.sql.model.ObjectQueryItem;
 import edu.zsc.ai.agent.tool.sql.model.ObjectSearchResponse;
 import edu.zsc.ai.agent.tool.sql.model.ObjectSearchResult;
 import edu.zsc.ai.agent.guard.ExplorerConnectionScopeGuard;
+import edu.zsc.ai.async.DownstreamConcurrencyLimiter;
 import edu.zsc.ai.context.AgentRequestContext;
-import edu.zsc.ai.context.AgentRequestContextInfo;
 import edu.zsc.ai.context.RequestContext;
-import edu.zsc.ai.context.RequestContextInfo;
 import edu.zsc.ai.util.ConnectionIdUtil;
 import edu.zsc.ai.domain.model.context.DbContext;
 import edu.zsc.ai.domain.model.dto.response.db.ConnectionResponse;
@@ -65,6 +64,7 @@ public class DiscoveryServiceImpl implements DiscoveryService {
     private final DatabaseObjectService databaseObjectService;
     private final IndexService indexService;
     private final ConnectionAccessService connectionAccessService;
+    private final DownstreamConcurrencyLimiter downstreamConcurrencyLimiter;
 
     public DiscoveryServiceImpl(
             @Qualifier(SHARED_EXECUTOR_BEAN_NAME) Executor sharedExecutor,
@@ -73,7 +73,8 @@ public class DiscoveryServiceImpl implements DiscoveryService {
             SchemaService schemaService,
             DatabaseObjectService databaseObjectService,
             IndexService indexService,
-            ConnectionAccessService connectionAccessService) {
+            ConnectionAccessService connectionAccessService,
+            DownstreamConcurrencyLimiter downstreamConcurrencyLimiter) {
         this.sharedExecutor = sharedExecutor;
         this.dbConnectionService = dbConnectionService;
         this.databaseService = databaseService;
@@ -81,6 +82,7 @@ public class DiscoveryServiceImpl implements DiscoveryService {
         this.databaseObjectService = databaseObjectService;
         this.indexService = indexService;
         this.connectionAccessService = connectionAccessService;
+        this.downstreamConcurrencyLimiter = downstreamConcurrencyLimiter;
     }
 
     // ==================== searchObjects ====================
@@ -100,18 +102,12 @@ public class DiscoveryServiceImpl implements DiscoveryService {
                     databaseNamePattern, schemaNamePattern);
         }
 
-        RequestContextInfo requestContextSnapshot = RequestContext.snapshot();
-        AgentRequestContextInfo agentRequestContextSnapshot = AgentRequestContext.snapshot();
+        // The shared executor's task decorator carries the request context into each search.
         List<CompletableFuture<ObjectSearchResponse>> futures = connections.stream()
-                .map(conn -> CompletableFuture.supplyAsync(() -> {
-                    applyContextSnapshots(requestContextSnapshot, agentRequestContextSnapshot);
-                    try {
-                        return searchConnectionAcrossDatabases(conn, pattern, typesToSearch,
-                                databaseNamePattern, schemaNamePattern);
-                    } finally {
-                        clearContextSnapshots();
-                    }
-                }, sharedExecutor))
+                .map(conn -> CompletableFuture.supplyAsync(() ->
+                        downstreamConcurrencyLimiter.withConnectionPermit(conn.getId(),
+                                () -> searchConnectionAcrossDatabases(conn, pattern, typesToSearch,
+                                        databaseNamePattern, schemaNamePattern)), sharedExecutor))
                 .toList();
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
@@ -353,23 +349,4 @@ public class DiscoveryServiceImpl implements DiscoveryService {
         List<String> schemas = schemaService.listSchemas(connectionId, catalog);
         return CollectionUtils.isEmpty(schemas) ? Collections.emptyList() : schemas;
     }
-
-    private void applyContextSnapshots(RequestContextInfo requestContextSnapshot,
-                                       AgentRequestContextInfo agentRequestContextSnapshot) {
-        if (requestContextSnapshot != null) {
-            RequestContext.set(requestContextSnapshot);
-        } else {
-            RequestContext.clear();
-        }
-        if (agentRequestContextSnapshot != null) {
-            AgentRequestContext.set(agentRequestContextSnapshot);
-        } else {
-            AgentRequestContext.clear();
-        }
-    }
-
-    private void clearContextSnapshots() {
-        AgentRequestContext.clear();
-        RequestContext.clear();
-    }
 }
@@ -1,9 +1,14 @@
 package edu.zsc.ai.domain.service.db.impl;
 
+import edu.zsc.ai.config.db.DriverProperties;
 import edu.zsc.ai.domain.exception.BusinessException;
 import edu.zsc.ai.domain.model.dto.response.db.AvailableDriverResponse;
 import edu.zsc.ai.domain.model.dto.response.db.InstalledDriverResponse;
 import edu.zsc.ai.plugin.Plugin;
+import edu.zsc.ai.domain.model.entity.db.DbConnection;
+import edu.zsc.ai.domain.service.db.DbConnectionService;
+import edu.zsc.ai.plugin.driver.DriverDownloadOptions;
+import edu.zsc.ai.plugin.driver.DriverLoader;
 import edu.zsc.ai.plugin.driver.DriverStorageManager;
 import edu.zsc.ai.plugin.driver.MavenDriverDownloader;
 import edu.zsc.ai.plugin.driver.MavenMetadataClient;
@@ -12,8 +17,10 @@ import edu.zsc.ai.plugin.manager.DefaultPluginManager;
 import edu.zsc.ai.plugin.driver.MavenCoordinates;
 import edu.zsc.ai.domain.service.db.DriverService;
 import edu.zsc.ai.util.DriverFileUtil;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Files;
@@ -35,6 +42,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DriverServiceImpl implements DriverService {
 
+    private final DbConnectionService dbConnectionService;
+    private final DriverProperties driverProperties;
+
+    /**
+     * Pools built on a driver jar must be closed before the jar's class loader is, both on delete and when
+     * {@link DriverLoader} reloads a jar that changed on disk.
+     */
+    @PostConstruct
+    void registerDriverUnloadHook() {
+        DriverLoader.setBeforeUnloadHook(driverJarPath -> drainPools(Path.of(driverJarPath)));
+    }
 
     @Override
     public Path downloadDriver(String databaseType, String version) {
@@ -56,12 +74,7 @@ public class DriverServiceImpl implements DriverService {
         }
 
         DbType dbType = plugin.getDbType();
-        Path driverPath = MavenDriverDownloader.downloadDriver(
-                downloadCoordinates,
-                dbType,
-                null,  // Use default storage directory
-                null   // Use default Maven Central URL
-        );
+        Path driverPath = MavenDriverDownloader.downloadDriver(downloadCoordinates, dbType, downloadOptions());
 
         log.info("Successfully downloaded driver for database type {}: {}", databaseType, driverPath);
         return driverPath;
@@ -90,7 +103,7 @@ public class DriverServiceImpl implements DriverService {
         List<String> versions = MavenMetadataClient.queryVersions(
                 coords.getGroupId(),
                 coords.getArtifactId(),
-                null  // Use default Maven Central URL
+                downloadOptions()
         );
 
         DbType dbType = plugin.getDbType();
@@ -161,10 +174,45 @@ public class DriverServiceImpl implements DriverService {
                     "Driver not found: " + databaseType + "/" + version);
         }
 
-        // Step 3: Delete file
+        // Step 3: Drain pools using the jar, then deregister the driver and close its class loader
         Path driverFilePath = Path.of(targetDriver.getFilePath());
+        unloadDriver(driverFilePath);
+
+        // Step 4: Delete file
         DriverStorageManager.deleteDriver(driverFilePath);
         log.info("Successfully deleted driver: {}", driverFilePath);
     }
+
+    private DriverDownloadOptions downloadOptions() {
+        return DriverDownloadOptions.builder()
+                .repositoryUrl(StringUtils.trimToNull(driverProperties.getRepositoryUrl()))
+                .mirrorDirectory(StringUtils.isBlank(driverProperties.getMirrorDirectory())
+                        ? null
+                        : Path.of(driverProperties.getMirrorDirectory()))
+                .offline(driverProperties.isOffline())
+                .metadataCacheTtlMs(driverProperties.getMetadataCacheTtlMs())
+                .build();
+    }
+
+    private void unloadDriver(Path driverFilePath) {
+        Set<String> loadedJars = DriverLoader.loadedDriverJars();
+        for (String loadedJar : loadedJars) {
+            if (Path.of(loadedJar).toAbsolutePath().normalize().equals(driverFilePath.toAbsolutePath().normalize())) {
+                // Drains the pools through the unload hook before the class loader is closed
+                DriverLoader.unloadDriver(loadedJar);
+            }
+        }
+    }
+
+    private void drainPools(Path driverFilePath) {
+        List<Long> connectionIds = dbConnectionService.lambdaQuery()
+                .in(DbConnection::getDriverJarPath, driverFilePath.toString(), driverFilePath.toAbsolutePath().toString())
+                .list()
+                .stream()
+                .map(DbConnection::getId)
+                .toList();
+        connectionIds.forEach(ActiveConnectionRegistry::closeAllConnections);
+        log.info("Drained pools of {} connection(s) before unloading driver {}", connectionIds.size(), driverFilePath);
+    }
 }
 
@@ -4,20 +4,31 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import edu.zsc.ai.config.db.ConnectionPoolProperties;
 import edu.zsc.ai.domain.service.db.ManagedDataSourceFactory;
+import edu.zsc.ai.domain.service.db.support.HostConnectionLimiter;
 import edu.zsc.ai.domain.service.db.support.ManagerBackedDataSource;
 import edu.zsc.ai.plugin.capability.ConnectionManager;
 import edu.zsc.ai.plugin.connection.ConnectionConfig;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 
 @Component
-@RequiredArgsConstructor
 public class HikariManagedDataSourceFactory implements ManagedDataSourceFactory {
 
     private final ConnectionPoolProperties connectionPoolProperties;
+    private final MeterRegistry meterRegistry;
+    /** Shared by every pool this factory creates, so the per-host cap spans logical connections. */
+    private final HostConnectionLimiter hostConnectionLimiter;
+
+    public HikariManagedDataSourceFactory(ConnectionPoolProperties connectionPoolProperties, MeterRegistry meterRegistry) {
+        this.connectionPoolProperties = connectionPoolProperties;
+        this.meterRegistry = meterRegistry;
+        this.hostConnectionLimiter = new HostConnectionLimiter(
+                connectionPoolProperties.getMaxConnectionsPerHost(),
+                connectionPoolProperties.getConnectionTimeoutMs());
+    }
 
     @Override
     public DataSource create(ConnectionManager connectionManager,
@@ -25,7 +36,7 @@ public class HikariManagedDataSourceFactory implements ManagedDataSourceFactory
                              ManagedDataSourceRequest request) {
         HikariConfig hikariConfig = new HikariConfig();
         hikariConfig.setPoolName(buildPoolName(request));
-        hikariConfig.setDataSource(new ManagerBackedDataSource(connectionManager, connectionConfig));
+        hikariConfig.setDataSource(new ManagerBackedDataSource(connectionManager, connectionConfig, hostConnectionLimiter));
         hikariConfig.setMaximumPoolSize(connectionPoolProperties.getMaximumPoolSize());
         hikariConfig.setMinimumIdle(connectionPoolProperties.getMinimumIdle());
         hikariConfig.setConnectionTimeout(connectionPoolProperties.getConnectionTimeoutMs());
@@ -35,6 +46,10 @@ public class HikariManagedDataSourceFactory implements ManagedDataSourceFactory
         ));
         hikariConfig.setIdleTimeout(connectionPoolProperties.getIdleTimeoutMs());
         hikariConfig.setMaxLifetime(connectionPoolProperties.getMaxLifetimeMs());
+        // Idle connections are validated by Hikari itself; the registry no longer probes on lookup.
+        hikariConfig.setKeepaliveTime(connectionPoolProperties.getKeepaliveTimeMs());
+        // Exposes hikaricp.connections.{active,idle,pending,usage} tagged with the per-registry-entry pool name.
+        hikariConfig.setMetricRegistry(meterRegistry);
 
         HikariDataSource dataSource = new HikariDataSource(hikariConfig);
         try (Connection ignored = dataSource.getConnection()) {
@@ -0,0 +1,105 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.config.db.PluginProperties;
+import edu.zsc.ai.domain.event.PluginsReloadedEvent;
+import edu.zsc.ai.plugin.manager.DefaultPluginManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Hot reload of plugin jars from {@code db.plugin.directory}.
+ * <p>
+ * The directory is fingerprinted (file name, size, modification time) on a fixed delay; on change plugins are reloaded
+ * into a fresh class loader, cached plugin lookups are dropped and every pool is drained, so nothing keeps the previous
+ * plugin classes reachable and they can be unloaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PluginLifecycleManager {
+
+    private final PluginProperties pluginProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile List<String> lastFingerprint = List.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        watch();
+    }
+
+    @Scheduled(fixedDelayString = "${db.plugin.watch-interval-ms:30000}",
+            initialDelayString = "${db.plugin.watch-interval-ms:30000}")
+    void watch() {
+        if (pluginDirectory() == null) {
+            return;
+        }
+        try {
+            checkForChanges();
+        } catch (RuntimeException e) {
+            log.warn("Plugin reload failed, keeping the current plugins", e);
+        }
+    }
+
+    private synchronized void checkForChanges() {
+        List<String> fingerprint = fingerprint(pluginDirectory());
+        if (Objects.equals(fingerprint, lastFingerprint)) {
+            return;
+        }
+        reload();
+        lastFingerprint = fingerprint;
+    }
+
+    /**
+     * Reloads plugins now and drains every pool built on the previous plugin instances.
+     *
+     * @return ids of the plugins loaded
+     */
+    public synchronized Set<String> reload() {
+        Set<String> pluginIds = DefaultPluginManager.getInstance().reloadPlugins(pluginDirectory());
+        eventPublisher.publishEvent(new PluginsReloadedEvent(this, pluginIds));
+        int drained = ActiveConnectionRegistry.closeAll();
+        log.info("Reloaded {} plugin(s) and drained {} connection pool(s)", pluginIds.size(), drained);
+        return pluginIds;
+    }
+
+    private Path pluginDirectory() {
+        return StringUtils.isBlank(pluginProperties.getDirectory()) ? null : Path.of(pluginProperties.getDirectory());
+    }
+
+    private static List<String> fingerprint(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .map(PluginLifecycleManager::describe)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to scan plugin directory: " + directory, e);
+        }
+    }
+
+    private static String describe(Path jar) {
+        try {
+            return jar.getFileName() + ":" + Files.size(jar) + ":" + Files.getLastModifiedTime(jar).toMillis();
+        } catch (IOException e) {
+            return jar.getFileName() + ":unreadable";
+        }
+    }
+}
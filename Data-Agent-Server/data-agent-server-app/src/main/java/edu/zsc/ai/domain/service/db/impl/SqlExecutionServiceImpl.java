@@ -1,30 +1,72 @@
 package edu.zsc.ai.domain.service.db.impl;
 
+import edu.zsc.ai.async.DownstreamConcurrencyLimiter;
+import edu.zsc.ai.common.constant.AgentSpanNames;
 import edu.zsc.ai.common.converter.db.SqlExecutionConverter;
+import edu.zsc.ai.config.db.SqlBatchProperties;
+import edu.zsc.ai.context.AgentExecutionContext;
+import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.context.RequestContextInfo;
 import edu.zsc.ai.domain.model.context.DbContext;
 import edu.zsc.ai.domain.model.dto.request.db.AgentExecuteSqlRequest;
 import edu.zsc.ai.domain.model.dto.response.db.ExecuteSqlResponse;
 import edu.zsc.ai.domain.service.db.ConnectionAccessService;
 import edu.zsc.ai.domain.service.db.ConnectionService;
 import edu.zsc.ai.domain.service.db.SqlExecutionService;
+import edu.zsc.ai.metrics.AgentMetrics;
 import edu.zsc.ai.plugin.capability.CommandExecutor;
+import edu.zsc.ai.plugin.capability.SqlValidator;
 import edu.zsc.ai.plugin.manager.DefaultPluginManager;
 import edu.zsc.ai.plugin.model.command.sql.SqlCommandRequest;
 import edu.zsc.ai.plugin.model.command.sql.SqlCommandResult;
-import lombok.RequiredArgsConstructor;
+import edu.zsc.ai.tracing.AgentTracing;
+import io.micrometer.tracing.Span;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static edu.zsc.ai.config.ExecutorConfig.SHARED_EXECUTOR_BEAN_NAME;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SqlExecutionServiceImpl implements SqlExecutionService {
 
     private final ConnectionService connectionService;
     private final ConnectionAccessService connectionAccessService;
+    private final AgentMetrics agentMetrics;
+    private final AgentTracing agentTracing;
+    private final SqlResultCache sqlResultCache;
+    private final SqlBatchProperties sqlBatchProperties;
+    private final DownstreamConcurrencyLimiter downstreamConcurrencyLimiter;
+    private final Executor sharedExecutor;
+
+    public SqlExecutionServiceImpl(
+            ConnectionService connectionService,
+            ConnectionAccessService connectionAccessService,
+            AgentMetrics agentMetrics,
+            AgentTracing agentTracing,
+            SqlResultCache sqlResultCache,
+            SqlBatchProperties sqlBatchProperties,
+            DownstreamConcurrencyLimiter downstreamConcurrencyLimiter,
+            @Qualifier(SHARED_EXECUTOR_BEAN_NAME) Executor sharedExecutor) {
+        this.connectionService = connectionService;
+        this.connectionAccessService = connectionAccessService;
+        this.agentMetrics = agentMetrics;
+        this.agentTracing = agentTracing;
+        this.sqlResultCache = sqlResultCache;
+        this.sqlBatchProperties = sqlBatchProperties;
+        this.downstreamConcurrencyLimiter = downstreamConcurrencyLimiter;
+        this.sharedExecutor = sharedExecutor;
+    }
 
     @Override
     public ExecuteSqlResponse executeSql(AgentExecuteSqlRequest request) {
@@ -38,6 +80,7 @@ public class SqlExecutionServiceImpl implements SqlExecutionService {
         CommandExecutor<SqlCommandRequest, SqlCommandResult> executor = DefaultPluginManager.getInstance()
                 .getSqlCommandExecutorByPluginId(active.pluginId());
         SqlCommandResult result;
+        Span span = startSqlSpan(active, db, 1);
         try (ActiveConnectionRegistry.BorrowedConnection borrowed = active.borrowConnection()) {
             SqlCommandRequest pluginRequest = new SqlCommandRequest();
             pluginRequest.setConnection(borrowed.connection());
@@ -46,7 +89,16 @@ public class SqlExecutionServiceImpl implements SqlExecutionService {
             pluginRequest.setDatabase(db.catalog());
             pluginRequest.setSchema(db.schema());
             pluginRequest.setNeedTransaction(false);
+            pluginRequest.setStatementListener(SqlStatementRegistry.track(currentConversationId(), null));
             result = executor.executeCommand(pluginRequest);
+        } catch (RuntimeException e) {
+            agentTracing.end(span, e);
+            throw e;
+        }
+        agentTracing.end(span, null);
+        agentMetrics.recordSqlExecution(active.dbType(), result);
+        if (!isReadOnly(DefaultPluginManager.getInstance().getSqlValidatorByPluginId(active.pluginId()), sql)) {
+            sqlResultCache.invalidateConnection(db.connectionId());
         }
 
         ExecuteSqlResponse response = SqlExecutionConverter.toResponse(result);
@@ -64,40 +116,176 @@ public class SqlExecutionServiceImpl implements SqlExecutionService {
         ActiveConnectionRegistry.ActiveConnection active = ActiveConnectionRegistry.getOwnedConnection(db);
         CommandExecutor<SqlCommandRequest, SqlCommandResult> executor = DefaultPluginManager.getInstance()
                 .getSqlCommandExecutorByPluginId(active.pluginId());
+        SqlValidator validator = DefaultPluginManager.getInstance().getSqlValidatorByPluginId(active.pluginId());
+        Long conversationId = currentConversationId();
+        // Captured before any statement runs: a write finishing meanwhile makes the results read here stale.
+        long cacheGeneration = sqlResultCache.generation(db.connectionId());
 
-        List<ExecuteSqlResponse> responses = new ArrayList<>(sqls.size());
-        try (ActiveConnectionRegistry.BorrowedConnection borrowed = active.borrowConnection()) {
-            for (String sql : sqls) {
-                try {
-                    SqlCommandRequest pluginRequest = new SqlCommandRequest();
-                    pluginRequest.setConnection(borrowed.connection());
-                    pluginRequest.setOriginalSql(sql);
-                    pluginRequest.setExecuteSql(sql);
-                    pluginRequest.setDatabase(db.catalog());
-                    pluginRequest.setSchema(db.schema());
-                    pluginRequest.setNeedTransaction(false);
-
-                    SqlCommandResult result = executor.executeCommand(pluginRequest);
-
-                    ExecuteSqlResponse response = SqlExecutionConverter.toResponse(result);
-                    if (response != null) {
-                        response.setDatabaseName(db.catalog());
-                        response.setSchemaName(db.schema());
-                    }
-                    responses.add(response);
-                } catch (Exception e) {
-                    log.warn("Batch SQL execution failed for statement [{}]: {}", sql, e.getMessage());
-                    ExecuteSqlResponse errorResponse = ExecuteSqlResponse.builder()
-                            .success(false)
-                            .errorMessage(e.getMessage())
-                            .originalSql(sql)
-                            .databaseName(db.catalog())
-                            .schemaName(db.schema())
-                            .build();
-                    responses.add(errorResponse);
+        ExecuteSqlResponse[] responses = new ExecuteSqlResponse[sqls.size()];
+        boolean[] cacheable = new boolean[sqls.size()];
+        boolean write = false;
+        for (String sql : sqls) {
+            write |= !isReadOnly(validator, sql);
+        }
+        // A read after a write in the same batch must see the write, so batches containing a write bypass the cache.
+        List<Integer> pending = new ArrayList<>(sqls.size());
+        for (int i = 0; i < sqls.size(); i++) {
+            String sql = sqls.get(i);
+            cacheable[i] = !write && sqlResultCache.isCacheable(conversationId, sql);
+            if (cacheable[i]) {
+                responses[i] = sqlResultCache.get(conversationId, db, sql).orElse(null);
+                agentMetrics.recordSqlCacheLookup(responses[i] != null);
+            }
+            if (responses[i] == null) {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return Arrays.asList(responses);
+        }
+
+        int lanes = write || !sqlBatchProperties.isParallelEnabled()
+                ? 1
+                : Math.min(pending.size(), Math.max(1, sqlBatchProperties.getMaxParallelism()));
+        BatchContext batch = new BatchContext(db, sqls, active, executor, conversationId,
+                AgentExecutionContext.getTaskId(), cacheGeneration, cacheable, responses);
+        Span span = startSqlSpan(active, db, pending.size());
+        try {
+            if (lanes == 1) {
+                runLane(batch, pending);
+            } else {
+                runLanesInParallel(batch, pending, lanes);
+            }
+        } catch (RuntimeException e) {
+            agentTracing.end(span, e);
+            throw e;
+        } finally {
+            if (write) {
+                sqlResultCache.invalidateConnection(db.connectionId());
+            }
+        }
+        agentTracing.end(span, null);
+        return Arrays.asList(responses);
+    }
+
+    /**
+     * Deals pending statements round-robin onto {@code lanes} workers, each with its own pooled connection.
+     * Results land in their original slot, so the returned order matches the input regardless of finish order.
+     */
+    private void runLanesInParallel(BatchContext batch, List<Integer> pending, int lanes) {
+        List<List<Integer>> assignments = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            assignments.add(new ArrayList<>());
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            assignments.get(i % lanes).add(pending.get(i));
+        }
+
+        Long connectionId = batch.db().connectionId();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(lanes);
+        for (List<Integer> assignment : assignments) {
+            Supplier<Void> lane = () -> {
+                runLane(batch, assignment);
+                return null;
+            };
+            try {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> downstreamConcurrencyLimiter.withConnectionPermit(connectionId, lane), sharedExecutor));
+            } catch (RejectedExecutionException e) {
+                log.debug("Shared executor saturated, running SQL lane inline: connectionId={}", connectionId);
+                futures.add(CompletableFuture.completedFuture(
+                        downstreamConcurrencyLimiter.withConnectionPermit(connectionId, lane)));
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void runLane(BatchContext batch, List<Integer> indexes) {
+        try (ActiveConnectionRegistry.BorrowedConnection borrowed = batch.active().borrowConnection()) {
+            for (int index : indexes) {
+                batch.responses()[index] = executeStatement(batch, borrowed, index);
+            }
+        }
+    }
+
+    private ExecuteSqlResponse executeStatement(BatchContext batch,
+                                                ActiveConnectionRegistry.BorrowedConnection borrowed,
+                                                int index) {
+        DbContext db = batch.db();
+        String sql = batch.sqls().get(index);
+        try {
+            SqlCommandRequest pluginRequest = new SqlCommandRequest();
+            pluginRequest.setConnection(borrowed.connection());
+            pluginRequest.setOriginalSql(sql);
+            pluginRequest.setExecuteSql(sql);
+            pluginRequest.setDatabase(db.catalog());
+            pluginRequest.setSchema(db.schema());
+            pluginRequest.setNeedTransaction(false);
+            pluginRequest.setQueryTimeoutSeconds(sqlBatchProperties.getQueryTimeoutSeconds());
+            pluginRequest.setStatementListener(SqlStatementRegistry.track(batch.conversationId(), batch.taskId()));
+
+            SqlCommandResult result = batch.executor().executeCommand(pluginRequest);
+            agentMetrics.recordSqlExecution(batch.active().dbType(), result);
+
+            ExecuteSqlResponse response = SqlExecutionConverter.toResponse(result);
+            if (response != null) {
+                response.setDatabaseName(db.catalog());
+                response.setSchemaName(db.schema());
+                if (batch.cacheable()[index]) {
+                    sqlResultCache.put(batch.conversationId(), db, sql, response, batch.cacheGeneration());
                 }
             }
+            return response;
+        } catch (Exception e) {
+            log.warn("Batch SQL execution failed for statement [{}]: {}", sql, e.getMessage());
+            agentMetrics.recordSqlFailure(batch.active().dbType());
+            return ExecuteSqlResponse.builder()
+                    .success(false)
+                    .errorMessage(e.getMessage())
+                    .originalSql(sql)
+                    .databaseName(db.catalog())
+                    .schemaName(db.schema())
+                    .build();
+        }
+    }
+
+    private boolean isReadOnly(SqlValidator validator, String sql) {
+        try {
+            return validator.classifySql(sql).isReadOnly();
+        } catch (RuntimeException e) {
+            log.debug("Could not classify SQL, treating it as a write: {}", e.getMessage());
+            return false;
         }
-        return responses;
+    }
+
+    private Long currentConversationId() {
+        RequestContextInfo context = RequestContext.snapshot();
+        return context != null ? context.getConversationId() : null;
+    }
+
+    private Span startSqlSpan(ActiveConnectionRegistry.ActiveConnection active, DbContext db, int statementCount) {
+        return agentTracing.startSpan(AgentSpanNames.SQL_EXECUTE)
+                .tag(AgentSpanNames.TAG_DB_TYPE, String.valueOf(active.dbType()))
+                .tag(AgentSpanNames.TAG_CONNECTION_ID, String.valueOf(db.connectionId()))
+                .tag(AgentSpanNames.TAG_STATEMENT_COUNT, statementCount);
+    }
+
+    private record BatchContext(
+            DbContext db,
+            List<String> sqls,
+            ActiveConnectionRegistry.ActiveConnection active,
+            CommandExecutor<SqlCommandRequest, SqlCommandResult> executor,
+            Long conversationId,
+            String taskId,
+            long cacheGeneration,
+            boolean[] cacheable,
+            ExecuteSqlResponse[] responses) {
     }
 }
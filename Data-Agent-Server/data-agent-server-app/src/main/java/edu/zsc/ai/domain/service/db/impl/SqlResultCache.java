@@ -0,0 +1,240 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.config.db.SqlResultCacheProperties;
+import edu.zsc.ai.domain.event.ConversationDeletedEvent;
+import edu.zsc.ai.domain.model.context.DbContext;
+import edu.zsc.ai.domain.model.dto.response.db.ExecuteSqlResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Short-lived, conversation-scoped cache of successful read-only agent SQL results.
+ * <p>
+ * Entries are keyed by connection, catalog, schema and the SQL with whitespace outside quotes collapsed, expire after
+ * {@code db.result-cache.ttl-seconds}, and are dropped for every conversation as soon as a write runs on the same
+ * connection. Every such write bumps the connection's generation, and a result read under an older generation is not
+ * stored, so a SELECT that overlapped a write cannot repopulate the cache. A conversation's entries are dropped when
+ * it is deleted. Statements calling obviously
+ * non-deterministic functions (NOW(), RAND(), ...) are never cached.
+ * Callers receive a shallow copy, so the shared row lists must be treated as read-only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlResultCache {
+
+    private static final Pattern NON_DETERMINISTIC = Pattern.compile(
+            "\\b(now|rand|random|uuid|sysdate|sysdatetime|getdate|current_timestamp|current_time|current_date"
+                    + "|localtimestamp|localtime|nextval|last_insert_id|row_count|found_rows|sleep)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final SqlResultCacheProperties properties;
+
+    /** Guarded by itself; access-ordered so the least recently used conversation is evicted first. */
+    private final LinkedHashMap<Long, LinkedHashMap<CacheKey, CacheEntry>> conversations =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Guarded by {@link #conversations}; bumped by every {@link #invalidateConnection(Long)}. */
+    private final Map<Long, Long> connectionGenerations = new HashMap<>();
+
+    public boolean isCacheable(Long conversationId, String sql) {
+        return properties.isEnabled()
+                && conversationId != null
+                && StringUtils.isNotBlank(sql)
+                && !NON_DETERMINISTIC.matcher(sql).find();
+    }
+
+    public Optional<ExecuteSqlResponse> get(Long conversationId, DbContext db, String sql) {
+        CacheKey key = CacheKey.of(db, sql);
+        synchronized (conversations) {
+            LinkedHashMap<CacheKey, CacheEntry> entries = conversations.get(conversationId);
+            if (entries == null) {
+                return Optional.empty();
+            }
+            CacheEntry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.response().toBuilder().originalSql(sql).build());
+        }
+    }
+
+    /**
+     * Current write generation of the connection; capture it before running a statement and pass it to
+     * {@link #put(Long, DbContext, String, ExecuteSqlResponse, long)}.
+     */
+    public long generation(Long connectionId) {
+        synchronized (conversations) {
+            return connectionGenerations.getOrDefault(connectionId, 0L);
+        }
+    }
+
+    /**
+     * Stores a result read at the connection's current generation.
+     */
+    public void put(Long conversationId, DbContext db, String sql, ExecuteSqlResponse response) {
+        put(conversationId, db, sql, response, generation(db.connectionId()));
+    }
+
+    /**
+     * Stores a result unless a write invalidated the connection since {@code generation} was captured.
+     */
+    public void put(Long conversationId, DbContext db, String sql, ExecuteSqlResponse response, long generation) {
+        if (response == null || !response.isSuccess() || rowCount(response) > properties.getMaxRowsPerEntry()) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + properties.getTtlSeconds() * 1000L;
+        ExecuteSqlResponse stored = response.toBuilder().build();
+        synchronized (conversations) {
+            if (connectionGenerations.getOrDefault(db.connectionId(), 0L) != generation) {
+                log.debug("Skipped caching SQL result read before a write on connectionId={}", db.connectionId());
+                return;
+            }
+            LinkedHashMap<CacheKey, CacheEntry> entries = conversations.computeIfAbsent(conversationId,
+                    ignored -> new LinkedHashMap<>(16, 0.75f, true));
+            entries.put(CacheKey.of(db, sql), new CacheEntry(stored, expiresAt));
+            trim(entries.entrySet().iterator(), entries.size() - Math.max(1, properties.getMaxEntriesPerConversation()));
+            trim(conversations.entrySet().iterator(), conversations.size() - Math.max(1, properties.getMaxConversations()));
+        }
+    }
+
+    /**
+     * Drops every cached result of the connection, across all conversations.
+     */
+    public void invalidateConnection(Long connectionId) {
+        if (!properties.isEnabled() || connectionId == null) {
+            return;
+        }
+        int removed = 0;
+        synchronized (conversations) {
+            connectionGenerations.merge(connectionId, 1L, Long::sum);
+            Iterator<LinkedHashMap<CacheKey, CacheEntry>> conversationIterator = conversations.values().iterator();
+            while (conversationIterator.hasNext()) {
+                LinkedHashMap<CacheKey, CacheEntry> entries = conversationIterator.next();
+                Iterator<CacheKey> keyIterator = entries.keySet().iterator();
+                while (keyIterator.hasNext()) {
+                    if (Objects.equals(keyIterator.next().connectionId(), connectionId)) {
+                        keyIterator.remove();
+                        removed++;
+                    }
+                }
+                if (entries.isEmpty()) {
+                    conversationIterator.remove();
+                }
+            }
+        }
+        if (removed > 0) {
+            log.debug("Invalidated {} cached SQL results after write on connectionId={}", removed, connectionId);
+        }
+    }
+
+    @EventListener
+    public void onConversationDeleted(ConversationDeletedEvent event) {
+        invalidateConversation(event.getConversationId());
+    }
+
+    public void invalidateConversation(Long conversationId) {
+        if (conversationId == null) {
+            return;
+        }
+        synchronized (conversations) {
+            conversations.remove(conversationId);
+        }
+    }
+
+    private static void trim(Iterator<?> eldestFirst, int excess) {
+        for (int i = 0; i < excess && eldestFirst.hasNext(); i++) {
+            eldestFirst.next();
+            eldestFirst.remove();
+        }
+    }
+
+    private static int rowCount(ExecuteSqlResponse response) {
+        if (response.getResultSet() != null && response.getResultSet().getRows() != null) {
+            return response.getResultSet().getRows().size();
+        }
+        return response.getRows() != null ? response.getRows().size() : 0;
+    }
+
+    /**
+     * Collapses whitespace outside quoted literals and identifiers and drops trailing semicolons. Statements with
+     * comments or backslashes inside quotes keep their whitespace as written, since where those end depends on the
+     * dialect and guessing wrong could give two different statements one key.
+     */
+    static String normalizeSql(String sql) {
+        String normalized = collapseUnquotedWhitespace(sql.strip());
+        while (normalized.endsWith(";")) {
+            normalized = normalized.substring(0, normalized.length() - 1).stripTrailing();
+        }
+        return normalized;
+    }
+
+    private static String collapseUnquotedWhitespace(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    return sql;
+                }
+                if (c == quote) {
+                    quote = 0;
+                }
+                out.append(c);
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (startsComment(sql, i)) {
+                return sql;
+            }
+            if (pendingSpace && !out.isEmpty()) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+            if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            }
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    private static boolean startsComment(String sql, int i) {
+        char c = sql.charAt(i);
+        if (c == '#') {
+            return true;
+        }
+        char next = i + 1 < sql.length() ? sql.charAt(i + 1) : 0;
+        return (c == '-' && next == '-') || (c == '/' && next == '*');
+    }
+
+    private record CacheKey(Long connectionId, String catalog, String schema, String sql) {
+
+        static CacheKey of(DbContext db, String sql) {
+            return new CacheKey(db.connectionId(), db.catalog(), db.schema(), normalizeSql(sql));
+        }
+    }
+
+    private record CacheEntry(ExecuteSqlResponse response, long expiresAt) {
+    }
+}
@@ -0,0 +1,110 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.plugin.model.command.sql.StatementListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-flight JDBC statements started on behalf of a conversation or a background / sub-agent task.
+ * <p>
+ * Statements register themselves through the {@link StatementListener} handed to the plugin executor, so the chat
+ * stream (client disconnect), a sub-agent (timeout / interrupt) or {@code AsyncTaskManager.cancel} can call
+ * {@link Statement#cancel()} from another thread and release the pooled connection early.
+ */
+@Slf4j
+public final class SqlStatementRegistry {
+
+    private static final Set<InFlightStatement> IN_FLIGHT = ConcurrentHashMap.newKeySet();
+
+    private SqlStatementRegistry() {
+    }
+
+    /**
+     * Listener that tracks the statement under the given owner while it runs. Either id may be null.
+     */
+    public static StatementListener track(Long conversationId, String taskId) {
+        return new StatementListener() {
+            private InFlightStatement entry;
+
+            @Override
+            public void onStatementStart(Statement statement) {
+                entry = new InFlightStatement(conversationId, taskId, statement);
+                IN_FLIGHT.add(entry);
+            }
+
+            @Override
+            public void onStatementEnd(Statement statement) {
+                if (entry != null) {
+                    IN_FLIGHT.remove(entry);
+                }
+            }
+        };
+    }
+
+    /**
+     * Cancels every statement of the conversation, including those run by its sub-agents.
+     *
+     * @return number of statements a cancel was sent to
+     */
+    public static int cancelConversation(Long conversationId) {
+        if (conversationId == null) {
+            return 0;
+        }
+        return cancelMatching(entry -> Objects.equals(entry.conversationId(), conversationId),
+                "conversationId=" + conversationId);
+    }
+
+    /**
+     * Cancels every statement started by a sub-agent task or async task.
+     *
+     * @return number of statements a cancel was sent to
+     */
+    public static int cancelTask(String taskId) {
+        if (taskId == null) {
+            return 0;
+        }
+        return cancelMatching(entry -> Objects.equals(entry.taskId(), taskId), "taskId=" + taskId);
+    }
+
+    public static int inFlightCount() {
+        return IN_FLIGHT.size();
+    }
+
+    private static int cancelMatching(Predicate<InFlightStatement> filter, String owner) {
+        int cancelled = 0;
+        for (InFlightStatement entry : IN_FLIGHT) {
+            if (!filter.test(entry) || !IN_FLIGHT.remove(entry)) {
+                continue;
+            }
+            try {
+                entry.statement().cancel();
+                cancelled++;
+            } catch (SQLException e) {
+                log.warn("Failed to cancel running statement, {}: {}", owner, e.getMessage());
+            }
+        }
+        if (cancelled > 0) {
+            log.info("Cancelled {} running SQL statement(s), {}", cancelled, owner);
+        }
+        return cancelled;
+    }
+
+    private record InFlightStatement(Long conversationId, String taskId, Statement statement) {
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package edu.zsc.ai.domain.service.db.support;
+
+import edu.zsc.ai.plugin.connection.ConnectionConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of physical connections opened against one target host across every pool.
+ * <p>
+ * A permit is taken before the plugin opens a physical connection and released when that connection is closed or
+ * aborted, so several logical connections pointing at the same server share one budget.
+ */
+@Slf4j
+public final class HostConnectionLimiter {
+
+    private final int maxConnectionsPerHost;
+    private final long acquireTimeoutMs;
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxConnectionsPerHost maximum physical connections per host and port; {@code <= 0} disables the cap
+     * @param acquireTimeoutMs      how long opening a connection may wait for a permit
+     */
+    public HostConnectionLimiter(int maxConnectionsPerHost, long acquireTimeoutMs) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.acquireTimeoutMs = Math.max(0L, acquireTimeoutMs);
+    }
+
+    public Connection open(ConnectionConfig config, Supplier<Connection> connector) throws SQLException {
+        if (maxConnectionsPerHost <= 0) {
+            return connector.get();
+        }
+        String hostKey = hostKey(config);
+        Semaphore permits = permitsByHost.computeIfAbsent(hostKey, ignored -> new Semaphore(maxConnectionsPerHost));
+        acquire(permits, hostKey);
+        Connection connection;
+        try {
+            connection = connector.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        if (connection == null) {
+            permits.release();
+            return null;
+        }
+        return releasingOnClose(connection, permits);
+    }
+
+    public int inUse(ConnectionConfig config) {
+        Semaphore permits = permitsByHost.get(hostKey(config));
+        return permits == null ? 0 : maxConnectionsPerHost - permits.availablePermits();
+    }
+
+    private void acquire(Semaphore permits, String hostKey) throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Per-host connection cap reached: host={}, max={}", hostKey, maxConnectionsPerHost);
+                throw new SQLTransientConnectionException(
+                        "Connection limit of " + maxConnectionsPerHost + " reached for host " + hostKey);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection to " + hostKey, e);
+        }
+    }
+
+    private static Connection releasingOnClose(Connection connection, Semaphore permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> invoke(proxy, connection, method, args, permits, released));
+    }
+
+    private static Object invoke(Object proxy,
+                                 Connection connection,
+                                 Method method,
+                                 Object[] args,
+                                 Semaphore permits,
+                                 AtomicBoolean released) throws Throwable {
+        String name = method.getName();
+        if ("equals".equals(name) && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (("close".equals(name) || "abort".equals(name)) && released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private static String hostKey(ConnectionConfig config) {
+        String host = config.getHost() != null ? config.getHost().toLowerCase(Locale.ROOT) : "localhost";
+        return config.getPort() != null ? host + ":" + config.getPort() : host;
+    }
+}
@@ -20,23 +20,41 @@ public final class ManagerBackedDataSource implements DataSource {
 
     private final ConnectionManager connectionManager;
     private final ConnectionConfig baseConfig;
+    private final HostConnectionLimiter hostConnectionLimiter;
 
     public ManagerBackedDataSource(ConnectionManager connectionManager, ConnectionConfig baseConfig) {
+        this(connectionManager, baseConfig, null);
+    }
+
+    /**
+     * @param hostConnectionLimiter optional per-host cap on physical connections; {@code null} means unlimited
+     */
+    public ManagerBackedDataSource(ConnectionManager connectionManager,
+                                   ConnectionConfig baseConfig,
+                                   HostConnectionLimiter hostConnectionLimiter) {
         this.connectionManager = Objects.requireNonNull(connectionManager, "connectionManager");
         this.baseConfig = copy(baseConfig);
+        this.hostConnectionLimiter = hostConnectionLimiter;
     }
 
     @Override
-    public Connection getConnection() {
-        return connectionManager.connect(copy(baseConfig));
+    public Connection getConnection() throws SQLException {
+        return connect(copy(baseConfig));
     }
 
     @Override
-    public Connection getConnection(String username, String password) {
+    public Connection getConnection(String username, String password) throws SQLException {
         ConnectionConfig config = copy(baseConfig);
         config.setUsername(username);
         config.setPassword(password);
-        return connectionManager.connect(config);
+        return connect(config);
+    }
+
+    private Connection connect(ConnectionConfig config) throws SQLException {
+        if (hostConnectionLimiter == null) {
+            return connectionManager.connect(config);
+        }
+        return hostConnectionLimiter.open(config, () -> connectionManager.connect(config));
     }
 
     @Override
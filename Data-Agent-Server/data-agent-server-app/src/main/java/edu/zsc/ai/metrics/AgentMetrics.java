@@ -0,0 +1,172 @@
+package edu.zsc.ai.metrics;
+
+import edu.zsc.ai.common.constant.AgentMetricNames;
+import edu.zsc.ai.plugin.model.command.sql.SqlCommandResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single entry point for agent, tool, SQL and memory hot-path metrics.
+ * Meters are registered lazily by name + tags; Micrometer returns the existing meter on repeated lookups.
+ */
+@Component
+@RequiredArgsConstructor
+public class AgentMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Time from turn start until the first streamed token (text, thinking or tool call) of a model.
+     */
+    public void recordTimeToFirstToken(String modelName, long elapsedMs) {
+        timer(AgentMetricNames.CHAT_FIRST_TOKEN, "Time to first streamed token per model",
+                AgentMetricNames.TAG_MODEL, normalize(modelName))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * One phase of turn preparation before the model is called. Together with {@link #recordTimeToFirstToken} this
+     * breaks time to first token down into agent lookup, conversation creation, connection listing, memory context
+     * and the model's own latency.
+     */
+    public void recordPreparePhase(String phase, String outcome, long elapsedMs) {
+        timer(AgentMetricNames.CHAT_PREPARE_PHASE, "Chat turn preparation time per phase",
+                AgentMetricNames.TAG_PHASE, normalize(phase),
+                AgentMetricNames.TAG_OUTCOME, normalize(outcome))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordChatTurn(String modelName, boolean success, long elapsedMs, int toolCount, Integer outputTokens) {
+        String model = normalize(modelName);
+        timer(AgentMetricNames.CHAT_TURN, "End-to-end chat turn duration",
+                AgentMetricNames.TAG_MODEL, model,
+                AgentMetricNames.TAG_OUTCOME, outcome(success))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+        if (!success) {
+            return;
+        }
+        DistributionSummary.builder(AgentMetricNames.CHAT_TOOL_CALLS)
+                .description("Tool invocations per completed chat turn")
+                .tag(AgentMetricNames.TAG_MODEL, model)
+                .register(meterRegistry)
+                .record(toolCount);
+        if (outputTokens != null && outputTokens > 0) {
+            DistributionSummary.builder(AgentMetricNames.CHAT_OUTPUT_TOKENS)
+                    .description("Output tokens per completed chat turn")
+                    .baseUnit("tokens")
+                    .tag(AgentMetricNames.TAG_MODEL, model)
+                    .register(meterRegistry)
+                    .record(outputTokens);
+        }
+    }
+
+    /**
+     * Per-tool latency; failure rate is derived from the {@code outcome} tag.
+     */
+    public void recordToolInvocation(String toolName, boolean success, long elapsedMs) {
+        timer(AgentMetricNames.TOOL_INVOCATION, "Agent tool invocation latency",
+                AgentMetricNames.TAG_TOOL, normalize(toolName),
+                AgentMetricNames.TAG_OUTCOME, outcome(success))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Splits plugin-reported SQL timings into server execute time and client fetch time.
+     */
+    public void recordSqlExecution(String dbType, SqlCommandResult result) {
+        if (result == null) {
+            recordSqlFailure(dbType);
+            return;
+        }
+        String type = normalize(dbType);
+        String outcome = outcome(result.isSuccess());
+        if (result.getExecutionMs() != null) {
+            timer(AgentMetricNames.SQL_EXECUTE, "Target database statement execution time",
+                    AgentMetricNames.TAG_DB_TYPE, type,
+                    AgentMetricNames.TAG_OUTCOME, outcome)
+                    .record(result.getExecutionMs(), TimeUnit.MILLISECONDS);
+        }
+        if (result.getFetchingMs() != null) {
+            timer(AgentMetricNames.SQL_FETCH, "Result set fetch time",
+                    AgentMetricNames.TAG_DB_TYPE, type,
+                    AgentMetricNames.TAG_OUTCOME, outcome)
+                    .record(result.getFetchingMs(), TimeUnit.MILLISECONDS);
+        }
+        if (!result.isSuccess()) {
+            recordSqlFailure(dbType);
+        }
+    }
+
+    public void recordSqlFailure(String dbType) {
+        Counter.builder(AgentMetricNames.SQL_FAILURES)
+                .description("SQL statements that failed or threw before returning a result")
+                .tag(AgentMetricNames.TAG_DB_TYPE, normalize(dbType))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordSqlCacheLookup(boolean hit) {
+        Counter.builder(AgentMetricNames.SQL_CACHE)
+                .description("Conversation-scoped read-only SQL result cache lookups")
+                .tag(AgentMetricNames.TAG_OUTCOME, hit ? AgentMetricNames.OUTCOME_HIT : AgentMetricNames.OUTCOME_MISS)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordEmbedding(String operation, long elapsedMs) {
+        timer(AgentMetricNames.MEMORY_EMBEDDING, "Remote embedding model call latency",
+                AgentMetricNames.TAG_OPERATION, normalize(operation))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordVectorSearch(String operation, long elapsedMs) {
+        timer(AgentMetricNames.MEMORY_VECTOR_SEARCH, "pgvector similarity search latency",
+                AgentMetricNames.TAG_OPERATION, normalize(operation))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordCompression(String modelName, boolean success, long elapsedMs) {
+        timer(AgentMetricNames.MEMORY_COMPRESSION, "Chat memory compression (summarization) duration",
+                AgentMetricNames.TAG_MODEL, normalize(modelName),
+                AgentMetricNames.TAG_OUTCOME, outcome(success))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Time an explorer task spent in the fair-share queue before a worker picked it up.
+     */
+    public void recordSubAgentQueueWait(long elapsedMs) {
+        timer(AgentMetricNames.SUB_AGENT_QUEUE_WAIT, "Sub-agent task wait time before dispatch")
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordSubAgentCancelled(boolean running) {
+        Counter.builder(AgentMetricNames.SUB_AGENT_CANCELLED)
+                .description("Sub-agent tasks cancelled after the dispatching tool gave up")
+                .tag(AgentMetricNames.TAG_STAGE, running ? AgentMetricNames.STAGE_RUNNING : AgentMetricNames.STAGE_QUEUED)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private String outcome(boolean success) {
+        return success ? AgentMetricNames.OUTCOME_SUCCESS : AgentMetricNames.OUTCOME_FAILURE;
+    }
+
+    private String normalize(String value) {
+        return StringUtils.defaultIfBlank(value, AgentMetricNames.UNKNOWN);
+    }
+}
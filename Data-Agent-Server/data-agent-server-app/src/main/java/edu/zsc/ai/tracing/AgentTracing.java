@@ -0,0 +1,101 @@
+package edu.zsc.ai.tracing;
+
+import edu.zsc.ai.common.constant.AgentSpanNames;
+import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.context.RequestContextInfo;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single entry point for agent trace spans.
+ * <p>
+ * A chat turn span is kept per conversation because LangChain4j runs tools on its own threads, where no span is in
+ * scope; {@link #startSpan(String)} falls back to that turn span through {@link RequestContext#getConversationId()}.
+ * Work handed to executors keeps its parent through {@link #wrap(Runnable)}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AgentTracing {
+
+    private final Tracer tracer;
+    private final Map<Long, Span> turnSpans = new ConcurrentHashMap<>();
+
+    public Span startTurn(Long conversationId, String modelName, String agentMode) {
+        Span span = tracer.nextSpan(null)
+                .name(AgentSpanNames.CHAT_TURN)
+                .tag(AgentSpanNames.TAG_CONVERSATION_ID, String.valueOf(conversationId))
+                .tag(AgentSpanNames.TAG_MODEL, StringUtils.defaultString(modelName))
+                .tag(AgentSpanNames.TAG_AGENT_MODE, StringUtils.defaultString(agentMode))
+                .start();
+        if (conversationId != null) {
+            Span previous = turnSpans.put(conversationId, span);
+            if (previous != null) {
+                previous.end();
+            }
+        }
+        return span;
+    }
+
+    public void endTurn(Long conversationId, int toolCount, Throwable error) {
+        Span span = conversationId != null ? turnSpans.remove(conversationId) : null;
+        if (span == null) {
+            return;
+        }
+        span.tag(AgentSpanNames.TAG_TOOL_COUNT, toolCount);
+        end(span, error);
+    }
+
+    /**
+     * Starts a child of the span in scope, or of the current conversation's turn span when nothing is in scope.
+     * The caller must {@link #activate(Span)} it if nested work should attach to it, and always {@link #end} it.
+     */
+    public Span startSpan(String name) {
+        Span parent = tracer.currentSpan();
+        if (parent == null) {
+            parent = currentTurnSpan();
+        }
+        return tracer.nextSpan(parent).name(name).start();
+    }
+
+    public Tracer.SpanInScope activate(Span span) {
+        return tracer.withSpan(span);
+    }
+
+    public void end(Span span, Throwable error) {
+        if (span == null) {
+            return;
+        }
+        if (error != null) {
+            span.error(error);
+        }
+        span.end();
+    }
+
+    /**
+     * Captures the span in scope on the submitting thread and re-activates it on the worker thread.
+     * Used as a {@code TaskDecorator} for Spring executors and as an {@code execute} hook for plain JDK pools.
+     */
+    public Runnable wrap(Runnable task) {
+        Span parent = tracer.currentSpan();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            try (Tracer.SpanInScope ignored = tracer.withSpan(parent)) {
+                task.run();
+            }
+        };
+    }
+
+    private Span currentTurnSpan() {
+        RequestContextInfo context = RequestContext.snapshot();
+        Long conversationId = context != null ? context.getConversationId() : null;
+        return conversationId != null ? turnSpans.get(conversationId) : null;
+    }
+}
@@ -0,0 +1,55 @@
+package edu.zsc.ai.tracing;
+
+import edu.zsc.ai.common.constant.AgentRuntimeLoggerNames;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes finished spans to the agent runtime log so a slow turn can be inspected without a collector.
+ * Spring Boot registers every {@link SpanExporter} bean next to the OTLP exporter (enabled by
+ * {@code management.otlp.tracing.endpoint}).
+ */
+@Component
+public class RuntimeLogSpanExporter implements SpanExporter {
+
+    private static final Logger runtimeLog = LoggerFactory.getLogger(AgentRuntimeLoggerNames.TRACE);
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (!runtimeLog.isInfoEnabled()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        for (SpanData span : spans) {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+            runtimeLog.info("span name={} traceId={} spanId={} parentSpanId={} durationMs={} status={} attributes={}",
+                    span.getName(),
+                    span.getTraceId(),
+                    span.getSpanId(),
+                    span.getParentSpanId(),
+                    TimeUnit.NANOSECONDS.toMillis(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                    span.getStatus().getStatusCode(),
+                    attributes);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,103 @@
+package edu.zsc.ai.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a file, or the single byte range asked for in the {@code Range} header, to a servlet response.
+ * <p>
+ * When the container supports sendfile (Tomcat NIO/NIO2), the transfer is handed to it so the kernel copies the file
+ * straight to the socket. Otherwise the body is written with {@link FileChannel#transferTo}. Multi-range requests
+ * are answered with the whole file.
+ */
+public final class FileRangeTransferUtil {
+
+    static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private FileRangeTransferUtil() {
+    }
+
+    /**
+     * Sets status, {@code Accept-Ranges}, {@code Content-Range} and {@code Content-Length}, then writes the body.
+     * Content type and disposition are left to the caller and must be set before calling.
+     */
+    public static void transfer(Path path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = Files.size(path);
+        long start = 0L;
+        long end = length - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                }
+            } catch (IllegalArgumentException e) {
+                rejectRange(response, length);
+                return;
+            }
+            if (ranges.size() == 1) {
+                // HttpRange does not check a byte range's first position against the length.
+                if (start >= length || start > end) {
+                    rejectRange(response, length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = length == 0 ? 0L : end - start + 1;
+        response.setContentLengthLong(count);
+        if (count == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            // Tomcat's end offset is exclusive.
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+        response.flushBuffer();
+    }
+
+    private static void rejectRange(HttpServletResponse response, long length) throws IOException {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+}
@@ -0,0 +1,28 @@
+-- Recall indexes for the pgvector memory store. MemoryEmbeddingIndexManager builds the same indexes concurrently
+-- at startup (memory.vector-store.manage-indexes); on large tables prefer letting it do so, since the plain
+-- CREATE INDEX statements below block writes while they run.
+-- The table itself is created by the application (EmbeddingStoreConfig) with a vector column sized from
+-- ai.embedding.dimension, so this script never fixes the dimension. If the application has not started against
+-- this database yet, the script does nothing and the index manager builds the indexes once the table exists.
+DO $$
+BEGIN
+    IF to_regclass('ai_memory_embedding') IS NULL THEN
+        RETURN;
+    END IF;
+
+    -- Casts match the pgvector metadata filter: Long -> bigint, Integer -> int, String -> text.
+    CREATE INDEX IF NOT EXISTS ai_memory_embedding_recall_filter_idx
+        ON ai_memory_embedding (
+            ((metadata->>'userId')::bigint),
+            ((metadata->>'enable')::int),
+            (metadata->>'scope'),
+            (metadata->>'memoryType')
+        );
+
+    CREATE INDEX IF NOT EXISTS ai_memory_embedding_hnsw_m16_efc64
+        ON ai_memory_embedding USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64);
+
+    -- Superseded by the HNSW index above.
+    DROP INDEX IF EXISTS ai_memory_embedding_ivfflat_index;
+END
+$$;
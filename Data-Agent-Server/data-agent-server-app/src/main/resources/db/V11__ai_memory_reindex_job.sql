@@ -0,0 +1,15 @@
+-- Checkpoint of the bulk memory re-embedding job, one row per embedding model and dimension.
+CREATE TABLE IF NOT EXISTS ai_memory_reindex_job (
+    job_key VARCHAR(255) PRIMARY KEY,
+    model_name VARCHAR(128) NOT NULL,
+    dimension INTEGER NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    last_memory_id BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    embedded_count BIGINT NOT NULL DEFAULT 0,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMP
+);
@@ -0,0 +1,11 @@
+-- Browse recall reads USER memories and the current conversation's CONVERSATION memories as two ordered top-K
+-- scans; these indexes match their equality columns followed by the ORDER BY, so each scan stops after LIMIT rows.
+CREATE INDEX IF NOT EXISTS idx_ai_memory_browse_user
+    ON ai_memory (user_id, enable, scope, access_count DESC, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_ai_memory_browse_conversation
+    ON ai_memory (user_id, enable, conversation_id, scope, access_count DESC, updated_at DESC, id DESC);
+
+-- Keyset paging of enabled memory summaries: ORDER BY updated_at DESC, id DESC after a (updated_at, id) cursor.
+CREATE INDEX IF NOT EXISTS idx_ai_memory_user_enable_updated
+    ON ai_memory (user_id, enable, updated_at DESC, id DESC);
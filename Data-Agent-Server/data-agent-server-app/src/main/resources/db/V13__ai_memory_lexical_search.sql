@@ -0,0 +1,18 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Lexical recall prefilter. The 'simple' configuration neither stems nor drops stop words, so mixed-language memories
+-- are tokenised the same way as the query terms built in MemoryLexicalQuery.
+ALTER TABLE ai_memory
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple', COALESCE(title, '')), 'A')
+                || setweight(to_tsvector('simple', content), 'B')
+        ) STORED;
+
+COMMENT ON COLUMN ai_memory.search_vector IS 'Full-text vector of title (weight A) and content (weight B) for lexical recall';
+
+CREATE INDEX IF NOT EXISTS idx_ai_memory_search_vector
+    ON ai_memory USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_ai_memory_title_trgm
+    ON ai_memory USING gin (title gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- First rows of the export as shown in the chat, so a file looked up after a restart or on another node still has it.
+ALTER TABLE ai_export_file
+    ADD COLUMN IF NOT EXISTS preview TEXT;
+
+COMMENT ON COLUMN ai_export_file.preview IS 'JSON preview of the exported rows, null when the format has none';
@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS ai_export_file (
+    file_id VARCHAR(64) PRIMARY KEY,
+    owner_user_id BIGINT NOT NULL,
+    conversation_id BIGINT,
+    format VARCHAR(16) NOT NULL,
+    mime_type VARCHAR(128),
+    filename VARCHAR(255) NOT NULL,
+    size_bytes BIGINT NOT NULL DEFAULT 0,
+    row_count INTEGER,
+    column_count INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_export_file_created_at
+    ON ai_export_file (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_ai_export_file_owner_user_id
+    ON ai_export_file (owner_user_id);
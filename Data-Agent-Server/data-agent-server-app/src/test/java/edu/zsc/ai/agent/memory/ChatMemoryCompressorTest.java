@@ -119,6 +119,61 @@ class ChatMemoryCompressorTest {
         verify(eventPublisher).publishEvent(any());
     }
 
+    @Test
+    void compressIfNeeded_addsTokensAppendedSinceTheProviderReportToTheReportedCount() {
+        Long conversationId = 416L;
+        when(aiConversationService.getById(conversationId)).thenReturn(AiConversation.builder()
+                .id(conversationId)
+                .tokenCount(200000)
+                .build());
+        when(compressionService.compress(any())).thenReturn(new CompressionResult(
+                "## Active Context\n- compressed",
+                4821,
+                1350
+        ));
+        List<ChatMessage> messages = List.of(
+                UserMessage.from("u1"),
+                UserMessage.from("u2"),
+                UserMessage.from("u3"),
+                UserMessage.from("u4")
+        );
+
+        // A local total above the threshold alone must not trigger: the report already covers those messages.
+        assertEquals(messages, compressor.compressIfNeeded(conversationId, "qwen3-max-2026-01-23", messages,
+                new ChatMemoryCompressor.ContextTokenCount(300000, 1500)));
+        verify(compressionService, never()).compress(any());
+
+        List<ChatMessage> result = compressor.compressIfNeeded(conversationId, "qwen3-max-2026-01-23", messages,
+                new ChatMemoryCompressor.ContextTokenCount(300000, 40000));
+
+        assertEquals(2, result.size());
+        assertEquals(240000, compressor.consumeDoneMetadata(conversationId).get("tokenCountBefore"));
+    }
+
+    @Test
+    void compressIfNeeded_usesTheLocalTotalBeforeTheFirstProviderReport() {
+        Long conversationId = 417L;
+        when(aiConversationService.getById(conversationId)).thenReturn(AiConversation.builder()
+                .id(conversationId)
+                .build());
+        when(compressionService.compress(any())).thenReturn(new CompressionResult(
+                "## Active Context\n- compressed",
+                4821,
+                1350
+        ));
+        List<ChatMessage> messages = List.of(
+                UserMessage.from("u1"),
+                UserMessage.from("u2"),
+                UserMessage.from("u3"),
+                UserMessage.from("u4")
+        );
+
+        List<ChatMessage> result = compressor.compressIfNeeded(conversationId, "qwen3-max-2026-01-23", messages,
+                new ChatMemoryCompressor.ContextTokenCount(240000, 2000));
+
+        assertEquals(2, result.size());
+    }
+
     @Test
     void compressNow_replacesConversationMessagesAndReturnsCompressionStats() {
         Long conversationId = 512L;
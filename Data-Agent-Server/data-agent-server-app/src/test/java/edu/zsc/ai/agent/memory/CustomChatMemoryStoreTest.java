@@ -1,8 +1,10 @@
 package edu.zsc.ai.agent.memory;
 
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
 import dev.langchain4j.data.message.UserMessage;
 import org.junit.jupiter.api.Test;
 
@@ -70,6 +72,24 @@ class CustomChatMemoryStoreTest {
         assertEquals(false, CustomChatMemoryStore.shouldPersistRuntimeMessage(SystemMessage.from("runtime prompt")));
     }
 
+    @Test
+    void contextTokenCount_countsFromTheLatestUserMessageAsUnreported() {
+        List<ChatMessage> messages = List.of(
+                compactionContext("old history"),
+                UserMessage.from("u1"),
+                AiMessage.from("a1"),
+                UserMessage.from("u2"),
+                AiMessage.from(ToolExecutionRequest.builder().id("1").name("executeSelectSql").arguments("{}").build()),
+                ToolExecutionResultMessage.from("1", "executeSelectSql", "{\"rows\":[]}")
+        );
+
+        ChatMemoryCompressor.ContextTokenCount count = CustomChatMemoryStore.contextTokenCount(
+                messages, new int[]{100, 10, 20, 30, 40, 5000});
+
+        assertEquals(5200, count.total());
+        assertEquals(5070, count.unreported());
+    }
+
     private static ChatMessage compactionContext(String body) {
         return SystemMessage.from(CompactionContextSupport.buildContinuationMessage(body, true, true));
     }
@@ -0,0 +1,136 @@
+package edu.zsc.ai.agent.subagent;
+
+import edu.zsc.ai.config.ai.SubAgentProperties;
+import edu.zsc.ai.context.RequestContextTaskDecorator;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubAgentSchedulerTest {
+
+    private ExecutorService executorService;
+    private SubAgentScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        SubAgentProperties properties = new SubAgentProperties();
+        properties.getExplorer().getDispatch().setMaxConcurrency(1);
+        executorService = Executors.newFixedThreadPool(2);
+        scheduler = new SubAgentScheduler(
+                executorService,
+                properties,
+                new RequestContextTaskDecorator(new AgentTracing(Tracer.NOOP)),
+                new AgentMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void submit_servesWaitingUserBeforeBusyUsersBacklog() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<String> startOrder = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> first = scheduler.submit(1L, 10L, () -> {
+            startOrder.add("u1-a");
+            await(gate);
+            return "u1-a";
+        });
+        CompletableFuture<String> second = scheduler.submit(1L, 10L, record(startOrder, "u1-b"));
+        CompletableFuture<String> third = scheduler.submit(1L, 10L, record(startOrder, "u1-c"));
+        CompletableFuture<String> other = scheduler.submit(2L, 20L, record(startOrder, "u2-a"));
+
+        assertEquals(3, scheduler.getQueuedCount());
+        gate.countDown();
+        CompletableFuture.allOf(first, second, third, other).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("u1-a", "u2-a", "u1-b", "u1-c"), startOrder);
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(0, scheduler.getRunningCount());
+    }
+
+    @Test
+    void cancel_dropsQueuedTaskWithoutRunningIt() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<String> startOrder = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> running = scheduler.submit(1L, 10L, () -> {
+            await(gate);
+            return "running";
+        });
+        CompletableFuture<String> queued = scheduler.submit(2L, 20L, record(startOrder, "queued"));
+
+        assertTrue(queued.cancel(true));
+        assertEquals(0, scheduler.getQueuedCount());
+        gate.countDown();
+
+        assertEquals("running", running.get(5, TimeUnit.SECONDS));
+        assertTrue(startOrder.isEmpty());
+    }
+
+    @Test
+    void cancel_releasesSlotOfDispatchedTaskTheExecutorNeverStarted() throws Exception {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            SubAgentProperties properties = new SubAgentProperties();
+            properties.getExplorer().getDispatch().setMaxConcurrency(1);
+            properties.getExplorer().getDispatch().setMaxPerUser(1);
+            SubAgentScheduler singleThreadScheduler = new SubAgentScheduler(
+                    singleThread,
+                    properties,
+                    new RequestContextTaskDecorator(new AgentTracing(Tracer.NOOP)),
+                    new AgentMetrics(new SimpleMeterRegistry()));
+            CountDownLatch blocker = new CountDownLatch(1);
+            singleThread.submit(() -> await(blocker));
+            List<String> startOrder = new CopyOnWriteArrayList<>();
+
+            CompletableFuture<String> dispatched = singleThreadScheduler.submit(1L, 10L, record(startOrder, "cancelled"));
+            assertEquals(1, singleThreadScheduler.getRunningCount());
+
+            assertTrue(dispatched.cancel(true));
+            assertEquals(0, singleThreadScheduler.getRunningCount());
+
+            CompletableFuture<String> next = singleThreadScheduler.submit(1L, 10L, record(startOrder, "next"));
+            assertEquals(0, singleThreadScheduler.getQueuedCount());
+            blocker.countDown();
+
+            assertEquals("next", next.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of("next"), startOrder);
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    private static Supplier<String> record(List<String> startOrder, String name) {
+        return () -> {
+            startOrder.add(name);
+            return name;
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
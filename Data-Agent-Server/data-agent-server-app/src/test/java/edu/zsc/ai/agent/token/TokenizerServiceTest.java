@@ -0,0 +1,78 @@
+package edu.zsc.ai.agent.token;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import edu.zsc.ai.config.ai.TokenizerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenizerServiceTest {
+
+    @Test
+    void bpeCounter_mergesByLowestRankWithinEachPiece() throws Exception {
+        String vocab = String.join("\n",
+                line("a", 0), line("b", 1), line("c", 2), line(" ", 3),
+                line("ab", 4), line("abc", 5), line("bc", 6), line(" c", 7));
+        BpeTokenCounter counter = BpeTokenCounter.load(
+                new ByteArrayInputStream(vocab.getBytes(StandardCharsets.UTF_8)),
+                new TokenizerProperties().getSplitPattern());
+
+        assertEquals(8, counter.vocabularySize());
+        // "abc" is a whole vocabulary entry
+        assertEquals(1, counter.countTokens("abc"));
+        // "cab": ab (rank 4) merges first, c-ab has no rank
+        assertEquals(2, counter.countTokens("cab"));
+        // split into "abc" and " c"
+        assertEquals(2, counter.countTokens("abc c"));
+        // unknown bytes stay single tokens
+        assertEquals(3, counter.countTokens("xyz"));
+        assertEquals(0, counter.countTokens(""));
+    }
+
+    @Test
+    void estimator_countsCjkPerCharacterAndRunsByLength() {
+        ScriptAwareTokenEstimator estimator = new ScriptAwareTokenEstimator();
+
+        assertEquals(6, estimator.countTokens("查询订单数据"));
+        assertEquals(2, estimator.countTokens("SELECT"));
+        assertEquals(6, estimator.countTokens("select * from t;"));
+        // punctuation runs such as {" and ":" merge like BPE pairs instead of costing a token per symbol
+        assertEquals(11, estimator.countTokens("{\"id\":1,\"name\":\"Alice\"}"));
+        assertEquals(4, estimator.countTokens("1234567890"));
+        assertTrue(estimator.countTokens("统计最近七天的订单") > "统计最近七天的订单".length() / 4);
+    }
+
+    @Test
+    void countMessage_includesToolCallsAndMessageOverhead() {
+        TokenizerProperties properties = new TokenizerProperties();
+        properties.setMessageOverheadTokens(4);
+        TokenizerService service = new TokenizerService(properties);
+
+        ChatMessage toolCall = AiMessage.from(ToolExecutionRequest.builder()
+                .id("1")
+                .name("executeSql")
+                .arguments("{\"sql\":\"select 1\"}")
+                .build());
+        ChatMessage reasoning = AiMessage.builder().text("好的").thinking("先查询订单表再汇总").build();
+
+        assertEquals(4 + 2, service.countMessage(UserMessage.from("你好")));
+        assertTrue(service.countMessage(toolCall) > 4 + service.countText("executeSql"));
+        // reasoning is not sent back with the history
+        assertEquals(4 + 2, service.countMessage(reasoning));
+        assertEquals(service.countMessage(UserMessage.from("你好")) + service.countMessage(toolCall),
+                service.countMessages(List.of(UserMessage.from("你好"), toolCall)));
+    }
+
+    private static String line(String token, int rank) {
+        return Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)) + " " + rank;
+    }
+}
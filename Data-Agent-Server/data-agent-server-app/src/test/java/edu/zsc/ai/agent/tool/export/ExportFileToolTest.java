@@ -5,24 +5,32 @@ import edu.zsc.ai.agent.tool.export.model.ExportRowInput;
 import edu.zsc.ai.agent.tool.model.AgentToolResult;
 import edu.zsc.ai.context.RequestContext;
 import edu.zsc.ai.context.RequestContextInfo;
+import edu.zsc.ai.async.TaskStatus;
 import edu.zsc.ai.domain.service.ai.export.FileExportService;
+import edu.zsc.ai.domain.service.ai.export.QueryExportService;
+import edu.zsc.ai.domain.service.ai.export.model.ExportTaskPayload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFilePayload;
+import edu.zsc.ai.domain.service.ai.export.model.QueryExportRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ExportFileToolTest {
 
     private final FileExportService exportFileService = mock(FileExportService.class);
-    private final ExportFileTool tool = new ExportFileTool(exportFileService);
+    private final QueryExportService queryExportService = mock(QueryExportService.class);
+    private final ExportFileTool tool = new ExportFileTool(exportFileService, queryExportService);
 
     @AfterEach
     void tearDown() {
@@ -66,4 +74,37 @@ class ExportFileToolTest {
         assertTrue(result.getMessage().contains("文件卡片就是本轮最终答案"));
         assertTrue(result.getMessage().contains("不要在工具调用后输出任何描述"));
     }
+
+    @Test
+    void exportQueryResultSubmitsBackgroundTaskWithoutRows() {
+        RequestContext.set(RequestContextInfo.builder()
+                .userId(42L)
+                .conversationId(7L)
+                .build());
+        when(queryExportService.submit(any())).thenReturn(ExportTaskPayload.builder()
+                .taskId("export-1")
+                .status(TaskStatus.PENDING)
+                .format("XLSX")
+                .statusPath("/api/ai/files/tasks/export-1")
+                .build());
+
+        AgentToolResult result = tool.exportQueryResult(
+                "xlsx",
+                3L,
+                "shop",
+                null,
+                "SELECT * FROM orders",
+                InvocationParameters.from(Map.of())
+        );
+
+        ArgumentCaptor<QueryExportRequest> request = ArgumentCaptor.forClass(QueryExportRequest.class);
+        verify(queryExportService).submit(request.capture());
+        assertEquals(3L, request.getValue().getConnectionId());
+        assertEquals("shop", request.getValue().getCatalog());
+        assertEquals("SELECT * FROM orders", request.getValue().getSql());
+        assertEquals(42L, request.getValue().getUserId());
+        assertEquals(7L, request.getValue().getConversationId());
+        assertTrue(result.isSuccess());
+        assertTrue(String.valueOf(result.getResult()).contains("/api/ai/files/tasks/export-1"));
+    }
 }
@@ -1,6 +1,7 @@
 package edu.zsc.ai.agent.tool.orchestrator;
 
 import edu.zsc.ai.agent.subagent.SubAgentRequest;
+import edu.zsc.ai.agent.subagent.SubAgentScheduler;
 import edu.zsc.ai.agent.subagent.contract.*;
 import edu.zsc.ai.agent.subagent.explorer.ExplorerSubAgent;
 import edu.zsc.ai.agent.subagent.planner.PlannerSubAgent;
@@ -8,14 +9,20 @@ import edu.zsc.ai.agent.tool.error.AgentToolExecuteException;
 import edu.zsc.ai.config.ai.SubAgentManager;
 import edu.zsc.ai.config.ai.SubAgentProperties;
 import edu.zsc.ai.agent.tool.model.AgentToolResult;
+import edu.zsc.ai.async.DownstreamConcurrencyLimiter;
+import edu.zsc.ai.config.ExecutorProperties;
+import edu.zsc.ai.context.RequestContextTaskDecorator;
 import edu.zsc.ai.domain.service.db.ConnectionAccessService;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
 import edu.zsc.ai.util.JsonUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
-import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -29,7 +36,6 @@ class CallingExplorerToolTest {
     private ExplorerSubAgent mockExplorer;
     private CallingExplorerTool tool;
     private ExecutorService executorService;
-    private Executor explorerExecutor;
     private ConnectionAccessService connectionAccessService;
 
     @BeforeEach
@@ -39,10 +45,13 @@ class CallingExplorerToolTest {
         SubAgentProperties properties = new SubAgentProperties();
         SubAgentManager subAgentManager = new SubAgentManager(mockExplorer, mockPlanner, properties);
         executorService = Executors.newFixedThreadPool(3);
-        explorerExecutor = executorService;
+        AgentTracing agentTracing = new AgentTracing(Tracer.NOOP);
+        SubAgentScheduler subAgentScheduler = new SubAgentScheduler(executorService, properties,
+                new RequestContextTaskDecorator(agentTracing), new AgentMetrics(new SimpleMeterRegistry()));
         connectionAccessService = mock(ConnectionAccessService.class);
         doNothing().when(connectionAccessService).assertReadable(anyLong());
-        tool = new CallingExplorerTool(subAgentManager, explorerExecutor, connectionAccessService);
+        tool = new CallingExplorerTool(subAgentManager, subAgentScheduler, connectionAccessService,
+                agentTracing, new DownstreamConcurrencyLimiter(new ExecutorProperties()));
     }
 
     @AfterEach
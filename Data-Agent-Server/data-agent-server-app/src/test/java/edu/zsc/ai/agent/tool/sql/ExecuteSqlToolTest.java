@@ -1,6 +1,7 @@
 package edu.zsc.ai.agent.tool.sql;
 
 import dev.langchain4j.invocation.InvocationParameters;
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.agent.tool.error.AgentToolExecuteException;
 import edu.zsc.ai.agent.tool.sql.approval.WriteExecutionApprovalStore;
 import edu.zsc.ai.agent.tool.sql.model.AgentSqlResult;
@@ -8,6 +9,7 @@ import edu.zsc.ai.agent.tool.sql.model.ExecuteNonSelectToolResult;
 import edu.zsc.ai.agent.tool.sql.model.WriteExecutionGrantOption;
 import edu.zsc.ai.common.enums.permission.PermissionGrantPreset;
 import edu.zsc.ai.common.enums.permission.PermissionScopeType;
+import edu.zsc.ai.config.ai.TokenizerProperties;
 import edu.zsc.ai.context.RequestContext;
 import edu.zsc.ai.context.RequestContextInfo;
 import edu.zsc.ai.domain.model.context.DbContext;
@@ -38,8 +40,10 @@ class ExecuteSqlToolTest {
     private final PermissionRuleService permissionRuleService = mock(PermissionRuleService.class);
     private final WriteExecutionApprovalStore writeExecutionApprovalStore = new WriteExecutionApprovalStore();
     private final ConnectionAccessService connectionAccessService = mock(ConnectionAccessService.class);
+    private final TokenizerProperties tokenizerProperties = new TokenizerProperties();
     private final ExecuteSqlTool tool = new ExecuteSqlTool(
-            sqlExecutionService, permissionRuleService, writeExecutionApprovalStore, connectionAccessService);
+            sqlExecutionService, permissionRuleService, writeExecutionApprovalStore, connectionAccessService,
+            new TokenizerService(tokenizerProperties), tokenizerProperties);
 
     @AfterEach
     void tearDown() {
@@ -180,6 +184,37 @@ class ExecuteSqlToolTest {
         verify(sqlExecutionService).executeBatchSql(eq(new DbContext(5L, "sales", "public")), eq(List.of("DELETE FROM orders WHERE id = 1")));
     }
 
+    @Test
+    void executeNonSelectSql_cutsReturnedRowsToTheToolResultTokenBudget() {
+        RequestContext.set(RequestContextInfo.builder()
+                .userId(7L)
+                .conversationId(42L)
+                .build());
+        when(permissionRuleService.matchesEnabledRule(5L, "sales", "public")).thenReturn(true);
+        when(sqlExecutionService.executeBatchSql(any(), any())).thenReturn(List.of(
+                ExecuteSqlResponse.builder()
+                        .success(true)
+                        .query(true)
+                        .headers(List.of("name", "id"))
+                        .rows(List.of(List.of("Alice", 1), List.of("Bob", 2), List.of("Carol", 3)))
+                        .build()
+        ));
+        // ["Alice",1] estimates at 6 tokens and ["Bob",2] at 5, so the third row does not fit.
+        tokenizerProperties.setToolResultMaxTokens(13);
+
+        ExecuteNonSelectToolResult result = tool.executeNonSelectSql(
+                5L,
+                "sales",
+                "public",
+                List.of("DELETE FROM orders RETURNING name, id"),
+                InvocationParameters.from(Map.of())
+        );
+
+        AgentSqlResult resultSet = result.getExecution().getResults().get(0);
+        assertEquals(List.of(List.of("Alice", 1), List.of("Bob", 2)), resultSet.getRows());
+        assertTrue(resultSet.getTruncated());
+    }
+
     @Test
     void executeNonSelectSql_requiresConfirmationWhenApprovalDoesNotMatchExactScope() {
         RequestContext.set(RequestContextInfo.builder()
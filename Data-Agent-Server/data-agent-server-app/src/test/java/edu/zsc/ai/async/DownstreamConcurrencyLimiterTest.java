@@ -0,0 +1,56 @@
+package edu.zsc.ai.async;
+
+import edu.zsc.ai.config.ExecutorProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamConcurrencyLimiterTest {
+
+    private DownstreamConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        ExecutorProperties properties = new ExecutorProperties();
+        properties.getLimits().setPerConnection(1);
+        properties.getLimits().setPerModel(1);
+        properties.getLimits().setPerModelBackground(1);
+        properties.getLimits().setAcquireTimeoutMs(10);
+        limiter = new DownstreamConcurrencyLimiter(properties);
+    }
+
+    @Test
+    void withConnectionPermit_rejectsWhenConnectionIsSaturated() {
+        assertThrows(RejectedExecutionException.class, () ->
+                limiter.withConnectionPermit(1L, () -> limiter.withConnectionPermit(1L, () -> "nested")));
+    }
+
+    @Test
+    void withConnectionPermit_limitsEachConnectionIndependently() {
+        String result = limiter.withConnectionPermit(1L, () -> limiter.withConnectionPermit(2L, () -> "ok"));
+
+        assertEquals("ok", result);
+    }
+
+    @Test
+    void withModelPermit_releasesPermitWhenWorkFails() {
+        assertThrows(IllegalStateException.class, () -> limiter.withModelPermit("qwen", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", limiter.withModelPermit("qwen", () -> "ok"));
+    }
+
+    @Test
+    void withBackgroundModelPermit_doesNotDrawFromTheForegroundBudget() {
+        String result = limiter.withBackgroundModelPermit("qwen",
+                () -> limiter.withModelPermit("qwen", () -> "ok"));
+
+        assertEquals("ok", result);
+        assertThrows(RejectedExecutionException.class, () -> limiter.withBackgroundModelPermit("qwen",
+                () -> limiter.withBackgroundModelPermit("qwen", () -> "nested")));
+    }
+}
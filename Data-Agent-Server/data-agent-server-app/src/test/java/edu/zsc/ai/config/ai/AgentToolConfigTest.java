@@ -75,9 +75,9 @@ class AgentToolConfigTest {
         getSchemasTool = new GetSchemasTool(null);
         searchObjectsTool = new SearchObjectsTool(null);
         getObjectDetailTool = new GetObjectDetailTool(null);
-        executeSqlTool = new ExecuteSqlTool(null, null, null, null);
+        executeSqlTool = new ExecuteSqlTool(null, null, null, null, null, null);
         askUserQuestionTool = new AskUserQuestionTool();
-        callingExplorerTool = new CallingExplorerTool(null, null, null);
+        callingExplorerTool = new CallingExplorerTool(null, null, null, null, null);
         callingPlannerTool = new CallingPlannerTool(null, null);
         todoTool = new TodoTool();
         exitPlanModeTool = new ExitPlanModeTool();
@@ -85,7 +85,7 @@ class AgentToolConfigTest {
         chartTool = new ChartTool();
         readMemoryTool = new ReadMemoryTool(null, null);
         updateMemoryTool = new UpdateMemoryTool(null);
-        exportFileTool = new ExportFileTool(null);
+        exportFileTool = new ExportFileTool(null, null);
         thinkingTool = new ThinkingTool();
 
         allTools = List.of(
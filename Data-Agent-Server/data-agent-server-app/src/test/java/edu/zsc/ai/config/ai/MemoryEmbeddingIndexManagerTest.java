@@ -0,0 +1,86 @@
+package edu.zsc.ai.config.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MemoryEmbeddingIndexManager — index plan from the existing indexes to the configured layout.
+ */
+class MemoryEmbeddingIndexManagerTest {
+
+    @Test
+    void plan_freshTable_createsMetadataAndHnswIndexes() {
+        MemoryProperties.VectorStore config = new MemoryProperties.VectorStore();
+
+        List<String> statements = MemoryEmbeddingIndexManager.plan(config, Map.of());
+
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).contains("ai_memory_embedding_recall_filter_idx"));
+        assertTrue(statements.get(0).contains("((metadata->>'userId')::bigint)"));
+        assertTrue(statements.get(0).contains("((metadata->>'enable')::int)"));
+        assertEquals("CREATE INDEX CONCURRENTLY IF NOT EXISTS ai_memory_embedding_hnsw_m16_efc64 ON ai_memory_embedding"
+                + " USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64)", statements.get(1));
+    }
+
+    @Test
+    void plan_legacyIvfflat_buildsHnswBeforeDroppingOldIndex() {
+        MemoryProperties.VectorStore config = new MemoryProperties.VectorStore();
+        Map<String, Boolean> existing = new LinkedHashMap<>();
+        existing.put("ai_memory_embedding_pkey", true);
+        existing.put("ai_memory_embedding_ivfflat_index", true);
+        existing.put(MemoryEmbeddingIndexManager.METADATA_INDEX_NAME, true);
+
+        List<String> statements = MemoryEmbeddingIndexManager.plan(config, existing);
+
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS ai_memory_embedding_hnsw_m16_efc64"));
+        assertEquals("DROP INDEX CONCURRENTLY IF EXISTS ai_memory_embedding_ivfflat_index", statements.get(1));
+    }
+
+    @Test
+    void plan_changedHnswParameters_replacesIndex() {
+        MemoryProperties.VectorStore config = new MemoryProperties.VectorStore();
+        config.setHnswM(32);
+        Map<String, Boolean> existing = new LinkedHashMap<>();
+        existing.put(MemoryEmbeddingIndexManager.METADATA_INDEX_NAME, true);
+        existing.put("ai_memory_embedding_hnsw_m16_efc64", true);
+
+        List<String> statements = MemoryEmbeddingIndexManager.plan(config, existing);
+
+        assertEquals(List.of(
+                MemoryEmbeddingIndexManager.vectorIndexDdl(config),
+                "DROP INDEX CONCURRENTLY IF EXISTS ai_memory_embedding_hnsw_m16_efc64"), statements);
+        assertTrue(statements.get(0).contains("ai_memory_embedding_hnsw_m32_efc64"));
+    }
+
+    @Test
+    void plan_invalidIndex_isDroppedAndRebuilt() {
+        MemoryProperties.VectorStore config = new MemoryProperties.VectorStore();
+        Map<String, Boolean> existing = new LinkedHashMap<>();
+        existing.put(MemoryEmbeddingIndexManager.METADATA_INDEX_NAME, true);
+        existing.put("ai_memory_embedding_hnsw_m16_efc64", false);
+
+        List<String> statements = MemoryEmbeddingIndexManager.plan(config, existing);
+
+        assertEquals(List.of(
+                "DROP INDEX CONCURRENTLY IF EXISTS ai_memory_embedding_hnsw_m16_efc64",
+                MemoryEmbeddingIndexManager.vectorIndexDdl(config)), statements);
+    }
+
+    @Test
+    void plan_upToDate_isEmpty() {
+        MemoryProperties.VectorStore config = new MemoryProperties.VectorStore();
+        config.setIndexType(MemoryProperties.VectorIndexType.IVFFLAT);
+        config.setMetadataIndexEnabled(false);
+
+        List<String> statements = MemoryEmbeddingIndexManager.plan(config,
+                Map.of("ai_memory_embedding_ivfflat_lists100", true));
+
+        assertTrue(statements.isEmpty());
+    }
+}
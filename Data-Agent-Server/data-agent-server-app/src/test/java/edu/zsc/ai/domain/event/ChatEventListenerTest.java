@@ -1,11 +1,8 @@
 package edu.zsc.ai.domain.event;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,12 +35,13 @@ class ChatEventListenerTest {
     private ChatEventListener listener;
 
     @Test
-    void onChatCompleted_updatesTokensAndPublishesAutoWriteRequest() {
+    void onChatCompleted_recordsUsageOnConversationOnlyAndPublishesAutoWriteRequest() {
         ChatCompletedEvent event = new ChatCompletedEvent(this, 88L, 32, 120);
 
         listener.onChatCompleted(event);
 
-        verify(aiMessageService).updateLastAiMessageTokenCount(88L, 32);
+        // Message rows keep their local tokenizer counts.
+        verifyNoInteractions(aiMessageService);
         verify(aiConversationService).updateTokenCount(88L, 120);
 
         ArgumentCaptor<ConversationMemoryAutoWriteRequestedEvent> captor =
@@ -58,7 +56,6 @@ class ChatEventListenerTest {
 
         listener.onChatCompleted(event);
 
-        verify(aiMessageService, never()).updateLastAiMessageTokenCount(anyLong(), anyInt());
         verify(aiConversationService).updateTokenCount(88L, null);
 
         ArgumentCaptor<ConversationMemoryAutoWriteRequestedEvent> captor =
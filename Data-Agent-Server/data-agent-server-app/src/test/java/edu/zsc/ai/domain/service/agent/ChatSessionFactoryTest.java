@@ -0,0 +1,111 @@
+package edu.zsc.ai.domain.service.agent;
+
+import edu.zsc.ai.agent.PreparedReActAgent;
+import edu.zsc.ai.agent.ReActAgent;
+import edu.zsc.ai.agent.ReActAgentProvider;
+import edu.zsc.ai.api.model.request.ChatRequest;
+import edu.zsc.ai.config.ai.AiModelCatalog;
+import edu.zsc.ai.config.ai.AiModelProperties;
+import edu.zsc.ai.context.AgentRequestContext;
+import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.context.RequestContextInfo;
+import edu.zsc.ai.context.RequestContextTaskDecorator;
+import edu.zsc.ai.domain.model.dto.response.db.ConnectionResponse;
+import edu.zsc.ai.domain.model.entity.ai.AiConversation;
+import edu.zsc.ai.domain.service.ai.AiConversationService;
+import edu.zsc.ai.domain.service.db.DbConnectionService;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatSessionFactoryTest {
+
+    private static final Long USER_ID = 7L;
+    private static final String MODEL = "qwen3-max";
+
+    private final ReActAgentProvider reActAgentProvider = mock(ReActAgentProvider.class);
+    private final AiConversationService aiConversationService = mock(AiConversationService.class);
+    private final DbConnectionService dbConnectionService = mock(DbConnectionService.class);
+    private final AiModelCatalog aiModelCatalog = mock(AiModelCatalog.class);
+    private ThreadPoolTaskExecutor sharedExecutor;
+
+    @BeforeEach
+    void setUp() {
+        RequestContext.set(RequestContextInfo.builder().userId(USER_ID).build());
+        AiModelProperties.ModelDefinition model = new AiModelProperties.ModelDefinition();
+        model.setModelName(MODEL);
+        when(aiModelCatalog.resolve(any())).thenReturn(model);
+        when(reActAgentProvider.getAgent(anyString(), any(), anyString()))
+                .thenReturn(new PreparedReActAgent(mock(ReActAgent.class), "system prompt", null));
+
+        sharedExecutor = new ThreadPoolTaskExecutor();
+        sharedExecutor.setCorePoolSize(2);
+        sharedExecutor.setThreadNamePrefix("session-test-");
+        sharedExecutor.setTaskDecorator(new RequestContextTaskDecorator(new AgentTracing(Tracer.NOOP)));
+        sharedExecutor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sharedExecutor.shutdown();
+        RequestContext.clear();
+        AgentRequestContext.clear();
+    }
+
+    @Test
+    void create_listsConnectionsOnWorkerWhileAgentAndConversationAreSetUp() {
+        CountDownLatch conversationCreated = new CountDownLatch(1);
+        when(aiConversationService.createConversation(USER_ID, "show revenue")).thenAnswer(invocation -> {
+            conversationCreated.countDown();
+            return AiConversation.builder().id(99L).build();
+        });
+        Map<String, Object> seenByListing = new ConcurrentHashMap<>();
+        when(dbConnectionService.getAllConnections()).thenAnswer(invocation -> {
+            // Only returns true if the conversation is created while the listing is still running.
+            seenByListing.put("overlapped", conversationCreated.await(5, TimeUnit.SECONDS));
+            seenByListing.put("thread", Thread.currentThread());
+            seenByListing.put("userId", RequestContext.getUserId());
+            seenByListing.put("modelName", AgentRequestContext.getModelName());
+            return List.of(ConnectionResponse.builder().id(5L).name("sales").dbType("mysql").build());
+        });
+        ChatRequest request = new ChatRequest();
+        request.setMessage("show revenue");
+
+        ChatSession session = factory().create(request);
+
+        assertEquals(99L, session.conversationId());
+        assertEquals(Boolean.TRUE, seenByListing.get("overlapped"));
+        assertNotEquals(Thread.currentThread(), seenByListing.get("thread"));
+        assertEquals(USER_ID, seenByListing.get("userId"));
+        assertEquals(MODEL, seenByListing.get("modelName"));
+        assertEquals(MODEL, session.agentRequestContextSnapshot().getModelName());
+    }
+
+    private ChatSessionFactory factory() {
+        return new ChatSessionFactory(
+                reActAgentProvider,
+                aiConversationService,
+                dbConnectionService,
+                aiModelCatalog,
+                new AgentMetrics(new SimpleMeterRegistry()),
+                sharedExecutor);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.zsc.ai.domain.service.agent;
+
+import dev.langchain4j.invocation.InvocationParameters;
+import dev.langchain4j.service.TokenStream;
+import edu.zsc.ai.agent.ReActAgent;
+import edu.zsc.ai.agent.memory.ChatMemoryCompressor;
+import edu.zsc.ai.agent.tool.AgentToolTracker;
+import edu.zsc.ai.common.enums.ai.AgentModeEnum;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.Disposable;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatStreamBridgeTest {
+
+    private static final Long CONVERSATION_ID = 301L;
+
+    private final SseEmitterRegistry sseEmitterRegistry = mock(SseEmitterRegistry.class);
+    private final AgentTracing agentTracing = mock(AgentTracing.class);
+    private final ReActAgent agent = mock(ReActAgent.class);
+    private final ChatStreamBridge bridge = new ChatStreamBridge(
+            sseEmitterRegistry,
+            mock(ApplicationEventPublisher.class),
+            mock(ChatMemoryCompressor.class),
+            new AgentMetrics(new SimpleMeterRegistry()),
+            agentTracing);
+
+    @Test
+    void bridge_endsTurnWhenChatFailsToStart() {
+        IllegalStateException failure = new IllegalStateException("agent unavailable");
+        when(agent.chat(any(), any(), any())).thenThrow(failure);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> bridge.bridge(session(), new AgentToolTracker()));
+
+        assertSame(failure, thrown);
+        verify(agentTracing).endTurn(CONVERSATION_ID, 0, failure);
+        verify(sseEmitterRegistry).unregister(CONVERSATION_ID);
+    }
+
+    @Test
+    void bridge_endsTurnWhenClientCancelsTheStream() {
+        when(agent.chat(any(), any(), any())).thenReturn(mock(TokenStream.class));
+
+        Disposable subscription = bridge.bridge(session(), new AgentToolTracker()).subscribe();
+        verify(agentTracing, never()).endTurn(eq(CONVERSATION_ID), eq(0), any());
+
+        subscription.dispose();
+
+        verify(agentTracing).endTurn(eq(CONVERSATION_ID), eq(0), isNull());
+    }
+
+    private ChatSession session() {
+        return new ChatSession("qwen3-max", AgentModeEnum.AGENT, agent, "7:" + CONVERSATION_ID, "hello",
+                InvocationParameters.from(Map.of()), CONVERSATION_ID, null, null);
+    }
+}
@@ -9,9 +9,11 @@ import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.api.model.request.ChatUserMention;
 import edu.zsc.ai.common.constant.MemoryRecallLogConstant;
 import edu.zsc.ai.config.ai.PromptConfig;
+import edu.zsc.ai.config.ai.TokenizerProperties;
 import edu.zsc.ai.domain.service.agent.prompt.PromptRenderResult;
 import edu.zsc.ai.domain.service.agent.runtimecontext.strategy.DurableFactsStrategy;
 import edu.zsc.ai.domain.service.agent.runtimecontext.strategy.ExplicitReferencesStrategy;
@@ -264,6 +266,7 @@ class RuntimeContextManagerTest {
                 new DurableFactsStrategy()));
         RuntimeContextManager manager = new RuntimeContextManager(
                 incompleteChain,
+                new TokenizerService(new TokenizerProperties()),
                 PromptConfig.loadClassPathResource(RuntimeContextManager.TEMPLATE_PATH));
 
         RuntimeContextAssemblyContext context = RuntimeContextAssemblyContext.builder()
@@ -312,6 +315,7 @@ class RuntimeContextManagerTest {
                 new ExplicitReferencesStrategy()));
         return new RuntimeContextManager(
                 chain,
+                new TokenizerService(new TokenizerProperties()),
                 PromptConfig.loadClassPathResource(RuntimeContextManager.TEMPLATE_PATH));
     }
 }
@@ -7,7 +7,9 @@ import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import edu.zsc.ai.agent.token.TokenizerService;
 import edu.zsc.ai.common.constant.SkillPromptTagConstant;
+import edu.zsc.ai.config.ai.TokenizerProperties;
 import edu.zsc.ai.common.enums.ai.AgentModeEnum;
 import edu.zsc.ai.common.enums.ai.AgentTypeEnum;
 import edu.zsc.ai.common.enums.ai.PromptEnum;
@@ -24,7 +26,7 @@ class SystemPromptManagerTest {
             new AgentModeSystemPromptStrategy(),
             new SkillAvailableSystemPromptStrategy(),
             new ToolUsageRulesSystemPromptStrategy()
-    )));
+    )), new TokenizerService(new TokenizerProperties()));
 
     @Test
     void mainAgentPrompt_hasNoMemoryToolHintsWithoutMemorySkillBlock() {
@@ -0,0 +1,72 @@
+package edu.zsc.ai.domain.service.ai.access;
+
+import edu.zsc.ai.config.ai.MemoryProperties;
+import edu.zsc.ai.domain.mapper.ai.AiMemoryMapper;
+import edu.zsc.ai.domain.service.ai.model.MemoryAccessDelta;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemoryAccessBufferTest {
+
+    private final AiMemoryMapper memoryMapper = mock(AiMemoryMapper.class);
+    private final MemoryProperties memoryProperties = new MemoryProperties();
+    private final MemoryAccessBuffer buffer = new MemoryAccessBuffer(memoryMapper, memoryProperties);
+
+    @Test
+    void record_aggregatesAccessesUntilFlush() {
+        when(memoryMapper.incrementAccessStats(anyList())).thenReturn(2);
+
+        assertEquals(2, buffer.record(42L, Arrays.asList(1L, 2L, 1L, null)));
+        buffer.record(42L, List.of(1L));
+
+        verify(memoryMapper, never()).incrementAccessStats(anyList());
+        assertEquals(2, buffer.pendingCount());
+
+        assertEquals(2, buffer.flush());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MemoryAccessDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(memoryMapper).incrementAccessStats(captor.capture());
+        List<MemoryAccessDelta> deltas = captor.getValue().stream()
+                .sorted(Comparator.comparing(MemoryAccessDelta::getMemoryId))
+                .toList();
+        assertEquals(2, deltas.get(0).getIncrement());
+        assertEquals(1, deltas.get(1).getIncrement());
+        assertEquals(42L, deltas.get(0).getUserId());
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void flush_splitsIntoBatchesAndKeepsDeltasOnFailure() {
+        memoryProperties.getAccess().setMaxBatchSize(2);
+        when(memoryMapper.incrementAccessStats(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        buffer.record(42L, List.of(1L, 2L, 3L));
+
+        assertEquals(0, buffer.flush());
+        verify(memoryMapper, times(2)).incrementAccessStats(anyList());
+        assertEquals(3, buffer.pendingCount());
+    }
+
+    @Test
+    void record_writesThroughWhenWriteBehindIsDisabled() {
+        memoryProperties.getAccess().setWriteBehindEnabled(false);
+
+        buffer.record(42L, List.of(7L));
+
+        verify(memoryMapper).incrementAccessStats(anyList());
+        assertEquals(0, buffer.pendingCount());
+    }
+}
@@ -0,0 +1,228 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import edu.zsc.ai.async.AsyncTaskManager;
+import edu.zsc.ai.async.TaskStatus;
+import edu.zsc.ai.common.enums.ai.MemoryEnableEnum;
+import edu.zsc.ai.config.ai.AiEmbeddingProperties;
+import edu.zsc.ai.config.ai.MemoryProperties;
+import edu.zsc.ai.domain.mapper.ai.AiMemoryMapper;
+import edu.zsc.ai.domain.mapper.ai.AiMemoryReindexJobMapper;
+import edu.zsc.ai.domain.model.entity.ai.AiMemory;
+import edu.zsc.ai.domain.model.entity.ai.AiMemoryReindexJob;
+import edu.zsc.ai.metrics.AgentMetrics;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemoryReindexServiceTest {
+
+    private final AiMemoryMapper memoryMapper = mock(AiMemoryMapper.class);
+    private final AiMemoryReindexJobMapper jobMapper = mock(AiMemoryReindexJobMapper.class);
+    @SuppressWarnings("unchecked")
+    private final EmbeddingStore<TextSegment> embeddingStore = mock(EmbeddingStore.class);
+    @SuppressWarnings("unchecked")
+    private final EmbeddingStore<TextSegment> shadowStore = mock(EmbeddingStore.class);
+    private final MemoryEmbeddingShadowTable shadowTable = mock(MemoryEmbeddingShadowTable.class);
+    private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+    private final AiEmbeddingProperties embeddingProperties = new AiEmbeddingProperties();
+    private final MemoryProperties memoryProperties = new MemoryProperties();
+    private final AsyncTaskManager asyncTaskManager = mock(AsyncTaskManager.class);
+    private final MemoryEmbeddingTarget embeddingTarget = new MemoryEmbeddingTarget();
+    private MemoryReindexService service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), AiMemory.class);
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), AiMemoryReindexJob.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        embeddingProperties.setDimension(2);
+        memoryProperties.getReindex().setBatchSize(1);
+        memoryProperties.getReindex().setMaxRequestsPerSecond(0);
+        when(shadowTable.create(anyString(), anyInt())).thenReturn(shadowStore);
+        when(shadowTable.open(anyInt())).thenReturn(shadowStore);
+        service = new MemoryReindexService(memoryMapper, jobMapper, embeddingStore, shadowTable, embeddingModel,
+                embeddingProperties, memoryProperties, mock(AgentMetrics.class), mock(MemoryVectorCache.class),
+                embeddingTarget, asyncTaskManager, (Executor) Runnable::run);
+    }
+
+    @Test
+    void run_embedsIntoShadowTableInBatchesAndSwapsItInWhenDone() throws Exception {
+        when(memoryMapper.selectCount(any())).thenReturn(3L);
+        when(memoryMapper.selectList(any()))
+                .thenReturn(List.of(memory(1L, true), memory(2L, false), memory(3L, true)))
+                .thenReturn(List.of());
+        when(embeddingModel.embedAll(anyList()))
+                .thenReturn(Response.from(List.of(Embedding.from(new float[]{1f, 0f}))));
+
+        AiMemoryReindexJob job = service.run("task", newJob());
+
+        verify(embeddingModel, times(2)).embedAll(anyList());
+        verify(shadowStore).removeAll(List.of(MemoryEmbeddingSegments.storeId(2L)));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> ids = ArgumentCaptor.forClass(List.class);
+        verify(shadowStore).addAll(ids.capture(), anyList(), anyList());
+        assertEquals(List.of(MemoryEmbeddingSegments.storeId(1L), MemoryEmbeddingSegments.storeId(3L)), ids.getValue());
+        verify(embeddingStore, never()).addAll(anyList(), anyList(), anyList());
+        InOrder swap = inOrder(shadowStore, shadowTable);
+        swap.verify(shadowTable).create("model:2", 2);
+        swap.verify(shadowStore).addAll(anyList(), anyList(), anyList());
+        swap.verify(shadowTable).removeOrphans(MemoryEmbeddingShadowTable.TABLE);
+        swap.verify(shadowTable).buildIndexes();
+        swap.verify(shadowTable).swap();
+        assertEquals(3L, job.getLastMemoryId());
+        assertEquals(3L, job.getProcessedCount());
+        assertEquals(2L, job.getEmbeddedCount());
+        assertEquals(TaskStatus.COMPLETED.name(), job.getStatus());
+        verify(asyncTaskManager).reportProgress("task", 3L);
+        assertTrue(embeddingTarget.isSearchable());
+    }
+
+    @Test
+    void run_routesWritesToTheShadowAndKeepsVectorRecallOffUntilTheSwap() throws Exception {
+        when(memoryMapper.selectCount(any())).thenReturn(0L);
+        when(memoryMapper.selectList(any())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            assertFalse(embeddingTarget.isSearchable());
+            assertSame(shadowStore, embeddingTarget.shadowStore().orElseThrow());
+            return null;
+        }).when(shadowTable).buildIndexes();
+
+        service.run("task", newJob());
+
+        verify(shadowTable).buildIndexes();
+        assertTrue(embeddingTarget.isSearchable());
+        assertTrue(embeddingTarget.shadowStore().isEmpty());
+    }
+
+    @Test
+    void run_dimensionMismatch_failsWithoutWriting() {
+        when(memoryMapper.selectCount(any())).thenReturn(1L);
+        when(memoryMapper.selectList(any())).thenReturn(List.of(memory(1L, true)));
+        when(embeddingModel.embedAll(anyList()))
+                .thenReturn(Response.from(List.of(Embedding.from(new float[]{1f, 0f, 0f}))));
+        AiMemoryReindexJob job = newJob();
+
+        assertThrows(IllegalStateException.class, () -> service.run("task", job));
+
+        verify(shadowStore, never()).addAll(anyList(), anyList(), anyList());
+        verify(shadowTable, never()).swap();
+        assertEquals(TaskStatus.FAILED.name(), job.getStatus());
+        assertEquals(0L, job.getLastMemoryId());
+        // The live table still holds the previous model's vectors.
+        assertFalse(embeddingTarget.isSearchable());
+    }
+
+    @Test
+    void restoreEmbeddingTarget_keepsVectorRecallOffForAnUnfinishedJob() {
+        AiMemoryReindexJob job = newJob();
+        job.setStatus(TaskStatus.CANCELLED.name());
+        when(jobMapper.selectById(any())).thenReturn(job);
+        when(shadowTable.isOwnedBy("model:2")).thenReturn(true);
+
+        service.restoreEmbeddingTarget();
+
+        assertFalse(embeddingTarget.isSearchable());
+        assertSame(shadowStore, embeddingTarget.shadowStore().orElseThrow());
+    }
+
+    @Test
+    void restoreEmbeddingTarget_leavesVectorRecallOnOnceTheJobCompleted() {
+        AiMemoryReindexJob job = newJob();
+        job.setStatus(TaskStatus.COMPLETED.name());
+        when(jobMapper.selectById(any())).thenReturn(job);
+
+        service.restoreEmbeddingTarget();
+
+        assertTrue(embeddingTarget.isSearchable());
+        verify(shadowTable, never()).open(anyInt());
+    }
+
+    @Test
+    void run_resumesIntoItsOwnShadowTable() throws Exception {
+        when(shadowTable.isOwnedBy("model:2")).thenReturn(true);
+        when(memoryMapper.selectCount(any())).thenReturn(3L);
+        when(memoryMapper.selectList(any())).thenReturn(List.of());
+        AiMemoryReindexJob job = newJob();
+        job.setLastMemoryId(2L);
+        job.setProcessedCount(2L);
+
+        service.run("task", job);
+
+        verify(shadowTable).open(2);
+        verify(shadowTable, never()).create(anyString(), anyInt());
+        assertEquals(2L, job.getLastMemoryId());
+        verify(shadowTable).swap();
+    }
+
+    @Test
+    void run_startsOverWhenTheShadowTableBelongsToAnotherJob() throws Exception {
+        when(shadowTable.isOwnedBy("model:2")).thenReturn(false);
+        when(memoryMapper.selectCount(any())).thenReturn(1L);
+        when(memoryMapper.selectList(any()))
+                .thenReturn(List.of(memory(1L, true)))
+                .thenReturn(List.of());
+        when(embeddingModel.embedAll(anyList()))
+                .thenReturn(Response.from(List.of(Embedding.from(new float[]{1f, 0f}))));
+        AiMemoryReindexJob job = newJob();
+        job.setLastMemoryId(5L);
+        job.setProcessedCount(5L);
+
+        service.run("task", job);
+
+        verify(shadowTable).create("model:2", 2);
+        assertEquals(1L, job.getLastMemoryId());
+        assertEquals(1L, job.getProcessedCount());
+    }
+
+    private static AiMemoryReindexJob newJob() {
+        return AiMemoryReindexJob.builder()
+                .jobKey("model:2")
+                .lastMemoryId(0L)
+                .processedCount(0L)
+                .embeddedCount(0L)
+                .build();
+    }
+
+    private static AiMemory memory(Long id, boolean enabled) {
+        return AiMemory.builder()
+                .id(id)
+                .userId(42L)
+                .memoryType("PREFERENCE")
+                .content("memory " + id)
+                .enable(enabled ? MemoryEnableEnum.ENABLE.getCode() : MemoryEnableEnum.DISABLE.getCode())
+                .build();
+    }
+}
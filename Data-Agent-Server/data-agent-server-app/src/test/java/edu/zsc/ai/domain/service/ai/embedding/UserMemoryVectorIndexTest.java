@@ -0,0 +1,63 @@
+package edu.zsc.ai.domain.service.ai.embedding;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserMemoryVectorIndexTest {
+
+    @Test
+    void search_scoresLikePgvectorAndAppliesFilter() {
+        UserMemoryVectorIndex index = new UserMemoryVectorIndex(List.of(
+                entry("a", "USER", 1f, 0f),
+                entry("b", "USER", 0f, 1f),
+                entry("c", "CONVERSATION", 1f, 0.1f)));
+
+        List<EmbeddingMatch<TextSegment>> matches = index.search(Embedding.from(new float[]{2f, 0f}), 0.6,
+                metadata -> "USER".equals(metadata.getString("scope")));
+
+        assertEquals(1, matches.size());
+        assertEquals("a", matches.get(0).embeddingId());
+        assertEquals(1.0, matches.get(0).score(), 1e-6);
+
+        List<EmbeddingMatch<TextSegment>> all = index.search(Embedding.from(new float[]{1f, 0f}), 0.0, metadata -> true);
+        assertEquals(List.of("a", "c", "b"), all.stream().map(EmbeddingMatch::embeddingId).toList());
+        // Orthogonal vectors: cosine 0 maps to 0.5 on the pgvector relevance scale.
+        assertEquals(0.5, all.get(2).score(), 1e-6);
+    }
+
+    @Test
+    void upsertAndRemove_replaceSnapshot() {
+        UserMemoryVectorIndex index = new UserMemoryVectorIndex(List.of(entry("a", "USER", 1f, 0f)));
+
+        index.upsert(entry("a", "USER", 0f, 1f));
+        index.upsert(entry("b", "USER", 1f, 0f));
+        assertEquals(2, index.size());
+        assertEquals("b", index.search(Embedding.from(new float[]{1f, 0f}), 0.9, metadata -> true).get(0).embeddingId());
+
+        assertTrue(index.remove("b"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void dot_handlesLengthsNotMultipleOfFour() {
+        float[] a = {1f, 2f, 3f, 4f, 5f};
+        float[] b = {1f, 1f, 1f, 1f, 2f};
+
+        assertEquals(20f, UserMemoryVectorIndex.dot(a, b), 1e-6);
+        assertArrayEquals(new float[]{0.5f, -1f}, MemoryVectorCache.parseVector("[0.5,-1]"), 1e-6f);
+    }
+
+    private static UserMemoryVectorIndex.Entry entry(String id, String scope, float x, float y) {
+        TextSegment segment = TextSegment.from("memory " + id, new Metadata().put("scope", scope));
+        return UserMemoryVectorIndex.entry(id, Embedding.from(new float[]{x, y}), segment);
+    }
+}
@@ -0,0 +1,73 @@
+package edu.zsc.ai.domain.service.ai.export;
+
+import edu.zsc.ai.domain.mapper.ai.AiExportFileMapper;
+import edu.zsc.ai.domain.model.entity.ai.AiExportFile;
+import edu.zsc.ai.domain.service.ai.export.model.CsvPreviewData;
+import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseExportFileRegistryTest {
+
+    private static final String FILE_ID = "0b6f2a52-3c55-4d8e-9d6c-1f2e3a4b5c6d";
+
+    private final AiExportFileMapper mapper = mock(AiExportFileMapper.class);
+    private final DatabaseExportFileRegistry registry = new DatabaseExportFileRegistry(mapper);
+
+    @Test
+    void find_returnsThePreviewStoredWithTheFile() {
+        registry.register(stored(CsvPreviewData.builder()
+                .columns(List.of("id", "name"))
+                .rows(List.of(List.of("1", "alice")))
+                .truncated(false)
+                .totalRowCount(1)
+                .totalColumnCount(2)
+                .build()));
+        ArgumentCaptor<AiExportFile> row = ArgumentCaptor.forClass(AiExportFile.class);
+        verify(mapper).insert(row.capture());
+        when(mapper.selectById(FILE_ID)).thenReturn(row.getValue());
+
+        Object preview = registry.find(FILE_ID).orElseThrow().getPreview();
+
+        assertEquals(Map.of(
+                "columns", List.of("id", "name"),
+                "rows", List.of(List.of("1", "alice")),
+                "truncated", false,
+                "totalRowCount", 1,
+                "totalColumnCount", 2), preview);
+    }
+
+    @Test
+    void find_leavesPreviewEmptyWhenTheExportHadNone() {
+        registry.register(stored(null));
+        ArgumentCaptor<AiExportFile> row = ArgumentCaptor.forClass(AiExportFile.class);
+        verify(mapper).insert(row.capture());
+        when(mapper.selectById(FILE_ID)).thenReturn(row.getValue());
+
+        assertNull(row.getValue().getPreview());
+        assertNull(registry.find(FILE_ID).orElseThrow().getPreview());
+    }
+
+    private static StoredExportFile stored(Object preview) {
+        return StoredExportFile.builder()
+                .fileId(FILE_ID)
+                .ownerUserId(9L)
+                .format("CSV")
+                .filename("20260101000000000-9-77-" + FILE_ID + ".csv")
+                .sizeBytes(12L)
+                .createdAt(System.currentTimeMillis())
+                .rowCount(1)
+                .columnCount(2)
+                .preview(preview)
+                .build();
+    }
+}
@@ -4,13 +4,13 @@ import edu.zsc.ai.domain.service.ai.export.model.ExportedFileDownload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFileStatus;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
 import edu.zsc.ai.domain.service.ai.export.model.StoredExportFile;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -25,13 +25,6 @@ class ExportFileStorageServiceTest {
 
     private ExportFileStorageService storageService;
 
-    @AfterEach
-    void tearDown() {
-        if (storageService != null) {
-            storageService.shutdown();
-        }
-    }
-
     @Test
     void store_generatesExpectedFilenameAndSupportsOwnerDownload() {
         storageService = new ExportFileStorageService(tempDir);
@@ -104,19 +97,70 @@ class ExportFileStorageServiceTest {
     }
 
     @Test
-    void shutdown_cleansDirectory() {
-        storageService = new ExportFileStorageService(tempDir);
+    void restart_keepsRegisteredFilesDownloadable() {
+        InMemoryExportFileRegistry registry = new InMemoryExportFileRegistry();
+        storageService = new ExportFileStorageService(tempDir, registry, 60_000L, 0L);
         storageService.initialize();
+        StoredExportFile stored = storageService.store(1L, null, csvArtifact("x"));
 
-        FileExportArtifact artifact = FileExportArtifact.builder()
+        ExportFileStorageService restarted = new ExportFileStorageService(tempDir, registry, 60_000L, 0L);
+        restarted.initialize();
+
+        assertTrue(Files.exists(stored.getPath()));
+        assertEquals(stored.getPath(), restarted.resolveDownload(stored.getFileId(), 1L).getPath());
+    }
+
+    @Test
+    void evict_removesExpiredFilesAndOrphans() throws Exception {
+        storageService = new ExportFileStorageService(tempDir, new InMemoryExportFileRegistry(), 60_000L, 0L);
+        storageService.initialize();
+        StoredExportFile expired = storageService.store(1L, 2L, csvArtifact("old"));
+        expired.setCreatedAt(System.currentTimeMillis() - 120_000L);
+        StoredExportFile fresh = storageService.store(1L, 2L, csvArtifact("new"));
+        Path orphan = Files.writeString(tempDir.resolve("orphan.csv"), "partial");
+        Files.setLastModifiedTime(orphan, FileTime.fromMillis(System.currentTimeMillis() - 120_000L));
+
+        storageService.evict();
+
+        assertFalse(Files.exists(expired.getPath()));
+        assertTrue(storageService.get(expired.getFileId()).isEmpty());
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(fresh.getPath()));
+    }
+
+    @Test
+    void evict_keepsOldFileWhoseRegistryEntryHasNotExpired() throws Exception {
+        storageService = new ExportFileStorageService(tempDir, new InMemoryExportFileRegistry(), 60_000L, 0L);
+        storageService.initialize();
+        StoredExportFile registered = storageService.store(1L, 2L, csvArtifact("slow writer"));
+        Files.setLastModifiedTime(registered.getPath(), FileTime.fromMillis(System.currentTimeMillis() - 120_000L));
+
+        storageService.evict();
+
+        assertTrue(Files.exists(registered.getPath()));
+        assertTrue(storageService.get(registered.getFileId()).isPresent());
+    }
+
+    @Test
+    void store_evictsOldestFilesOverQuota() {
+        storageService = new ExportFileStorageService(tempDir, new InMemoryExportFileRegistry(), 0L, 10L);
+        storageService.initialize();
+        StoredExportFile first = storageService.store(1L, 2L, csvArtifact("123456"));
+        first.setCreatedAt(first.getCreatedAt() - 1_000L);
+
+        StoredExportFile second = storageService.store(1L, 2L, csvArtifact("abcdef"));
+
+        assertFalse(Files.exists(first.getPath()));
+        assertTrue(storageService.get(first.getFileId()).isEmpty());
+        assertTrue(Files.exists(second.getPath()));
+    }
+
+    private static FileExportArtifact csvArtifact(String content) {
+        return FileExportArtifact.builder()
                 .normalizedFormat("CSV")
                 .extension("csv")
                 .mimeType("text/csv;charset=utf-8")
-                .content("x".getBytes(StandardCharsets.UTF_8))
+                .content(content.getBytes(StandardCharsets.UTF_8))
                 .build();
-        storageService.store(1L, null, artifact);
-
-        storageService.shutdown();
-        assertFalse(Files.exists(tempDir));
     }
 }
@@ -4,7 +4,6 @@ import edu.zsc.ai.domain.service.ai.export.model.ExportedFileDownload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFilePayload;
 import edu.zsc.ai.domain.service.ai.export.model.ExportedFileStatus;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -23,13 +22,6 @@ class FileExportServiceTest {
 
     private ExportFileStorageService storageService;
 
-    @AfterEach
-    void tearDown() {
-        if (storageService != null) {
-            storageService.shutdown();
-        }
-    }
-
     @Test
     void export_returnsStructuredPayloadAndDownloadForOwner() {
         FileExportService service = createService();
@@ -0,0 +1,209 @@
+package edu.zsc.ai.domain.service.ai.export;
+
+import edu.zsc.ai.async.AsyncTaskManager;
+import edu.zsc.ai.async.TaskStatus;
+import edu.zsc.ai.common.enums.org.WorkspaceTypeEnum;
+import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.context.RequestContextInfo;
+import edu.zsc.ai.domain.exception.BusinessException;
+import edu.zsc.ai.domain.model.context.DbContext;
+import edu.zsc.ai.domain.service.ai.export.model.ExportTaskPayload;
+import edu.zsc.ai.domain.service.ai.export.model.QueryExportRequest;
+import edu.zsc.ai.domain.service.db.ConnectionService;
+import edu.zsc.ai.domain.service.db.impl.ActiveConnectionRegistry;
+import edu.zsc.ai.plugin.capability.StreamingQueryExecutor;
+import edu.zsc.ai.plugin.manager.DefaultPluginManager;
+import edu.zsc.ai.plugin.model.command.sql.QueryRowConsumer;
+import edu.zsc.ai.plugin.sql.DefaultSqlSplitter;
+import edu.zsc.ai.plugin.sql.DefaultSqlValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryExportServiceTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long CONVERSATION_ID = 99L;
+    private static final Long CONNECTION_ID = 82L;
+
+    @TempDir
+    Path tempDir;
+
+    private final StreamingQueryExecutor queryExecutor = mock(StreamingQueryExecutor.class);
+    private final AsyncTaskManager asyncTaskManager = new AsyncTaskManager();
+    private MockedStatic<DefaultPluginManager> pluginManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        RequestContext.set(RequestContextInfo.builder().userId(USER_ID).conversationId(CONVERSATION_ID).build());
+
+        DefaultPluginManager manager = mock(DefaultPluginManager.class);
+        when(manager.getSqlSplitterByPluginId(anyString())).thenReturn(DefaultSqlSplitter.INSTANCE);
+        when(manager.getSqlValidatorByPluginId(anyString())).thenReturn(DefaultSqlValidator.INSTANCE);
+        when(manager.getStreamingQueryExecutorByPluginId(anyString())).thenReturn(queryExecutor);
+        pluginManager = mockStatic(DefaultPluginManager.class);
+        pluginManager.when(DefaultPluginManager::getInstance).thenReturn(manager);
+
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        ActiveConnectionRegistry.getOrCreateConnection(new DbContext(CONNECTION_ID, null, null),
+                () -> new ActiveConnectionRegistry.ActiveConnection(
+                        dataSource, USER_ID, USER_ID, CONNECTION_ID, "mysql", "mysql-8", null, null,
+                        LocalDateTime.now(), LocalDateTime.now(), WorkspaceTypeEnum.PERSONAL, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ActiveConnectionRegistry.closeAllConnections(CONNECTION_ID);
+        pluginManager.close();
+        RequestContext.clear();
+    }
+
+    @Test
+    void submit_rejectsWriteStatement() throws SQLException {
+        QueryExportService service = createService(Runnable::run);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.submit(request("CSV", "DELETE FROM orders")));
+
+        assertTrue(exception.getMessage().contains("read-only"));
+        verify(queryExecutor, never()).streamQuery(any(), any());
+    }
+
+    @Test
+    void submit_rejectsMoreThanOneStatement() throws SQLException {
+        QueryExportService service = createService(Runnable::run);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.submit(request("CSV", "SELECT * FROM orders; SELECT * FROM users")));
+
+        assertTrue(exception.getMessage().contains("exactly one statement"));
+        verify(queryExecutor, never()).streamQuery(any(), any());
+    }
+
+    @Test
+    void submit_rejectsFormatsThatBufferTheWholeDocument() {
+        QueryExportService service = createService(Runnable::run);
+
+        assertThrows(IllegalArgumentException.class, () -> service.submit(request("DOCX", "SELECT * FROM orders")));
+        assertThrows(IllegalArgumentException.class, () -> service.submit(request("PDF", "SELECT * FROM orders")));
+    }
+
+    @Test
+    void getTask_isScopedToTheOwner() throws SQLException {
+        streamRows(List.of(List.<Object>of(1, "Alice"), List.<Object>of(2, "Bob")).iterator());
+        QueryExportService service = createService(Runnable::run);
+
+        ExportTaskPayload submitted = service.submit(request("CSV", "SELECT id, name FROM users"));
+
+        ExportTaskPayload owned = service.getTask(submitted.getTaskId(), USER_ID);
+        assertEquals(TaskStatus.COMPLETED, owned.getStatus());
+        assertEquals(2L, owned.getProcessedRows());
+        assertNotNull(owned.getFile());
+
+        BusinessException forbidden = assertThrows(BusinessException.class,
+                () -> service.getTask(submitted.getTaskId(), 8L));
+        assertEquals(403, forbidden.getCode());
+        assertThrows(BusinessException.class, () -> service.cancel(submitted.getTaskId(), 8L));
+    }
+
+    @Test
+    void cancel_interruptsRunningExportAndLeavesNoFile() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        streamRows(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                streaming.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("query cancelled", e);
+                }
+                return true;
+            }
+
+            @Override
+            public List<Object> next() {
+                return List.of(1, "Alice");
+            }
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            QueryExportService service = createService(executor);
+            ExportTaskPayload submitted = service.submit(request("CSV", "SELECT id, name FROM users"));
+            assertTrue(streaming.await(5, TimeUnit.SECONDS));
+
+            ExportTaskPayload cancelled = service.cancel(submitted.getTaskId(), USER_ID);
+
+            assertEquals(TaskStatus.CANCELLED, cancelled.getStatus());
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(TaskStatus.CANCELLED, service.getTask(submitted.getTaskId(), USER_ID).getStatus());
+            try (Stream<Path> files = Files.walk(tempDir)) {
+                assertTrue(files.noneMatch(Files::isRegularFile));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void streamRows(Iterator<List<Object>> rows) throws SQLException {
+        when(queryExecutor.streamQuery(any(), any())).thenAnswer(invocation -> {
+            QueryRowConsumer<?> consumer = invocation.getArgument(1);
+            return consumer.accept(List.of("id", "name"), rows);
+        });
+    }
+
+    private QueryExportService createService(Executor executor) {
+        return new QueryExportService(
+                new FileExportStrategyResolver(List.of(
+                        new CsvFileExportStrategy(),
+                        new XlsxFileExportStrategy(),
+                        new DocxFileExportStrategy(),
+                        new PdfFileExportStrategy())),
+                new ExportFileStorageService(tempDir),
+                mock(ConnectionService.class),
+                asyncTaskManager,
+                executor);
+    }
+
+    private static QueryExportRequest request(String format, String sql) {
+        return QueryExportRequest.builder()
+                .format(format)
+                .connectionId(CONNECTION_ID)
+                .sql(sql)
+                .userId(USER_ID)
+                .conversationId(CONVERSATION_ID)
+                .build();
+    }
+}
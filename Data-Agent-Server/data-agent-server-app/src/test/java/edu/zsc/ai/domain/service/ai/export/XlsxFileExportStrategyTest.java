@@ -1,18 +1,29 @@
 package edu.zsc.ai.domain.service.ai.export;
+import edu.zsc.ai.domain.service.ai.export.model.CsvPreviewData;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportArtifact;
 import edu.zsc.ai.domain.service.ai.export.model.FileExportRequest;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class XlsxFileExportStrategyTest {
 
     private final XlsxFileExportStrategy strategy = new XlsxFileExportStrategy();
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void exportProducesReadableWorkbook() throws Exception {
         FileExportArtifact artifact = strategy.export(FileExportRequest.builder()
@@ -31,4 +42,30 @@ class XlsxFileExportStrategyTest {
             assertEquals("18", workbook.getSheetAt(0).getRow(1).getCell(1).getStringCellValue());
         }
     }
+
+    @Test
+    void exportToPathStreamsEveryBatch() throws Exception {
+        int rowCount = AbstractFastExcelFileExportStrategy.WRITE_BATCH_SIZE * 2 + 5;
+        List<List<Object>> rows = IntStream.range(0, rowCount)
+                .mapToObj(i -> List.<Object>of("row-" + i, i))
+                .toList();
+        Path target = tempDir.resolve("export.xlsx");
+
+        FileExportArtifact artifact = strategy.export(FileExportRequest.builder()
+                .format("XLSX")
+                .headers(List.of("name", "index"))
+                .rows(rows)
+                .build(), target);
+
+        assertNull(artifact.getContent());
+        assertEquals(rowCount, artifact.getRowCount());
+        CsvPreviewData preview = (CsvPreviewData) artifact.getPreview();
+        assertEquals(10, preview.getRows().size());
+        assertTrue(preview.isTruncated());
+
+        try (InputStream input = Files.newInputStream(target); XSSFWorkbook workbook = new XSSFWorkbook(input)) {
+            assertEquals(rowCount, workbook.getSheetAt(0).getLastRowNum());
+            assertEquals("row-" + (rowCount - 1), workbook.getSheetAt(0).getRow(rowCount).getCell(0).getStringCellValue());
+        }
+    }
 }
@@ -11,6 +11,8 @@ import dev.langchain4j.model.chat.response.ChatResponse;
 import edu.zsc.ai.config.ai.AiModelCatalog;
 import edu.zsc.ai.config.ai.AiModelProperties;
 import edu.zsc.ai.domain.service.ai.model.CompressionResult;
+import edu.zsc.ai.metrics.AgentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -38,7 +40,7 @@ class CompressionServiceImplTest {
         Map<String, ChatModel> chatModelsByName = Map.of(
                 aiModelCatalog.compressionModelName(), mockChatModel
         );
-        compressionService = new CompressionServiceImpl(aiModelCatalog, chatModelsByName);
+        compressionService = new CompressionServiceImpl(aiModelCatalog, chatModelsByName, new AgentMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
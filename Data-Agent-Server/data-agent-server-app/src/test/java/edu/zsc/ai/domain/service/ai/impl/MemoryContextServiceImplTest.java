@@ -2,18 +2,24 @@ package edu.zsc.ai.domain.service.ai.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import edu.zsc.ai.common.constant.AgentMetricNames;
 import edu.zsc.ai.common.enums.ai.MemoryScopeEnum;
 import edu.zsc.ai.config.ai.MemoryProperties;
 import edu.zsc.ai.domain.model.entity.ai.AiMemory;
@@ -23,6 +29,7 @@ import edu.zsc.ai.domain.service.ai.recall.MemoryRecallContext;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallItem;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallManager;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallResult;
+import edu.zsc.ai.metrics.AgentMetrics;
 
 @ExtendWith(MockitoExtension.class)
 class MemoryContextServiceImplTest {
@@ -39,9 +46,17 @@ class MemoryContextServiceImplTest {
     @Mock
     private MemoryService memoryService;
 
-    @InjectMocks
+    @Mock
+    private AgentMetrics agentMetrics;
+
     private MemoryContextServiceImpl memoryContextService;
 
+    @BeforeEach
+    void setUp() {
+        memoryContextService = new MemoryContextServiceImpl(
+                memoryRecallManager, memoryService, memoryProperties, agentMetrics, Runnable::run);
+    }
+
     @Test
     void loadPromptContext_returnsEmptyWhenMemoryDisabled() {
         when(memoryProperties.isEnabled()).thenReturn(false);
@@ -94,4 +109,51 @@ class MemoryContextServiceImplTest {
         assertEquals("# Current Task\nDesign memory refactor", context.getCurrentConversationMemory());
         verify(memoryService).recordMemoryAccess(List.of(1L));
     }
+
+    @Test
+    void loadPromptContext_skipsRecallWhenSharedExecutorIsSaturated() {
+        memoryContextService = new MemoryContextServiceImpl(
+                memoryRecallManager, memoryService, memoryProperties, agentMetrics, task -> {
+                    throw new RejectedExecutionException("saturated");
+                });
+        when(memoryProperties.isEnabled()).thenReturn(true);
+        when(memoryProperties.getRetrieval()).thenReturn(retrieval);
+        when(memoryService.getConversationWorkingMemory(42L, 7L)).thenReturn(AiMemory.builder()
+                .id(9L)
+                .content("# Current Task\nShip the report")
+                .build());
+
+        MemoryPromptContext context = memoryContextService.loadPromptContext(42L, 7L, "continue the report");
+
+        assertTrue(context.getMemories().isEmpty());
+        assertEquals("# Current Task\nShip the report", context.getCurrentConversationMemory());
+        verify(memoryRecallManager, never()).recall(any());
+        verify(agentMetrics).recordPreparePhase(AgentMetricNames.PHASE_RECALL, AgentMetricNames.OUTCOME_REJECTED, 0L);
+    }
+
+    @Test
+    void loadPromptContext_skipsRecallThatMissesDeadline() {
+        List<Runnable> queued = new ArrayList<>();
+        memoryContextService = new MemoryContextServiceImpl(
+                memoryRecallManager, memoryService, memoryProperties, agentMetrics, queued::add);
+        when(memoryProperties.isEnabled()).thenReturn(true);
+        when(memoryProperties.getRetrieval()).thenReturn(retrieval);
+        when(retrieval.getPromptRecallTimeoutMs()).thenReturn(20L);
+        when(memoryService.getConversationWorkingMemory(42L, 7L)).thenReturn(AiMemory.builder()
+                .id(9L)
+                .content("# Current Task\nShip the report")
+                .build());
+
+        MemoryPromptContext context = memoryContextService.loadPromptContext(42L, 7L, "continue the report");
+
+        assertTrue(context.getMemories().isEmpty());
+        assertEquals("# Current Task\nShip the report", context.getCurrentConversationMemory());
+        verify(memoryService, never()).recordMemoryAccess(org.mockito.ArgumentMatchers.anyList());
+        verify(agentMetrics).recordPreparePhase(eq(AgentMetricNames.PHASE_RECALL),
+                eq(AgentMetricNames.OUTCOME_TIMEOUT), anyLong());
+
+        // The recall was cancelled at the deadline, so an executor starting it only now runs nothing.
+        queued.forEach(Runnable::run);
+        verify(memoryRecallManager, never()).recall(any());
+    }
 }
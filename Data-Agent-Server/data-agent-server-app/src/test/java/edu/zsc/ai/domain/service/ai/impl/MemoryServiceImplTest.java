@@ -9,9 +9,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -20,12 +22,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 
@@ -42,21 +46,33 @@ import edu.zsc.ai.config.ai.MemoryProperties;
 import edu.zsc.ai.context.RequestContext;
 import edu.zsc.ai.context.RequestContextInfo;
 import edu.zsc.ai.domain.exception.BusinessException;
+import edu.zsc.ai.domain.mapper.ai.AiMemoryMapper;
 import edu.zsc.ai.domain.model.dto.request.ai.MemoryCreateRequest;
 import edu.zsc.ai.domain.model.dto.request.ai.MemoryUpdateRequest;
 import edu.zsc.ai.domain.model.dto.request.ai.MemoryMutationRequest;
 import edu.zsc.ai.domain.model.entity.ai.AiConversationMemoryCursor;
 import edu.zsc.ai.domain.model.entity.ai.AiMemory;
 import edu.zsc.ai.domain.service.ai.AiConversationMemoryCursorService;
+import edu.zsc.ai.domain.service.ai.access.MemoryAccessBuffer;
+import edu.zsc.ai.domain.service.ai.embedding.MemoryEmbeddingTarget;
+import edu.zsc.ai.domain.service.ai.embedding.MemoryVectorCache;
+import edu.zsc.ai.domain.service.ai.model.MemoryLexicalMatch;
 import edu.zsc.ai.domain.service.ai.model.MemorySearchResult;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallMode;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallQuery;
 import edu.zsc.ai.domain.service.ai.recall.MemoryRecallQueryStrategy;
 import edu.zsc.ai.domain.service.ai.model.MemoryWriteResult;
+import edu.zsc.ai.domain.service.ai.model.MemoryWriteContext.MemorySummary;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.tracing.AgentTracing;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class MemoryServiceImplTest {
 
     private EmbeddingStore<TextSegment> embeddingStore;
+    private MemoryProperties memoryProperties;
+    private MemoryEmbeddingTarget embeddingTarget;
     private InMemoryMemoryService service;
 
     @BeforeEach
@@ -67,11 +83,12 @@ class MemoryServiceImplTest {
         EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
         when(embeddingModel.embed(any(String.class))).thenReturn(Response.from(Embedding.from(new float[]{1.0f, 2.0f})));
 
-        MemoryProperties memoryProperties = new MemoryProperties();
+        memoryProperties = new MemoryProperties();
         AiConversationMemoryCursorService cursorService = mock(AiConversationMemoryCursorService.class);
         lenient().when(cursorService.updateById(any(AiConversationMemoryCursor.class))).thenReturn(true);
 
-        service = new InMemoryMemoryService(store, embeddingModel, memoryProperties, cursorService);
+        embeddingTarget = spy(new MemoryEmbeddingTarget());
+        service = new InMemoryMemoryService(store, embeddingModel, memoryProperties, cursorService, embeddingTarget);
         RequestContext.set(RequestContextInfo.builder().userId(42L).conversationId(7L).build());
     }
 
@@ -1000,6 +1017,186 @@ class MemoryServiceImplTest {
         assertEquals(5, results.get(0).getAccessCount());
     }
 
+    @Test
+    void browseRecallReadsConversationScopeFirstAndStopsAtBrowseLimit() {
+        memoryProperties.getRetrieval().setBrowseLimit(2);
+        LocalDateTime now = LocalDateTime.now();
+        seedBrowseMemory("User frequent", "USER", 7L, 9, now);
+        seedBrowseMemory("User rare", "USER", 7L, 0, now);
+        seedBrowseMemory("Current conversation", "CONVERSATION", 7L, 0, now.minusDays(1));
+        seedBrowseMemory("Other conversation", "CONVERSATION", 8L, 20, now);
+
+        @SuppressWarnings("unchecked")
+        List<MemorySearchResult> results = (List<MemorySearchResult>) (List<?>) service.recallAccessibleMemories(new MemoryRecallQuery(
+                "browse",
+                "browse_limit",
+                null,
+                7L,
+                null,
+                null,
+                null,
+                0.0D,
+                MemoryRecallMode.TOOL,
+                MemoryRecallQueryStrategy.BROWSE,
+                0));
+
+        assertEquals(List.of("Current conversation", "User frequent"),
+                results.stream().map(MemorySearchResult::getTitle).toList());
+    }
+
+    @Test
+    void lexicalHybridRecall_confidentLexicalHitSkipsEmbedding() {
+        memoryProperties.getLexical().setEnabled(true);
+        AiMemory memory = seedLexicalMemory("Orders table", "USER", 7L);
+        service.lexicalCandidates = List.of(new MemoryLexicalMatch(memory, 0.9D));
+
+        @SuppressWarnings("unchecked")
+        List<MemorySearchResult> results = (List<MemorySearchResult>) (List<?>) service.recallAccessibleMemories(
+                lexicalQuery("which columns does the orders table have"));
+
+        assertEquals(1, results.size());
+        assertEquals("Orders table", results.get(0).getTitle());
+        assertEquals(MemoryRecallQueryStrategy.LEXICAL_HYBRID.name(), results.get(0).getQueryStrategy());
+        assertEquals("lexical", results.get(0).getExecutionPath());
+        verify(service.embeddingModel, never()).embed(any(String.class));
+    }
+
+    @Test
+    void lexicalHybridRecall_weakLexicalHitFallsBackToSemanticRecall() {
+        @SuppressWarnings("unchecked")
+        EmbeddingSearchResult<TextSegment> searchResult = mock(EmbeddingSearchResult.class);
+        when(searchResult.matches()).thenReturn(List.of());
+        when(embeddingStore.search(any())).thenReturn(searchResult);
+        memoryProperties.getLexical().setEnabled(true);
+        AiMemory memory = seedLexicalMemory("Orders table", "CONVERSATION", 8L);
+        service.lexicalCandidates = List.of(new MemoryLexicalMatch(memory, 0.2D));
+
+        List<?> results = service.recallAccessibleMemories(lexicalQuery("which columns does the orders table have"));
+
+        assertTrue(results.isEmpty());
+        verify(service.embeddingModel).embed("which columns does the orders table have");
+    }
+
+    @Test
+    void lexicalHybridRecall_stopWordOnlyQueryNeverTakesLexicalShortcut() {
+        @SuppressWarnings("unchecked")
+        EmbeddingSearchResult<TextSegment> searchResult = mock(EmbeddingSearchResult.class);
+        when(searchResult.matches()).thenReturn(List.of());
+        when(embeddingStore.search(any())).thenReturn(searchResult);
+        memoryProperties.getLexical().setEnabled(true);
+        AiMemory memory = seedLexicalMemory("Notes", "USER", 7L);
+        service.lexicalCandidates = List.of(new MemoryLexicalMatch(memory, 0.9D));
+
+        List<?> results = service.recallAccessibleMemories(lexicalQuery("what is it to be and to do with them"));
+
+        assertTrue(results.isEmpty());
+        verify(service.embeddingModel).embed("what is it to be and to do with them");
+    }
+
+    @Test
+    void recall_duringReindexAnswersFromLexicalIndexesWithoutVectorSearch() {
+        doReturn(false).when(embeddingTarget).isSearchable();
+        AiMemory memory = seedLexicalMemory("Orders table", "USER", 7L);
+        // Below the confident score, so only the re-index fallback can return it.
+        service.lexicalCandidates = List.of(new MemoryLexicalMatch(memory, 0.2D));
+
+        @SuppressWarnings("unchecked")
+        List<MemorySearchResult> results = (List<MemorySearchResult>) (List<?>) service.recallAccessibleMemories(
+                lexicalQuery("which columns does the orders table have"));
+
+        assertEquals(List.of("Orders table"), results.stream().map(MemorySearchResult::getTitle).toList());
+        verify(service.embeddingModel, never()).embed(any(String.class));
+        verify(embeddingStore, never()).search(any());
+    }
+
+    @Test
+    void createManualMemory_duringReindexWritesTheVectorToTheShadowTable() {
+        @SuppressWarnings("unchecked")
+        EmbeddingStore<TextSegment> shadowStore = mock(EmbeddingStore.class);
+        doReturn(false).when(embeddingTarget).isSearchable();
+        doReturn(Optional.of(shadowStore)).when(embeddingTarget).shadowStore();
+        MemoryCreateRequest request = new MemoryCreateRequest();
+        request.setConversationId(7L);
+        request.setMemoryType("preference");
+        request.setSubType("response_format");
+        request.setContent("User prefers concise SQL explanations.");
+        request.setScope("user");
+
+        service.createManualMemory(request);
+
+        verify(shadowStore).addAll(anyList(), anyList(), anyList());
+        verify(embeddingStore, never()).addAll(anyList(), anyList(), anyList());
+    }
+
+    @Test
+    void getEnabledMemorySummaries_readsEveryKeysetPage() {
+        memoryProperties.getRetrieval().setSummaryPageSize(2);
+        MemoryServiceImpl paged = spy(service);
+        MemorySummary first = summary(3L);
+        MemorySummary second = summary(2L);
+        MemorySummary third = summary(1L);
+        doReturn(List.of(first, second)).when(paged).getEnabledMemorySummaries(42L, null, 2);
+        doReturn(List.of(third)).when(paged).getEnabledMemorySummaries(42L, second, 2);
+
+        assertEquals(List.of(first, second, third), paged.getEnabledMemorySummaries(42L));
+    }
+
+    private static MemorySummary summary(Long memoryId) {
+        return new MemorySummary(memoryId, "USER", "PREFERENCE", null, "title " + memoryId, "content",
+                LocalDateTime.now().minusMinutes(memoryId));
+    }
+
+    private MemoryRecallQuery lexicalQuery(String queryText) {
+        return new MemoryRecallQuery(
+                "lexical",
+                "lexical_test",
+                "USER",
+                7L,
+                queryText,
+                null,
+                null,
+                0.5D,
+                MemoryRecallMode.PROMPT,
+                MemoryRecallQueryStrategy.HYBRID,
+                0);
+    }
+
+    private AiMemory seedLexicalMemory(String title, String scope, Long conversationId) {
+        AiMemory memory = AiMemory.builder()
+                .userId(42L)
+                .conversationId(conversationId)
+                .scope(scope)
+                .memoryType("KNOWLEDGE_POINT")
+                .subType("OBJECT_KNOWLEDGE")
+                .sourceType("MANUAL")
+                .title(title)
+                .content("orders.amount is stored in cents.")
+                .enable(MemoryEnableEnum.ENABLE.getCode())
+                .accessCount(0)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        service.seedMemory(memory);
+        return memory;
+    }
+
+    private void seedBrowseMemory(String title, String scope, Long conversationId, int accessCount, LocalDateTime updatedAt) {
+        service.seedMemory(AiMemory.builder()
+                .userId(42L)
+                .conversationId(conversationId)
+                .scope(scope)
+                .memoryType("PREFERENCE")
+                .subType("RESPONSE_FORMAT")
+                .sourceType("MANUAL")
+                .title(title)
+                .content(title + " memory.")
+                .enable(MemoryEnableEnum.ENABLE.getCode())
+                .accessCount(accessCount)
+                .createdAt(updatedAt)
+                .updatedAt(updatedAt)
+                .build());
+    }
+
     private MemoryCreateRequest buildCreateRequest() {
         MemoryCreateRequest request = new MemoryCreateRequest();
         request.setConversationId(7L);
@@ -1070,12 +1267,18 @@ class MemoryServiceImplTest {
         private int userMemoryListQueryCount;
         private int conversationFallbackQueryCount;
         private long nextId = 1L;
+        private List<MemoryLexicalMatch> lexicalCandidates = List.of();
 
         private InMemoryMemoryService(EmbeddingStore<TextSegment> embeddingStore,
                                       EmbeddingModel embeddingModel,
                                       MemoryProperties memoryProperties,
-                                      AiConversationMemoryCursorService cursorService) {
-            super(embeddingStore, embeddingModel, memoryProperties, cursorService);
+                                      AiConversationMemoryCursorService cursorService,
+                                      MemoryEmbeddingTarget embeddingTarget) {
+            super(embeddingStore, embeddingModel, memoryProperties, cursorService,
+                    new AgentMetrics(new SimpleMeterRegistry()), new AgentTracing(Tracer.NOOP),
+                    new MemoryAccessBuffer(mock(AiMemoryMapper.class), memoryProperties),
+                    new MemoryVectorCache(mock(JdbcTemplate.class), memoryProperties),
+                    embeddingTarget);
             this.embeddingModel = embeddingModel;
         }
 
@@ -1148,6 +1351,40 @@ class MemoryServiceImplTest {
                     .toList();
         }
 
+        @Override
+        protected List<MemoryLexicalMatch> queryLexicalCandidates(Long userId,
+                                                                  Long conversationId,
+                                                                  String scope,
+                                                                  String memoryType,
+                                                                  String subType,
+                                                                  List<String> terms,
+                                                                  String queryText,
+                                                                  int limit) {
+            return lexicalCandidates;
+        }
+
+        @Override
+        protected List<AiMemory> queryVisibleEnabledMemories(Long userId,
+                                                             String scope,
+                                                             Long conversationId,
+                                                             String memoryType,
+                                                             String subType,
+                                                             int limit) {
+            return store.stream()
+                    .filter(memory -> userId != null && userId.equals(memory.getUserId()))
+                    .filter(memory -> memory.getEnable() != null && memory.getEnable() == MemoryEnableEnum.ENABLE.getCode())
+                    .filter(memory -> scope.equalsIgnoreCase(memory.getScope()))
+                    .filter(memory -> conversationId == null || conversationId.equals(memory.getConversationId()))
+                    .filter(memory -> memoryType == null || memoryType.equalsIgnoreCase(memory.getMemoryType()))
+                    .filter(memory -> subType == null || subType.equalsIgnoreCase(memory.getSubType()))
+                    .sorted(Comparator.comparing((AiMemory memory) -> memory.getAccessCount() == null ? 0 : memory.getAccessCount(),
+                                    Comparator.reverseOrder())
+                            .thenComparing(AiMemory::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                            .thenComparing(AiMemory::getId, Comparator.nullsLast(Comparator.reverseOrder())))
+                    .limit(limit)
+                    .toList();
+        }
+
         @Override
         protected List<AiMemory> queryConversationFallbackMemories(Long userId,
                                                                    Long conversationId,
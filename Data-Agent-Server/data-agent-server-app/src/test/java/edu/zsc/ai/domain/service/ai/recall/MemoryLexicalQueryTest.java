@@ -0,0 +1,37 @@
+package edu.zsc.ai.domain.service.ai.recall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MemoryLexicalQueryTest {
+
+    @Test
+    void toTsQuery_orsDistinctLowercaseTerms() {
+        assertEquals("show | orders | table | 订单表",
+                MemoryLexicalQuery.toTsQuery("Show the ORDERS table, the 订单表!"));
+    }
+
+    @Test
+    void terms_dropStopWordsSoTheyCannotCarryCoverage() {
+        assertEquals(List.of("name", "column", "used", "orders"),
+                MemoryLexicalQuery.terms("What is the name of the column to be used for the orders?"));
+        assertTrue(MemoryLexicalQuery.terms("to the to the to the").isEmpty());
+        assertNull(MemoryLexicalQuery.toTsQuery("Is it to the or to the of it?"));
+    }
+
+    @Test
+    void toTsQuery_dropsOperatorsAndSingleCharacters() {
+        assertEquals("drop | users", MemoryLexicalQuery.toTsQuery("a & !drop | (users) :*"));
+    }
+
+    @Test
+    void toTsQuery_noUsableTerms_returnsNull() {
+        assertNull(MemoryLexicalQuery.toTsQuery("  ? ! x "));
+        assertNull(MemoryLexicalQuery.toTsQuery(null));
+    }
+}
@@ -1,22 +1,36 @@
 package edu.zsc.ai.domain.service.db.impl;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import edu.zsc.ai.common.enums.org.WorkspaceTypeEnum;
 import edu.zsc.ai.context.RequestContext;
 import edu.zsc.ai.context.RequestContextInfo;
 import edu.zsc.ai.domain.model.context.DbContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.sql.DataSource;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ActiveConnectionRegistryTest {
@@ -28,7 +42,7 @@ class ActiveConnectionRegistryTest {
     }
 
     @Test
-    void getConnection_discardsConnectionWhenValidationFails() throws Exception {
+    void checkHealth_discardsConnectionWhenValidationFails() throws Exception {
         Connection staleConnection = mock(Connection.class);
         when(staleConnection.isClosed()).thenReturn(false);
         when(staleConnection.isValid(1)).thenReturn(false);
@@ -36,18 +50,31 @@ class ActiveConnectionRegistryTest {
 
         register(11L, 7L, "sales", null, dataSource);
 
+        assertEquals(1, ActiveConnectionRegistry.checkHealth());
         assertTrue(ActiveConnectionRegistry.getConnection(new DbContext(11L, "sales", null)).isEmpty());
         assertTrue(ActiveConnectionRegistry.getAnyActiveConnection(11L).isEmpty());
     }
 
     @Test
-    void getAnyOwnedActiveConnection_prefersRootConnectionWhenItIsUsable() throws SQLException {
+    void checkHealth_skipsPoolsColdSinceCutoff() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Connection staleConnection = mock(Connection.class);
+        when(staleConnection.isValid(1)).thenReturn(false);
+        DataSource coldDataSource = dataSource(staleConnection);
+        register(12L, 7L, null, null, coldDataSource, now.minusHours(2));
+
+        assertEquals(0, ActiveConnectionRegistry.checkHealth(now.minusHours(1)));
+
+        verify(coldDataSource, never()).getConnection();
+        assertTrue(ActiveConnectionRegistry.getAnyActiveConnection(12L).isPresent());
+    }
+
+    @Test
+    void registerConnection_keepsOneUnscopedPoolPerConnection() throws SQLException {
         RequestContext.set(RequestContextInfo.builder().userId(7L).build());
 
-        Connection schemaConnection = usableConnection();
-        Connection rootConnection = usableConnection();
-        DataSource schemaDataSource = dataSource(schemaConnection);
-        DataSource rootDataSource = dataSource(rootConnection);
+        DataSource schemaDataSource = dataSource(usableConnection());
+        DataSource rootDataSource = dataSource(usableConnection());
 
         register(21L, 7L, "sales", null, schemaDataSource);
         register(21L, 7L, null, null, rootDataSource);
@@ -55,25 +82,123 @@ class ActiveConnectionRegistryTest {
         ActiveConnectionRegistry.ActiveConnection active = ActiveConnectionRegistry.getAnyOwnedActiveConnection(21L);
 
         assertSame(rootDataSource, active.dataSource());
+        assertNull(active.databaseName());
+        assertEquals(1, ActiveConnectionRegistry.poolCount());
     }
 
     @Test
-    void getAnyOwnedActiveConnection_skipsStaleRootConnection() throws SQLException {
-        RequestContext.set(RequestContextInfo.builder().userId(7L).build());
+    void getConnection_doesNotBorrowOnLookup() throws SQLException {
+        DataSource dataSource = dataSource(usableConnection());
+
+        register(51L, 7L, null, null, dataSource);
+
+        assertTrue(ActiveConnectionRegistry.getConnection(new DbContext(51L, "sales", null)).isPresent());
+        assertTrue(ActiveConnectionRegistry.getAnyActiveConnection(51L).isPresent());
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_scopesSharedPoolAndRestoresCatalogOnReturn() throws Exception {
+        Connection connection = usableConnection();
+        when(connection.getCatalog()).thenReturn("app");
+        DataSource dataSource = dataSource(connection);
+
+        register(41L, 7L, null, null, dataSource);
+
+        ActiveConnectionRegistry.ActiveConnection sales =
+                ActiveConnectionRegistry.getConnection(new DbContext(41L, "sales", null)).orElseThrow();
+        assertSame(dataSource, sales.dataSource());
+        assertEquals("sales", sales.databaseName());
+        assertEquals(1, ActiveConnectionRegistry.poolCount());
 
-        Connection staleRootConnection = mock(Connection.class);
-        when(staleRootConnection.isClosed()).thenReturn(true);
-        DataSource staleRootDataSource = dataSource(staleRootConnection);
+        try (ActiveConnectionRegistry.BorrowedConnection ignored = sales.borrowConnection()) {
+            verify(connection).setCatalog("sales");
+        }
 
-        Connection schemaConnection = usableConnection();
-        DataSource schemaDataSource = dataSource(schemaConnection);
+        InOrder order = inOrder(connection);
+        order.verify(connection).setCatalog("sales");
+        order.verify(connection).setCatalog("app");
+        order.verify(connection).close();
+        verify(connection, never()).setSchema(anyString());
+    }
+
+    @Test
+    void borrowConnection_reusesPhysicalConnectionOfPoolWithoutDefaultCatalog() throws Exception {
+        Deque<Connection> idle = new ArrayDeque<>();
+        AtomicInteger created = new AtomicInteger();
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            if (!idle.isEmpty()) {
+                return idle.pop();
+            }
+            created.incrementAndGet();
+            Connection connection = usableConnection();
+            doAnswer(close -> idle.push(connection)).when(connection).close();
+            return connection;
+        });
+        HikariPoolMXBean poolBean = mock(HikariPoolMXBean.class);
+        when(poolBean.getTotalConnections()).thenAnswer(invocation -> created.get());
+        when(dataSource.getHikariPoolMXBean()).thenReturn(poolBean);
 
-        register(31L, 7L, null, null, staleRootDataSource);
-        register(31L, 7L, "sales", null, schemaDataSource);
+        register(42L, 7L, null, null, dataSource);
+        ActiveConnectionRegistry.ActiveConnection sales =
+                ActiveConnectionRegistry.getConnection(new DbContext(42L, "sales", null)).orElseThrow();
+        ActiveConnectionRegistry.ActiveConnection crm =
+                ActiveConnectionRegistry.getConnection(new DbContext(42L, "crm", null)).orElseThrow();
 
-        ActiveConnectionRegistry.ActiveConnection active = ActiveConnectionRegistry.getAnyOwnedActiveConnection(31L);
+        try (ActiveConnectionRegistry.BorrowedConnection ignored = sales.borrowConnection()) {
+            assertEquals(1, dataSource.getHikariPoolMXBean().getTotalConnections());
+        }
+        try (ActiveConnectionRegistry.BorrowedConnection borrowed = crm.borrowConnection()) {
+            verify(borrowed.connection()).setCatalog("sales");
+            verify(borrowed.connection()).setCatalog("crm");
+        }
 
-        assertSame(schemaDataSource, active.dataSource());
+        assertEquals(1, dataSource.getHikariPoolMXBean().getTotalConnections());
+        verify(dataSource, never()).evictConnection(any());
+    }
+
+    @Test
+    void borrowConnection_doesNotRestoreBlankDefaultCatalog() throws Exception {
+        Connection connection = usableConnection();
+        when(connection.getCatalog()).thenReturn("");
+        DataSource dataSource = dataSource(connection);
+
+        register(43L, 7L, null, null, dataSource);
+        ActiveConnectionRegistry.ActiveConnection sales =
+                ActiveConnectionRegistry.getConnection(new DbContext(43L, "sales", null)).orElseThrow();
+        try (ActiveConnectionRegistry.BorrowedConnection ignored = sales.borrowConnection()) {
+            verify(connection).setCatalog("sales");
+        }
+
+        verify(connection, never()).setCatalog("");
+        verify(connection).close();
+    }
+
+    @Test
+    void closeIdleSince_closesOnlyPoolsUnusedSinceCutoff() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        register(61L, 7L, null, null, dataSource(usableConnection()), now.minusHours(2));
+        register(62L, 7L, null, null, dataSource(usableConnection()), now);
+
+        assertEquals(1, ActiveConnectionRegistry.closeIdleSince(now.minusHours(1)));
+
+        assertTrue(ActiveConnectionRegistry.getAnyActiveConnection(61L).isEmpty());
+        assertTrue(ActiveConnectionRegistry.getAnyActiveConnection(62L).isPresent());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed_keepsMostRecentPoolsWithinBudget() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        register(71L, 7L, null, null, dataSource(usableConnection()), now.minusMinutes(30));
+        register(72L, 7L, null, null, dataSource(usableConnection()), now.minusMinutes(10));
+        register(73L, 7L, null, null, dataSource(usableConnection()), now);
+
+        assertEquals(1, ActiveConnectionRegistry.evictLeastRecentlyUsed(2));
+
+        assertEquals(2, ActiveConnectionRegistry.poolCount());
+        assertTrue(ActiveConnectionRegistry.getAnyActiveConnection(71L).isEmpty());
+        assertEquals(0, ActiveConnectionRegistry.evictLeastRecentlyUsed(2));
     }
 
     private Connection usableConnection() throws SQLException {
@@ -94,6 +219,15 @@ class ActiveConnectionRegistryTest {
                           String catalog,
                           String schema,
                           DataSource dataSource) {
+        register(connectionId, userId, catalog, schema, dataSource, LocalDateTime.now());
+    }
+
+    private void register(Long connectionId,
+                          Long userId,
+                          String catalog,
+                          String schema,
+                          DataSource dataSource,
+                          LocalDateTime lastAccessedAt) {
         ActiveConnectionRegistry.registerConnection(
                 connectionId,
                 new ActiveConnectionRegistry.ActiveConnection(
@@ -105,8 +239,8 @@ class ActiveConnectionRegistryTest {
                         "mysql-8",
                         catalog,
                         schema,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
+                        lastAccessedAt,
+                        lastAccessedAt,
                         WorkspaceTypeEnum.PERSONAL,
                         null
                 )
@@ -114,9 +248,9 @@ class ActiveConnectionRegistryTest {
     }
 
     @SuppressWarnings("unchecked")
-    private Map<Long, Map<String, ActiveConnectionRegistry.ActiveConnection>> activeConnections() throws Exception {
+    private Map<Long, ActiveConnectionRegistry.ActiveConnection> activeConnections() throws Exception {
         Field field = ActiveConnectionRegistry.class.getDeclaredField("activeConnections");
         field.setAccessible(true);
-        return (Map<Long, Map<String, ActiveConnectionRegistry.ActiveConnection>>) field.get(null);
+        return (Map<Long, ActiveConnectionRegistry.ActiveConnection>) field.get(null);
     }
 }
@@ -0,0 +1,148 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.common.enums.org.WorkspaceTypeEnum;
+import edu.zsc.ai.config.db.ConnectionPoolProperties;
+import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.context.RequestContextInfo;
+import edu.zsc.ai.domain.event.ConnectionChangedEvent;
+import edu.zsc.ai.domain.event.PluginsReloadedEvent;
+import edu.zsc.ai.domain.model.entity.db.DbConnection;
+import edu.zsc.ai.domain.service.db.ConnectionAccessService;
+import edu.zsc.ai.domain.service.db.DbConnectionService;
+import edu.zsc.ai.domain.service.db.ManagedDataSourceFactory;
+import edu.zsc.ai.plugin.manager.DefaultPluginManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long CONNECTION_ID = 83L;
+
+    private final DbConnectionService dbConnectionService = mock(DbConnectionService.class);
+    private final ConnectionAccessService connectionAccessService = mock(ConnectionAccessService.class);
+    private final ConnectionPoolProperties poolProperties = new ConnectionPoolProperties();
+    private DefaultPluginManager manager;
+    private MockedStatic<DefaultPluginManager> pluginManager;
+
+    @BeforeEach
+    void setUp() {
+        RequestContext.set(RequestContextInfo.builder().userId(USER_ID).build());
+        when(dbConnectionService.getById(CONNECTION_ID)).thenReturn(DbConnection.builder()
+                .id(CONNECTION_ID)
+                .userId(USER_ID)
+                .dbType("mysql")
+                .host("localhost")
+                .port(3306)
+                .build());
+
+        manager = mock(DefaultPluginManager.class);
+        when(manager.getConnectionManagerByDbType(anyString())).thenReturn(List.of());
+        pluginManager = mockStatic(DefaultPluginManager.class);
+        pluginManager.when(DefaultPluginManager::getInstance).thenReturn(manager);
+
+        registerPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ActiveConnectionRegistry.closeAllConnections(CONNECTION_ID);
+        pluginManager.close();
+        RequestContext.clear();
+    }
+
+    @Test
+    void openConnection_reusesResolvedConfigWithinTtlButStillChecksAccess() {
+        ConnectionServiceImpl service = service();
+
+        service.openConnection(CONNECTION_ID);
+        service.openConnection(CONNECTION_ID);
+
+        verify(dbConnectionService, times(1)).getById(CONNECTION_ID);
+        verify(manager, times(1)).getConnectionManagerByDbType("mysql");
+        verify(connectionAccessService, times(1)).assertReadable(anyLong());
+        verify(connectionAccessService, times(1)).assertReadable(any(DbConnection.class));
+    }
+
+    @Test
+    void openConnection_reloadsConfigOnceTtlExpired() throws InterruptedException {
+        poolProperties.setResolvedConnectionTtlMs(1);
+        ConnectionServiceImpl service = service();
+
+        service.openConnection(CONNECTION_ID);
+        Thread.sleep(20);
+        service.openConnection(CONNECTION_ID);
+
+        verify(dbConnectionService, times(2)).getById(CONNECTION_ID);
+        verify(connectionAccessService, times(2)).assertReadable(anyLong());
+    }
+
+    @Test
+    void openConnection_zeroTtlDisablesTheCache() {
+        poolProperties.setResolvedConnectionTtlMs(0);
+        ConnectionServiceImpl service = service();
+
+        service.openConnection(CONNECTION_ID);
+        service.openConnection(CONNECTION_ID);
+
+        verify(dbConnectionService, times(2)).getById(CONNECTION_ID);
+    }
+
+    @Test
+    void onConnectionChanged_dropsCachedConfigAndClosesPools() {
+        ConnectionServiceImpl service = service();
+        service.openConnection(CONNECTION_ID);
+
+        service.onConnectionChanged(new ConnectionChangedEvent(this, CONNECTION_ID, false));
+
+        assertTrue(ActiveConnectionRegistry.getAnyActiveConnection(CONNECTION_ID).isEmpty());
+        registerPool();
+        service.openConnection(CONNECTION_ID);
+        verify(dbConnectionService, times(2)).getById(CONNECTION_ID);
+    }
+
+    @Test
+    void onPluginsReloaded_dropsCachedPluginResolution() {
+        ConnectionServiceImpl service = service();
+        service.openConnection(CONNECTION_ID);
+
+        service.onPluginsReloaded(new PluginsReloadedEvent(this, Set.of("mysql-8")));
+        service.openConnection(CONNECTION_ID);
+
+        verify(manager, times(2)).getConnectionManagerByDbType("mysql");
+    }
+
+    /**
+     * Registers the pool up front so openConnection never builds one and only the resolution path is exercised.
+     */
+    private void registerPool() {
+        ActiveConnectionRegistry.registerConnection(CONNECTION_ID, new ActiveConnectionRegistry.ActiveConnection(
+                mock(DataSource.class), USER_ID, USER_ID, CONNECTION_ID, "mysql", "mysql-8", null, null,
+                LocalDateTime.now(), LocalDateTime.now(), WorkspaceTypeEnum.PERSONAL, null));
+    }
+
+    private ConnectionServiceImpl service() {
+        return new ConnectionServiceImpl(
+                dbConnectionService,
+                connectionAccessService,
+                mock(ManagedDataSourceFactory.class),
+                poolProperties);
+    }
+}
@@ -3,7 +3,9 @@ package edu.zsc.ai.domain.service.db.impl;
 import edu.zsc.ai.agent.tool.sql.model.NamedObjectDetail;
 import edu.zsc.ai.agent.tool.sql.model.ObjectQueryItem;
 import edu.zsc.ai.agent.tool.sql.model.ObjectSearchResponse;
+import edu.zsc.ai.async.DownstreamConcurrencyLimiter;
 import edu.zsc.ai.common.enums.ai.AgentTypeEnum;
+import edu.zsc.ai.config.ExecutorProperties;
 import edu.zsc.ai.context.AgentRequestContext;
 import edu.zsc.ai.context.AgentRequestContextInfo;
 import edu.zsc.ai.context.RequestContext;
@@ -61,7 +63,8 @@ class DiscoveryServiceImplTest {
                 schemaService,
                 databaseObjectService,
                 indexService,
-                connectionAccessService
+                connectionAccessService,
+                new DownstreamConcurrencyLimiter(new ExecutorProperties())
         );
     }
 
@@ -5,6 +5,7 @@ import edu.zsc.ai.config.db.ConnectionPoolProperties;
 import edu.zsc.ai.domain.service.db.ManagedDataSourceFactory;
 import edu.zsc.ai.plugin.capability.ConnectionManager;
 import edu.zsc.ai.plugin.connection.ConnectionConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
@@ -31,7 +32,7 @@ class HikariManagedDataSourceFactoryTest {
         properties.setIdleTimeoutMs(50_000L);
         properties.setMaxLifetimeMs(180_000L);
 
-        HikariManagedDataSourceFactory factory = new HikariManagedDataSourceFactory(properties);
+        HikariManagedDataSourceFactory factory = new HikariManagedDataSourceFactory(properties, new SimpleMeterRegistry());
         ConnectionManager manager = mock(ConnectionManager.class);
         Connection connection = mock(Connection.class);
         when(connection.isClosed()).thenReturn(false);
@@ -65,7 +66,7 @@ class HikariManagedDataSourceFactoryTest {
     @Test
     void create_failsWhenInitialConnectionCannotBeEstablished() {
         ConnectionPoolProperties properties = new ConnectionPoolProperties();
-        HikariManagedDataSourceFactory factory = new HikariManagedDataSourceFactory(properties);
+        HikariManagedDataSourceFactory factory = new HikariManagedDataSourceFactory(properties, new SimpleMeterRegistry());
         ConnectionManager manager = mock(ConnectionManager.class);
         when(manager.connect(any())).thenThrow(new RuntimeException("boom"));
 
@@ -77,9 +77,9 @@ class SchemaServiceImplTest {
     }
 
     @SuppressWarnings("unchecked")
-    private Map<Long, Map<String, ActiveConnectionRegistry.ActiveConnection>> activeConnections() throws Exception {
+    private Map<Long, ActiveConnectionRegistry.ActiveConnection> activeConnections() throws Exception {
         Field field = ActiveConnectionRegistry.class.getDeclaredField("activeConnections");
         field.setAccessible(true);
-        return (Map<Long, Map<String, ActiveConnectionRegistry.ActiveConnection>>) field.get(null);
+        return (Map<Long, ActiveConnectionRegistry.ActiveConnection>) field.get(null);
     }
 }
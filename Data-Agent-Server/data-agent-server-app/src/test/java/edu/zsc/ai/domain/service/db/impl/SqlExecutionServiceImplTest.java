@@ -0,0 +1,224 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.async.DownstreamConcurrencyLimiter;
+import edu.zsc.ai.common.enums.org.WorkspaceTypeEnum;
+import edu.zsc.ai.config.ExecutorProperties;
+import edu.zsc.ai.config.db.SqlBatchProperties;
+import edu.zsc.ai.config.db.SqlResultCacheProperties;
+import edu.zsc.ai.context.RequestContext;
+import edu.zsc.ai.context.RequestContextInfo;
+import edu.zsc.ai.domain.model.context.DbContext;
+import edu.zsc.ai.domain.model.dto.response.db.ExecuteSqlResponse;
+import edu.zsc.ai.domain.service.db.ConnectionAccessService;
+import edu.zsc.ai.domain.service.db.ConnectionService;
+import edu.zsc.ai.metrics.AgentMetrics;
+import edu.zsc.ai.plugin.capability.CommandExecutor;
+import edu.zsc.ai.plugin.manager.DefaultPluginManager;
+import edu.zsc.ai.plugin.model.command.sql.SqlCommandRequest;
+import edu.zsc.ai.plugin.model.command.sql.SqlCommandResult;
+import edu.zsc.ai.plugin.sql.DefaultSqlValidator;
+import edu.zsc.ai.tracing.AgentTracing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SqlExecutionServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long CONVERSATION_ID = 99L;
+    private static final Long CONNECTION_ID = 81L;
+    private static final DbContext DB = new DbContext(CONNECTION_ID, null, null);
+
+    @SuppressWarnings("unchecked")
+    private final CommandExecutor<SqlCommandRequest, SqlCommandResult> commandExecutor = mock(CommandExecutor.class);
+    private final SqlBatchProperties batchProperties = new SqlBatchProperties();
+    private SqlResultCache sqlResultCache;
+    private MockedStatic<DefaultPluginManager> pluginManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        RequestContext.set(RequestContextInfo.builder().userId(USER_ID).conversationId(CONVERSATION_ID).build());
+        SqlResultCacheProperties cacheProperties = new SqlResultCacheProperties();
+        cacheProperties.setEnabled(true);
+        sqlResultCache = new SqlResultCache(cacheProperties);
+
+        DefaultPluginManager manager = mock(DefaultPluginManager.class);
+        when(manager.getSqlCommandExecutorByPluginId(anyString())).thenReturn(commandExecutor);
+        when(manager.getSqlValidatorByPluginId(anyString())).thenReturn(DefaultSqlValidator.INSTANCE);
+        pluginManager = mockStatic(DefaultPluginManager.class);
+        pluginManager.when(DefaultPluginManager::getInstance).thenReturn(manager);
+
+        Connection connection = mock(Connection.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        ActiveConnectionRegistry.registerConnection(CONNECTION_ID, new ActiveConnectionRegistry.ActiveConnection(
+                dataSource, USER_ID, USER_ID, CONNECTION_ID, "mysql", "mysql-8", null, null,
+                LocalDateTime.now(), LocalDateTime.now(), WorkspaceTypeEnum.PERSONAL, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ActiveConnectionRegistry.closeAllConnections(CONNECTION_ID);
+        pluginManager.close();
+        RequestContext.clear();
+    }
+
+    @Test
+    void executeBatchSql_readAfterWriteInSameBatchBypassesCachedResult() {
+        sqlResultCache.put(CONVERSATION_ID, DB, "SELECT * FROM t", queryResponse("stale"));
+        when(commandExecutor.executeCommand(any())).thenAnswer(invocation -> {
+            SqlCommandRequest request = invocation.getArgument(0);
+            return request.getExecuteSql().startsWith("UPDATE") ? updateResult(1) : queryResult("fresh");
+        });
+
+        List<ExecuteSqlResponse> responses = service((Executor) Runnable::run)
+                .executeBatchSql(DB, List.of("UPDATE t SET v = 'fresh'", "SELECT * FROM t"));
+
+        verify(commandExecutor, times(2)).executeCommand(any());
+        assertEquals(List.of(List.of("fresh")), responses.get(1).getRows());
+        assertTrue(sqlResultCache.get(CONVERSATION_ID, DB, "SELECT * FROM t").isEmpty());
+    }
+
+    @Test
+    void executeBatchSql_doesNotCacheSelectThatOverlappedAWrite() {
+        when(commandExecutor.executeCommand(any())).thenAnswer(invocation -> {
+            // Another request's write commits while this SELECT is still running.
+            sqlResultCache.invalidateConnection(CONNECTION_ID);
+            return queryResult("before write");
+        });
+
+        service((Executor) Runnable::run).executeBatchSql(DB, List.of("SELECT * FROM t"));
+
+        assertTrue(sqlResultCache.get(CONVERSATION_ID, DB, "SELECT * FROM t").isEmpty());
+    }
+
+    @Test
+    void executeBatchSql_runsReadOnlyLanesConcurrentlyAndKeepsInputOrder() {
+        CountDownLatch allLanesStarted = new CountDownLatch(4);
+        when(commandExecutor.executeCommand(any())).thenAnswer(invocation -> {
+            SqlCommandRequest request = invocation.getArgument(0);
+            allLanesStarted.countDown();
+            // Only completes in time if all four statements are in flight together.
+            boolean concurrent = allLanesStarted.await(5, TimeUnit.SECONDS);
+            return queryResult(concurrent ? request.getExecuteSql().substring("SELECT ".length()) : "sequential");
+        });
+        ExecutorService sharedExecutor = Executors.newFixedThreadPool(4);
+        try {
+            List<ExecuteSqlResponse> responses = service(sharedExecutor).executeBatchSql(DB, List.of(
+                    "SELECT 'a'", "SELECT 'b'", "SELECT 'c'", "SELECT 'd'"));
+
+            assertEquals(List.of("'a'", "'b'", "'c'", "'d'"),
+                    responses.stream().map(response -> response.getRows().get(0).get(0)).toList());
+        } finally {
+            sharedExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeBatchSql_runsLanesInlineWhenSharedExecutorIsSaturated() {
+        Thread caller = Thread.currentThread();
+        List<Thread> executingThreads = new CopyOnWriteArrayList<>();
+        when(commandExecutor.executeCommand(any())).thenAnswer(invocation -> {
+            executingThreads.add(Thread.currentThread());
+            SqlCommandRequest request = invocation.getArgument(0);
+            return queryResult(request.getExecuteSql());
+        });
+        Executor saturated = task -> {
+            throw new RejectedExecutionException("saturated");
+        };
+
+        List<ExecuteSqlResponse> responses = service(saturated).executeBatchSql(DB, List.of("SELECT 1", "SELECT 2"));
+
+        assertEquals(List.of(List.of("SELECT 1")), responses.get(0).getRows());
+        assertEquals(List.of(List.of("SELECT 2")), responses.get(1).getRows());
+        assertEquals(List.of(caller, caller), executingThreads);
+    }
+
+    @Test
+    void executeBatchSql_failingStatementDoesNotFailOtherLanes() {
+        when(commandExecutor.executeCommand(any())).thenAnswer(invocation -> {
+            SqlCommandRequest request = invocation.getArgument(0);
+            if (request.getExecuteSql().contains("missing")) {
+                throw new IllegalStateException("Table 'missing' doesn't exist");
+            }
+            return queryResult(request.getExecuteSql());
+        });
+        ExecutorService sharedExecutor = Executors.newFixedThreadPool(4);
+        try {
+            List<ExecuteSqlResponse> responses = service(sharedExecutor).executeBatchSql(DB, List.of(
+                    "SELECT * FROM orders", "SELECT * FROM missing", "SELECT * FROM users"));
+
+            assertTrue(responses.get(0).isSuccess());
+            assertFalse(responses.get(1).isSuccess());
+            assertEquals("Table 'missing' doesn't exist", responses.get(1).getErrorMessage());
+            assertEquals("SELECT * FROM missing", responses.get(1).getOriginalSql());
+            assertTrue(responses.get(2).isSuccess());
+            assertEquals(List.of(List.of("SELECT * FROM users")), responses.get(2).getRows());
+        } finally {
+            sharedExecutor.shutdownNow();
+        }
+    }
+
+    private SqlExecutionServiceImpl service(Executor sharedExecutor) {
+        return new SqlExecutionServiceImpl(
+                mock(ConnectionService.class),
+                mock(ConnectionAccessService.class),
+                new AgentMetrics(new SimpleMeterRegistry()),
+                new AgentTracing(Tracer.NOOP),
+                sqlResultCache,
+                batchProperties,
+                new DownstreamConcurrencyLimiter(new ExecutorProperties()),
+                sharedExecutor);
+    }
+
+    private static SqlCommandResult queryResult(String value) {
+        SqlCommandResult result = new SqlCommandResult();
+        result.setSuccess(true);
+        result.setQuery(true);
+        result.setHeaders(List.of("v"));
+        result.setRows(List.of(List.of(value)));
+        return result;
+    }
+
+    private static SqlCommandResult updateResult(int affectedRows) {
+        SqlCommandResult result = new SqlCommandResult();
+        result.setSuccess(true);
+        result.setAffectedRows(affectedRows);
+        return result;
+    }
+
+    private static ExecuteSqlResponse queryResponse(String value) {
+        return ExecuteSqlResponse.builder()
+                .success(true)
+                .query(true)
+                .rows(List.of(List.<Object>of(value)))
+                .build();
+    }
+}
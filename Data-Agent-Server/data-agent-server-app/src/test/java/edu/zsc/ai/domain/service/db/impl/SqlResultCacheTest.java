@@ -0,0 +1,119 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.config.db.SqlResultCacheProperties;
+import edu.zsc.ai.domain.event.ConversationDeletedEvent;
+import edu.zsc.ai.domain.model.context.DbContext;
+import edu.zsc.ai.domain.model.dto.response.db.ExecuteSqlResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlResultCacheTest {
+
+    private static final DbContext SALES = new DbContext(11L, "sales", "public");
+
+    private SqlResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        SqlResultCacheProperties properties = new SqlResultCacheProperties();
+        properties.setEnabled(true);
+        properties.setMaxEntriesPerConversation(2);
+        cache = new SqlResultCache(properties);
+    }
+
+    @Test
+    void get_matchesNormalizedSqlWithinSameConversationOnly() {
+        cache.put(1L, SALES, "SELECT *  FROM orders;", response(1));
+
+        assertTrue(cache.get(1L, SALES, "SELECT * FROM orders").isPresent());
+        assertTrue(cache.get(2L, SALES, "SELECT * FROM orders").isEmpty());
+        assertTrue(cache.get(1L, new DbContext(11L, "sales", "audit"), "SELECT * FROM orders").isEmpty());
+    }
+
+    @Test
+    void get_keepsWhitespaceInsideQuotedLiteralsApart() {
+        cache.put(1L, SALES, "SELECT * FROM users WHERE name = 'a  b'", response(1));
+
+        assertTrue(cache.get(1L, SALES, "SELECT * FROM users WHERE name = 'a b'").isEmpty());
+        assertTrue(cache.get(1L, SALES, "SELECT *\n  FROM users WHERE name = 'a  b';").isPresent());
+    }
+
+    @Test
+    void normalizeSql_leavesStatementsWithCommentsAsWritten() {
+        assertEquals("SELECT 1 -- x\n, 2", SqlResultCache.normalizeSql("SELECT 1 -- x\n, 2"));
+        assertEquals("SELECT 'a\\'  b'", SqlResultCache.normalizeSql("SELECT 'a\\'  b'"));
+    }
+
+    @Test
+    void invalidateConnection_dropsEntriesOfEveryConversation() {
+        cache.put(1L, SALES, "SELECT 1", response(1));
+        cache.put(2L, SALES, "SELECT 1", response(1));
+        cache.put(2L, new DbContext(12L, "crm", null), "SELECT 1", response(1));
+
+        cache.invalidateConnection(11L);
+
+        assertTrue(cache.get(1L, SALES, "SELECT 1").isEmpty());
+        assertTrue(cache.get(2L, SALES, "SELECT 1").isEmpty());
+        assertTrue(cache.get(2L, new DbContext(12L, "crm", null), "SELECT 1").isPresent());
+    }
+
+    @Test
+    void put_dropsResultReadBeforeAWriteOnTheConnection() {
+        long readStarted = cache.generation(11L);
+        long otherConnection = cache.generation(12L);
+        cache.invalidateConnection(11L);
+
+        cache.put(1L, SALES, "SELECT * FROM orders", response(1), readStarted);
+        cache.put(1L, new DbContext(12L, "crm", null), "SELECT 1", response(1), otherConnection);
+
+        assertTrue(cache.get(1L, SALES, "SELECT * FROM orders").isEmpty());
+        assertTrue(cache.get(1L, new DbContext(12L, "crm", null), "SELECT 1").isPresent());
+        cache.put(1L, SALES, "SELECT * FROM orders", response(1), cache.generation(11L));
+        assertTrue(cache.get(1L, SALES, "SELECT * FROM orders").isPresent());
+    }
+
+    @Test
+    void onConversationDeleted_dropsOnlyThatConversation() {
+        cache.put(1L, SALES, "SELECT 1", response(1));
+        cache.put(2L, SALES, "SELECT 1", response(1));
+
+        cache.onConversationDeleted(new ConversationDeletedEvent(this, 1L));
+
+        assertTrue(cache.get(1L, SALES, "SELECT 1").isEmpty());
+        assertTrue(cache.get(2L, SALES, "SELECT 1").isPresent());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedEntryAndSkipsFailures() {
+        cache.put(1L, SALES, "SELECT 1", response(1));
+        cache.put(1L, SALES, "SELECT 2", response(1));
+        cache.get(1L, SALES, "SELECT 1");
+        cache.put(1L, SALES, "SELECT 3", response(1));
+        cache.put(1L, SALES, "SELECT 4", ExecuteSqlResponse.builder().success(false).build());
+
+        assertTrue(cache.get(1L, SALES, "SELECT 1").isPresent());
+        assertTrue(cache.get(1L, SALES, "SELECT 2").isEmpty());
+        assertTrue(cache.get(1L, SALES, "SELECT 4").isEmpty());
+    }
+
+    @Test
+    void isCacheable_rejectsNonDeterministicStatements() {
+        assertTrue(cache.isCacheable(1L, "SELECT id FROM orders"));
+        assertFalse(cache.isCacheable(1L, "SELECT NOW()"));
+        assertFalse(cache.isCacheable(1L, "SELECT * FROM orders ORDER BY rand() LIMIT 5"));
+        assertFalse(cache.isCacheable(null, "SELECT id FROM orders"));
+    }
+
+    private static ExecuteSqlResponse response(int rows) {
+        return ExecuteSqlResponse.builder()
+                .success(true)
+                .query(true)
+                .rows(Collections.nCopies(rows, List.<Object>of(1)))
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package edu.zsc.ai.domain.service.db.impl;
+
+import edu.zsc.ai.plugin.model.command.sql.StatementListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SqlStatementRegistryTest {
+
+    @Test
+    void cancelConversation_cancelsOnlyThatConversationsRunningStatements() throws Exception {
+        Statement running = mock(Statement.class);
+        Statement other = mock(Statement.class);
+        StatementListener runningListener = SqlStatementRegistry.track(101L, "explore-1");
+        StatementListener otherListener = SqlStatementRegistry.track(202L, null);
+        runningListener.onStatementStart(running);
+        otherListener.onStatementStart(other);
+
+        assertEquals(1, SqlStatementRegistry.cancelConversation(101L));
+
+        verify(running).cancel();
+        verify(other, never()).cancel();
+        otherListener.onStatementEnd(other);
+    }
+
+    @Test
+    void cancelTask_ignoresStatementsThatAlreadyFinished() throws Exception {
+        Statement finished = mock(Statement.class);
+        StatementListener listener = SqlStatementRegistry.track(303L, "export-1");
+        listener.onStatementStart(finished);
+        listener.onStatementEnd(finished);
+
+        assertEquals(0, SqlStatementRegistry.cancelTask("export-1"));
+
+        verify(finished, never()).cancel();
+    }
+}
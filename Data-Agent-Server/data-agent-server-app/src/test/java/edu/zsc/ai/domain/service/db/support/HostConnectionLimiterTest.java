@@ -0,0 +1,60 @@
+package edu.zsc.ai.domain.service.db.support;
+
+import edu.zsc.ai.plugin.connection.ConnectionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class HostConnectionLimiterTest {
+
+    @Test
+    void open_capsPhysicalConnectionsPerHostAndReleasesOnClose() throws SQLException {
+        HostConnectionLimiter limiter = new HostConnectionLimiter(2, 0L);
+        ConnectionConfig primary = config("DB.internal", 3306);
+        ConnectionConfig sameHost = config("db.internal", 3306);
+        ConnectionConfig otherPort = config("db.internal", 3307);
+
+        Connection first = limiter.open(primary, () -> mock(Connection.class));
+        Connection physical = mock(Connection.class);
+        Connection second = limiter.open(sameHost, () -> physical);
+
+        assertEquals(2, limiter.inUse(primary));
+        assertThrows(SQLTransientConnectionException.class, () -> limiter.open(primary, () -> mock(Connection.class)));
+        limiter.open(otherPort, () -> mock(Connection.class));
+
+        second.close();
+        second.close();
+        verify(physical, times(2)).close();
+        assertEquals(1, limiter.inUse(primary));
+
+        first.abort(Runnable::run);
+        assertEquals(0, limiter.inUse(primary));
+    }
+
+    @Test
+    void open_releasesPermitWhenConnectFails() {
+        HostConnectionLimiter limiter = new HostConnectionLimiter(1, 0L);
+        ConnectionConfig config = config("db.internal", 3306);
+
+        assertThrows(IllegalStateException.class, () -> limiter.open(config, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(0, limiter.inUse(config));
+    }
+
+    private static ConnectionConfig config(String host, int port) {
+        ConnectionConfig config = new ConnectionConfig();
+        config.setHost(host);
+        config.setPort(port);
+        return config;
+    }
+}
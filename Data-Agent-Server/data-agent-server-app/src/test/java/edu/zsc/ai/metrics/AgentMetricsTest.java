@@ -0,0 +1,79 @@
+package edu.zsc.ai.metrics;
+
+import edu.zsc.ai.common.constant.AgentMetricNames;
+import edu.zsc.ai.plugin.model.command.sql.SqlCommandResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private AgentMetrics agentMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        agentMetrics = new AgentMetrics(registry);
+    }
+
+    @Test
+    void recordSqlExecution_splitsExecuteAndFetchTimings() {
+        SqlCommandResult result = new SqlCommandResult();
+        result.setSuccess(true);
+        result.setExecutionMs(40L);
+        result.setFetchingMs(15L);
+
+        agentMetrics.recordSqlExecution("mysql", result);
+
+        assertEquals(40, registry.get(AgentMetricNames.SQL_EXECUTE)
+                .tag(AgentMetricNames.TAG_DB_TYPE, "mysql")
+                .timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(15, registry.get(AgentMetricNames.SQL_FETCH)
+                .tag(AgentMetricNames.TAG_DB_TYPE, "mysql")
+                .timer().totalTime(TimeUnit.MILLISECONDS));
+        assertNull(registry.find(AgentMetricNames.SQL_FAILURES).counter());
+    }
+
+    @Test
+    void recordSqlExecution_countsFailedAndMissingResults() {
+        SqlCommandResult failed = new SqlCommandResult();
+        failed.setSuccess(false);
+
+        agentMetrics.recordSqlExecution("mysql", failed);
+        agentMetrics.recordSqlExecution("mysql", null);
+
+        assertEquals(2, registry.get(AgentMetricNames.SQL_FAILURES)
+                .tag(AgentMetricNames.TAG_DB_TYPE, "mysql")
+                .counter().count());
+    }
+
+    @Test
+    void recordToolInvocation_tagsOutcomeAndFallsBackToUnknownTool() {
+        agentMetrics.recordToolInvocation("executeSelectSql", true, 12);
+        agentMetrics.recordToolInvocation(null, false, 5);
+
+        assertEquals(1, registry.get(AgentMetricNames.TOOL_INVOCATION)
+                .tags(AgentMetricNames.TAG_TOOL, "executeSelectSql",
+                        AgentMetricNames.TAG_OUTCOME, AgentMetricNames.OUTCOME_SUCCESS)
+                .timer().count());
+        assertEquals(1, registry.get(AgentMetricNames.TOOL_INVOCATION)
+                .tags(AgentMetricNames.TAG_TOOL, AgentMetricNames.UNKNOWN,
+                        AgentMetricNames.TAG_OUTCOME, AgentMetricNames.OUTCOME_FAILURE)
+                .timer().count());
+    }
+
+    @Test
+    void recordChatTurn_onlyRecordsSummariesForSuccessfulTurns() {
+        agentMetrics.recordChatTurn("qwen-max", true, 1200, 3, 480);
+        agentMetrics.recordChatTurn("qwen-max", false, 300, 0, null);
+
+        assertEquals(2, registry.find(AgentMetricNames.CHAT_TURN).timers().size());
+        assertEquals(1, registry.get(AgentMetricNames.CHAT_TOOL_CALLS).summary().count());
+        assertEquals(480, registry.get(AgentMetricNames.CHAT_OUTPUT_TOKENS).summary().totalAmount());
+    }
+}
@@ -0,0 +1,75 @@
+package edu.zsc.ai.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileRangeTransferUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void transfer_writesWholeFileWithoutRange() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("export.csv"), "0123456789");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileRangeTransferUtil.transfer(file, new MockHttpServletRequest("GET", "/"), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void transfer_servesSingleRangeAsPartialContent() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("export.csv"), "0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileRangeTransferUtil.transfer(file, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 4-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("456789", response.getContentAsString());
+    }
+
+    @Test
+    void transfer_rejectsUnsatisfiableRange() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("export.csv"), "0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileRangeTransferUtil.transfer(file, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void transfer_handsRangeToContainerSendfileWhenSupported() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("export.csv"), "0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(FileRangeTransferUtil.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileRangeTransferUtil.transfer(file, request, response);
+
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute(FileRangeTransferUtil.SENDFILE_FILENAME_ATTRIBUTE));
+        assertEquals(2L, request.getAttribute(FileRangeTransferUtil.SENDFILE_START_ATTRIBUTE));
+        assertEquals(6L, request.getAttribute(FileRangeTransferUtil.SENDFILE_END_ATTRIBUTE));
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("", response.getContentAsString());
+    }
+}
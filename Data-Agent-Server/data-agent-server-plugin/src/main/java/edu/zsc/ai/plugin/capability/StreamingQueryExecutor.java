@@ -0,0 +1,25 @@
+package edu.zsc.ai.plugin.capability;
+
+import edu.zsc.ai.plugin.model.command.sql.QueryRowConsumer;
+import edu.zsc.ai.plugin.model.command.sql.SqlCommandRequest;
+
+import java.sql.SQLException;
+
+/**
+ * Streaming query capability.
+ * Runs a single query and hands its rows to a consumer one at a time instead of materializing the result, so
+ * exports of any size run in constant memory.
+ */
+public interface StreamingQueryExecutor {
+
+    /**
+     * Execute the query and pass its rows to {@code consumer} while the result set is open.
+     * The connection in the request is not closed.
+     *
+     * @param command  the query to run; only a single statement returning a result set is supported
+     * @param consumer reads the rows; must not keep the iterator after returning
+     * @return whatever the consumer returns
+     * @throws SQLException if the query fails or is cancelled
+     */
+    <T> T streamQuery(SqlCommandRequest command, QueryRowConsumer<T> consumer) throws SQLException;
+}
@@ -0,0 +1,141 @@
+package edu.zsc.ai.plugin.driver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Verifies downloaded artifacts against the checksum files Maven repositories publish next to them.
+ * <p>
+ * SHA-256 is preferred and SHA-1 used when only that is published or the SHA-256 file cannot be fetched. A mismatch
+ * fails verification; an artifact without any checksum that can be fetched is accepted with a warning and left to
+ * {@link JarFileValidator}.
+ */
+public final class ChecksumVerifier {
+
+    private static final Logger logger = Logger.getLogger(ChecksumVerifier.class.getName());
+
+    /**
+     * Checksum file extensions and their digest algorithms, strongest first
+     */
+    private static final List<String[]> ALGORITHMS = List.of(
+        new String[]{"sha256", "SHA-256"},
+        new String[]{"sha1", "SHA-1"}
+    );
+
+    private ChecksumVerifier() {
+        // Utility class
+    }
+
+    /**
+     * Verify a downloaded file against the checksum published at {@code artifactUrl + ".sha256"} or {@code ".sha1"}.
+     *
+     * @param file downloaded file
+     * @param artifactUrl URL the file was downloaded from
+     * @return true if a checksum was found and matched, false if none could be fetched
+     * @throws RuntimeException if the checksum does not match
+     */
+    public static boolean verify(Path file, URL artifactUrl) {
+        return verify(file, artifactUrl, HttpDownloader::fetchText);
+    }
+
+    static boolean verify(Path file, URL artifactUrl, Function<URL, String> fetcher) {
+        for (String[] algorithm : ALGORITHMS) {
+            URL checksumUrl = checksumUrl(artifactUrl, algorithm[0]);
+            String published;
+            try {
+                published = fetcher.apply(checksumUrl);
+            } catch (RuntimeException e) {
+                // A mirror that errors on one checksum file may still serve the other
+                logger.warning("Failed to fetch checksum " + checksumUrl + ": " + e.getMessage());
+                continue;
+            }
+            if (published != null) {
+                verify(file, algorithm[1], published, checksumUrl.toString());
+                return true;
+            }
+        }
+        logger.warning("No checksum available for " + artifactUrl + ", relying on structural validation only");
+        return false;
+    }
+
+    /**
+     * Verify a file against sidecar checksum files ({@code .sha256} / {@code .sha1}) next to {@code artifactFile}.
+     *
+     * @param file file to verify (may be a copy of artifactFile)
+     * @param artifactFile artifact whose sidecar files are read
+     * @return true if a checksum was found and matched, false if there is none
+     * @throws RuntimeException if the checksum does not match
+     */
+    public static boolean verifyAgainstSidecar(Path file, Path artifactFile) {
+        for (String[] algorithm : ALGORITHMS) {
+            Path sidecar = artifactFile.resolveSibling(artifactFile.getFileName() + "." + algorithm[0]);
+            if (Files.isRegularFile(sidecar)) {
+                try {
+                    verify(file, algorithm[1], Files.readString(sidecar, StandardCharsets.US_ASCII), sidecar.toString());
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to read checksum file: " + sidecar, e);
+                }
+                return true;
+            }
+        }
+        logger.warning("No checksum file next to " + artifactFile + ", relying on structural validation only");
+        return false;
+    }
+
+    /**
+     * Compute the hex digest of a file without loading it into memory.
+     *
+     * @param file file to hash
+     * @param algorithm digest algorithm (e.g. "SHA-256")
+     * @return lowercase hex digest
+     */
+    public static String digest(Path file, String algorithm) {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file), MessageDigest.getInstance(algorithm))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to compute " + algorithm + " of " + file, e);
+        }
+    }
+
+    /**
+     * Extract the hash from checksum file content; repositories publish either the bare hash or
+     * {@code "<hash>  <file name>"}.
+     */
+    static String parseChecksum(String content) {
+        String trimmed = content.trim();
+        int whitespace = trimmed.indexOf(' ');
+        return (whitespace > 0 ? trimmed.substring(0, whitespace) : trimmed).toLowerCase(Locale.ROOT);
+    }
+
+    private static void verify(Path file, String algorithm, String published, String source) {
+        String expected = parseChecksum(published);
+        String actual = digest(file, algorithm);
+        if (!actual.equals(expected)) {
+            throw new RuntimeException(String.format(
+                "%s checksum mismatch for %s: expected %s (from %s), got %s", algorithm, file, expected, source, actual));
+        }
+        logger.fine(String.format("%s checksum verified for %s", algorithm, file));
+    }
+
+    private static URL checksumUrl(URL artifactUrl, String extension) {
+        try {
+            return new URL(artifactUrl.toString() + "." + extension);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("Failed to build checksum URL for " + artifactUrl, e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package edu.zsc.ai.plugin.driver;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Where drivers are downloaded from and stored.
+ * <p>
+ * A mirror directory is consulted before the remote repository; it may use the Maven repository layout
+ * ({@code groupId/artifactId/version/artifactId-version.jar}) or hold the jars flat. In offline mode only the mirror is used.
+ */
+@Getter
+@Builder
+public class DriverDownloadOptions {
+
+    /**
+     * Default time to live of cached maven-metadata.xml responses (1 hour)
+     */
+    public static final long DEFAULT_METADATA_CACHE_TTL_MS = 3_600_000L;
+
+    /**
+     * Base storage directory (default: {@link DriverConstants#DEFAULT_STORAGE_DIR})
+     */
+    private final String storageDirectory;
+
+    /**
+     * Maven repository URL (default: {@link DriverConstants#MAVEN_CENTRAL_URL})
+     */
+    private final String repositoryUrl;
+
+    /**
+     * Local mirror directory, or null for none
+     */
+    private final Path mirrorDirectory;
+
+    /**
+     * Never contact the remote repository
+     */
+    private final boolean offline;
+
+    /**
+     * How long maven-metadata.xml responses are reused; {@code <= 0} disables the cache
+     */
+    @Builder.Default
+    private final long metadataCacheTtlMs = DEFAULT_METADATA_CACHE_TTL_MS;
+
+    public static DriverDownloadOptions defaults() {
+        return DriverDownloadOptions.builder().build();
+    }
+
+    public String resolvedRepositoryUrl() {
+        return repositoryUrl != null && !repositoryUrl.isEmpty() ? repositoryUrl : DriverConstants.MAVEN_CENTRAL_URL;
+    }
+}
@@ -3,24 +3,38 @@ package edu.zsc.ai.plugin.driver;
 import edu.zsc.ai.plugin.connection.ConnectionConfig;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.sql.*;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
  * Utility class for loading JDBC drivers.
  * Handles loading drivers from external JAR files.
+ * <p>
+ * Each jar gets one class loader and one {@link DriverManager} registration for as long as it is loaded. A jar that
+ * changed on disk is unloaded and loaded again on the next use; {@link #unloadDriver(String)} deregisters the driver
+ * and closes its class loader so the driver classes can be collected. Connections still open through a closed class
+ * loader fail on their next unloaded class, so every unload first runs the hook set with
+ * {@link #setBeforeUnloadHook(Consumer)}, which is expected to close the pools using the jar.
  */
 public final class DriverLoader {
 
+    private static final Logger logger = Logger.getLogger(DriverLoader.class.getName());
+
     /**
-     * Cache for dynamically loaded driver class loaders
+     * Loaded drivers by jar path
      */
-    private static final ConcurrentMap<String, URLClassLoader> DRIVER_LOADERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LoadedDriver> DRIVER_LOADERS = new ConcurrentHashMap<>();
+
+    private static volatile Consumer<String> beforeUnloadHook = driverJarPath -> {
+    };
 
     /**
      * Private constructor to prevent instantiation.
@@ -34,44 +48,139 @@ public final class DriverLoader {
      *
      * @param config connection configuration (must contain driverJarPath)
      * @param driverClassName JDBC driver class name
+     * @return the loaded driver; connecting through it picks this jar even when several versions are loaded
      * @throws RuntimeException if driver loading fails
      */
-    public static void loadDriver(ConnectionConfig config, String driverClassName) {
-        loadDriverFromJar(config.getDriverJarPath(), driverClassName);
+    public static Driver loadDriver(ConnectionConfig config, String driverClassName) {
+        return loadDriverFromJar(config.getDriverJarPath(), driverClassName);
+    }
+
+    /**
+     * Sets the callback run with the jar path before a driver is unloaded, whether explicitly or because its jar
+     * changed on disk. It must close every connection opened through that jar.
+     */
+    public static void setBeforeUnloadHook(Consumer<String> hook) {
+        beforeUnloadHook = hook == null ? driverJarPath -> {
+        } : hook;
+    }
+
+    /**
+     * Runs the before-unload hook to drain pools using the jar, then deregisters the driver and closes its class
+     * loader. Connections opened through the jar and not closed by the hook stop working.
+     *
+     * @param driverJarPath jar path as passed in {@link ConnectionConfig#getDriverJarPath()}
+     * @return true if a driver was loaded from this jar
+     */
+    public static boolean unloadDriver(String driverJarPath) {
+        if (driverJarPath == null) {
+            return false;
+        }
+        LoadedDriver loaded = DRIVER_LOADERS.remove(driverJarPath);
+        if (loaded == null) {
+            return false;
+        }
+        release(driverJarPath, loaded);
+        return true;
+    }
+
+    /**
+     * Unloads every driver loaded from an external jar.
+     *
+     * @return number of drivers unloaded
+     */
+    public static int unloadAll() {
+        int unloaded = 0;
+        for (String driverJarPath : Set.copyOf(DRIVER_LOADERS.keySet())) {
+            if (unloadDriver(driverJarPath)) {
+                unloaded++;
+            }
+        }
+        return unloaded;
+    }
+
+    public static Set<String> loadedDriverJars() {
+        return Set.copyOf(DRIVER_LOADERS.keySet());
     }
 
     /**
      * Load driver from external JAR file
      */
-    private static void loadDriverFromJar(String driverJarPath, String driverClassName) {
+    private static Driver loadDriverFromJar(String driverJarPath, String driverClassName) {
         File driverJar = new File(driverJarPath);
         if (!driverJar.exists() || !driverJar.isFile()) {
             throw new IllegalArgumentException(
                 String.format("Driver JAR file not found: %s", driverJarPath));
         }
 
-        // Use cached class loader if available
-        URLClassLoader classLoader = DRIVER_LOADERS.computeIfAbsent(driverJarPath, path -> {
-            try {
-                URL jarUrl = driverJar.toURI().toURL();
-                return new URLClassLoader(new URL[]{jarUrl}, Thread.currentThread().getContextClassLoader());
-            } catch (Exception e) {
-                throw new RuntimeException(
-                    String.format("Failed to create class loader for driver JAR: %s", driverJarPath), e);
-            }
-        });
+        long lastModified = driverJar.lastModified();
+        LoadedDriver existing = DRIVER_LOADERS.get(driverJarPath);
+        if (existing != null && existing.jarLastModified() == lastModified
+                && existing.driverClassName().equals(driverClassName)) {
+            return existing.driver();
+        }
+        // Released outside the map update: the hook closes pools, which must not run under the map's bin lock.
+        if (existing != null && DRIVER_LOADERS.remove(driverJarPath, existing)) {
+            logger.info(String.format("Driver JAR changed, reloading: %s", driverJarPath));
+            release(driverJarPath, existing);
+        }
+        LoadedDriver loaded = DRIVER_LOADERS.computeIfAbsent(driverJarPath,
+                path -> register(driverJar, driverClassName, lastModified));
+        return loaded.driver();
+    }
+
+    private static LoadedDriver register(File driverJar, String driverClassName, long lastModified) {
+        URLClassLoader classLoader;
+        try {
+            URL jarUrl = driverJar.toURI().toURL();
+            classLoader = new URLClassLoader(new URL[]{jarUrl}, Thread.currentThread().getContextClassLoader());
+        } catch (Exception e) {
+            throw new RuntimeException(
+                String.format("Failed to create class loader for driver JAR: %s", driverJar.getPath()), e);
+        }
 
         try {
             // Load driver class using the custom class loader
             Class<?> driverClass = Class.forName(driverClassName, true, classLoader);
             Driver driver = (Driver) driverClass.getDeclaredConstructor().newInstance();
-            DriverManager.registerDriver(new DriverProxy(driver, classLoader));
+            DriverProxy proxy = new DriverProxy(driver, classLoader);
+            DriverManager.registerDriver(proxy);
+            return new LoadedDriver(classLoader, proxy, driverClassName, lastModified);
         } catch (Exception e) {
+            closeQuietly(classLoader);
             throw new RuntimeException(
-                String.format("Failed to load JDBC driver '%s' from %s", driverClassName, driverJarPath), e);
+                String.format("Failed to load JDBC driver '%s' from %s", driverClassName, driverJar.getPath()), e);
         }
     }
 
+    private static void release(String driverJarPath, LoadedDriver loaded) {
+        try {
+            beforeUnloadHook.accept(driverJarPath);
+        } catch (RuntimeException e) {
+            logger.warning(String.format("Failed to drain connections using %s: %s", driverJarPath, e.getMessage()));
+        }
+        try {
+            DriverManager.deregisterDriver(loaded.driver());
+        } catch (SQLException e) {
+            logger.warning(String.format("Failed to deregister driver from %s: %s", driverJarPath, e.getMessage()));
+        }
+        closeQuietly(loaded.classLoader());
+        logger.info(String.format("Unloaded JDBC driver %s from %s", loaded.driverClassName(), driverJarPath));
+    }
+
+    private static void closeQuietly(URLClassLoader classLoader) {
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            logger.warning(String.format("Failed to close driver class loader: %s", e.getMessage()));
+        }
+    }
+
+    private record LoadedDriver(URLClassLoader classLoader,
+                                DriverProxy driver,
+                                String driverClassName,
+                                long jarLastModified) {
+    }
+
     /**
          * Driver proxy to use custom class loader
          */
@@ -3,15 +3,23 @@ package edu.zsc.ai.plugin.driver;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Logger;
 
 /**
  * Utility class for downloading files via HTTP.
+ * <p>
+ * Files are streamed to a {@code .part} file next to the target and moved into place once complete, so a target that
+ * exists is always whole. A download that fails midway leaves the {@code .part} file behind and the next attempt
+ * resumes it with an HTTP Range request.
  */
 public final class HttpDownloader {
     
@@ -26,68 +34,157 @@ public final class HttpDownloader {
      * Read timeout in milliseconds (60 seconds)
      */
     private static final int READ_TIMEOUT = 60000;
+
+    /**
+     * Suffix of in-progress downloads
+     */
+    static final String PART_SUFFIX = ".part";
+
+    /**
+     * HTTP 416 Range Not Satisfiable
+     */
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
     
     private HttpDownloader() {
         // Utility class
     }
     
     /**
-     * Download a file from URL and save to target path.
+     * Download a file from URL and save to target path, resuming a previous partial download if one exists.
      *
      * @param url URL to download from
      * @param targetPath target file path
      * @throws RuntimeException if download fails
      */
     public static void download(URL url, Path targetPath) {
+        Path partPath = downloadPartial(url, targetPath);
+        try {
+            moveIntoPlace(partPath, targetPath);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                String.format("Failed to move downloaded file into place: %s", targetPath), e);
+        }
+    }
+
+    /**
+     * Download a file from URL into the {@code .part} file of target path without moving it into place, so callers
+     * can verify it first.
+     *
+     * @param url URL to download from
+     * @param targetPath final target file path
+     * @return the completed {@code .part} file
+     * @throws RuntimeException if download fails; the partial file is kept for resuming
+     */
+    public static Path downloadPartial(URL url, Path targetPath) {
+        Path partPath = partPath(targetPath);
+        try {
+            Files.createDirectories(targetPath.getParent());
+            long resumeFrom = Files.exists(partPath) ? Files.size(partPath) : 0L;
+            if (!transfer(url, partPath, resumeFrom)) {
+                // Server rejected the range: the partial file is stale, start over
+                Files.deleteIfExists(partPath);
+                transfer(url, partPath, 0L);
+            }
+            logger.info(String.format("Successfully downloaded file from %s to %s", url, partPath));
+            return partPath;
+        } catch (IOException e) {
+            throw new RuntimeException(
+                String.format("Failed to download file from %s: %s", url, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Fetch a small text resource such as a checksum file.
+     *
+     * @param url URL to fetch
+     * @return the body, or null if the resource does not exist
+     * @throws RuntimeException if the request fails for another reason
+     */
+    public static String fetchText(URL url) {
         HttpURLConnection connection = null;
-        InputStream inputStream = null;
-        
         try {
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setConnectTimeout(CONNECTION_TIMEOUT);
-            connection.setReadTimeout(READ_TIMEOUT);
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("User-Agent", "Data-Agent/1.0");
-            
+            connection = openConnection(url);
             int responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            }
             if (responseCode != HttpURLConnection.HTTP_OK) {
-                throw new RuntimeException(
-                    String.format("Failed to download file from %s: HTTP %d", url, responseCode));
+                throw new RuntimeException(String.format("Failed to fetch %s: HTTP %d", url, responseCode));
             }
-            
-            // Create parent directories if needed
-            Files.createDirectories(targetPath.getParent());
-            
-            // Download file
-            inputStream = connection.getInputStream();
-            Files.copy(inputStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
-            
-            logger.info(String.format("Successfully downloaded file from %s to %s", url, targetPath));
-            
-        } catch (IOException e) {
-            // Clean up partial file if exists
-            try {
-                if (Files.exists(targetPath)) {
-                    Files.delete(targetPath);
-                }
-            } catch (IOException deleteException) {
-                logger.warning("Failed to delete partial file: " + deleteException.getMessage());
+            try (InputStream inputStream = connection.getInputStream()) {
+                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
             }
-            
-            throw new RuntimeException(
-                String.format("Failed to download file from %s: %s", url, e.getMessage()), e);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to fetch %s: %s", url, e.getMessage()), e);
         } finally {
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    logger.warning("Failed to close input stream: " + e.getMessage());
-                }
-            }
             if (connection != null) {
                 connection.disconnect();
             }
         }
     }
-}
 
+    /**
+     * Discard a partial download, e.g. after it failed verification.
+     */
+    public static void discardPartial(Path targetPath) {
+        try {
+            Files.deleteIfExists(partPath(targetPath));
+        } catch (IOException e) {
+            logger.warning("Failed to delete partial file: " + e.getMessage());
+        }
+    }
+
+    static Path partPath(Path targetPath) {
+        return targetPath.resolveSibling(targetPath.getFileName() + PART_SUFFIX);
+    }
+
+    /**
+     * @return false if the server rejected the requested range
+     */
+    private static boolean transfer(URL url, Path partPath, long resumeFrom) throws IOException {
+        HttpURLConnection connection = openConnection(url);
+        try {
+            if (resumeFrom > 0) {
+                connection.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+            }
+            int responseCode = connection.getResponseCode();
+            if (responseCode == HTTP_RANGE_NOT_SATISFIABLE && resumeFrom > 0) {
+                return false;
+            }
+            boolean append = responseCode == HttpURLConnection.HTTP_PARTIAL;
+            if (responseCode != HttpURLConnection.HTTP_OK && !append) {
+                throw new IOException("HTTP " + responseCode);
+            }
+            if (append) {
+                logger.info(String.format("Resuming download of %s at byte %d", url, resumeFrom));
+            }
+            try (InputStream inputStream = connection.getInputStream();
+                 OutputStream outputStream = Files.newOutputStream(partPath,
+                     StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE,
+                     append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                inputStream.transferTo(outputStream);
+            }
+            return true;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static HttpURLConnection openConnection(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(CONNECTION_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        connection.setRequestMethod("GET");
+        connection.setRequestProperty("User-Agent", "Data-Agent/1.0");
+        return connection;
+    }
+
+    static void moveIntoPlace(Path source, Path targetPath) throws IOException {
+        try {
+            Files.move(source, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -2,20 +2,35 @@ package edu.zsc.ai.plugin.driver;
 
 import edu.zsc.ai.plugin.enums.DbType;
 
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
 /**
  * Utility class for downloading JDBC drivers from Maven Central.
  * Combines multiple components to complete the download process:
  * - MavenUrlBuilder: Builds download URLs
- * - HttpDownloader: Downloads files via HTTP
+ * - HttpDownloader: Downloads files via HTTP (streamed to disk, resumable)
+ * - ChecksumVerifier: Verifies downloads against published SHA-256/SHA-1 checksums
  * - JarFileValidator: Validates downloaded JAR files
  * - DriverStorageManager: Manages storage directories and files
+ * <p>
+ * Different drivers download concurrently; concurrent requests for the same driver wait for the first one and reuse
+ * its file.
  */
 public final class MavenDriverDownloader {
     
     private static final Logger logger = Logger.getLogger(MavenDriverDownloader.class.getName());
+
+    /**
+     * One lock per target file so the same jar is never written by two downloads at once
+     */
+    private static final ConcurrentMap<Path, Object> DOWNLOAD_LOCKS = new ConcurrentHashMap<>();
     
     private MavenDriverDownloader() {
         // Utility class
@@ -36,58 +51,65 @@ public final class MavenDriverDownloader {
             DbType dbType,
             String baseStorageDir,
             String mavenRepositoryUrl) {
+        return downloadDriver(coordinates, dbType, DriverDownloadOptions.builder()
+            .storageDirectory(baseStorageDir)
+            .repositoryUrl(mavenRepositoryUrl)
+            .build());
+    }
+
+    /**
+     * Download a driver, taking it from the local mirror when present there.
+     *
+     * @param coordinates Maven coordinates (groupId, artifactId, version)
+     * @param dbType database type (for directory organization)
+     * @param options storage directory, repository, mirror and offline settings
+     * @return path to downloaded driver file
+     * @throws RuntimeException if download or verification fails, or the driver is not mirrored in offline mode
+     */
+    public static Path downloadDriver(MavenCoordinates coordinates, DbType dbType, DriverDownloadOptions options) {
         
         // Step 1: Determine storage directory and file path
-        Path storageDir = DriverStorageManager.getStorageDirectory(baseStorageDir, dbType);
-        Path driverFilePath = DriverStorageManager.getDriverFilePath(baseStorageDir, dbType, coordinates);
-        
-        // Step 2: Check if driver already exists (cache check)
-        if (DriverStorageManager.driverExists(driverFilePath)) {
-            logger.info("Driver already exists, skipping download: " + driverFilePath);
-            return driverFilePath;
-        }
-        
-        // Step 3: Build download URL
-        String repoUrl = mavenRepositoryUrl != null && !mavenRepositoryUrl.isEmpty()
-            ? mavenRepositoryUrl
-            : DriverConstants.MAVEN_CENTRAL_URL;
-        
-        java.net.URL downloadUrl = MavenUrlBuilder.buildDownloadUrl(coordinates, repoUrl);
-        logger.info("Downloading driver from: " + downloadUrl);
-        
-        // Step 4: Ensure storage directory exists
-        DriverStorageManager.ensureDirectoryExists(storageDir);
-        
-        // Step 5: Download file via HTTP
-        try {
-            HttpDownloader.download(downloadUrl, driverFilePath);
-        } catch (RuntimeException e) {
-            // Clean up partial file if download failed
-            try {
-                if (java.nio.file.Files.exists(driverFilePath)) {
-                    java.nio.file.Files.delete(driverFilePath);
-                }
-            } catch (java.io.IOException deleteException) {
-                logger.warning("Failed to delete partial file: " + deleteException.getMessage());
+        Path storageDir = DriverStorageManager.getStorageDirectory(options.getStorageDirectory(), dbType);
+        Path driverFilePath = DriverStorageManager.getDriverFilePath(options.getStorageDirectory(), dbType, coordinates);
+
+        synchronized (DOWNLOAD_LOCKS.computeIfAbsent(driverFilePath, path -> new Object())) {
+            // Step 2: Check if driver already exists (cache check)
+            if (DriverStorageManager.driverExists(driverFilePath)) {
+                logger.info("Driver already exists, skipping download: " + driverFilePath);
+                return driverFilePath;
             }
-            throw e;
-        }
-        
-        // Step 6: Validate downloaded JAR file
-        try {
-            JarFileValidator.validate(driverFilePath);
-        } catch (RuntimeException e) {
-            // Clean up invalid file
+
+            // Step 3: Ensure storage directory exists
+            DriverStorageManager.ensureDirectoryExists(storageDir);
+
+            // Step 4: Install from the local mirror if it has the jar
+            Path mirrored = findInMirror(options.getMirrorDirectory(), coordinates);
+            if (mirrored != null) {
+                installFromMirror(mirrored, driverFilePath);
+                return driverFilePath;
+            }
+            if (options.isOffline()) {
+                throw new RuntimeException(String.format("Driver %s not found in offline mirror %s",
+                    coordinates.toCoordinateString(), options.getMirrorDirectory()));
+            }
+
+            // Step 5: Download, verify and move into place
+            URL downloadUrl = MavenUrlBuilder.buildDownloadUrl(coordinates, options.resolvedRepositoryUrl());
+            logger.info("Downloading driver from: " + downloadUrl);
+            Path partPath = HttpDownloader.downloadPartial(downloadUrl, driverFilePath);
             try {
-                java.nio.file.Files.delete(driverFilePath);
-            } catch (java.io.IOException deleteException) {
-                logger.warning("Failed to delete invalid file: " + deleteException.getMessage());
+                ChecksumVerifier.verify(partPath, downloadUrl);
+                JarFileValidator.validate(partPath);
+                HttpDownloader.moveIntoPlace(partPath, driverFilePath);
+            } catch (RuntimeException | IOException e) {
+                // A complete but bad file cannot be resumed into a good one
+                HttpDownloader.discardPartial(driverFilePath);
+                throw new RuntimeException("Downloaded file is invalid or corrupted: " + e.getMessage(), e);
             }
-            throw new RuntimeException("Downloaded file is invalid or corrupted: " + e.getMessage(), e);
+
+            logger.info("Successfully downloaded and validated driver: " + driverFilePath);
+            return driverFilePath;
         }
-        
-        logger.info("Successfully downloaded and validated driver: " + driverFilePath);
-        return driverFilePath;
     }
     
     /**
@@ -99,7 +121,38 @@ public final class MavenDriverDownloader {
      * @throws RuntimeException if download fails
      */
     public static Path downloadDriver(MavenCoordinates coordinates, DbType dbType) {
-        return downloadDriver(coordinates, dbType, null, null);
+        return downloadDriver(coordinates, dbType, DriverDownloadOptions.defaults());
     }
-}
 
+    /**
+     * Locate a jar in the mirror, either in Maven repository layout or stored flat.
+     *
+     * @return the mirrored jar, or null if there is no mirror or it does not have the jar
+     */
+    static Path findInMirror(Path mirrorDirectory, MavenCoordinates coordinates) {
+        if (mirrorDirectory == null) {
+            return null;
+        }
+        Path layered = mirrorDirectory.resolve(MavenUrlBuilder.buildArtifactPath(coordinates));
+        if (Files.isRegularFile(layered)) {
+            return layered;
+        }
+        Path flat = mirrorDirectory.resolve(layered.getFileName().toString());
+        return Files.isRegularFile(flat) ? flat : null;
+    }
+
+    private static void installFromMirror(Path mirrored, Path driverFilePath) {
+        logger.info("Installing driver from mirror: " + mirrored);
+        Path partPath = HttpDownloader.partPath(driverFilePath);
+        try {
+            Files.copy(mirrored, partPath, StandardCopyOption.REPLACE_EXISTING);
+            ChecksumVerifier.verifyAgainstSidecar(partPath, mirrored);
+            JarFileValidator.validate(partPath);
+            HttpDownloader.moveIntoPlace(partPath, driverFilePath);
+        } catch (RuntimeException | IOException e) {
+            HttpDownloader.discardPartial(driverFilePath);
+            throw new RuntimeException("Mirrored driver is invalid or corrupted: " + e.getMessage(), e);
+        }
+        logger.info("Successfully installed and validated driver: " + driverFilePath);
+    }
+}
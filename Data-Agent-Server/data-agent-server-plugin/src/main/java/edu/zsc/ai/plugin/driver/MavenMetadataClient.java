@@ -13,15 +13,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Client for querying Maven Central metadata API.
- * Retrieves available versions for a given artifact.
+ * Retrieves available versions for a given artifact, caching responses per repository.
  */
 public final class MavenMetadataClient {
     
@@ -37,6 +44,11 @@ public final class MavenMetadataClient {
      */
     private static final int READ_TIMEOUT = 60000;
     
+    /**
+     * Cached version lists by metadata URL
+     */
+    private static final ConcurrentMap<String, CachedVersions> METADATA_CACHE = new ConcurrentHashMap<>();
+    
     private MavenMetadataClient() {
         // Utility class
     }
@@ -51,16 +63,69 @@ public final class MavenMetadataClient {
      * @throws RuntimeException if query fails
      */
     public static List<String> queryVersions(String groupId, String artifactId, String mavenRepositoryUrl) {
+        return queryVersions(groupId, artifactId, DriverDownloadOptions.builder()
+            .repositoryUrl(mavenRepositoryUrl)
+            .build());
+    }
+
+    /**
+     * Query available versions for a Maven artifact.
+     * <p>
+     * Responses are cached for {@link DriverDownloadOptions#getMetadataCacheTtlMs()}. When the repository cannot be
+     * reached an expired cached response is served, then the versions present in the mirror. In offline mode only the
+     * mirror is consulted.
+     *
+     * @param groupId Maven group ID
+     * @param artifactId Maven artifact ID
+     * @param options repository, mirror, offline and cache settings
+     * @return unmodifiable list of available versions, sorted by version number (newest first)
+     * @throws RuntimeException if query fails
+     */
+    public static List<String> queryVersions(String groupId, String artifactId, DriverDownloadOptions options) {
         
         if (groupId == null || groupId.isEmpty() || artifactId == null || artifactId.isEmpty()) {
             throw new IllegalArgumentException("groupId and artifactId are required");
         }
+
+        if (options.isOffline()) {
+            return queryMirrorVersions(options.getMirrorDirectory(), groupId, artifactId);
+        }
         
-        String repoUrl = mavenRepositoryUrl != null && !mavenRepositoryUrl.isEmpty()
-            ? mavenRepositoryUrl
-            : DriverConstants.MAVEN_CENTRAL_URL;
-        
-        URL metadataUrl = MavenUrlBuilder.buildMetadataUrl(groupId, artifactId, repoUrl);
+        URL metadataUrl = MavenUrlBuilder.buildMetadataUrl(groupId, artifactId, options.resolvedRepositoryUrl());
+        String cacheKey = metadataUrl.toString();
+        CachedVersions cached = METADATA_CACHE.get(cacheKey);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.versions();
+        }
+
+        try {
+            List<String> versions = fetchVersions(metadataUrl, groupId, artifactId);
+            if (options.getMetadataCacheTtlMs() > 0) {
+                METADATA_CACHE.put(cacheKey, new CachedVersions(versions, now + options.getMetadataCacheTtlMs()));
+            }
+            return versions;
+        } catch (RuntimeException e) {
+            if (cached != null) {
+                logger.warning(String.format("Serving stale Maven metadata for %s:%s: %s", groupId, artifactId, e.getMessage()));
+                return cached.versions();
+            }
+            if (options.getMirrorDirectory() != null) {
+                logger.warning(String.format("Falling back to mirror versions for %s:%s: %s", groupId, artifactId, e.getMessage()));
+                return queryMirrorVersions(options.getMirrorDirectory(), groupId, artifactId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop all cached metadata responses.
+     */
+    public static void clearCache() {
+        METADATA_CACHE.clear();
+    }
+
+    private static List<String> fetchVersions(URL metadataUrl, String groupId, String artifactId) {
         
         logger.info("Querying Maven metadata from: " + metadataUrl);
         
@@ -81,14 +146,7 @@ public final class MavenMetadataClient {
             }
             
             inputStream = connection.getInputStream();
-            List<String> versions = parseVersionsFromMetadata(inputStream);
-            
-            // Sort versions (newest first) - simple string comparison for now
-            // In production, might want to use proper version comparison library
-            versions.sort((v1, v2) -> {
-                // Reverse order (newest first)
-                return compareVersions(v2, v1);
-            });
+            List<String> versions = sortNewestFirst(parseVersionsFromMetadata(inputStream));
             
             logger.info(String.format("Found %d versions for %s:%s", versions.size(), groupId, artifactId));
             return versions;
@@ -109,6 +167,54 @@ public final class MavenMetadataClient {
             }
         }
     }
+
+    /**
+     * Versions available in a mirror: from its maven-metadata.xml when present, otherwise from the jars it holds in
+     * repository layout or flat.
+     */
+    static List<String> queryMirrorVersions(Path mirrorDirectory, String groupId, String artifactId) {
+        if (mirrorDirectory == null) {
+            throw new IllegalStateException("Offline mode requires a driver mirror directory");
+        }
+        Path artifactDir = mirrorDirectory.resolve(groupId.replace('.', '/')).resolve(artifactId);
+        Path metadataFile = artifactDir.resolve("maven-metadata.xml");
+        if (Files.isRegularFile(metadataFile)) {
+            try (InputStream inputStream = Files.newInputStream(metadataFile)) {
+                return sortNewestFirst(parseVersionsFromMetadata(inputStream));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read mirror metadata: " + metadataFile, e);
+            }
+        }
+
+        Set<String> versions = new LinkedHashSet<>();
+        String prefix = artifactId + "-";
+        try {
+            if (Files.isDirectory(artifactDir)) {
+                try (Stream<Path> dirs = Files.list(artifactDir)) {
+                    dirs.filter(dir -> Files.isRegularFile(
+                            dir.resolve(prefix + dir.getFileName() + ".jar")))
+                        .forEach(dir -> versions.add(dir.getFileName().toString()));
+                }
+            }
+            try (Stream<Path> jars = Files.list(mirrorDirectory)) {
+                jars.map(jar -> jar.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(".jar"))
+                    .forEach(name -> versions.add(name.substring(prefix.length(), name.length() - ".jar".length())));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to scan driver mirror: " + mirrorDirectory, e);
+        }
+        return sortNewestFirst(new ArrayList<>(versions));
+    }
+
+    private static List<String> sortNewestFirst(List<String> versions) {
+        // Reverse order (newest first)
+        versions.sort((v1, v2) -> compareVersions(v2, v1));
+        return List.copyOf(versions);
+    }
+
+    private record CachedVersions(List<String> versions, long expiresAt) {
+    }
     
     /**
      * Query available versions using default Maven Central URL.
@@ -21,13 +21,9 @@ public final class MavenUrlBuilder {
      * @throws RuntimeException if URL construction fails
      */
     public static URL buildDownloadUrl(MavenCoordinates coordinates, String baseUrl) {
-        String urlString = String.format("%s/%s/%s/%s/%s-%s.jar",
+        String urlString = String.format("%s/%s",
             baseUrl != null ? baseUrl : DriverConstants.MAVEN_CENTRAL_URL,
-            coordinates.getGroupId().replace('.', '/'),
-            coordinates.getArtifactId(),
-            coordinates.getVersion(),
-            coordinates.getArtifactId(),
-            coordinates.getVersion());
+            buildArtifactPath(coordinates));
         
         try {
             return new URL(urlString);
@@ -36,6 +32,22 @@ public final class MavenUrlBuilder {
         }
     }
     
+    /**
+     * Build the repository-relative path of a JAR file, e.g.
+     * {@code com/mysql/mysql-connector-j/8.0.33/mysql-connector-j-8.0.33.jar}. Also the layout of a local mirror.
+     *
+     * @param coordinates Maven coordinates (groupId, artifactId, version)
+     * @return relative path using '/' separators
+     */
+    public static String buildArtifactPath(MavenCoordinates coordinates) {
+        return String.format("%s/%s/%s/%s-%s.jar",
+            coordinates.getGroupId().replace('.', '/'),
+            coordinates.getArtifactId(),
+            coordinates.getVersion(),
+            coordinates.getArtifactId(),
+            coordinates.getVersion());
+    }
+    
     /**
      * Build Maven Central download URL using default base URL.
      *
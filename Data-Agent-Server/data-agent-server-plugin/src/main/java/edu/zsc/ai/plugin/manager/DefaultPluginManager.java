@@ -12,6 +12,7 @@ import edu.zsc.ai.plugin.capability.ProcedureManager;
 import edu.zsc.ai.plugin.capability.SchemaManager;
 import edu.zsc.ai.plugin.capability.SqlSplitter;
 import edu.zsc.ai.plugin.capability.SqlValidator;
+import edu.zsc.ai.plugin.capability.StreamingQueryExecutor;
 import edu.zsc.ai.plugin.capability.TableManager;
 import edu.zsc.ai.plugin.capability.TriggerManager;
 import edu.zsc.ai.plugin.capability.ViewManager;
@@ -24,17 +25,25 @@ import edu.zsc.ai.plugin.driver.MavenCoordinates;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 public class DefaultPluginManager implements PluginManager {
 
     private static final Logger logger = Logger.getLogger(DefaultPluginManager.class.getName());
 
-    private final Map<String, Plugin> pluginMap = new ConcurrentHashMap<>();
-
-    private final Map<String, List<Plugin>> pluginsByDbType = new ConcurrentHashMap<>();
+    /**
+     * Precomputed lookup tables; replaced as a whole, never mutated.
+     */
+    private volatile PluginCapabilityIndex index = PluginCapabilityIndex.EMPTY;
 
     private static final DefaultPluginManager INSTANCE = new DefaultPluginManager();
 
@@ -42,23 +51,72 @@ public class DefaultPluginManager implements PluginManager {
         return INSTANCE;
     }
 
+    /**
+     * Class loader of the jars from the last {@link #reloadPlugins(Path)}; {@code null} when only classpath plugins
+     * are loaded.
+     */
+    private URLClassLoader externalPluginLoader;
+
     private DefaultPluginManager() {
-        loadPlugins();
+        index = PluginCapabilityIndex.build(loadPlugins(Thread.currentThread().getContextClassLoader()));
+    }
+
+    /**
+     * Reloads plugins from the classpath plus every {@code *.jar} in {@code pluginDirectory}, swaps the lookup index in
+     * one step, then closes the previous plugin jars' class loader. Every plugin is instantiated again, so callers must
+     * drop what still references old instances (connection pools, cached managers) to let the old classes unload.
+     *
+     * @param pluginDirectory directory with plugin jars; {@code null} or missing means classpath plugins only
+     * @return ids of the plugins loaded now
+     */
+    public synchronized Set<String> reloadPlugins(Path pluginDirectory) {
+        List<Path> jars = listPluginJars(pluginDirectory);
+        ClassLoader parent = DefaultPluginManager.class.getClassLoader();
+        URLClassLoader newExternalLoader = jars.isEmpty() ? null : newPluginClassLoader(jars, parent);
+
+        List<Plugin> loaded;
+        try {
+            loaded = loadPlugins(newExternalLoader != null ? newExternalLoader : parent);
+        } catch (RuntimeException | ServiceConfigurationError e) {
+            closeQuietly(newExternalLoader);
+            throw e;
+        }
+
+        PluginCapabilityIndex previous = index;
+        URLClassLoader previousExternalLoader = externalPluginLoader;
+        index = PluginCapabilityIndex.build(loaded);
+        externalPluginLoader = newExternalLoader;
+
+        for (Plugin plugin : previous.plugins()) {
+            if (plugin instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warning(String.format("Failed to close plugin %s: %s", plugin.getPluginId(), e.getMessage()));
+                }
+            }
+        }
+        closeQuietly(previousExternalLoader);
+
+        Set<String> pluginIds = new LinkedHashSet<>();
+        loaded.forEach(plugin -> pluginIds.add(plugin.getPluginId()));
+        logger.info(String.format("Plugins reloaded from classpath and %d jar(s): %s", jars.size(), pluginIds));
+        return pluginIds;
     }
 
-    private void loadPlugins() {
+    private List<Plugin> loadPlugins(ClassLoader classLoader) {
         logger.info("Loading plugins using Java SPI...");
 
-        ServiceLoader<Plugin> loader = ServiceLoader.load(Plugin.class);
+        ServiceLoader<Plugin> loader = ServiceLoader.load(Plugin.class, classLoader);
+        List<Plugin> loaded = new ArrayList<>();
         int successCount = 0;
         int failureCount = 0;
 
         for (Plugin plugin : loader) {
             try {
-                String dbTypeCode = plugin.getDbType().getCode().toLowerCase();
-                pluginsByDbType.computeIfAbsent(dbTypeCode, k -> new ArrayList<>()).add(plugin);
-
-                pluginMap.put(plugin.getPluginId(), plugin);
+                Objects.requireNonNull(plugin.getDbType(), "dbType");
+                Objects.requireNonNull(plugin.getPluginId(), "pluginId");
+                loaded.add(plugin);
 
                 logger.info(String.format("Loaded plugin: %s (ID: %s, Version: %s)", plugin.getDisplayName(), plugin.getPluginId(), plugin.getVersion()));
                 successCount++;
@@ -69,17 +127,49 @@ public class DefaultPluginManager implements PluginManager {
         }
 
         logger.info(String.format("Plugin loading completed. Success: %d, Failed: %d", successCount, failureCount));
+        return loaded;
+    }
+
+    private static List<Path> listPluginJars(Path pluginDirectory) {
+        if (pluginDirectory == null || !Files.isDirectory(pluginDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(pluginDirectory)) {
+            return files.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(".jar"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list plugin directory: " + pluginDirectory, e);
+        }
+    }
+
+    private static URLClassLoader newPluginClassLoader(List<Path> jars, ClassLoader parent) {
+        URL[] urls = new URL[jars.size()];
+        for (int i = 0; i < jars.size(); i++) {
+            try {
+                urls[i] = jars.get(i).toUri().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid plugin jar path: " + jars.get(i), e);
+            }
+        }
+        return new URLClassLoader("data-agent-plugins", urls, parent);
+    }
+
+    private static void closeQuietly(URLClassLoader classLoader) {
+        if (classLoader == null) {
+            return;
+        }
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            logger.warning(String.format("Failed to close plugin class loader: %s", e.getMessage()));
+        }
     }
 
     @Override
     public MavenCoordinates getMavenCoordinatesByDbTypeAndVersion(@NotNull DbType dbType, String driverVersion) {
         Objects.requireNonNull(dbType, "Database type cannot be null");
-        List<Plugin> plugins = pluginsByDbType.get(dbType.getCode().toLowerCase());
-        if (plugins == null || plugins.isEmpty()) {
-            throw new IllegalArgumentException("No plugin available for database type: " + dbType.getCode());
-        }
-
-        List<Plugin> sortedPlugins = PluginVersionSorter.sortByVersionDesc(plugins);
+        List<Plugin> sortedPlugins = index.plugins(dbType.getCode());
 
         for (Plugin plugin : sortedPlugins) {
             try {
@@ -95,178 +185,188 @@ public class DefaultPluginManager implements PluginManager {
                         driverVersion != null ? driverVersion : "default", dbType.getCode()));
     }
 
-    private List<Plugin> getPluginsByDbTypeInternal(@NotBlank String dbTypeCode) {
-        List<Plugin> plugins = pluginsByDbType.get(dbTypeCode.toLowerCase());
-        if (plugins == null || plugins.isEmpty()) {
-            throw new IllegalArgumentException("No plugin available for database type: " + dbTypeCode);
-        }
-        return PluginVersionSorter.sortByVersionDesc(plugins);
-    }
-
+    /**
+     * Plugins of the database type, newest version first. The list is precomputed and unmodifiable.
+     */
     @Override
     public List<Plugin> getPluginsByDbType(@NotBlank String dbTypeCode) {
-        return getPluginsByDbTypeInternal(dbTypeCode);
+        return index.plugins(dbTypeCode);
     }
 
     @Override
     public Plugin getPluginByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginVersionSelector.select(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion);
+        return PluginVersionSelector.selectFromSorted(index.plugins(dbTypeCode), databaseVersion);
+    }
+
+    private <T> T getManagerByDbTypeAndVersion(String dbTypeCode, String databaseVersion, Class<T> capabilityClass) {
+        Plugin plugin = getPluginByDbTypeAndVersion(dbTypeCode, databaseVersion);
+        if (!capabilityClass.isInstance(plugin)) {
+            throw new IllegalArgumentException("Plugin " + plugin.getPluginId() + " does not implement " + capabilityClass.getSimpleName());
+        }
+        return capabilityClass.cast(plugin);
     }
 
     @Override
     public List<ConnectionManager> getConnectionManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), ConnectionManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, ConnectionManager.class);
     }
 
     @Override
     public ConnectionManager getConnectionManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, ConnectionManager.class);
+        return index.manager(pluginId, ConnectionManager.class);
     }
 
     @Override
     public ConnectionManager getConnectionManagerByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginCapabilityResolver.getManagerByDbTypeAndVersion(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion, ConnectionManager.class);
+        return getManagerByDbTypeAndVersion(dbTypeCode, databaseVersion, ConnectionManager.class);
     }
 
     @Override
     public List<DatabaseManager> getDatabaseManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), DatabaseManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, DatabaseManager.class);
     }
 
     @Override
     public DatabaseManager getDatabaseManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, DatabaseManager.class);
+        return index.manager(pluginId, DatabaseManager.class);
     }
 
     @Override
     public DatabaseManager getDatabaseManagerByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginCapabilityResolver.getManagerByDbTypeAndVersion(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion, DatabaseManager.class);
+        return getManagerByDbTypeAndVersion(dbTypeCode, databaseVersion, DatabaseManager.class);
     }
 
     @Override
     public List<SchemaManager> getSchemaManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), SchemaManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, SchemaManager.class);
     }
 
     @Override
     public SchemaManager getSchemaManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, SchemaManager.class);
+        return index.manager(pluginId, SchemaManager.class);
     }
 
     @Override
     public SchemaManager getSchemaManagerByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginCapabilityResolver.getManagerByDbTypeAndVersion(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion, SchemaManager.class);
+        return getManagerByDbTypeAndVersion(dbTypeCode, databaseVersion, SchemaManager.class);
     }
 
     @Override
     public List<TableManager> getTableManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), TableManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, TableManager.class);
     }
 
     @Override
     public TableManager getTableManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, TableManager.class);
+        return index.manager(pluginId, TableManager.class);
     }
 
     @Override
     public TableManager getTableManagerByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginCapabilityResolver.getManagerByDbTypeAndVersion(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion, TableManager.class);
+        return getManagerByDbTypeAndVersion(dbTypeCode, databaseVersion, TableManager.class);
     }
 
     @Override
     public List<ViewManager> getViewManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), ViewManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, ViewManager.class);
     }
 
     @Override
     public ViewManager getViewManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, ViewManager.class);
+        return index.manager(pluginId, ViewManager.class);
     }
 
     @Override
     public ViewManager getViewManagerByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginCapabilityResolver.getManagerByDbTypeAndVersion(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion, ViewManager.class);
+        return getManagerByDbTypeAndVersion(dbTypeCode, databaseVersion, ViewManager.class);
     }
 
     @Override
     public List<ColumnManager> getColumnManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), ColumnManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, ColumnManager.class);
     }
 
     @Override
     public ColumnManager getColumnManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, ColumnManager.class);
+        return index.manager(pluginId, ColumnManager.class);
     }
 
     @Override
     public ColumnManager getColumnManagerByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginCapabilityResolver.getManagerByDbTypeAndVersion(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion, ColumnManager.class);
+        return getManagerByDbTypeAndVersion(dbTypeCode, databaseVersion, ColumnManager.class);
     }
 
     @Override
     public List<IndexManager> getIndexManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), IndexManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, IndexManager.class);
     }
 
     @Override
     public IndexManager getIndexManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, IndexManager.class);
+        return index.manager(pluginId, IndexManager.class);
     }
 
     @Override
     public IndexManager getIndexManagerByDbTypeAndVersion(@NotBlank String dbTypeCode, String databaseVersion) {
-        return PluginCapabilityResolver.getManagerByDbTypeAndVersion(getPluginsByDbTypeInternal(dbTypeCode), databaseVersion, IndexManager.class);
+        return getManagerByDbTypeAndVersion(dbTypeCode, databaseVersion, IndexManager.class);
     }
 
     @Override
     public List<FunctionManager> getFunctionManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), FunctionManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, FunctionManager.class);
     }
 
     @Override
     public FunctionManager getFunctionManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, FunctionManager.class);
+        return index.manager(pluginId, FunctionManager.class);
     }
 
     @Override
     public List<ProcedureManager> getProcedureManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), ProcedureManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, ProcedureManager.class);
     }
 
     @Override
     public ProcedureManager getProcedureManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, ProcedureManager.class);
+        return index.manager(pluginId, ProcedureManager.class);
     }
 
     @Override
     public List<TriggerManager> getTriggerManagerByDbType(@NotBlank String dbTypeCode) {
-        return PluginCapabilityResolver.getManagers(getPluginsByDbTypeInternal(dbTypeCode), TriggerManager.class, dbTypeCode);
+        return index.managers(dbTypeCode, TriggerManager.class);
     }
 
     @Override
     public TriggerManager getTriggerManagerByPluginId(@NotBlank String pluginId) {
-        return PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, TriggerManager.class);
+        return index.manager(pluginId, TriggerManager.class);
     }
 
     @Override
     public CommandExecutor<SqlCommandRequest, SqlCommandResult> getSqlCommandExecutorByPluginId(@NotBlank String pluginId) {
-        return (CommandExecutor<SqlCommandRequest, SqlCommandResult>) PluginCapabilityResolver.getManagerByPluginId(pluginMap, pluginId, CommandExecutor.class);
+        return (CommandExecutor<SqlCommandRequest, SqlCommandResult>) index.manager(pluginId, CommandExecutor.class);
     }
 
     @Override
     public SqlSplitter getSqlSplitterByPluginId(@NotBlank String pluginId) {
-        Plugin plugin = pluginMap.get(pluginId);
-        return (plugin instanceof SqlSplitter splitter) ? splitter : DefaultSqlSplitter.INSTANCE;
+        SqlSplitter splitter = index.managerOrNull(pluginId, SqlSplitter.class);
+        return splitter != null ? splitter : DefaultSqlSplitter.INSTANCE;
     }
 
     @Override
     public SqlValidator getSqlValidatorByPluginId(@NotBlank String pluginId) {
-        Plugin plugin = pluginMap.get(pluginId);
-        return (plugin instanceof SqlValidator validator) ? validator : DefaultSqlValidator.INSTANCE;
+        SqlValidator validator = index.managerOrNull(pluginId, SqlValidator.class);
+        return validator != null ? validator : DefaultSqlValidator.INSTANCE;
+    }
+
+    /**
+     * @return the plugin's streaming query executor, or null if the plugin cannot stream query results
+     */
+    public StreamingQueryExecutor getStreamingQueryExecutorByPluginId(@NotBlank String pluginId) {
+        return index.managerOrNull(pluginId, StreamingQueryExecutor.class);
     }
 
     public boolean supportsSchemaByPluginId(@NotBlank String pluginId) {
-        Plugin plugin = pluginMap.get(pluginId);
+        Plugin plugin = index.plugin(pluginId);
         if (plugin == null) {
             throw new IllegalArgumentException("No plugin found with ID: " + pluginId);
         }
@@ -0,0 +1,190 @@
+package edu.zsc.ai.plugin.manager;
+
+import edu.zsc.ai.plugin.Plugin;
+import edu.zsc.ai.plugin.capability.ColumnManager;
+import edu.zsc.ai.plugin.capability.CommandExecutor;
+import edu.zsc.ai.plugin.capability.ConnectionManager;
+import edu.zsc.ai.plugin.capability.DatabaseManager;
+import edu.zsc.ai.plugin.capability.FunctionManager;
+import edu.zsc.ai.plugin.capability.IndexManager;
+import edu.zsc.ai.plugin.capability.ProcedureManager;
+import edu.zsc.ai.plugin.capability.SchemaManager;
+import edu.zsc.ai.plugin.capability.SqlSplitter;
+import edu.zsc.ai.plugin.capability.SqlValidator;
+import edu.zsc.ai.plugin.capability.StreamingQueryExecutor;
+import edu.zsc.ai.plugin.capability.TableManager;
+import edu.zsc.ai.plugin.capability.TriggerManager;
+import edu.zsc.ai.plugin.capability.ViewManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable lookup tables built once per plugin load.
+ * <p>
+ * Holds plugins by id, plugins by database type sorted newest first, and for every known capability the managers per
+ * database type and the manager per plugin id. Lookups are plain map reads; nothing is sorted or filtered per call.
+ * Capabilities outside {@link #CAPABILITIES} fall back to {@link PluginCapabilityResolver}.
+ *
+ * @author Data-Agent
+ * @since 0.0.1
+ */
+final class PluginCapabilityIndex {
+
+    static final List<Class<?>> CAPABILITIES = List.of(
+            ConnectionManager.class,
+            DatabaseManager.class,
+            SchemaManager.class,
+            TableManager.class,
+            ViewManager.class,
+            ColumnManager.class,
+            IndexManager.class,
+            FunctionManager.class,
+            ProcedureManager.class,
+            TriggerManager.class,
+            CommandExecutor.class,
+            SqlSplitter.class,
+            SqlValidator.class,
+            StreamingQueryExecutor.class
+    );
+
+    static final PluginCapabilityIndex EMPTY = build(List.of());
+
+    private final Map<String, Plugin> pluginsById;
+    private final Map<String, List<Plugin>> pluginsByDbType;
+    private final Map<String, Map<Class<?>, List<?>>> managersByDbType;
+    private final Map<String, Map<Class<?>, Object>> managersByPluginId;
+
+    private PluginCapabilityIndex(Map<String, Plugin> pluginsById,
+                                  Map<String, List<Plugin>> pluginsByDbType,
+                                  Map<String, Map<Class<?>, List<?>>> managersByDbType,
+                                  Map<String, Map<Class<?>, Object>> managersByPluginId) {
+        this.pluginsById = pluginsById;
+        this.pluginsByDbType = pluginsByDbType;
+        this.managersByDbType = managersByDbType;
+        this.managersByPluginId = managersByPluginId;
+    }
+
+    static PluginCapabilityIndex build(Collection<Plugin> plugins) {
+        Map<String, Plugin> byId = new LinkedHashMap<>();
+        Map<String, List<Plugin>> grouped = new HashMap<>();
+        for (Plugin plugin : plugins) {
+            byId.put(plugin.getPluginId(), plugin);
+            grouped.computeIfAbsent(dbTypeKey(plugin.getDbType().getCode()), k -> new ArrayList<>()).add(plugin);
+        }
+
+        Map<String, List<Plugin>> sortedByDbType = new HashMap<>();
+        Map<String, Map<Class<?>, List<?>>> managersByDbType = new HashMap<>();
+        grouped.forEach((dbType, group) -> {
+            List<Plugin> sorted = List.copyOf(PluginVersionSorter.sortByVersionDesc(group));
+            sortedByDbType.put(dbType, sorted);
+            Map<Class<?>, List<?>> byCapability = new HashMap<>();
+            for (Class<?> capability : CAPABILITIES) {
+                List<?> managers = sorted.stream().filter(capability::isInstance).toList();
+                if (!managers.isEmpty()) {
+                    byCapability.put(capability, managers);
+                }
+            }
+            managersByDbType.put(dbType, Map.copyOf(byCapability));
+        });
+
+        Map<String, Map<Class<?>, Object>> managersByPluginId = new HashMap<>();
+        byId.forEach((pluginId, plugin) -> {
+            Map<Class<?>, Object> byCapability = new HashMap<>();
+            for (Class<?> capability : CAPABILITIES) {
+                if (capability.isInstance(plugin)) {
+                    byCapability.put(capability, plugin);
+                }
+            }
+            managersByPluginId.put(pluginId, Map.copyOf(byCapability));
+        });
+
+        return new PluginCapabilityIndex(
+                Map.copyOf(byId),
+                Map.copyOf(sortedByDbType),
+                Map.copyOf(managersByDbType),
+                Map.copyOf(managersByPluginId));
+    }
+
+    Collection<Plugin> plugins() {
+        return pluginsById.values();
+    }
+
+    /**
+     * @return the plugin, or {@code null} if no plugin has this id
+     */
+    Plugin plugin(String pluginId) {
+        return pluginsById.get(pluginId);
+    }
+
+    /**
+     * @return plugins of the database type, newest version first (unmodifiable)
+     * @throws IllegalArgumentException if no plugin serves the database type
+     */
+    List<Plugin> plugins(String dbTypeCode) {
+        List<Plugin> plugins = lookup(pluginsByDbType, dbTypeCode);
+        if (plugins == null || plugins.isEmpty()) {
+            throw new IllegalArgumentException("No plugin available for database type: " + dbTypeCode);
+        }
+        return plugins;
+    }
+
+    /**
+     * @return managers of the database type implementing the capability, newest version first (unmodifiable)
+     * @throws IllegalArgumentException if no plugin serves the database type or none implements the capability
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> managers(String dbTypeCode, Class<T> capabilityClass) {
+        Map<Class<?>, List<?>> byCapability = lookup(managersByDbType, dbTypeCode);
+        if (byCapability == null) {
+            throw new IllegalArgumentException("No plugin available for database type: " + dbTypeCode);
+        }
+        if (!CAPABILITIES.contains(capabilityClass)) {
+            return PluginCapabilityResolver.getManagers(plugins(dbTypeCode), capabilityClass, dbTypeCode);
+        }
+        List<T> managers = (List<T>) byCapability.get(capabilityClass);
+        if (managers == null) {
+            throw new IllegalArgumentException("No " + capabilityClass.getSimpleName() + " available for database type: " + dbTypeCode);
+        }
+        return managers;
+    }
+
+    /**
+     * @return the plugin cast to the capability
+     * @throws NullPointerException     if no plugin has this id
+     * @throws IllegalArgumentException if the plugin does not implement the capability
+     */
+    <T> T manager(String pluginId, Class<T> capabilityClass) {
+        Map<Class<?>, Object> byCapability = Objects.requireNonNull(
+                managersByPluginId.get(pluginId), "No plugin found with ID: " + pluginId);
+        Object manager = byCapability.get(capabilityClass);
+        if (manager == null) {
+            return PluginCapabilityResolver.getManagerByPluginId(pluginsById, pluginId, capabilityClass);
+        }
+        return capabilityClass.cast(manager);
+    }
+
+    /**
+     * @return the plugin cast to the capability, or {@code null} if it is missing or does not implement it
+     */
+    <T> T managerOrNull(String pluginId, Class<T> capabilityClass) {
+        Map<Class<?>, Object> byCapability = managersByPluginId.get(pluginId);
+        Object manager = byCapability != null ? byCapability.get(capabilityClass) : null;
+        return manager != null ? capabilityClass.cast(manager) : null;
+    }
+
+    private static <V> V lookup(Map<String, V> byDbType, String dbTypeCode) {
+        V value = byDbType.get(dbTypeCode);
+        return value != null ? value : byDbType.get(dbTypeKey(dbTypeCode));
+    }
+
+    private static String dbTypeKey(String dbTypeCode) {
+        return dbTypeCode.toLowerCase(Locale.ROOT);
+    }
+}
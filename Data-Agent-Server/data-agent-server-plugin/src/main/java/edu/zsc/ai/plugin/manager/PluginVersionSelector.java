@@ -44,7 +44,20 @@ public class PluginVersionSelector {
         }
 
         // Sort by version (newest first)
-        List<Plugin> sortedPlugins = PluginVersionSorter.sortByVersionDesc(plugins);
+        return selectFromSorted(PluginVersionSorter.sortByVersionDesc(plugins), databaseVersion);
+    }
+
+    /**
+     * Same as {@link #select(List, String)} for a list already sorted newest first, without re-sorting it.
+     *
+     * @param sortedPlugins   plugins sorted by version, newest first
+     * @param databaseVersion database version to match (nullable)
+     * @return selected plugin
+     */
+    public static Plugin selectFromSorted(List<Plugin> sortedPlugins, String databaseVersion) {
+        if (sortedPlugins == null || sortedPlugins.isEmpty()) {
+            throw new IllegalArgumentException("Plugin list cannot be null or empty");
+        }
 
         // If no version specified, return first plugin
         if (databaseVersion == null || databaseVersion.isEmpty()) {
@@ -1,6 +1,7 @@
 package edu.zsc.ai.plugin.model.command.sql;
 
 import edu.zsc.ai.plugin.capability.CommandExecutor;
+import edu.zsc.ai.plugin.capability.StreamingQueryExecutor;
 import edu.zsc.ai.plugin.value.JdbcValueContext;
 import edu.zsc.ai.plugin.value.JdbcValueContextFactory;
 import org.slf4j.Logger;
@@ -8,7 +9,9 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Abstract SQL executor that provides common SQL execution logic.
@@ -20,10 +23,16 @@ import java.util.List;
  *
  * @author Data-Agent Team
  */
-public abstract class AbstractSqlExecutor implements CommandExecutor<SqlCommandRequest, SqlCommandResult> {
+public abstract class AbstractSqlExecutor implements CommandExecutor<SqlCommandRequest, SqlCommandResult>,
+        StreamingQueryExecutor {
 
     private static final Logger log = LoggerFactory.getLogger(AbstractSqlExecutor.class);
 
+    /**
+     * Rows fetched per round trip when streaming a query
+     */
+    protected static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
     protected abstract Object getJdbcValue(JdbcValueContext context) throws SQLException;
 
     protected boolean getOriginalAutoCommit(Connection connection) {
@@ -56,6 +65,46 @@ public abstract class AbstractSqlExecutor implements CommandExecutor<SqlCommandR
         }
     }
 
+    @Override
+    public <T> T streamQuery(SqlCommandRequest command, QueryRowConsumer<T> consumer) throws SQLException {
+        Connection connection = command.getConnection();
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            configureStreaming(statement);
+            if (command.getQueryTimeoutSeconds() > 0) {
+                statement.setQueryTimeout(command.getQueryTimeoutSeconds());
+            }
+            StatementListener listener = command.getStatementListener();
+            if (listener != null) {
+                listener.onStatementStart(statement);
+            }
+            try (ResultSet resultSet = statement.executeQuery(command.getExecuteSql())) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                List<String> headers = new ArrayList<>(metaData.getColumnCount());
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    headers.add(columnHeader(metaData, i));
+                }
+                return consumer.accept(headers, new ResultSetRowIterator(resultSet, metaData));
+            } catch (RuntimeException e) {
+                throw unwrapRowReadFailure(e);
+            } finally {
+                if (listener != null) {
+                    listener.onStatementEnd(statement);
+                }
+            }
+        }
+    }
+
+    /**
+     * Configure the statement so the driver streams rows instead of buffering the whole result.
+     * Subclasses override this for drivers that need a dialect-specific setting.
+     *
+     * @param statement the statement about to run the streamed query
+     * @throws SQLException if the setting is rejected
+     */
+    protected void configureStreaming(Statement statement) throws SQLException {
+        statement.setFetchSize(DEFAULT_STREAM_FETCH_SIZE);
+    }
+
     /**
      * Create initial result object with basic information
      */
@@ -88,43 +137,61 @@ public abstract class AbstractSqlExecutor implements CommandExecutor<SqlCommandR
     private void executeSqlStatement(Connection connection, SqlCommandRequest command, SqlCommandResult result)
             throws SQLException {
         try (Statement statement = connection.createStatement()) {
-            String sql = command.getExecuteSql();
-            long start = System.currentTimeMillis();
-            result.setStartTime(start);
-            boolean hasResultSet = statement.execute(sql);
-            long execEnd = System.currentTimeMillis();
-            result.setExecutionMs(execEnd - start);
-            List<SqlCommandSubResult> results = new ArrayList<>();
-            while (true) {
-                if (hasResultSet) {
-                    SqlCommandSubResult sub = new SqlCommandSubResult();
-                    sub.setQuery(true);
-                    sub.setExecutionMs(result.getExecutionMs());
-                    processQueryResult(statement, result, sub);
-                    results.add(sub);
-                } else {
-                    int updateCount = statement.getUpdateCount();
-                    if (updateCount == -1) {
-                        break;
-                    }
-                    SqlCommandSubResult sub = new SqlCommandSubResult();
-                    sub.setQuery(false);
-                    sub.setExecutionMs(result.getExecutionMs());
-                    sub.setFetchingMs(0L);
-                    processDmlResult(updateCount, sub);
-                    results.add(sub);
+            if (command.getQueryTimeoutSeconds() > 0) {
+                statement.setQueryTimeout(command.getQueryTimeoutSeconds());
+            }
+            StatementListener listener = command.getStatementListener();
+            if (listener != null) {
+                listener.onStatementStart(statement);
+            }
+            try {
+                executeStatement(statement, command, result);
+            } finally {
+                if (listener != null) {
+                    listener.onStatementEnd(statement);
                 }
-                hasResultSet = statement.getMoreResults();
             }
-            result.setResults(results);
-            if (!results.isEmpty()) {
-                applyFirstResult(result, results.get(0));
+        }
+    }
+
+    private void executeStatement(Statement statement, SqlCommandRequest command, SqlCommandResult result)
+            throws SQLException {
+        String sql = command.getExecuteSql();
+        long start = System.currentTimeMillis();
+        result.setStartTime(start);
+        boolean hasResultSet = statement.execute(sql);
+        long execEnd = System.currentTimeMillis();
+        result.setExecutionMs(execEnd - start);
+        List<SqlCommandSubResult> results = new ArrayList<>();
+        while (true) {
+            if (hasResultSet) {
+                SqlCommandSubResult sub = new SqlCommandSubResult();
+                sub.setQuery(true);
+                sub.setExecutionMs(result.getExecutionMs());
+                processQueryResult(statement, result, sub);
+                results.add(sub);
+            } else {
+                int updateCount = statement.getUpdateCount();
+                if (updateCount == -1) {
+                    break;
+                }
+                SqlCommandSubResult sub = new SqlCommandSubResult();
+                sub.setQuery(false);
+                sub.setExecutionMs(result.getExecutionMs());
+                sub.setFetchingMs(0L);
+                processDmlResult(updateCount, sub);
+                results.add(sub);
             }
-            addWarnings(statement.getWarnings(), result, null);
-            long end = System.currentTimeMillis();
-            result.setEndTime(end);
-            result.setExecutionTime(end - start);
+            hasResultSet = statement.getMoreResults();
+        }
+        result.setResults(results);
+        if (!results.isEmpty()) {
+            applyFirstResult(result, results.get(0));
         }
+        addWarnings(statement.getWarnings(), result, null);
+        long end = System.currentTimeMillis();
+        result.setEndTime(end);
+        result.setExecutionTime(end - start);
     }
 
     /**
@@ -258,8 +325,7 @@ public abstract class AbstractSqlExecutor implements CommandExecutor<SqlCommandR
             for (int i = 1; i <= columnCount; i++) {
                 String name = metaData.getColumnName(i);
                 String label = metaData.getColumnLabel(i);
-                String header = (label != null && !label.isBlank()) ? label : name;
-                headers.add(header);
+                headers.add(columnHeader(metaData, i));
                 SqlColumnInfo columnInfo = new SqlColumnInfo(
                         name,
                         label,
@@ -308,4 +374,79 @@ public abstract class AbstractSqlExecutor implements CommandExecutor<SqlCommandR
         result.setLimitApplied(first.getLimitApplied());
         result.setFetchingMs(first.getFetchingMs());
     }
+
+    private static String columnHeader(ResultSetMetaData metaData, int column) throws SQLException {
+        String label = metaData.getColumnLabel(column);
+        return (label != null && !label.isBlank()) ? label : metaData.getColumnName(column);
+    }
+
+    /**
+     * Returns the SQLException behind a row read failure, however deeply the consumer wrapped it.
+     */
+    private static SQLException unwrapRowReadFailure(RuntimeException e) throws SQLException {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RowReadException rowReadException) {
+                throw rowReadException.getCause();
+            }
+        }
+        throw e;
+    }
+
+    /**
+     * Forward-only view of an open result set; each row is converted when it is pulled.
+     */
+    private final class ResultSetRowIterator implements Iterator<List<Object>> {
+
+        private final ResultSet resultSet;
+        private final ResultSetMetaData metaData;
+        private final int columnCount;
+        private Boolean hasNext;
+
+        private ResultSetRowIterator(ResultSet resultSet, ResultSetMetaData metaData) throws SQLException {
+            this.resultSet = resultSet;
+            this.metaData = metaData;
+            this.columnCount = metaData.getColumnCount();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                try {
+                    hasNext = resultSet.next();
+                } catch (SQLException e) {
+                    throw new RowReadException(e);
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public List<Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            List<Object> row = new ArrayList<>(columnCount);
+            try {
+                for (int i = 1; i <= columnCount; i++) {
+                    row.add(getJdbcValue(JdbcValueContextFactory.fromMetaData(resultSet, metaData, i)));
+                }
+            } catch (SQLException e) {
+                throw new RowReadException(e);
+            }
+            return row;
+        }
+    }
+
+    private static final class RowReadException extends RuntimeException {
+
+        private RowReadException(SQLException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package edu.zsc.ai.plugin.model.command.sql;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Receives the column headers and a forward-only row iterator of a streamed query.
+ *
+ * @param <T> the consumer's result type
+ */
+@FunctionalInterface
+public interface QueryRowConsumer<T> {
+
+    T accept(List<String> headers, Iterator<List<Object>> rows);
+}
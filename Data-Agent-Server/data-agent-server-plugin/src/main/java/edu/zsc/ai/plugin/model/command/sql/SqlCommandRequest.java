@@ -27,6 +27,12 @@ public class SqlCommandRequest implements CommandRequest {
     /** PreparedStatement parameters, null or empty uses Statement */
     private Object[] params;
 
+    /** Applied through {@link java.sql.Statement#setQueryTimeout(int)}; 0 or less means no limit */
+    private int queryTimeoutSeconds;
+
+    /** Optional, notified when the statement is created and closed */
+    private StatementListener statementListener;
+
     @Override
     public String getCommand() {
         return originalSql;
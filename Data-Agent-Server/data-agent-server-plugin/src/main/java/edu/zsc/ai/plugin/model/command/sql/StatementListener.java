@@ -0,0 +1,14 @@
+package edu.zsc.ai.plugin.model.command.sql;
+
+import java.sql.Statement;
+
+/**
+ * Callback around the lifetime of the JDBC statement created for a {@link SqlCommandRequest}.
+ * Lets the caller cancel a running statement from another thread via {@link Statement#cancel()}.
+ */
+public interface StatementListener {
+
+    void onStatementStart(Statement statement);
+
+    void onStatementEnd(Statement statement);
+}
@@ -0,0 +1,139 @@
+package edu.zsc.ai.plugin.driver;
+
+import edu.zsc.ai.plugin.connection.ConnectionConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DriverLoader.
+ */
+class DriverLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        DriverLoader.unloadAll();
+        DriverLoader.setBeforeUnloadHook(null);
+    }
+
+    @Test
+    void loadDriver_missingJarIsRejectedWithoutCaching() {
+        ConnectionConfig config = new ConnectionConfig();
+        config.setDriverJarPath("target/missing-driver.jar");
+
+        assertThrows(IllegalArgumentException.class, () -> DriverLoader.loadDriver(config, "com.example.Driver"));
+        assertFalse(DriverLoader.loadedDriverJars().contains("target/missing-driver.jar"));
+    }
+
+    @Test
+    void unloadDriver_unknownJarIsNoOp() {
+        assertFalse(DriverLoader.unloadDriver("target/never-loaded.jar"));
+        assertFalse(DriverLoader.unloadDriver(null));
+    }
+
+    @Test
+    void loadDriver_replacedJarDrainsPoolsBeforeReleasingOldDriver() throws Exception {
+        File jar = emptyJar("driver.jar");
+        ConnectionConfig config = new ConnectionConfig();
+        config.setDriverJarPath(jar.getPath());
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        Driver first = DriverLoader.loadDriver(config, StubDriver.class.getName());
+        DriverLoader.setBeforeUnloadHook(path -> events.add(path + (isRegistered(first) ? ":registered" : ":gone")));
+        assertSame(first, DriverLoader.loadDriver(config, StubDriver.class.getName()));
+        assertTrue(events.isEmpty());
+
+        assertTrue(jar.setLastModified(jar.lastModified() + 10_000L));
+        Driver second = DriverLoader.loadDriver(config, StubDriver.class.getName());
+
+        assertNotSame(first, second);
+        assertEquals(List.of(jar.getPath() + ":registered"), events);
+        assertFalse(isRegistered(first));
+        assertTrue(isRegistered(second));
+    }
+
+    @Test
+    void unloadDriver_runsHookForLoadedJar() throws Exception {
+        File jar = emptyJar("unload.jar");
+        ConnectionConfig config = new ConnectionConfig();
+        config.setDriverJarPath(jar.getPath());
+        List<String> drained = new CopyOnWriteArrayList<>();
+        DriverLoader.setBeforeUnloadHook(drained::add);
+
+        Driver driver = DriverLoader.loadDriver(config, StubDriver.class.getName());
+
+        assertTrue(DriverLoader.unloadDriver(jar.getPath()));
+        assertEquals(List.of(jar.getPath()), drained);
+        assertFalse(isRegistered(driver));
+    }
+
+    private File emptyJar(String name) throws IOException {
+        File jar = tempDir.resolve(name).toFile();
+        try (JarOutputStream ignored = new JarOutputStream(new FileOutputStream(jar), new Manifest())) {
+            // the stub driver class is found through the parent class loader
+        }
+        return jar;
+    }
+
+    private static boolean isRegistered(Driver driver) {
+        return DriverManager.drivers().anyMatch(registered -> registered == driver);
+    }
+
+    public static class StubDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            return null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return false;
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}
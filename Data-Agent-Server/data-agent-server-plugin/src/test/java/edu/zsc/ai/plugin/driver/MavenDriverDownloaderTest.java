@@ -0,0 +1,113 @@
+package edu.zsc.ai.plugin.driver;
+
+import edu.zsc.ai.plugin.enums.DbType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for installing drivers from a local mirror.
+ */
+class MavenDriverDownloaderTest {
+
+    private static final MavenCoordinates COORDINATES = new MavenCoordinates("com.mysql", "mysql-connector-j", "8.0.33");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void downloadDriver_offlineInstallsVerifiedJarFromMirror() throws IOException {
+        Path mirrored = writeJar(tempDir.resolve("mirror").resolve(MavenUrlBuilder.buildArtifactPath(COORDINATES)));
+        Files.writeString(mirrored.resolveSibling(mirrored.getFileName() + ".sha256"),
+            ChecksumVerifier.digest(mirrored, "SHA-256") + "  mysql-connector-j-8.0.33.jar\n");
+
+        Path installed = MavenDriverDownloader.downloadDriver(COORDINATES, DbType.MYSQL, offlineOptions());
+
+        assertTrue(Files.isRegularFile(installed));
+        assertEquals(Files.size(mirrored), Files.size(installed));
+        assertFalse(Files.exists(HttpDownloader.partPath(installed)));
+        assertEquals(List.of("8.0.33"),
+            MavenMetadataClient.queryMirrorVersions(tempDir.resolve("mirror"), "com.mysql", "mysql-connector-j"));
+    }
+
+    @Test
+    void downloadDriver_rejectsMirroredJarWithWrongChecksum() throws IOException {
+        Path mirrored = writeJar(tempDir.resolve("mirror").resolve("mysql-connector-j-8.0.33.jar"));
+        Files.writeString(mirrored.resolveSibling(mirrored.getFileName() + ".sha1"), "0".repeat(40));
+
+        assertThrows(RuntimeException.class,
+            () -> MavenDriverDownloader.downloadDriver(COORDINATES, DbType.MYSQL, offlineOptions()));
+        Path target = DriverStorageManager.getDriverFilePath(tempDir.resolve("drivers").toString(), DbType.MYSQL, COORDINATES);
+        assertFalse(Files.exists(target));
+        assertFalse(Files.exists(HttpDownloader.partPath(target)));
+    }
+
+    @Test
+    void downloadDriver_offlineFailsWhenMirrorLacksJar() {
+        assertThrows(RuntimeException.class,
+            () -> MavenDriverDownloader.downloadDriver(COORDINATES, DbType.MYSQL, offlineOptions()));
+    }
+
+    @Test
+    void parseChecksum_acceptsBareHashAndHashWithFileName() {
+        assertEquals("abc123", ChecksumVerifier.parseChecksum("ABC123\n"));
+        assertEquals("abc123", ChecksumVerifier.parseChecksum("abc123  driver.jar"));
+    }
+
+    @Test
+    void verify_fallsBackToSha1WhenSha256CannotBeFetched() throws IOException {
+        Path jar = writeJar(tempDir.resolve("driver.jar"));
+        String sha1 = ChecksumVerifier.digest(jar, "SHA-1");
+        URL artifactUrl = new URL("https://repo.example.com/driver.jar");
+
+        assertTrue(ChecksumVerifier.verify(jar, artifactUrl, url -> {
+            if (url.getPath().endsWith(".sha256")) {
+                throw new RuntimeException("Failed to fetch " + url + ": HTTP 500");
+            }
+            return sha1;
+        }));
+        assertThrows(RuntimeException.class, () -> ChecksumVerifier.verify(jar, artifactUrl, url -> {
+            if (url.getPath().endsWith(".sha256")) {
+                throw new RuntimeException("Failed to fetch " + url + ": HTTP 500");
+            }
+            return "0".repeat(40);
+        }));
+    }
+
+    @Test
+    void verify_leavesArtifactToStructuralValidationWhenNoChecksumCanBeFetched() throws IOException {
+        Path jar = writeJar(tempDir.resolve("driver.jar"));
+
+        assertFalse(ChecksumVerifier.verify(jar, new URL("https://repo.example.com/driver.jar"), url -> {
+            throw new RuntimeException("Failed to fetch " + url + ": connect timed out");
+        }));
+    }
+
+    private DriverDownloadOptions offlineOptions() {
+        return DriverDownloadOptions.builder()
+            .storageDirectory(tempDir.resolve("drivers").toString())
+            .mirrorDirectory(tempDir.resolve("mirror"))
+            .offline(true)
+            .build();
+    }
+
+    private static Path writeJar(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (OutputStream out = Files.newOutputStream(path); JarOutputStream jar = new JarOutputStream(out)) {
+            jar.putNextEntry(new ZipEntry("META-INF/services/java.sql.Driver"));
+            jar.write("com.example.Driver\n".getBytes());
+            jar.closeEntry();
+        }
+        return path;
+    }
+}
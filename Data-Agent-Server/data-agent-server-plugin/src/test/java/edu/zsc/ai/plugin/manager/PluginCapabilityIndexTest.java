@@ -0,0 +1,60 @@
+package edu.zsc.ai.plugin.manager;
+
+import edu.zsc.ai.plugin.Plugin;
+import edu.zsc.ai.plugin.capability.ConnectionManager;
+import edu.zsc.ai.plugin.capability.TableManager;
+import edu.zsc.ai.plugin.enums.DbType;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginCapabilityIndex.
+ */
+class PluginCapabilityIndexTest {
+
+    @Test
+    void build_sortsPluginsNewestFirstAndIndexesCapabilities() {
+        Plugin older = plugin("mysql-5.7", "5.7.0", ConnectionManager.class);
+        Plugin newer = plugin("mysql-8", "8.0.0", ConnectionManager.class, TableManager.class);
+
+        PluginCapabilityIndex index = PluginCapabilityIndex.build(List.of(older, newer));
+
+        assertEquals(List.of(newer, older), index.plugins("MySQL"));
+        assertSame(index.plugins("mysql"), index.plugins("mysql"));
+        assertEquals(List.of(newer, older), index.managers("mysql", ConnectionManager.class));
+        assertEquals(List.of(newer), index.managers("mysql", TableManager.class));
+        assertSame(newer, index.manager("mysql-8", TableManager.class));
+        assertNull(index.managerOrNull("mysql-5.7", TableManager.class));
+    }
+
+    @Test
+    void lookups_keepResolverErrorSemantics() {
+        PluginCapabilityIndex index = PluginCapabilityIndex.build(
+                List.of(plugin("mysql-5.7", "5.7.0", ConnectionManager.class)));
+
+        assertThrows(IllegalArgumentException.class, () -> index.plugins("postgresql"));
+        assertThrows(IllegalArgumentException.class, () -> index.managers("mysql", TableManager.class));
+        assertThrows(IllegalArgumentException.class, () -> index.manager("mysql-5.7", TableManager.class));
+        assertThrows(NullPointerException.class, () -> index.manager("missing", ConnectionManager.class));
+    }
+
+    private static Plugin plugin(String pluginId, String version, Class<?>... capabilities) {
+        Class<?>[] interfaces = new Class<?>[capabilities.length + 1];
+        interfaces[0] = Plugin.class;
+        System.arraycopy(capabilities, 0, interfaces, 1, capabilities.length);
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), interfaces, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "getPluginId" -> pluginId;
+                    case "getVersion" -> version;
+                    case "getDbType" -> DbType.MYSQL;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> pluginId;
+                    default -> null;
+                });
+    }
+}
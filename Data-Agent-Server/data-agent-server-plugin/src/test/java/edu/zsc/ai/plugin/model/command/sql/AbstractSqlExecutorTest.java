@@ -0,0 +1,156 @@
+package edu.zsc.ai.plugin.model.command.sql;
+
+import edu.zsc.ai.plugin.value.JdbcValueContext;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AbstractSqlExecutor#streamQuery}, backed by hand-rolled JDBC proxies.
+ */
+class AbstractSqlExecutorTest {
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    void streamQuery_pullsRowsOneAtATimeOnAForwardOnlyStatement() throws SQLException {
+        List<List<Object>> rows = List.of(List.of(1, "Alice"), List.of(2, "Bob"));
+        SqlCommandRequest command = command(connection(rows, -1));
+
+        List<String> consumed = new TestSqlExecutor().streamQuery(command, (headers, iterator) -> {
+            List<String> seen = new ArrayList<>();
+            seen.add(String.join(",", headers));
+            while (iterator.hasNext()) {
+                seen.add(iterator.next().toString());
+                seen.add("fetched=" + events.stream().filter("next"::equals).count());
+            }
+            return seen;
+        });
+
+        assertEquals(List.of("id,name", "[1, Alice]", "fetched=1", "[2, Bob]", "fetched=2"), consumed);
+        assertTrue(events.contains("createStatement:" + ResultSet.TYPE_FORWARD_ONLY + ":" + ResultSet.CONCUR_READ_ONLY));
+        assertTrue(events.contains("setFetchSize:" + AbstractSqlExecutor.DEFAULT_STREAM_FETCH_SIZE));
+        assertEquals(List.of("listenerStart", "listenerEnd"),
+                events.stream().filter(event -> event.startsWith("listener")).toList());
+        assertTrue(events.contains("resultSet.close"));
+        assertTrue(events.contains("statement.close"));
+    }
+
+    @Test
+    void streamQuery_rethrowsRowReadFailureAsTheOriginalSqlException() {
+        SqlCommandRequest command = command(connection(List.of(List.of(1, "Alice"), List.of(2, "Bob")), 1));
+
+        SQLException failure = assertThrows(SQLException.class, () -> new TestSqlExecutor().streamQuery(command,
+                (headers, iterator) -> {
+                    try {
+                        iterator.forEachRemaining(row -> { });
+                        return null;
+                    } catch (RuntimeException e) {
+                        // Export writers wrap whatever the iterator throws.
+                        throw new IllegalStateException("Failed to generate CSV export", e);
+                    }
+                }));
+
+        assertEquals("connection reset", failure.getMessage());
+        assertTrue(events.contains("resultSet.close"));
+        assertTrue(events.contains("listenerEnd"));
+    }
+
+    private SqlCommandRequest command(Connection connection) {
+        SqlCommandRequest command = new SqlCommandRequest();
+        command.setConnection(connection);
+        command.setExecuteSql("SELECT id, name FROM users");
+        command.setStatementListener(new StatementListener() {
+            @Override
+            public void onStatementStart(Statement statement) {
+                events.add("listenerStart");
+            }
+
+            @Override
+            public void onStatementEnd(Statement statement) {
+                events.add("listenerEnd");
+            }
+        });
+        return command;
+    }
+
+    /**
+     * @param failAfter rows served before {@code next()} throws; negative to never fail
+     */
+    private Connection connection(List<List<Object>> rows, int failAfter) {
+        Iterator<List<Object>> source = rows.iterator();
+        List<?>[] current = new List<?>[1];
+        int[] served = {0};
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (method, args) -> switch (method) {
+            case "getColumnCount" -> 2;
+            case "getColumnLabel", "getColumnName" -> (int) args[0] == 1 ? "id" : "name";
+            case "getColumnType" -> (int) args[0] == 1 ? Types.INTEGER : Types.VARCHAR;
+            case "getColumnTypeName" -> (int) args[0] == 1 ? "INT" : "VARCHAR";
+            case "isNullable" -> ResultSetMetaData.columnNullable;
+            default -> 0;
+        });
+        ResultSet resultSet = proxy(ResultSet.class, (method, args) -> switch (method) {
+            case "next" -> {
+                if (failAfter >= 0 && served[0] >= failAfter) {
+                    throw new SQLException("connection reset");
+                }
+                events.add("next");
+                boolean hasRow = source.hasNext();
+                current[0] = hasRow ? source.next() : null;
+                served[0]++;
+                yield hasRow;
+            }
+            case "getMetaData" -> metaData;
+            case "getObject" -> current[0].get((int) args[0] - 1);
+            case "close" -> events.add("resultSet.close");
+            default -> null;
+        });
+        Statement statement = proxy(Statement.class, (method, args) -> switch (method) {
+            case "setFetchSize" -> events.add("setFetchSize:" + args[0]);
+            case "executeQuery" -> resultSet;
+            case "close" -> events.add("statement.close");
+            default -> null;
+        });
+        return proxy(Connection.class, (method, args) -> {
+            if ("createStatement".equals(method)) {
+                events.add("createStatement:" + args[0] + ":" + args[1]);
+                return statement;
+            }
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (instance, method, args) -> {
+                    Object value = handler.handle(method.getName(), args);
+                    return method.getReturnType() == void.class ? null : value;
+                });
+        return type.cast(proxy);
+    }
+
+    private static final class TestSqlExecutor extends AbstractSqlExecutor {
+
+        @Override
+        protected Object getJdbcValue(JdbcValueContext context) throws SQLException {
+            return context.getResultSet().getObject(context.getColumnIndex());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import edu.zsc.ai.plugin.base.AbstractDatabasePlugin;
 import edu.zsc.ai.plugin.capability.*;
 import edu.zsc.ai.plugin.connection.ConnectionConfig;
 import edu.zsc.ai.plugin.driver.MavenCoordinates;
+import edu.zsc.ai.plugin.model.command.sql.QueryRowConsumer;
 import edu.zsc.ai.plugin.model.command.sql.SqlCommandRequest;
 import edu.zsc.ai.plugin.model.command.sql.SqlCommandResult;
 import edu.zsc.ai.plugin.model.db.TableRowValue;
@@ -18,12 +19,13 @@ import edu.zsc.ai.plugin.sql.DefaultSqlSplitter;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.util.List;
 
 public abstract class DefaultMysqlPlugin extends AbstractDatabasePlugin
         implements ConnectionManager, CommandExecutor<SqlCommandRequest, SqlCommandResult>, DatabaseManager,
         TableManager, ViewManager, ColumnManager, IndexManager,
-        FunctionManager, ProcedureManager, TriggerManager, SqlSplitter, SqlValidator {
+        FunctionManager, ProcedureManager, TriggerManager, SqlSplitter, SqlValidator, StreamingQueryExecutor {
 
     private final ConnectionManager connectionManager = new MysqlConnectionManager(
             this::getDriverClassName,
@@ -122,6 +124,11 @@ public abstract class DefaultMysqlPlugin extends AbstractDatabasePlugin
         return sqlExecutor.executeCommand(command);
     }
 
+    @Override
+    public <T> T streamQuery(SqlCommandRequest command, QueryRowConsumer<T> consumer) throws SQLException {
+        return sqlExecutor.streamQuery(command, consumer);
+    }
+
     @Override
     public java.util.List<String> split(String sql) {
         return DefaultSqlSplitter.INSTANCE.split(sql);
@@ -6,6 +6,7 @@ import edu.zsc.ai.plugin.value.JdbcValueContext;
 import edu.zsc.ai.plugin.value.ValueProcessor;
 
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * MySQL-specific SQL executor that handles MySQL data type conversions properly.
@@ -24,4 +25,13 @@ public class MySQLSqlExecutor extends AbstractSqlExecutor {
     protected Object getJdbcValue(JdbcValueContext context) throws SQLException {
         return VALUE_PROCESSOR.getJdbcValue(context);
     }
+
+    /**
+     * Connector/J buffers the whole result unless the fetch size is {@link Integer#MIN_VALUE}, which switches the
+     * forward-only, read-only statement to row-by-row streaming.
+     */
+    @Override
+    protected void configureStreaming(Statement statement) throws SQLException {
+        statement.setFetchSize(Integer.MIN_VALUE);
+    }
 }
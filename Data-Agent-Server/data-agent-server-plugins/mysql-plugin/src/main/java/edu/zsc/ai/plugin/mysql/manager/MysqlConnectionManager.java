@@ -7,7 +7,7 @@ import edu.zsc.ai.plugin.driver.DriverLoader;
 import edu.zsc.ai.plugin.mysql.util.MysqlJdbcConnectionBuilder;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.Driver;
 import java.sql.SQLException;
 import java.util.Properties;
 import java.util.function.IntSupplier;
@@ -34,7 +34,7 @@ public final class MysqlConnectionManager implements ConnectionManager {
     @Override
     public Connection connect(ConnectionConfig config) {
         try {
-            DriverLoader.loadDriver(config, driverClassNameSupplier.get());
+            Driver driver = DriverLoader.loadDriver(config, driverClassNameSupplier.get());
 
             String jdbcUrl = connectionBuilder.buildUrl(
                     config,
@@ -43,7 +43,11 @@ public final class MysqlConnectionManager implements ConnectionManager {
             );
             Properties properties = connectionBuilder.buildProperties(config);
 
-            Connection connection = DriverManager.getConnection(jdbcUrl, properties);
+            // Connect through the driver loaded from this config's jar, not whichever version DriverManager finds first.
+            Connection connection = driver.connect(jdbcUrl, properties);
+            if (connection == null) {
+                throw new SQLException("Driver " + driver.getClass().getName() + " does not accept URL " + jdbcUrl);
+            }
             logger.info(String.format(
                     "Successfully connected to MySQL database at %s:%d/%s",
                     config.getHost(),